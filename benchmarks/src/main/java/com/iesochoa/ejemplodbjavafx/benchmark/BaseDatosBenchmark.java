@@ -0,0 +1,82 @@
+package com.iesochoa.ejemplodbjavafx.benchmark;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.MigracionesBD;
+import com.iesochoa.ejemplodbjavafx.db.PoolConfig;
+import com.iesochoa.ejemplodbjavafx.generador.GeneradorDatos;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Prepara la base de datos H2 en memoria sobre la que se ejecutan los benchmarks.
+ * Crea las tablas con las mismas migraciones que la base de datos de la aplicación y las rellena
+ * con {@link GeneradorDatos} con una semilla fija, para que todas las ejecuciones midan exactamente los mismos datos.
+ */
+public final class BaseDatosBenchmark {
+    /**
+     * Número de departamentos que se crean.
+     */
+    public static final int DEPARTAMENTOS = 20;
+    /**
+     * Semilla de los datos generados.
+     */
+    public static final long SEMILLA = 42;
+
+    private static GeneradorDatos generador;
+
+    private BaseDatosBenchmark() {
+    }
+
+    /**
+     * Devuelve la configuración de una base de datos H2 en memoria con compatibilidad MySQL.
+     *
+     * @param nombre El nombre de la base de datos (cada nombre es una base de datos distinta).
+     * @return La configuración del pool.
+     */
+    public static PoolConfig configuracion(String nombre) {
+        return new PoolConfig("jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=FALSE", "sa", "");
+    }
+
+    /**
+     * Configura {@link DBConnection} con la configuración indicada, crea las tablas y las rellena.
+     * También vacía las cachés de los DAO para que no conserven datos de una ejecución anterior.
+     *
+     * @param config    La configuración del pool.
+     * @param empleados El número de empleados a crear.
+     * @throws SQLException Si ocurre un error al crear los datos.
+     */
+    public static void crear(PoolConfig config, int empleados) throws SQLException {
+        DBConnection.configurar(config);
+        try (Connection connection = DBConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            MigracionesBD.migrar(connection);
+        }
+        generador = new GeneradorDatos(SEMILLA, DEPARTAMENTOS, empleados);
+        generador.setHilos(Math.min(generador.getHilos(), config.getTamanoMaximo()));
+        generador.generar();
+    }
+
+    /**
+     * Devuelve el DNI de uno de los empleados creados por {@link #crear(PoolConfig, int)}.
+     *
+     * @param indice La posición del empleado, entre 0 y el número de empleados (excluido).
+     * @return El DNI.
+     */
+    public static String dniEmpleado(int indice) {
+        return generador.dni(indice);
+    }
+
+    /**
+     * Devuelve un DNI válido (8 dígitos y letra de control) a partir de un número.
+     * Los números desde {@link GeneradorDatos#RANGO_DNI} no los usa ningún empleado creado.
+     *
+     * @param numero Un número entre 0 y 99.999.999.
+     * @return El DNI.
+     */
+    public static String dni(int numero) {
+        return GeneradorDatos.dniDeNumero(numero);
+    }
+}
@@ -0,0 +1,61 @@
+package com.iesochoa.ejemplodbjavafx.benchmark;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+import com.iesochoa.ejemplodbjavafx.db.PoolConfig;
+import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el efecto de la caché de sentencias preparadas del pool ({@link PoolConfig#getTamanoCacheSentencias()})
+ * en una consulta corta que se repite mucho: la búsqueda de un empleado por DNI, que no pasa por la caché
+ * de entidades. Con {@code tamanoCacheSentencias=0} cada llamada prepara la sentencia de nuevo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheSentenciasBenchmark {
+    private static final int EMPLEADOS = 10_000;
+
+    @Param({"0", "64"})
+    public int tamanoCacheSentencias;
+
+    private EmpleadoDAO dao;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        PoolConfig config = BaseDatosBenchmark.configuracion("sentencias");
+        config.setTamanoCacheSentencias(tamanoCacheSentencias);
+        BaseDatosBenchmark.crear(config, EMPLEADOS);
+        dao = EmpleadoDAO.getInstance();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        DBConnection.closeConnection();
+    }
+
+    @Benchmark
+    public Empleado selectEmpleadoPorDNI() throws SQLException {
+        return dao.selectEmpleadoPorDNI(BaseDatosBenchmark.dniEmpleado(ThreadLocalRandom.current().nextInt(EMPLEADOS)));
+    }
+}
@@ -0,0 +1,171 @@
+package com.iesochoa.ejemplodbjavafx.benchmark;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+import com.iesochoa.ejemplodbjavafx.db.SqlCallable;
+import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import com.iesochoa.ejemplodbjavafx.service.DataServiceVirtual;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara cómo se reparten muchas llamadas a los DAO a la vez según el tipo de hilo:
+ * <ul>
+ *     <li>{@code plataforma}: un pool fijo de hilos del sistema, tantos como conexiones (como {@code DataService});</li>
+ *     <li>{@code plataformaPorTarea}: un hilo del sistema nuevo por llamada, limitado por un semáforo;</li>
+ *     <li>{@code virtual}: un hilo virtual por llamada con {@link DataServiceVirtual}.</li>
+ * </ul>
+ * Cada operación lanza {@code concurrencia} llamadas y espera a todas, así que el rendimiento se mide en lotes.
+ * H2 en memoria responde sin red; {@code latenciaMs} simula el tiempo que cada llamada pasa bloqueada
+ * esperando E/S, que es cuando los hilos virtuales aportan algo. La espera ocurre dentro del driver, con una
+ * conexión prestada, como una consulta lenta: cada llamada lanza antes {@code SELECT SLEEP(?)}, que en H2 es
+ * un alias de {@link #dormir(double)}. Así, si el driver bloquea el hilo dentro de un {@code synchronized},
+ * los hilos virtuales quedan anclados a su hilo portador y el benchmark lo refleja.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class ConcurrenciaBenchmark {
+    private static final int EMPLEADOS = 100_000;
+    private static final int FILAS_POR_LLAMADA = 20;
+    private static final String CREATE_ALIAS_SLEEP =
+            "CREATE ALIAS IF NOT EXISTS SLEEP FOR '" + ConcurrenciaBenchmark.class.getName() + ".dormir'";
+    private static final String SELECT_SLEEP = "SELECT SLEEP(?)";
+
+    @Param({"plataforma", "plataformaPorTarea", "virtual"})
+    public String hilos;
+
+    /**
+     * Llamadas que se lanzan a la vez en cada operación.
+     */
+    @Param({"10", "100", "1000"})
+    public int concurrencia;
+
+    /**
+     * Milisegundos que cada llamada pasa bloqueada simulando la espera de E/S.
+     */
+    @Param({"0", "5"})
+    public int latenciaMs;
+
+    private EmpleadoDAO dao;
+    private ExecutorService poolFijo;
+    private ExecutorService hiloPorTarea;
+    private Semaphore permisos;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        BaseDatosBenchmark.crear(BaseDatosBenchmark.configuracion("concurrencia"), EMPLEADOS);
+        try (Connection connection = DBConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_ALIAS_SLEEP);
+        }
+        dao = EmpleadoDAO.getInstance();
+        int conexiones = DBConnection.getPool().getConfig().getTamanoMaximo();
+        poolFijo = Executors.newFixedThreadPool(conexiones);
+        hiloPorTarea = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().factory());
+        permisos = new Semaphore(conexiones, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        poolFijo.shutdownNow();
+        hiloPorTarea.shutdownNow();
+        DBConnection.closeConnection();
+    }
+
+    @Benchmark
+    public int llamadasConcurrentes() throws Exception {
+        List<SqlCallable<List<Empleado>>> llamadas = new ArrayList<>(concurrencia);
+        for (int i = 0; i < concurrencia; i++) {
+            llamadas.add(this::llamada);
+        }
+        List<List<Empleado>> resultados = switch (hilos) {
+            case "plataforma" -> ejecutar(poolFijo, llamadas, null);
+            case "plataformaPorTarea" -> ejecutar(hiloPorTarea, llamadas, permisos);
+            default -> DataServiceVirtual.getInstance().ejecutarTodas(llamadas);
+        };
+        return resultados.size();
+    }
+
+    private List<Empleado> llamada() throws SQLException {
+        if (latenciaMs > 0) {
+            esperarEnLaBaseDatos();
+        }
+        return dao.listEmpleadosAfter(ThreadLocalRandom.current().nextInt(EMPLEADOS), FILAS_POR_LLAMADA);
+    }
+
+    // Bloquea el hilo dentro del driver durante latenciaMs, con una conexión del pool prestada
+    private void esperarEnLaBaseDatos() throws SQLException {
+        try (Connection connection = DBConnection.getConnectionLectura();
+             PreparedStatement ps = connection.prepareStatement(SELECT_SLEEP)) {
+            ps.setDouble(1, latenciaMs / 1000.0);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+
+    /**
+     * Función {@code SLEEP} de H2, con la misma firma que la de MySQL: espera los segundos indicados y devuelve 0.
+     *
+     * @param segundos Los segundos que se espera.
+     * @return Siempre 0.
+     * @throws InterruptedException Si se interrumpe el hilo durante la espera.
+     */
+    public static int dormir(double segundos) throws InterruptedException {
+        Thread.sleep(Math.round(segundos * 1000));
+        return 0;
+    }
+
+    private static <T> List<T> ejecutar(ExecutorService executor, List<SqlCallable<T>> llamadas, Semaphore permisos)
+            throws InterruptedException, ExecutionException {
+        List<Future<T>> futuros = new ArrayList<>(llamadas.size());
+        for (SqlCallable<T> llamada : llamadas) {
+            futuros.add(executor.submit(() -> {
+                if (permisos == null) {
+                    return llamada.call();
+                }
+                permisos.acquire();
+                try {
+                    return llamada.call();
+                } finally {
+                    permisos.release();
+                }
+            }));
+        }
+        List<T> resultados = new ArrayList<>(futuros.size());
+        for (Future<T> futuro : futuros) {
+            resultados.add(futuro.get());
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,64 @@
+package com.iesochoa.ejemplodbjavafx.benchmark;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.DepartamentoDAO;
+import com.iesochoa.ejemplodbjavafx.model.Departamento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de {@link DepartamentoDAO#listAllDepartamentos()}: la consulta con los jefes
+ * (vaciando la caché en cada llamada) y la lectura desde la caché de departamentos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class DepartamentoDAOBenchmark {
+    /**
+     * Número de empleados de la base de datos (afecta al JOIN con los jefes).
+     */
+    @Param({"1000", "100000", "1000000"})
+    public int empleados;
+
+    private DepartamentoDAO dao;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        BaseDatosBenchmark.crear(BaseDatosBenchmark.configuracion("departamentos" + empleados), empleados);
+        dao = DepartamentoDAO.getInstance();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        DBConnection.closeConnection();
+    }
+
+    @Benchmark
+    public List<Departamento> listAllDepartamentos() throws SQLException {
+        dao.invalidarCache();
+        return dao.listAllDepartamentos();
+    }
+
+    @Benchmark
+    public List<Departamento> listAllDepartamentosEnCache() throws SQLException {
+        return dao.listAllDepartamentos();
+    }
+}
@@ -0,0 +1,37 @@
+package com.iesochoa.ejemplodbjavafx.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Punto de entrada del jar de benchmarks. Acepta las mismas opciones que JMH
+ * (por ejemplo {@code -p empleados=1000} o un patrón con los benchmarks a ejecutar)
+ * y añade siempre el perfilador de memoria ({@code gc}), que informa de la tasa de asignación
+ * por operación ({@code gc.alloc.rate.norm}).
+ */
+public class EjecutarBenchmarks {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions lineaComandos = new CommandLineOptions(args);
+        if (lineaComandos.shouldHelp()) {
+            lineaComandos.showHelp();
+            return;
+        }
+        if (lineaComandos.shouldList()) {
+            new Runner(lineaComandos).list();
+            return;
+        }
+        Options opciones = new OptionsBuilder()
+                .parent(lineaComandos)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.iesochoa.ejemplodbjavafx.benchmark;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks de las consultas de {@link EmpleadoDAO} con distintos volúmenes de empleados.
+ * Se miden en modo rendimiento, tiempo medio y muestreo (este último da los percentiles p50/p99).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class EmpleadoDAOBenchmark {
+    /**
+     * Número de empleados de la base de datos.
+     */
+    @Param({"1000", "100000", "1000000"})
+    public int empleados;
+
+    private EmpleadoDAO dao;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        BaseDatosBenchmark.crear(BaseDatosBenchmark.configuracion("empleados" + empleados), empleados);
+        dao = EmpleadoDAO.getInstance();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        DBConnection.closeConnection();
+    }
+
+    @Benchmark
+    public List<Empleado> listAllEmpleados() throws SQLException {
+        return dao.listAllEmpleados();
+    }
+
+    /**
+     * Búsqueda por ID de un empleado al azar. Incluye el efecto de la caché de empleados:
+     * con pocos empleados casi todas las búsquedas se resuelven en memoria.
+     */
+    @Benchmark
+    public Empleado selectEmpleadoPorId() throws SQLException {
+        return dao.selectEmpleadoPorId(1 + ThreadLocalRandom.current().nextInt(empleados));
+    }
+
+    /**
+     * Búsqueda por una parte del nombre o apellido. Un {@code LIKE '%...%'} no puede buscar en un índice:
+     * recorre entero el índice de apellido y nombre (no la tabla) y lee por clave primaria las filas que coinciden.
+     */
+    @Benchmark
+    public List<Empleado> selectEmpleadosPorNombre() throws SQLException {
+        return dao.selectEmpleadosPorNombre("rtín");
+    }
+}
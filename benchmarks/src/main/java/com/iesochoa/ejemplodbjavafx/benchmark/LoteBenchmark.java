@@ -0,0 +1,116 @@
+package com.iesochoa.ejemplodbjavafx.benchmark;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+import com.iesochoa.ejemplodbjavafx.db.ResultadoLote;
+import com.iesochoa.ejemplodbjavafx.model.Departamento;
+import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la inserción de empleados fila a fila ({@link EmpleadoDAO#createEmpleado(Empleado)})
+ * con la inserción por lotes ({@link EmpleadoDAO#createEmpleados(java.util.Collection, int)}).
+ * Los resultados se expresan por empleado insertado.
+ * <p>
+ * En H2 embebido no hay latencia de red, así que la diferencia es menor que contra un servidor MySQL,
+ * donde cada fila insertada por separado supone un viaje de ida y vuelta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoteBenchmark {
+    /**
+     * Empleados que se insertan en cada invocación.
+     */
+    private static final int FILAS = 1_000;
+    /**
+     * Empleados iniciales de la base de datos.
+     */
+    private static final int EMPLEADOS_INICIALES = 10_000;
+
+    /**
+     * Tamaño de lote de la inserción por lotes.
+     */
+    @Param({"100", "1000"})
+    public int tamanoLote;
+
+    private EmpleadoDAO dao;
+    private Departamento departamento;
+    /**
+     * Siguiente número de DNI libre: los DNI no se repiten entre invocaciones.
+     */
+    private int siguienteDni = 50_000_000;
+
+    @Setup(Level.Trial)
+    public void preparar() throws SQLException {
+        BaseDatosBenchmark.crear(BaseDatosBenchmark.configuracion("lotes"), EMPLEADOS_INICIALES);
+        dao = EmpleadoDAO.getInstance();
+        departamento = new Departamento(1, "Departamento 1", null);
+    }
+
+    /**
+     * Borra los empleados insertados en la iteración para que la tabla no crezca sin límite.
+     */
+    @TearDown(Level.Iteration)
+    public void limpiar() throws SQLException {
+        try (Connection connection = DBConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM Empleado WHERE id > " + EMPLEADOS_INICIALES);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        DBConnection.closeConnection();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public int insertarFilaAFila() throws SQLException {
+        int insertados = 0;
+        for (Empleado empleado : nuevosEmpleados()) {
+            if (dao.createEmpleado(empleado)) {
+                insertados++;
+            }
+        }
+        return insertados;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public ResultadoLote<Empleado> insertarEnLote() throws SQLException {
+        return dao.createEmpleados(nuevosEmpleados(), tamanoLote);
+    }
+
+    private List<Empleado> nuevosEmpleados() {
+        List<Empleado> lista = new ArrayList<>(FILAS);
+        for (int i = 0; i < FILAS; i++) {
+            int numero = siguienteDni++;
+            lista.add(new Empleado(0, BaseDatosBenchmark.dni(numero), "Nombre", "Apellido", 30, departamento));
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,99 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide solo la conversión de filas a {@link Empleado} ({@link EmpleadoDAO#resultSetToEmpleado(ResultSet)}),
+ * sin base de datos: las filas se leen de un {@link ResultSet} en memoria. Está en el paquete {@code db}
+ * porque el método es visible solo dentro del paquete.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeoEmpleadoBenchmark {
+    private static final int FILAS = 1_000;
+    private static final int DEPARTAMENTOS = 20;
+    private static final String[] COLUMNAS = {"id", "dni", "nombre", "apellido", "edad", "version",
+            "codigo_departamento", "nombre_departamento", "version_departamento"};
+
+    private Object[][] filas;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        filas = new Object[FILAS][];
+        for (int i = 0; i < FILAS; i++) {
+            int departamento = 1 + i % DEPARTAMENTOS;
+            filas[i] = new Object[]{i + 1, String.format("%08dX", i), "Nombre" + i, "Apellido" + i, 18 + i % 50, 1,
+                    // Una de cada diez filas no tiene departamento.
+                    i % 10 == 0 ? null : departamento, i % 10 == 0 ? null : "Departamento " + departamento,
+                    i % 10 == 0 ? null : 1};
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public void resultSetToEmpleado(Blackhole blackhole) throws SQLException {
+        ResultSet rs = resultSetEnMemoria(filas);
+        while (rs.next()) {
+            blackhole.consume(EmpleadoDAO.resultSetToEmpleado(rs));
+        }
+    }
+
+    /**
+     * Crea un {@link ResultSet} de solo avance sobre las filas indicadas. Implementa únicamente los métodos
+     * que usa la conversión ({@code next}, {@code getInt}, {@code getString}, {@code getObject} y {@code wasNull}).
+     */
+    private static ResultSet resultSetEnMemoria(Object[][] filas) {
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < COLUMNAS.length; i++) {
+            indices.put(COLUMNAS[i], i);
+        }
+        int[] fila = {-1};
+        boolean[] nulo = {false};
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return ++fila[0] < filas.length;
+                        case "wasNull":
+                            return nulo[0];
+                        case "getInt":
+                        case "getString":
+                        case "getObject":
+                            Object valor = filas[fila[0]][indices.get((String) args[0])];
+                            nulo[0] = valor == null;
+                            if (method.getName().equals("getInt")) {
+                                return valor == null ? 0 : (Integer) valor;
+                            }
+                            return valor;
+                        case "close":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -1,16 +1,37 @@
 package com.iesochoa.ejemplodbjavafx;
 
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.EsquemaIncompatibleException;
+import com.iesochoa.ejemplodbjavafx.service.SincronizadorCambios;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
 import java.io.IOException;
 
 public class EjemploDBJavaFx extends Application {
+    /**
+     * Crea la aplicación; la arranca {@link javafx.application.Application#launch}.
+     */
+    public EjemploDBJavaFx() {
+    }
+
     @Override
     public void start(Stage stage) throws IOException {
+        // Si el esquema de la base de datos no es el que esperan los DAO, no se arranca.
+        try {
+            DBConnection.getPool();
+        } catch (EsquemaIncompatibleException e) {
+            Alert alert = new Alert(Alert.AlertType.ERROR, e.getMessage());
+            alert.setHeaderText("No se puede usar la base de datos");
+            alert.showAndWait();
+            Platform.exit();
+            return;
+        }
         FXMLLoader fxmlLoader = new FXMLLoader(EjemploDBJavaFx.class.getResource("views/inicio-view.fxml"));
         Scene scene = new Scene(fxmlLoader.load());
         stage.setTitle("IES Severo Ochoa");
@@ -20,6 +41,13 @@ public class EjemploDBJavaFx extends Application {
         Image icon = new Image(getClass().getResourceAsStream("images/icon.png"));
         stage.getIcons().add(icon);
         stage.show();
+        // Lee en segundo plano los cambios de otros equipos para mantener al día las tablas abiertas.
+        SincronizadorCambios.getInstance().iniciar(DBConnection.getIntervaloSincronizacionMs());
+    }
+
+    @Override
+    public void stop() {
+        SincronizadorCambios.getInstance().detener();
     }
 
     public static void main(String[] args) {
@@ -1,9 +1,11 @@
 package com.iesochoa.ejemplodbjavafx.controller;
 
 import com.iesochoa.ejemplodbjavafx.EjemploDBJavaFx;
+import com.iesochoa.ejemplodbjavafx.db.ConflictoVersionException;
 import com.iesochoa.ejemplodbjavafx.db.DepartamentoDAO;
 import com.iesochoa.ejemplodbjavafx.model.Departamento;
 import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import com.iesochoa.ejemplodbjavafx.service.DataService;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -31,6 +33,10 @@ public class DepartamentoController implements Initializable {
      * Puede ser {@code null} si se está creando un nuevo departamento.
      */
     private Departamento departamento;
+    /**
+     * El departamento creado o modificado al guardar, o {@code null} si la ventana se cierra sin guardar.
+     */
+    private Departamento departamentoGuardado;
     /**
      * El empleado que se asignará como jefe del departamento.
      */
@@ -84,6 +90,12 @@ public class DepartamentoController implements Initializable {
     @FXML
     private TextField tfNombre;
 
+    /**
+     * Crea el controlador; lo instancia el {@code FXMLLoader} al cargar la vista.
+     */
+    public DepartamentoController() {
+    }
+
     /**
      * Método invocado al hacer clic en el botón para buscar y seleccionar un jefe para el departamento.
      * Abre una ventana modal que muestra la lista de empleados y permite seleccionar uno para asignarlo como jefe.
@@ -133,22 +145,28 @@ public class DepartamentoController implements Initializable {
     void onClickGuardar(ActionEvent event) {
         // Verifica si los datos introducidos por el usuario son correctos.
         if (datosCorrectos()) {
-            try {
-                // Si se está editando un departamento existente.
-                if (departamento != null) {
-                    departamento.setNombre(tfNombre.getText()); // Actualiza el nombre del departamento.
-                    departamento.setJefe(jefe); // Actualiza el jefe del departamento.
-                    departamentoDAO.updateDepartamento(departamento); // Guarda los cambios en la base de datos.
-                    cerrar(); // Cierra la ventana actual.
-                } else {// Si se está creando un nuevo departamento.
-                    departamento = new Departamento(0, tfNombre.getText(), jefe); // Crea un nuevo objeto Departamento.
-                    departamentoDAO.createDepartamento(departamento); // Guarda el nuevo departamento en la base de datos.
-                    cerrar(); // Cierra la ventana actual.
-                }
-            } catch (Exception e) {
-                // Muestra un mensaje de error si ocurre algún problema al crear o actualizar el departamento.
-                lbError.setText("Error al crear el departamento");
+            boolean esNuevo = departamento == null;
+            // Si se está creando un nuevo departamento, crea un nuevo objeto Departamento.
+            Departamento datos = esNuevo ? new Departamento(0, tfNombre.getText(), jefe) : departamento;
+            if (!esNuevo) {
+                departamento.setNombre(tfNombre.getText()); // Actualiza el nombre del departamento.
+                departamento.setJefe(jefe); // Actualiza el jefe del departamento.
             }
+            // Guarda los cambios en la base de datos en segundo plano.
+            DataService.getInstance().ejecutar(
+                    () -> esNuevo ? departamentoDAO.createDepartamento(datos) : departamentoDAO.updateDepartamento(datos),
+                    guardado -> {
+                        departamento = datos;
+                        if (guardado) {
+                            departamentoGuardado = datos;
+                        }
+                        cerrar(); // Cierra la ventana actual.
+                    },
+                    // Muestra un mensaje de error si ocurre algún problema al crear o actualizar el departamento.
+                    error -> lbError.setText(error instanceof ConflictoVersionException
+                            ? "Otro usuario ha modificado el departamento: vuelva a abrirlo"
+                            : "Error al crear el departamento")
+            );
         }
     }
 
@@ -186,6 +204,16 @@ public class DepartamentoController implements Initializable {
         stage.close();
     }
 
+    /**
+     * Devuelve el departamento creado o modificado en esta ventana, para que la lista que la abrió
+     * lo actualice sin volver a cargar todos los departamentos.
+     *
+     * @return El departamento guardado (con su código), o {@code null} si no se ha guardado nada.
+     */
+    public Departamento getDepartamentoGuardado() {
+        return departamentoGuardado;
+    }
+
     /**
      * Método llamado para inicializar el controlador después de que su nodo raíz
      * haya sido completamente procesado. Actualmente no realiza ninguna acción específica.
@@ -1,10 +1,14 @@
 package com.iesochoa.ejemplodbjavafx.controller;
 
 import com.iesochoa.ejemplodbjavafx.EjemploDBJavaFx;
+import com.iesochoa.ejemplodbjavafx.db.CambioListener;
 import com.iesochoa.ejemplodbjavafx.db.DepartamentoDAO;
 import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
 import com.iesochoa.ejemplodbjavafx.model.Departamento;
 import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import com.iesochoa.ejemplodbjavafx.service.CargaTabla;
+import com.iesochoa.ejemplodbjavafx.service.DataService;
+import com.iesochoa.ejemplodbjavafx.service.SincronizadorCambios;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -22,7 +26,7 @@ import javafx.stage.Stage;
 
 import java.io.IOException;
 import java.net.URL;
-import java.sql.SQLException;
+import java.util.List;
 import java.util.ResourceBundle;
 
 /**
@@ -40,6 +44,31 @@ public class DepartamentosController implements Initializable {
      * utilizada para interactuar con la base de datos.
      */
     private DepartamentoDAO departamentoDAO = DepartamentoDAO.getInstance();
+    /**
+     * Gestor de las cargas en segundo plano de la tabla de departamentos.
+     */
+    private CargaTabla<Departamento> cargaDepartamentos;
+    /**
+     * Aplica a la tabla, sin recargarla, los departamentos cambiados desde otros equipos
+     * (ver {@link SincronizadorCambios}). Se guarda en un campo porque el sincronizador solo lo mantiene
+     * mientras exista esta pantalla.
+     */
+    private final CambioListener<Departamento> cambiosRemotos = new CambioListener<>() {
+        @Override
+        public void guardado(Departamento departamento) {
+            actualizarFila(departamento);
+        }
+
+        @Override
+        public void borrado(int codigo) {
+            quitarFila(codigo);
+        }
+
+        @Override
+        public void invalidado() {
+            cargaDepartamentos.cargar(() -> departamentoDAO.listAllDepartamentos(), DepartamentosController.this::mostrarDepartamentos);
+        }
+    };
 
     /**
      * Imagen utilizada como botón para crear un nuevo departamento.
@@ -95,6 +124,12 @@ public class DepartamentosController implements Initializable {
     @FXML
     private TableColumn<Departamento, String> tcJefe;
 
+    /**
+     * Crea el controlador; lo instancia el {@code FXMLLoader} al cargar la vista.
+     */
+    public DepartamentosController() {
+    }
+
     /**
      * Inicializa la TableView de departamentos, configurando las columnas para mostrar
      * las propiedades de la clase {@link Departamento} y cargando todos los departamentos
@@ -118,14 +153,13 @@ public class DepartamentosController implements Initializable {
                                 "Sin jefe"
                 )
         );
-        try {
-            // Carga todos los departamentos desde la base de datos y los añade a la lista observable.
-            listaDepartamentos.addAll(departamentoDAO.listAllDepartamentos());
-        } catch (SQLException e) {
-            System.err.println(e.getMessage());
-        }
         // Asigna la lista observable a la TableView para mostrar los datos.
         tvDepartamentos.setItems(listaDepartamentos);
+        // Carga todos los departamentos desde la base de datos en segundo plano.
+        cargaDepartamentos = new CargaTabla<>(tvDepartamentos);
+        cargaDepartamentos.cargar(() -> departamentoDAO.listAllDepartamentos(), this::mostrarDepartamentos);
+        // Los cambios que hagan otros equipos se aplican a la tabla según llegan.
+        SincronizadorCambios.getInstance().addDepartamentosListener(cambiosRemotos);
         // Asigna un evento de doble clic a la TableView.
         tvDepartamentos.setOnMouseClicked(event -> {
             System.out.println(event.getClickCount());
@@ -165,21 +199,77 @@ public class DepartamentosController implements Initializable {
 
     /**
      * Realiza la eliminación del departamento seleccionado de la base de datos
-     * y actualiza la TableView.
+     * y lo quita de la TableView, sin recargar el resto de departamentos.
      *
      * @param departamento El departamento a borrar.
      */
     private void borrarDepartamento(Departamento departamento) {
-        try {
-            departamentoDAO.deleteDepartamento(departamento.getCodigo());
+        DataService.getInstance().ejecutar(
+                () -> departamentoDAO.deleteDepartamento(departamento.getCodigo()),
+                borrado -> {
+                    if (borrado) {
+                        quitarFila(departamento.getCodigo());
+                    } else {
+                        System.err.println("No se pudo borrar el departamento " + departamento.getCodigo());
+                    }
+                },
+                error -> System.err.println(error.getMessage())
+        );
+    }
 
-            listaDepartamentos = FXCollections.observableArrayList(
-                    departamentoDAO.listAllDepartamentos()
-            );
-            tvDepartamentos.setItems(listaDepartamentos);
-        } catch (SQLException e) {
-            System.err.println(e.getMessage());
+    /**
+     * Actualiza la fila de un departamento guardado en la ventana de edición: la sustituye si ya estaba
+     * en la tabla o la añade si es nuevo. Se conservan la selección y el orden de la tabla.
+     *
+     * @param guardado El departamento creado o modificado.
+     */
+    private void actualizarFila(Departamento guardado) {
+        int indice = indiceDepartamento(guardado.getCodigo());
+        if (indice >= 0) {
+            boolean seleccionado = tvDepartamentos.getSelectionModel().getSelectedIndex() == indice;
+            listaDepartamentos.set(indice, guardado);
+            if (seleccionado) {
+                tvDepartamentos.getSelectionModel().select(guardado);
+            }
+        } else {
+            listaDepartamentos.add(guardado);
         }
+        tvDepartamentos.sort();
+    }
+
+    /**
+     * Quita de la tabla la fila del departamento indicado.
+     *
+     * @param codigo El código del departamento.
+     */
+    private void quitarFila(int codigo) {
+        int indice = indiceDepartamento(codigo);
+        if (indice >= 0) {
+            listaDepartamentos.remove(indice);
+        }
+    }
+
+    /**
+     * Posición en la tabla del departamento con el código indicado, o -1 si no está.
+     */
+    private int indiceDepartamento(int codigo) {
+        for (int i = 0; i < listaDepartamentos.size(); i++) {
+            if (listaDepartamentos.get(i).getCodigo() == codigo) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Muestra en la TableView los departamentos recibidos. Se invoca en el hilo de JavaFX
+     * cuando termina una carga en segundo plano.
+     *
+     * @param departamentos Los departamentos a mostrar.
+     */
+    private void mostrarDepartamentos(List<Departamento> departamentos) {
+        listaDepartamentos = FXCollections.observableArrayList(departamentos);
+        tvDepartamentos.setItems(listaDepartamentos);
     }
 
     /**
@@ -236,7 +326,7 @@ public class DepartamentosController implements Initializable {
     /**
      * Abre la ventana para crear un nuevo departamento o para editar los detalles de un departamento existente.
      * La ventana se carga desde el archivo FXML 'departamento-view.fxml' y se muestra de forma modal.
-     * Después de cerrar la ventana, se actualiza la lista de departamentos en la TableView.
+     * Después de cerrar la ventana, se actualiza en la TableView solo el departamento guardado.
      *
      * @param departamento El departamento a editar (puede ser {@code null} para crear un nuevo departamento).
      */
@@ -265,11 +355,10 @@ public class DepartamentosController implements Initializable {
             stage.setResizable(false);
             // Define un evento que se ejecuta al cerrar la ventana de edición.
             stage.setOnHidden(event -> {
-                // Al cerrar la ventana, se actualiza la lista de departamentos en la TableView.
-                try {
-                    tvDepartamentos.setItems(FXCollections.observableArrayList(departamentoDAO.listAllDepartamentos()));
-                } catch (SQLException e) {
-                    throw new RuntimeException(e);
+                // Al cerrar la ventana, se actualiza en la TableView el departamento guardado (si se guardó).
+                Departamento guardado = departamentoController.getDepartamentoGuardado();
+                if (guardado != null) {
+                    actualizarFila(guardado);
                 }
             });
             // Asigna la escena al Stage y muestra la ventana modal, esperando a que se cierre.
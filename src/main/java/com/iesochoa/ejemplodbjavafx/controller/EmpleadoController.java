@@ -1,12 +1,16 @@
 package com.iesochoa.ejemplodbjavafx.controller;
 
+import com.iesochoa.ejemplodbjavafx.db.ConflictoVersionException;
 import com.iesochoa.ejemplodbjavafx.db.DepartamentoDAO;
 import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
 import com.iesochoa.ejemplodbjavafx.model.Departamento;
 import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import com.iesochoa.ejemplodbjavafx.service.DataService;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
@@ -14,8 +18,6 @@ import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 
 import java.net.URL;
-import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.ResourceBundle;
 
 /**
@@ -29,6 +31,10 @@ public class EmpleadoController implements Initializable {
      * Puede ser {@code null} si se está creando un nuevo empleado.
      */
     Empleado empleado;
+    /**
+     * El empleado creado o modificado al guardar, o {@code null} si la ventana se cierra sin guardar.
+     */
+    private Empleado empleadoGuardado;
     /**
      * Instancia del Data Access Object para la entidad Empleado,
      * utilizada para interactuar con la base de datos.
@@ -89,6 +95,12 @@ public class EmpleadoController implements Initializable {
     @FXML
     private Label lbTitulo;
 
+    /**
+     * Crea el controlador; lo instancia el {@code FXMLLoader} al cargar la vista.
+     */
+    public EmpleadoController() {
+    }
+
     /**
      * Método invocado al hacer clic en el botón de guardar.
      * Valida los datos introducidos por el usuario y, si son correctos,
@@ -107,34 +119,85 @@ public class EmpleadoController implements Initializable {
                 departamento = null;
             }
 
-            try {
-                // Si se está editando un empleado existente.
-                if (empleado != null) {
-                    // Crea un nuevo objeto Empleado con los datos actualizados.
-                    empleado = new Empleado(empleado.getId(), tfDni.getText(), tfNombre.getText(), tfApellidos.getText(), Integer.parseInt(tfEdad.getText()), departamento);
-                    // Actualiza el empleado en la base de datos.
-                    empleadoDAO.updateEmpleado(empleado);
+            // Crea un objeto Empleado con los datos del formulario (id 0 si es nuevo).
+            boolean esNuevo = empleado == null;
+            Empleado datos = new Empleado(esNuevo ? 0 : empleado.getId(), tfDni.getText(), tfNombre.getText(), tfApellidos.getText(), Integer.parseInt(tfEdad.getText()), departamento);
+            // La versión leída permite detectar si otro usuario lo ha modificado mientras tanto.
+            datos.setVersion(esNuevo ? 0 : empleado.getVersion());
+            // Guarda en segundo plano para no bloquear la interfaz.
+            DataService.getInstance().ejecutar(() -> {
+                // Si se está editando un empleado existente, lo actualiza en la base de datos.
+                if (!esNuevo) {
+                    return empleadoDAO.updateEmpleado(datos);
+                }
+                //si es nuevo comprobamos si existe
+                if (empleadoDAO.selectEmpleadoPorDNI(datos.getDni()) != null) {
+                    return false;
+                }
+                //creamos el nuevo empleado
+                return empleadoDAO.createEmpleado(datos);
+            }, guardado -> {
+                if (guardado) {
+                    empleado = datos;
+                    empleadoGuardado = datos;
                     // Cierra la ventana actual.
                     cerrar();
-                    // Si se está creando un nuevo empleado.
-                } else if (empleadoDAO.selectEmpleadoPorDNI(tfDni.getText()) != null) {//si es nuevo comprobamos si existe
+                } else if (esNuevo) {
                     // Si ya existe un empleado con el mismo DNI, muestra un mensaje de error.
                     lbError.setText("El empleado ya existe");
-                } else {//creamo el nuevo empleado
-                    // Crea un nuevo objeto Empleado.
-                    empleado = new Empleado(0, tfDni.getText(), tfNombre.getText(), tfApellidos.getText(), Integer.parseInt(tfEdad.getText()), departamento);
-                    // Guarda el nuevo empleado en la base de datos.
-                    empleadoDAO.createEmpleado(empleado);
-                    // Cierra la ventana actual.
-                    cerrar();
+                } else {
+                    lbError.setText("El empleado ya no existe");
                 }
-            } catch (SQLException e) {
-                // Si ocurre un error al crear o actualizar el empleado, muestra un mensaje de error.
-                lbError.setText("Error al crear el empleado");
-            }
+            }, error -> {
+                if (error instanceof ConflictoVersionException) {
+                    // Otro usuario lo ha modificado después de abrir esta ventana.
+                    preguntarRecargar();
+                } else {
+                    // Si ocurre un error al crear o actualizar el empleado, muestra un mensaje de error.
+                    lbError.setText("Error al crear el empleado");
+                }
+            });
         }
     }
 
+    /**
+     * Avisa de que otro usuario ha modificado el empleado y, si se acepta, muestra sus datos actuales
+     * (descartando los cambios del formulario) para poder repetir la edición sobre ellos.
+     */
+    private void preguntarRecargar() {
+        lbError.setText("Otro usuario ha modificado el empleado");
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Empleado modificado");
+        alert.setHeaderText("Otro usuario ha modificado el empleado");
+        alert.setContentText("¿Quiere recargar sus datos actuales? Se perderán los cambios no guardados.");
+        alert.showAndWait().ifPresent(response -> {
+            if (response == ButtonType.OK) {
+                recargarEmpleado();
+            }
+        });
+    }
+
+    /**
+     * Vuelve a leer el empleado de la base de datos (el DAO ya lo ha descartado de su caché) y lo muestra.
+     * Si mientras tanto lo han borrado, se indica en el mensaje de error.
+     */
+    private void recargarEmpleado() {
+        int id = empleado.getId();
+        DataService.getInstance().ejecutar(
+                () -> empleadoDAO.selectEmpleadoPorId(id),
+                actual -> {
+                    if (actual == null) {
+                        lbError.setText("El empleado ya no existe");
+                    } else {
+                        empleado = actual;
+                        iniciaEmpleado();
+                        lbError.setText("");
+                    }
+                },
+                error -> lbError.setText("Error al recargar el empleado")
+        );
+    }
+
     /**
      * Valida que los datos introducidos por el usuario en los campos de texto
      * y el ComboBox sean correctos y no estén vacíos.
@@ -184,30 +247,31 @@ public class EmpleadoController implements Initializable {
 
     /**
      * Inicializa el ComboBox de departamentos, cargando los departamentos desde la base de datos
-     * y añadiendo una opción por defecto de "Sin Departamento".
+     * en segundo plano y añadiendo una opción por defecto de "Sin Departamento".
      */
     private void iniciaCbDepartamentos() {
-        ArrayList<Departamento> departamentos = null;
-        try {
-            departamentos = DepartamentoDAO.getInstance().listAllDepartamentos();
-            // Crea y añade una opción "Sin Departamento" al inicio de la lista.
-            Departamento todos = new Departamento(0, "Sin Departamento", null);
-            departamentos.add(0, todos);
-            // Añade cada departamento al ComboBox.
-            departamentos.forEach(
-                    departamento -> cbDepartamento.getItems().add(departamento)
-            );
-            // Selecciona la opción "Sin Departamento" por defecto.
-            cbDepartamento.getSelectionModel().select(0);
+        // Crea y añade una opción "Sin Departamento" al inicio de la lista.
+        Departamento todos = new Departamento(0, "Sin Departamento", null);
+        cbDepartamento.getItems().add(todos);
+        // Selecciona la opción "Sin Departamento" por defecto.
+        cbDepartamento.getSelectionModel().select(0);
+        // Añade los departamentos cuando llegan de la base de datos, sin bloquear la interfaz.
+        // Se conserva el valor seleccionado (el departamento del empleado que se edita).
+        DataService.getInstance().ejecutar(
+                () -> DepartamentoDAO.getInstance().listAllDepartamentos(),
+                departamentos -> {
+                    Departamento seleccionado = cbDepartamento.getValue();
+                    cbDepartamento.getItems().addAll(departamentos);
+                    cbDepartamento.setValue(seleccionado);
+                },
+                error -> lbError.setText("Error al cargar los departamentos")
+        );
 
-            // Define una acción al seleccionar un departamento (actualmente comentado).
-            cbDepartamento.setOnAction(event -> {
-                Departamento departamento = cbDepartamento.getValue();
-                /* echo: por terminar*/
-            });
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        // Define una acción al seleccionar un departamento (actualmente comentado).
+        cbDepartamento.setOnAction(event -> {
+            Departamento departamento = cbDepartamento.getValue();
+            /* echo: por terminar*/
+        });
 
     }
 
@@ -220,6 +284,16 @@ public class EmpleadoController implements Initializable {
         return empleado;
     }
 
+    /**
+     * Devuelve el empleado creado o modificado en esta ventana, para que la lista que la abrió
+     * lo actualice sin volver a cargar todos los empleados.
+     *
+     * @return El empleado guardado (con su ID), o {@code null} si no se ha guardado nada.
+     */
+    public Empleado getEmpleadoGuardado() {
+        return empleadoGuardado;
+    }
+
     /**
      * Establece el empleado que se va a editar en este controlador
      * y actualiza la interfaz de usuario con sus datos.
@@ -1,13 +1,25 @@
 package com.iesochoa.ejemplodbjavafx.controller;
 
 import com.iesochoa.ejemplodbjavafx.EjemploDBJavaFx;
+import com.iesochoa.ejemplodbjavafx.db.CambioListener;
 import com.iesochoa.ejemplodbjavafx.db.DepartamentoDAO;
 import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+import com.iesochoa.ejemplodbjavafx.db.SqlCallable;
 import com.iesochoa.ejemplodbjavafx.model.Departamento;
 import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import com.iesochoa.ejemplodbjavafx.service.CargaTabla;
+import com.iesochoa.ejemplodbjavafx.service.DataService;
+import com.iesochoa.ejemplodbjavafx.service.IndiceBusquedaEmpleados;
+import com.iesochoa.ejemplodbjavafx.service.InstantaneaEmpleados;
+import com.iesochoa.ejemplodbjavafx.service.ListaEmpleadosPaginada;
+import com.iesochoa.ejemplodbjavafx.service.SincronizadorCambios;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -21,12 +33,15 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.image.ImageView;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.io.IOException;
 import java.net.URL;
-import java.sql.SQLException;
-import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.function.Predicate;
 
 
 /**
@@ -78,9 +93,71 @@ public class EmpleadosController implements Initializable {
     @FXML
     private Button tbBaja;
     /**
-     * Lista observable que contiene los empleados mostrados en la tabla.
+     * Lista observable con los empleados de la tabla. Cuando está cargada la copia en memoria
+     * ({@link InstantaneaEmpleados}) contiene todos los empleados y la tabla muestra una vista filtrada y ordenada.
      */
     private ObservableList<Empleado> listaEmpleados;
+    /**
+     * Vista filtrada de la copia en memoria, o {@code null} mientras la copia no está cargada
+     * (entonces cada filtro se resuelve consultando la base de datos).
+     */
+    private FilteredList<Empleado> empleadosFiltrados;
+    /**
+     * Código del departamento seleccionado (0 para todos).
+     */
+    private int codigoDepartamento;
+    /**
+     * Texto buscado en el nombre y los apellidos (vacío si no se filtra por nombre).
+     */
+    private String textoNombre = "";
+    /**
+     * Texto buscado en el DNI (vacío si no se filtra por DNI).
+     */
+    private String textoDni = "";
+    /**
+     * Gestor de las cargas en segundo plano de la tabla de empleados.
+     */
+    private CargaTabla<Empleado> cargaEmpleados;
+    /**
+     * Condición que cumplen los empleados mostrados: la combinación de los filtros de departamento, nombre y DNI.
+     * Decide si un empleado guardado en la ventana de edición debe aparecer en la tabla.
+     */
+    private Predicate<Empleado> filtro = empleado -> true;
+    /**
+     * Aplica a la tabla, sin recargarla, los empleados cambiados desde otros equipos
+     * (ver {@link SincronizadorCambios}). Se guarda en un campo porque el sincronizador solo lo mantiene
+     * mientras exista esta pantalla.
+     */
+    private final CambioListener<Empleado> cambiosRemotos = new CambioListener<>() {
+        @Override
+        public void creado(Empleado empleado) {
+            actualizarFila(empleado, true);
+        }
+
+        @Override
+        public void guardado(Empleado empleado) {
+            actualizarFila(empleado, false);
+        }
+
+        @Override
+        public void borrado(int id) {
+            quitarFila(id);
+        }
+
+        @Override
+        public void invalidado() {
+            // La copia en memoria también se ha descartado: se vuelve a pedir o se repite la consulta actual.
+            if (empleadosFiltrados != null) {
+                cargarInstantanea();
+            } else {
+                aplicarFiltros();
+            }
+        }
+    };
+    /**
+     * Tiempo que se espera desde la última tecla antes de buscar mientras se escribe.
+     */
+    private static final Duration ESPERA_BUSQUEDA = Duration.millis(200);
 
     /**
      * TableView para mostrar la lista de empleados.
@@ -142,6 +219,12 @@ public class EmpleadosController implements Initializable {
     @FXML
     private TextField tfDNI;
 
+    /**
+     * Crea el controlador; lo instancia el {@code FXMLLoader} al cargar la vista.
+     */
+    public EmpleadosController() {
+    }
+
     /**
      * Método llamado para inicializar el controlador después de que su nodo raíz
      * haya sido completamente procesado.
@@ -153,6 +236,7 @@ public class EmpleadosController implements Initializable {
     public void initialize(URL url, ResourceBundle resourceBundle) {
         iniciaTableViewEmpleados(); // Inicializa la TableView de empleados.
         iniciaCbDepartamentos(); // Inicializa el ComboBox de departamentos.
+        iniciaBusquedaAlEscribir(); // Busca mientras se escribe en los campos de nombre y DNI.
         // Si se ha establecido un callback para la selección de empleados, muestra el botón de selección.
         if (seleccionEmpleadoCallback != null)
             btSeleccionEmpleado.setVisible(true);
@@ -169,19 +253,7 @@ public class EmpleadosController implements Initializable {
      */
     @FXML
     void onClickBuscarPorNombre(ActionEvent event) {
-        ArrayList<Empleado> empleados;
-        try {
-            String nombreBusqueda = tfNombre.getText();
-            if (!nombreBusqueda.isEmpty()) {
-                empleados = EmpleadoDAO.getInstance().selectEmpleadosPorNombre(nombreBusqueda);
-            } else {
-                empleados = EmpleadoDAO.getInstance().listAllEmpleados();
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
-        listaEmpleados = FXCollections.observableArrayList(empleados);
-        tvEmpleados.setItems(listaEmpleados);
+        buscarPorNombre(tfNombre.getText());
     }
 
     /**
@@ -193,21 +265,281 @@ public class EmpleadosController implements Initializable {
      */
     @FXML
     void onClickBuscarPorDNI(ActionEvent event) {
-        ArrayList<Empleado> empleados;
-        try {
-            String dniBusqueda = tfDNI.getText();
-            if (!dniBusqueda.isEmpty()) {
-                empleados = EmpleadoDAO.getInstance().selectEmpleadosPorDNI(dniBusqueda);
+        buscarPorDni(tfDNI.getText());
+    }
+
+    /**
+     * Filtra los empleados cuyo nombre o apellidos contienen el texto indicado,
+     * junto con los filtros de departamento y DNI. Si el texto está vacío, deja de filtrar por nombre.
+     *
+     * @param nombreBusqueda El texto a buscar.
+     */
+    private void buscarPorNombre(String nombreBusqueda) {
+        textoNombre = nombreBusqueda;
+        aplicarFiltros();
+    }
+
+    /**
+     * Filtra los empleados cuyo DNI contiene el texto indicado, junto con los filtros de departamento
+     * y nombre. Si el texto está vacío, deja de filtrar por DNI.
+     *
+     * @param dniBusqueda El texto a buscar.
+     */
+    private void buscarPorDni(String dniBusqueda) {
+        textoDni = dniBusqueda;
+        aplicarFiltros();
+    }
+
+    /**
+     * Combina los filtros de departamento, nombre y DNI en una sola condición.
+     * Las búsquedas de texto usan el índice en memoria si está listo (se comprueba si el ID está
+     * entre los encontrados) y, si no, comparan los textos de cada empleado.
+     *
+     * @return La condición que deben cumplir los empleados mostrados.
+     */
+    private Predicate<Empleado> construirFiltro() {
+        Predicate<Empleado> condicion = empleado -> true;
+        if (codigoDepartamento != 0) {
+            int codigo = codigoDepartamento;
+            condicion = condicion.and(empleado -> empleado.getDepartamento() != null && empleado.getDepartamento().getCodigo() == codigo);
+        }
+        if (!textoNombre.isEmpty()) {
+            String texto = textoNombre;
+            condicion = condicion.and(filtroTexto(IndiceBusquedaEmpleados.getInstance().buscarPorNombre(texto),
+                    empleado -> IndiceBusquedaEmpleados.coincideNombre(empleado, texto)));
+        }
+        if (!textoDni.isEmpty()) {
+            String texto = textoDni;
+            condicion = condicion.and(filtroTexto(IndiceBusquedaEmpleados.getInstance().buscarPorDni(texto),
+                    empleado -> IndiceBusquedaEmpleados.coincideDni(empleado, texto)));
+        }
+        return condicion;
+    }
+
+    /**
+     * Condición de una búsqueda de texto: pertenecer a los encontrados por el índice o, si el índice
+     * está frío ({@code encontrados == null}), cumplir la comparación indicada.
+     */
+    private static Predicate<Empleado> filtroTexto(List<Empleado> encontrados, Predicate<Empleado> comparacion) {
+        if (encontrados == null) {
+            return comparacion;
+        }
+        Set<Integer> ids = new HashSet<>();
+        encontrados.forEach(empleado -> ids.add(empleado.getId()));
+        return empleado -> ids.contains(empleado.getId());
+    }
+
+    /**
+     * Aplica los filtros actuales a la tabla.
+     * Con la copia en memoria cargada solo se cambia la condición de la vista filtrada, sin consultar
+     * la base de datos (si la copia ha caducado, además se vuelve a cargar en segundo plano).
+     * Sin ella, se consulta por el criterio más selectivo (índice o base de datos) y el resultado se filtra
+     * con el resto; sin ningún filtro se muestran todos con la lista paginada.
+     */
+    private void aplicarFiltros() {
+        filtro = construirFiltro();
+        if (empleadosFiltrados != null) {
+            empleadosFiltrados.setPredicate(filtro);
+            if (!InstantaneaEmpleados.getInstance().estaVigente()) {
+                cargarInstantanea();
+            }
+            return;
+        }
+        Predicate<Empleado> condicion = filtro;
+        EmpleadoDAO dao = EmpleadoDAO.getInstance();
+        if (!textoNombre.isEmpty()) {
+            String texto = textoNombre;
+            mostrarFiltrados(IndiceBusquedaEmpleados.getInstance().buscarPorNombre(texto),
+                    () -> dao.selectEmpleadosPorNombre(texto), condicion);
+        } else if (!textoDni.isEmpty()) {
+            String texto = textoDni;
+            mostrarFiltrados(IndiceBusquedaEmpleados.getInstance().buscarPorDni(texto),
+                    () -> dao.selectEmpleadosPorDNI(texto), condicion);
+        } else if (codigoDepartamento != 0) {
+            int codigo = codigoDepartamento;
+            cargaEmpleados.cargar(() -> dao.empleadosDepartamento(codigo), this::mostrarEmpleados);
+        } else {
+            cargarTodos();
+        }
+    }
+
+    /**
+     * Muestra los empleados de una búsqueda que cumplen la condición: los encontrados en el índice
+     * si está listo o, si no ({@code encontrados == null}), los que devuelve la consulta en segundo plano.
+     */
+    private void mostrarFiltrados(List<Empleado> encontrados, SqlCallable<List<Empleado>> consulta, Predicate<Empleado> condicion) {
+        if (encontrados != null) {
+            cargaEmpleados.mostrar(encontrados.stream().filter(condicion).toList(), this::mostrarEmpleados);
+        } else {
+            cargaEmpleados.cargar(() -> consulta.call().stream().filter(condicion).toList(), this::mostrarEmpleados);
+        }
+    }
+
+    /**
+     * Pide la copia en memoria de todos los empleados (solo se consulta la base de datos si no está vigente)
+     * y, cuando está disponible, pasa la tabla a filtrar y ordenar sobre ella.
+     */
+    private void cargarInstantanea() {
+        InstantaneaEmpleados.getInstance().cargar().whenComplete((empleados, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("No se pudo cargar la copia de empleados: " + error.getMessage());
             } else {
-                empleados = EmpleadoDAO.getInstance().listAllEmpleados();
+                mostrarInstantanea(empleados);
             }
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
+        }));
+    }
+
+    /**
+     * Muestra en la tabla la copia en memoria de todos los empleados a través de una {@link FilteredList}
+     * (con los filtros actuales) y una {@link SortedList} (con el orden de las columnas de la tabla).
+     * Si la tabla ya usaba la copia, solo se sustituyen sus datos y se conservan los filtros.
+     *
+     * @param empleados Todos los empleados.
+     */
+    private void mostrarInstantanea(List<Empleado> empleados) {
+        if (empleadosFiltrados != null) {
+            listaEmpleados.setAll(empleados);
+            // El índice de búsqueda se ha podido reconstruir con la nueva copia.
+            filtro = construirFiltro();
+            empleadosFiltrados.setPredicate(filtro);
+            return;
+        }
+        filtro = construirFiltro();
+        ObservableList<Empleado> todos = FXCollections.observableArrayList(empleados);
+        FilteredList<Empleado> filtrados = new FilteredList<>(todos, filtro);
+        SortedList<Empleado> ordenados = new SortedList<>(filtrados);
+        ordenados.comparatorProperty().bind(tvEmpleados.comparatorProperty());
+        // Se cancela cualquier consulta pendiente: a partir de ahora los filtros se aplican en memoria.
+        cargaEmpleados.mostrar(ordenados, lista -> {
+            listaEmpleados = todos;
+            empleadosFiltrados = filtrados;
+            tvEmpleados.setItems(ordenados);
+        });
+    }
+
+    /**
+     * Activa la búsqueda mientras se escribe en los campos de nombre y DNI.
+     * Cada tecla reinicia una pausa corta y solo se busca cuando el usuario deja de escribir,
+     * para no lanzar una búsqueda por cada carácter.
+     */
+    private void iniciaBusquedaAlEscribir() {
+        PauseTransition esperaNombre = new PauseTransition(ESPERA_BUSQUEDA);
+        esperaNombre.setOnFinished(event -> buscarPorNombre(tfNombre.getText()));
+        tfNombre.textProperty().addListener((observable, anterior, nuevo) -> esperaNombre.playFromStart());
+        PauseTransition esperaDni = new PauseTransition(ESPERA_BUSQUEDA);
+        esperaDni.setOnFinished(event -> buscarPorDni(tfDNI.getText()));
+        tfDNI.textProperty().addListener((observable, anterior, nuevo) -> esperaDni.playFromStart());
+    }
+
+    /**
+     * Muestra en la TableView los empleados recibidos. Se invoca en el hilo de JavaFX
+     * cuando termina una carga en segundo plano.
+     *
+     * @param empleados Los empleados a mostrar.
+     */
+    private void mostrarEmpleados(List<Empleado> empleados) {
+        // La lista paginada ya es observable y no debe copiarse (cargaría todas las páginas).
+        if (empleados instanceof ListaEmpleadosPaginada paginada) {
+            listaEmpleados = paginada;
+        } else {
+            listaEmpleados = FXCollections.observableArrayList(empleados);
         }
-        listaEmpleados = FXCollections.observableArrayList(empleados);
         tvEmpleados.setItems(listaEmpleados);
     }
 
+    /**
+     * Carga todos los empleados en la TableView mediante una lista paginada,
+     * que solo trae de la base de datos las páginas que se van mostrando al desplazarse.
+     * Se usa mientras la copia en memoria no está cargada.
+     */
+    private void cargarTodos() {
+        cargaEmpleados.cargar(ListaEmpleadosPaginada::abrir, this::mostrarEmpleados);
+    }
+
+    /**
+     * Actualiza la fila de un empleado guardado en la ventana de edición, sin recargar la tabla:
+     * la sustituye si ya estaba, la añade si es nuevo y la quita si ha dejado de cumplir el filtro
+     * (por ejemplo, si ha cambiado de departamento). Se conservan el desplazamiento, la selección y el orden.
+     *
+     * @param guardado El empleado creado o modificado.
+     * @param nuevo    {@code true} si el empleado se acaba de crear.
+     */
+    private void actualizarFila(Empleado guardado, boolean nuevo) {
+        if (listaEmpleados instanceof ListaEmpleadosPaginada paginada) {
+            // La lista de todos los empleados está ordenada por ID: un empleado nuevo va al final.
+            if (nuevo) {
+                paginada.anadir(guardado);
+            } else {
+                paginada.reemplazar(guardado);
+            }
+            return;
+        }
+        int indice = indiceEmpleado(guardado.getId());
+        if (empleadosFiltrados != null) {
+            // La copia en memoria tiene todos los empleados: se actualiza y se vuelven a aplicar los filtros.
+            Empleado seleccionado = tvEmpleados.getSelectionModel().getSelectedItem();
+            if (indice >= 0) {
+                listaEmpleados.set(indice, guardado);
+            } else {
+                listaEmpleados.add(guardado);
+            }
+            aplicarFiltros();
+            if (seleccionado != null && seleccionado.getId() == guardado.getId()) {
+                tvEmpleados.getSelectionModel().select(guardado);
+            }
+            return;
+        }
+        // El índice de búsqueda ya incluye el empleado guardado: se recalcula el filtro para tenerlo en cuenta.
+        filtro = construirFiltro();
+        if (!filtro.test(guardado)) {
+            if (indice >= 0) {
+                listaEmpleados.remove(indice);
+            }
+            return;
+        }
+        if (indice >= 0) {
+            boolean seleccionado = tvEmpleados.getSelectionModel().getSelectedIndex() == indice;
+            listaEmpleados.set(indice, guardado);
+            if (seleccionado) {
+                tvEmpleados.getSelectionModel().select(guardado);
+            }
+        } else {
+            listaEmpleados.add(guardado);
+        }
+        tvEmpleados.sort();
+    }
+
+    /**
+     * Quita de la tabla la fila de un empleado borrado, sin recargar la tabla.
+     *
+     * @param id El ID del empleado borrado.
+     */
+    private void quitarFila(int id) {
+        if (listaEmpleados instanceof ListaEmpleadosPaginada paginada) {
+            // Si la página del empleado ya no está en memoria no se sabe su posición: se recarga.
+            if (!paginada.eliminar(id)) {
+                cargarTodos();
+            }
+            return;
+        }
+        int indice = indiceEmpleado(id);
+        if (indice >= 0) {
+            listaEmpleados.remove(indice);
+        }
+    }
+
+    /**
+     * Posición en la tabla del empleado con el ID indicado, o -1 si no está.
+     */
+    private int indiceEmpleado(int id) {
+        for (int i = 0; i < listaEmpleados.size(); i++) {
+            if (listaEmpleados.get(i).getId() == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Método invocado al hacer clic en el botón de salir.
      * Cierra la ventana actual.
@@ -223,59 +555,45 @@ public class EmpleadosController implements Initializable {
 
     /**
      * Inicializa el ComboBox de departamentos, cargando los departamentos desde la base de datos
-     * y añadiendo un listener para filtrar la tabla de empleados según el departamento seleccionado.
+     * en segundo plano y añadiendo un listener para filtrar la tabla de empleados según el departamento seleccionado.
+     * Con la copia en memoria cargada, cambiar de departamento no consulta la base de datos.
      */
     private void iniciaCbDepartamentos() {
-        ArrayList<Departamento> departamentos = null;
-        try {
-            //Buscamos todos los departamentos
-            departamentos = DepartamentoDAO.getInstance().listAllDepartamentos();
-            // Añade una opción "Todos" al principio del ComboBox para mostrar todos
-            Departamento todos = new Departamento(0, "Todos", null);
-            departamentos.add(0, todos);
-            // Añade cada departamento al ComboBox.
-            departamentos.forEach(
-                    departamento -> cbDepartamento.getItems().add(departamento)
-            );
-            // Selecciona la opción "Todos" por defecto.
-            cbDepartamento.getSelectionModel().select(0);
-            // Añade un listener para detectar cambios en la selección del ComboBox.
-            cbDepartamento.getSelectionModel().selectedItemProperty().addListener(
-                    (observableValue, depAnterior, depSeleccionado) -> {
-                        ArrayList<Empleado> empleados;
-                        try {
-                            // Si se selecciona "Todos", carga todos los empleados.
-                            if (depSeleccionado.getCodigo() == 0) {
-                                empleados = EmpleadoDAO.getInstance().listAllEmpleados();
-
-                            } else {
-                                // Si se selecciona un departamento específico, carga los empleados de ese departamento.
-                                empleados = EmpleadoDAO.getInstance().empleadosDepartamento(depSeleccionado.getCodigo());
-                            }
-                        } catch (SQLException e) {
-                            throw new RuntimeException(e);
-                        }
-                        // Actualiza la lista observable y la TableView con los empleados filtrados.
-                        listaEmpleados = FXCollections.observableArrayList(empleados);
-                        tvEmpleados.setItems(listaEmpleados);
+        // Añade una opción "Todos" al principio del ComboBox para mostrar todos
+        Departamento todos = new Departamento(0, "Todos", null);
+        cbDepartamento.getItems().add(todos);
+        // Selecciona la opción "Todos" por defecto.
+        cbDepartamento.getSelectionModel().select(0);
+        //Buscamos todos los departamentos sin bloquear la interfaz
+        DataService.getInstance().ejecutar(
+                () -> DepartamentoDAO.getInstance().listAllDepartamentos(),
+                departamentos -> cbDepartamento.getItems().addAll(departamentos),
+                error -> System.err.println(error.getMessage())
+        );
+        // Añade un listener para detectar cambios en la selección del ComboBox.
+        cbDepartamento.getSelectionModel().selectedItemProperty().addListener(
+                (observableValue, depAnterior, depSeleccionado) -> {
+                    if (depSeleccionado == null) {
+                        return;
                     }
+                    // Filtra por el departamento seleccionado ("Todos" tiene el código 0 y no filtra).
+                    codigoDepartamento = depSeleccionado.getCodigo();
+                    aplicarFiltros();
+                }
 
-            );
-            // Define una acción al seleccionar un departamento (actualmente comentado).
-            cbDepartamento.setOnAction(event -> {
-                Departamento departamento = cbDepartamento.getValue();
-                /* echo: por terminar*/
-            });
-        } catch (SQLException e) {
-            System.err.println(e.getMessage());
-        }
+        );
+        // Define una acción al seleccionar un departamento (actualmente comentado).
+        cbDepartamento.setOnAction(event -> {
+            Departamento departamento = cbDepartamento.getValue();
+            /* echo: por terminar*/
+        });
 
     }
 
     /**
      * Inicializa la TableView de empleados, configurando las columnas para mostrar
      * las propiedades de la clase {@link Empleado} y cargando todos los empleados
-     * desde la base de datos al iniciar. También añade un evento de doble clic
+     * (de la copia en memoria si está vigente, o de la base de datos) al iniciar. También añade un evento de doble clic
      * para abrir la ventana de edición/detalle del empleado seleccionado.
      */
     private void iniciaTableViewEmpleados() {
@@ -290,25 +608,34 @@ public class EmpleadosController implements Initializable {
         tcEdad.setCellValueFactory(new PropertyValueFactory<>("edad"));
         // Para mostrar el código del departamento, se utiliza una función lambda
         // para acceder a la propiedad anidada 'departamento' y luego a 'codigo'.
+        // Las filas de una página que aún se está cargando llegan a null y se muestran vacías.
         tcidDep.setCellValueFactory(
-                param -> new ReadOnlyObjectWrapper<>(
+                param -> param.getValue() == null ? null : new ReadOnlyObjectWrapper<>(
                         param.getValue().getDepartamento() != null ? param.getValue().getDepartamento().getCodigo() : 0
                 )
         );
         // Para mostrar el nombre del departamento, se utiliza una función lambda
         // para acceder a la propiedad anidada 'departamento' y luego a 'nombre'.
         tcDepartamento.setCellValueFactory(
-                param -> new ReadOnlyObjectWrapper<>(
+                param -> param.getValue() == null ? null : new ReadOnlyObjectWrapper<>(
                         param.getValue().getDepartamento() != null ? param.getValue().getDepartamento().getNombre() : "Sin departamento")
         );
-        try {
-            // Carga todos los empleados desde la base de datos y los añade a la lista observable.
-            listaEmpleados.addAll(EmpleadoDAO.getInstance().listAllEmpleados());
-        } catch (SQLException e) {
-            System.err.println(e.getMessage());
-        }
+        // La lista paginada no se puede reordenar en memoria: solo se ordena cuando los datos están completos.
+        tvEmpleados.setSortPolicy(tabla -> !(tabla.getItems() instanceof ListaEmpleadosPaginada)
+                && TableView.DEFAULT_SORT_POLICY.call(tabla));
         // Asigna la lista observable a la TableView para mostrar los datos.
         tvEmpleados.setItems(listaEmpleados);
+        // Si la copia en memoria de los empleados está vigente se muestra sin consultar la base de datos;
+        // si no, se muestran todos con la lista paginada mientras se carga la copia en segundo plano.
+        cargaEmpleados = new CargaTabla<>(tvEmpleados);
+        if (InstantaneaEmpleados.getInstance().estaVigente()) {
+            mostrarInstantanea(InstantaneaEmpleados.getInstance().getEmpleados());
+        } else {
+            cargarTodos();
+            cargarInstantanea();
+        }
+        // Los cambios que hagan otros equipos se aplican a la tabla según llegan.
+        SincronizadorCambios.getInstance().addEmpleadosListener(cambiosRemotos);
         // Asigna un evento de doble clic a la TableView.
         tvEmpleados.setOnMouseClicked(event -> {
             System.out.println(event.getClickCount());
@@ -376,27 +703,23 @@ public class EmpleadosController implements Initializable {
 
     /**
      * Realiza la eliminación del empleado seleccionado de la base de datos
-     * y actualiza la TableView.
+     * y lo quita de la TableView, sin recargar el resto de empleados.
      *
      * @param empleado El empleado a borrar.
      */
     private void borrarEmpleado(Empleado empleado) {
-        try {
-            EmpleadoDAO.getInstance().deleteEmpleado(empleado.getId());
-
-            listaEmpleados = FXCollections.observableArrayList(
-                    EmpleadoDAO.getInstance().listAllEmpleados()
-            );
-            tvEmpleados.setItems(listaEmpleados);
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        DataService.getInstance().ejecutar(
+                () -> EmpleadoDAO.getInstance().deleteEmpleado(empleado.getId()),
+                // Si no se borró es que ya no existía: también se quita de la tabla.
+                borrado -> quitarFila(empleado.getId()),
+                error -> System.err.println(error.getMessage())
+        );
     }
 
     /**
      * Abre la ventana para crear un nuevo empleado o para editar los detalles de un empleado existente.
      * La ventana se carga desde el archivo FXML 'empleado-view.fxml' y se muestra de forma modal.
-     * Después de cerrar la ventana, se actualiza la lista de empleados en la TableView.
+     * Después de cerrar la ventana, se actualiza en la TableView solo el empleado guardado.
      *
      * @param empleado El empleado a editar (puede ser {@code null} para crear un nuevo empleado).
      */
@@ -425,11 +748,10 @@ public class EmpleadosController implements Initializable {
             stage.setResizable(false);
             // Define un evento que se ejecuta al cerrar la ventana de edición.
             stage.setOnHidden(event -> {
-                // Al cerrar la ventana, se actualiza la lista de empleados en la TableView.
-                try {
-                    tvEmpleados.setItems(FXCollections.observableArrayList(EmpleadoDAO.getInstance().listAllEmpleados()));
-                } catch (SQLException e) {
-                    throw new RuntimeException(e);
+                // Al cerrar la ventana, se actualiza en la TableView el empleado guardado (si se guardó).
+                Empleado guardado = empleadoController.getEmpleadoGuardado();
+                if (guardado != null) {
+                    actualizarFila(guardado, empleado == null);
                 }
             });
             // Asigna la escena al Stage y muestra la ventana modal, esperando a que se cierre.
@@ -0,0 +1,149 @@
+package com.iesochoa.ejemplodbjavafx.controller;
+
+import com.iesochoa.ejemplodbjavafx.db.DepartamentoDAO;
+import com.iesochoa.ejemplodbjavafx.model.EstadisticasDepartamento;
+import com.iesochoa.ejemplodbjavafx.service.CargaTabla;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.Stage;
+
+import java.net.URL;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.ResourceBundle;
+
+/**
+ * Controlador para la vista de estadísticas por departamento (número de empleados, edades y jefe).
+ * Las estadísticas se calculan en la base de datos (ver {@link DepartamentoDAO#listEstadisticasDepartamentos()}).
+ * Al abrir la vista se muestran al momento las últimas calculadas, si las hay, y se actualizan en segundo plano.
+ */
+public class EstadisticasController implements Initializable {
+    /**
+     * Formato de la hora de la última actualización.
+     */
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    /**
+     * Instancia del Data Access Object para la entidad Departamento.
+     */
+    private final DepartamentoDAO departamentoDAO = DepartamentoDAO.getInstance();
+    /**
+     * Gestor de las cargas en segundo plano de la tabla.
+     */
+    private CargaTabla<EstadisticasDepartamento> cargaEstadisticas;
+
+    /**
+     * TableView con una fila por departamento.
+     */
+    @FXML
+    private TableView<EstadisticasDepartamento> tvEstadisticas;
+
+    @FXML
+    private TableColumn<EstadisticasDepartamento, String> tcNombre;
+
+    @FXML
+    private TableColumn<EstadisticasDepartamento, String> tcJefe;
+
+    @FXML
+    private TableColumn<EstadisticasDepartamento, Long> tcEmpleados;
+
+    @FXML
+    private TableColumn<EstadisticasDepartamento, String> tcEdadMedia;
+
+    @FXML
+    private TableColumn<EstadisticasDepartamento, Integer> tcEdadMinima;
+
+    @FXML
+    private TableColumn<EstadisticasDepartamento, Integer> tcEdadMaxima;
+
+    /**
+     * Label con la hora en que se mostraron las estadísticas.
+     */
+    @FXML
+    private Label lbActualizado;
+
+    /**
+     * Crea el controlador; lo instancia el {@code FXMLLoader} al cargar la vista.
+     */
+    public EstadisticasController() {
+    }
+
+    /**
+     * Método invocado al hacer clic en el botón de actualizar: descarta las estadísticas guardadas
+     * y las vuelve a calcular.
+     *
+     * @param event El evento de acción.
+     */
+    @FXML
+    void onClickActualizar(ActionEvent event) {
+        departamentoDAO.invalidarEstadisticas();
+        cargar();
+    }
+
+    /**
+     * Método invocado al hacer clic en el botón de salir. Cierra la ventana actual.
+     *
+     * @param event El evento de acción.
+     */
+    @FXML
+    void onClickSalir(ActionEvent event) {
+        cargaEstadisticas.cancelar();
+        Stage stage = (Stage) tvEstadisticas.getScene().getWindow();
+        stage.close();
+    }
+
+    /**
+     * Configura las columnas de la tabla, muestra las últimas estadísticas calculadas
+     * y lanza su actualización en segundo plano.
+     *
+     * @param url            La ubicación utilizada para resolver rutas relativas para el objeto raíz, o {@code null} si la ubicación no se conoce.
+     * @param resourceBundle Los recursos utilizados para localizar el objeto raíz, o {@code null} si el objeto raíz no se localizó.
+     */
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        tcNombre.setCellValueFactory(new PropertyValueFactory<>("nombre"));
+        tcJefe.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(
+                param.getValue().getJefe() != null ? param.getValue().getJefe() : "Sin jefe"));
+        tcEmpleados.setCellValueFactory(new PropertyValueFactory<>("numEmpleados"));
+        // La edad media se muestra con un decimal; vacía si el departamento no tiene empleados.
+        tcEdadMedia.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(
+                param.getValue().getEdadMedia() != null ? String.format("%.1f", param.getValue().getEdadMedia()) : ""));
+        tcEdadMinima.setCellValueFactory(new PropertyValueFactory<>("edadMinima"));
+        tcEdadMaxima.setCellValueFactory(new PropertyValueFactory<>("edadMaxima"));
+
+        cargaEstadisticas = new CargaTabla<>(tvEstadisticas);
+        List<EstadisticasDepartamento> ultimas = departamentoDAO.getUltimasEstadisticas();
+        if (ultimas != null) {
+            // Se muestran al momento; si han caducado, la carga las sustituye al recalcularlas.
+            cargaEstadisticas.mostrar(ultimas, this::mostrarEstadisticas);
+        }
+        cargar();
+    }
+
+    /**
+     * Pide las estadísticas en segundo plano (de la caché del DAO si no han caducado).
+     */
+    private void cargar() {
+        cargaEstadisticas.cargar(() -> departamentoDAO.listEstadisticasDepartamentos(), estadisticas -> {
+            mostrarEstadisticas(estadisticas);
+            lbActualizado.setText("Actualizado a las " + LocalTime.now().format(FORMATO_HORA));
+        });
+    }
+
+    /**
+     * Muestra en la tabla las estadísticas recibidas, en el hilo de JavaFX.
+     *
+     * @param estadisticas Las estadísticas a mostrar.
+     */
+    private void mostrarEstadisticas(List<EstadisticasDepartamento> estadisticas) {
+        tvEstadisticas.setItems(FXCollections.observableArrayList(estadisticas));
+    }
+}
@@ -1,20 +1,31 @@
 package com.iesochoa.ejemplodbjavafx.controller;
 
 import com.iesochoa.ejemplodbjavafx.EjemploDBJavaFx;
+import com.iesochoa.ejemplodbjavafx.csv.CsvExporter;
+import com.iesochoa.ejemplodbjavafx.csv.CsvImporter;
+import com.iesochoa.ejemplodbjavafx.service.DataService;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.MenuButton;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
 
 /**
  * Controlador para la vista de inicio de la aplicación.
- * Permite la navegación a las secciones de Departamentos y Empleados.
+ * Permite la navegación a las secciones de Departamentos, Empleados y Estadísticas.
  */
 public class InicioController {
 
@@ -24,6 +35,18 @@ public class InicioController {
     @FXML
     private Button btSalir;
 
+    /**
+     * Menú con las acciones de importación y exportación CSV.
+     */
+    @FXML
+    private MenuButton mbDatos;
+
+    /**
+     * Crea el controlador; lo instancia el {@code FXMLLoader} al cargar la vista.
+     */
+    public InicioController() {
+    }
+
     /**
      * Método invocado al hacer clic en el botón para acceder a la gestión de departamentos.
      * Carga y muestra la vista de departamentos en una nueva ventana modal.
@@ -84,6 +107,148 @@ public class InicioController {
         }
     }
 
+    /**
+     * Método invocado al hacer clic en el botón de estadísticas.
+     * Carga y muestra la vista de estadísticas por departamento en una nueva ventana modal.
+     *
+     * @param event El evento de acción.
+     */
+    @FXML
+    void onClickEstadisticas(ActionEvent event) {
+        try {
+            FXMLLoader loader = new FXMLLoader(EjemploDBJavaFx.class.getResource("views/estadisticas-view.fxml"));
+            Parent root = loader.load();
+
+            Scene scene = new Scene(root);
+            Stage stage = new Stage();
+            stage.setTitle("IES Severos Ochoa/Estadísticas");
+            stage.setResizable(false);
+            stage.initModality(Modality.APPLICATION_MODAL);
+            stage.setScene(scene);
+            stage.showAndWait();
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Método invocado desde el menú de datos para exportar los empleados a un fichero CSV.
+     *
+     * @param event El evento de acción.
+     */
+    @FXML
+    void onClickExportarEmpleados(ActionEvent event) {
+        File fichero = elegirFichero("Exportar empleados", "empleados.csv", true);
+        if (fichero != null) {
+            ejecutarEnSegundoPlano("Exportar empleados",
+                    () -> "Exportados " + new CsvExporter().exportarEmpleados(fichero.toPath()) + " empleados");
+        }
+    }
+
+    /**
+     * Método invocado desde el menú de datos para exportar los departamentos a un fichero CSV.
+     *
+     * @param event El evento de acción.
+     */
+    @FXML
+    void onClickExportarDepartamentos(ActionEvent event) {
+        File fichero = elegirFichero("Exportar departamentos", "departamentos.csv", true);
+        if (fichero != null) {
+            ejecutarEnSegundoPlano("Exportar departamentos",
+                    () -> "Exportados " + new CsvExporter().exportarDepartamentos(fichero.toPath()) + " departamentos");
+        }
+    }
+
+    /**
+     * Método invocado desde el menú de datos para importar empleados desde un fichero CSV.
+     * Pregunta si los empleados con un DNI ya existente se actualizan o se omiten.
+     *
+     * @param event El evento de acción.
+     */
+    @FXML
+    void onClickImportarEmpleados(ActionEvent event) {
+        File fichero = elegirFichero("Importar empleados", null, false);
+        if (fichero != null) {
+            Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+            alert.setTitle("Importar empleados");
+            alert.setHeaderText("DNI repetidos");
+            alert.setContentText("¿Actualizar los empleados cuyo DNI ya existe? (Cancelar para omitirlos)");
+            boolean actualizar = alert.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK;
+            Path ruta = fichero.toPath();
+            ejecutarEnSegundoPlano("Importar empleados",
+                    () -> new CsvImporter().importarEmpleados(ruta, actualizar).toString());
+        }
+    }
+
+    /**
+     * Método invocado desde el menú de datos para importar departamentos desde un fichero CSV.
+     *
+     * @param event El evento de acción.
+     */
+    @FXML
+    void onClickImportarDepartamentos(ActionEvent event) {
+        File fichero = elegirFichero("Importar departamentos", null, false);
+        if (fichero != null) {
+            Path ruta = fichero.toPath();
+            ejecutarEnSegundoPlano("Importar departamentos",
+                    () -> new CsvImporter().importarDepartamentos(ruta).toString());
+        }
+    }
+
+    /**
+     * Muestra un diálogo para elegir un fichero CSV.
+     *
+     * @param titulo        El título del diálogo.
+     * @param nombreInicial El nombre propuesto al guardar.
+     * @param guardar       {@code true} para un diálogo de guardar, {@code false} para uno de abrir.
+     * @return El fichero elegido o {@code null} si se cancela.
+     */
+    private File elegirFichero(String titulo, String nombreInicial, boolean guardar) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(titulo);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        Stage stage = (Stage) btSalir.getScene().getWindow();
+        if (guardar) {
+            chooser.setInitialFileName(nombreInicial);
+            return chooser.showSaveDialog(stage);
+        }
+        return chooser.showOpenDialog(stage);
+    }
+
+    /**
+     * Ejecuta una importación o exportación fuera del hilo de JavaFX y muestra el resultado al terminar.
+     * El menú de datos se desactiva mientras dura la operación.
+     *
+     * @param titulo    El título de la alerta con el resultado.
+     * @param operacion La operación, que devuelve el texto a mostrar.
+     */
+    private void ejecutarEnSegundoPlano(String titulo, Callable<String> operacion) {
+        Task<String> tarea = new Task<>() {
+            @Override
+            protected String call() throws Exception {
+                return operacion.call();
+            }
+        };
+        mbDatos.setDisable(true);
+        tarea.setOnSucceeded(event -> {
+            mbDatos.setDisable(false);
+            mostrarMensaje(Alert.AlertType.INFORMATION, titulo, tarea.getValue());
+        });
+        tarea.setOnFailed(event -> {
+            mbDatos.setDisable(false);
+            mostrarMensaje(Alert.AlertType.ERROR, titulo, tarea.getException().getMessage());
+        });
+        DataService.getInstance().ejecutar(tarea);
+    }
+
+    private void mostrarMensaje(Alert.AlertType tipo, String titulo, String mensaje) {
+        Alert alert = new Alert(tipo);
+        alert.setTitle(titulo);
+        alert.setHeaderText(titulo);
+        alert.setContentText(mensaje);
+        alert.showAndWait();
+    }
+
     /**
      * Método invocado al hacer clic en el botón de salir.
      * Cierra la ventana actual de la aplicación.
@@ -0,0 +1,65 @@
+package com.iesochoa.ejemplodbjavafx.csv;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+
+import java.nio.file.Path;
+
+/**
+ * Punto de entrada de línea de comandos (sin interfaz gráfica) para importar y exportar CSV.
+ * <pre>
+ * CsvCli exportar empleados|departamentos fichero.csv
+ * CsvCli importar empleados|departamentos fichero.csv [--actualizar]
+ * </pre>
+ * Con {@code --actualizar}, al importar empleados se actualizan los que ya existen por DNI
+ * en lugar de omitirlos.
+ */
+public class CsvCli {
+
+    // Constructor privado para evitar instancias directas
+    private CsvCli() {}
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            uso();
+            System.exit(2);
+        }
+        String accion = args[0];
+        String entidad = args[1];
+        Path fichero = Path.of(args[2]);
+        boolean actualizar = args.length > 3 && args[3].equals("--actualizar");
+        try {
+            long inicio = System.nanoTime();
+            if (accion.equals("exportar")) {
+                CsvExporter exporter = new CsvExporter();
+                long filas = switch (entidad) {
+                    case "empleados" -> exporter.exportarEmpleados(fichero);
+                    case "departamentos" -> exporter.exportarDepartamentos(fichero);
+                    default -> throw new IllegalArgumentException("Entidad desconocida: " + entidad);
+                };
+                System.out.println("Exportadas " + filas + " filas a " + fichero);
+            } else if (accion.equals("importar")) {
+                CsvImporter importer = new CsvImporter();
+                ResultadoImportacion resultado = switch (entidad) {
+                    case "empleados" -> importer.importarEmpleados(fichero, actualizar);
+                    case "departamentos" -> importer.importarDepartamentos(fichero);
+                    default -> throw new IllegalArgumentException("Entidad desconocida: " + entidad);
+                };
+                System.out.println(resultado);
+                resultado.getErrores().forEach(System.err::println);
+            } else {
+                uso();
+                System.exit(2);
+            }
+            System.out.printf("Tiempo: %d ms%n", (System.nanoTime() - inicio) / 1_000_000);
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DBConnection.closeConnection();
+        }
+    }
+
+    private static void uso() {
+        System.err.println("Uso: CsvCli exportar|importar empleados|departamentos fichero.csv [--actualizar]");
+    }
+}
@@ -0,0 +1,135 @@
+package com.iesochoa.ejemplodbjavafx.csv;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Exporta empleados y departamentos a ficheros CSV en streaming.
+ * Las filas se leen de un {@link ResultSet} de solo avance y se escriben directamente al fichero
+ * a través de un canal NIO con buffer, sin crear objetos del modelo ni guardar la tabla en memoria.
+ */
+public class CsvExporter {
+    /**
+     * Cabecera del CSV de empleados.
+     */
+    public static final String CABECERA_EMPLEADOS = "id,dni,nombre,apellido,edad,departamento";
+    /**
+     * Cabecera del CSV de departamentos.
+     */
+    public static final String CABECERA_DEPARTAMENTOS = "codigo,nombre,dni_jefe";
+    /**
+     * Sentencia SQL para exportar los departamentos con el DNI de su jefe.
+     */
+    public static final String SELECT_DEPARTAMENTOS_EXPORTAR = """
+            SELECT
+                Departamento.codigo,
+                Departamento.nombre,
+                Empleado.dni AS dni_jefe
+            FROM
+                Departamento
+            LEFT JOIN
+                Empleado ON Departamento.jefe = Empleado.id
+    """;
+    /**
+     * Tamaño del buffer de escritura.
+     */
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    /**
+     * Crea un exportador que lee de la conexión de {@link com.iesochoa.ejemplodbjavafx.db.DBConnection}.
+     */
+    public CsvExporter() {
+    }
+
+    /**
+     * Exporta todos los empleados al fichero indicado. El departamento se escribe por nombre.
+     *
+     * @param fichero El fichero de destino (se sobrescribe si existe).
+     * @return El número de empleados exportados.
+     * @throws IOException  Si ocurre un error al escribir el fichero.
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos.
+     */
+    public long exportarEmpleados(Path fichero) throws IOException, SQLException {
+        long filas = 0;
+        try (Connection connection = DBConnection.getConnectionLectura();
+             PreparedStatement ps = connection.prepareStatement(EmpleadoDAO.SELECT_ALL_EMPLEADOS,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             Writer writer = abrir(fichero)) {
+            DBConnection.prepararLecturaEnStreaming(ps);
+            writer.write(CABECERA_EMPLEADOS);
+            writer.write('\n');
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    writer.write(Integer.toString(rs.getInt("id")));
+                    writer.write(CsvFormato.SEPARADOR);
+                    CsvFormato.escribirCampo(writer, rs.getString("dni"));
+                    writer.write(CsvFormato.SEPARADOR);
+                    CsvFormato.escribirCampo(writer, rs.getString("nombre"));
+                    writer.write(CsvFormato.SEPARADOR);
+                    CsvFormato.escribirCampo(writer, rs.getString("apellido"));
+                    writer.write(CsvFormato.SEPARADOR);
+                    writer.write(Integer.toString(rs.getInt("edad")));
+                    writer.write(CsvFormato.SEPARADOR);
+                    CsvFormato.escribirCampo(writer, rs.getString("nombre_departamento"));
+                    writer.write('\n');
+                    filas++;
+                }
+            }
+        }
+        return filas;
+    }
+
+    /**
+     * Exporta todos los departamentos al fichero indicado. El jefe se escribe por DNI.
+     *
+     * @param fichero El fichero de destino (se sobrescribe si existe).
+     * @return El número de departamentos exportados.
+     * @throws IOException  Si ocurre un error al escribir el fichero.
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos.
+     */
+    public long exportarDepartamentos(Path fichero) throws IOException, SQLException {
+        long filas = 0;
+        try (Connection connection = DBConnection.getConnectionLectura();
+             PreparedStatement ps = connection.prepareStatement(SELECT_DEPARTAMENTOS_EXPORTAR,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             Writer writer = abrir(fichero)) {
+            DBConnection.prepararLecturaEnStreaming(ps);
+            writer.write(CABECERA_DEPARTAMENTOS);
+            writer.write('\n');
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    writer.write(Integer.toString(rs.getInt("codigo")));
+                    writer.write(CsvFormato.SEPARADOR);
+                    CsvFormato.escribirCampo(writer, rs.getString("nombre"));
+                    writer.write(CsvFormato.SEPARADOR);
+                    CsvFormato.escribirCampo(writer, rs.getString("dni_jefe"));
+                    writer.write('\n');
+                    filas++;
+                }
+            }
+        }
+        return filas;
+    }
+
+    /**
+     * Abre el fichero de destino como un canal NIO envuelto en un writer UTF-8 con buffer.
+     */
+    private static Writer abrir(Path fichero) throws IOException {
+        FileChannel canal = FileChannel.open(fichero, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new BufferedWriter(Channels.newWriter(canal, StandardCharsets.UTF_8), TAMANO_BUFFER);
+    }
+}
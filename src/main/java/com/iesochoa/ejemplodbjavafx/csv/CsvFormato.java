@@ -0,0 +1,86 @@
+package com.iesochoa.ejemplodbjavafx.csv;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Utilidades para leer y escribir líneas CSV (separador coma, campos entre comillas dobles
+ * cuando contienen comas, comillas o saltos de línea, y comillas escapadas duplicándolas).
+ */
+public final class CsvFormato {
+    /**
+     * Separador de campos.
+     */
+    public static final char SEPARADOR = ',';
+
+    // Constructor privado: clase de utilidades
+    private CsvFormato() {}
+
+    /**
+     * Escribe un campo en el writer, entrecomillándolo solo si es necesario.
+     * Un valor {@code null} se escribe como campo vacío.
+     *
+     * @param writer El destino.
+     * @param valor  El valor del campo.
+     * @throws IOException Si ocurre un error de escritura.
+     */
+    public static void escribirCampo(Writer writer, String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        boolean comillas = false;
+        for (int i = 0; i < valor.length() && !comillas; i++) {
+            char c = valor.charAt(i);
+            comillas = c == SEPARADOR || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            writer.write(valor);
+            return;
+        }
+        writer.write('"');
+        writer.write(valor.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Divide una línea CSV en campos. Los campos vacíos se devuelven como cadena vacía.
+     *
+     * @param linea La línea a dividir.
+     * @return La lista de campos.
+     * @throws IllegalArgumentException Si hay unas comillas sin cerrar.
+     */
+    public static List<String> leerCampos(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == SEPARADOR) {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar");
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+}
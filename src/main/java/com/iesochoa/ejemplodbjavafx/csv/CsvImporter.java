@@ -0,0 +1,395 @@
+package com.iesochoa.ejemplodbjavafx.csv;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.DepartamentoDAO;
+import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+import com.iesochoa.ejemplodbjavafx.db.RegistroCambios;
+import com.iesochoa.ejemplodbjavafx.model.Departamento;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Importa empleados y departamentos desde ficheros CSV en streaming.
+ * El fichero se lee línea a línea y las filas se envían en lotes, confirmando cada lote,
+ * de modo que la memoria usada no depende del tamaño del fichero.
+ * <p>
+ * Los DNI duplicados se resuelven con la restricción {@code UNIQUE} de la columna {@code dni}
+ * ({@code INSERT IGNORE} o {@code ON DUPLICATE KEY UPDATE}) en lugar de consultar cada DNI antes de insertar.
+ * Cada lote de empleados se envía como un único {@code INSERT} de varias filas, porque el total de filas
+ * afectadas es lo único que permite separar las nuevas de las duplicadas: con {@code rewriteBatchedStatements}
+ * MySQL devuelve {@link Statement#SUCCESS_NO_INFO} para cada fila de un lote JDBC.
+ * Los nombres de departamento se traducen a su código con una caché cargada una sola vez.
+ */
+public class CsvImporter {
+    /**
+     * Inserción de empleados que omite los DNI ya existentes.
+     */
+    public static final String INSERT_EMPLEADO_OMITIR = "INSERT IGNORE INTO Empleado (dni, nombre, apellido, edad, departamento) VALUES (?, ?, ?, ?, ?)";
+    /**
+     * Inserción de empleados que actualiza los datos si el DNI ya existe.
+     */
+    public static final String INSERT_EMPLEADO_ACTUALIZAR = """
+            INSERT INTO Empleado (dni, nombre, apellido, edad, departamento) VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                nombre = VALUES(nombre),
+                apellido = VALUES(apellido),
+                edad = VALUES(edad),
+                departamento = VALUES(departamento),
+                version = version + 1
+    """;
+    /**
+     * Valores de una fila de {@link #INSERT_EMPLEADO_OMITIR} y {@link #INSERT_EMPLEADO_ACTUALIZAR},
+     * que se repiten para insertar varias filas con una sola sentencia.
+     */
+    private static final String VALORES_EMPLEADO = "(?, ?, ?, ?, ?)";
+    /**
+     * Inserción de un departamento asignando el jefe por su DNI.
+     */
+    public static final String INSERT_DEPARTAMENTO = "INSERT INTO Departamento (nombre, jefe) VALUES (?, (SELECT id FROM Empleado WHERE dni = ?))";
+    /**
+     * Actualización del jefe de un departamento existente a partir del DNI.
+     */
+    public static final String UPDATE_JEFE_DEPARTAMENTO = "UPDATE Departamento SET jefe = (SELECT id FROM Empleado WHERE dni = ?), version = version + 1 WHERE codigo = ?";
+    /**
+     * Número de filas por lote.
+     */
+    public static final int TAMANO_LOTE = 1000;
+    /**
+     * Formato válido de un DNI (8 dígitos seguidos de una letra mayúscula).
+     */
+    private static final String FORMATO_DNI = "\\d{8}[A-Z]";
+
+    /**
+     * Caché de nombre de departamento (en minúsculas) a código.
+     */
+    private final Map<String, Integer> codigosDepartamento = new HashMap<>();
+    /**
+     * Indica si la caché de departamentos ya se ha cargado.
+     */
+    private boolean cacheCargada;
+
+    /**
+     * Crea un importador que escribe en la conexión de {@link com.iesochoa.ejemplodbjavafx.db.DBConnection}.
+     */
+    public CsvImporter() {
+    }
+
+    /**
+     * Importa empleados desde un CSV con la cabecera {@link CsvExporter#CABECERA_EMPLEADOS}.
+     * La columna {@code id} se ignora (la base de datos asigna los ID). Los departamentos que no existen
+     * se crean.
+     *
+     * @param fichero              El fichero a importar.
+     * @param actualizarDuplicados {@code true} para actualizar los empleados cuyo DNI ya existe,
+     *                             {@code false} para omitirlos.
+     * @return El resumen de la importación.
+     * @throws IOException  Si ocurre un error al leer el fichero.
+     * @throws SQLException Si ocurre un error que impide seguir importando.
+     */
+    public ResultadoImportacion importarEmpleados(Path fichero, boolean actualizarDuplicados) throws IOException, SQLException {
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        cargarCacheDepartamentos();
+        String sql = actualizarDuplicados ? INSERT_EMPLEADO_ACTUALIZAR : INSERT_EMPLEADO_OMITIR;
+        try (BufferedReader reader = Files.newBufferedReader(fichero, StandardCharsets.UTF_8);
+             Connection connection = DBConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            Lote lote = new Lote(connection, ps, resultado,
+                    Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER);
+            lote.sqlVariasFilas = filas -> sql.replace(VALORES_EMPLEADO,
+                    String.join(", ", Collections.nCopies(filas, VALORES_EMPLEADO)));
+            lote.actualizaDuplicados = actualizarDuplicados;
+            String linea = reader.readLine(); // cabecera
+            long numLinea = 1;
+            while ((linea = reader.readLine()) != null) {
+                numLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                resultado.sumarLeida();
+                try {
+                    List<String> campos = CsvFormato.leerCampos(linea);
+                    if (campos.size() != 6) {
+                        throw new IllegalArgumentException("Se esperaban 6 campos y hay " + campos.size());
+                    }
+                    String dni = campos.get(1).trim();
+                    if (!dni.matches(FORMATO_DNI)) {
+                        throw new IllegalArgumentException("DNI incorrecto: " + dni);
+                    }
+                    int edad = Integer.parseInt(campos.get(4).trim());
+                    Integer departamento = codigoDepartamento(campos.get(5));
+                    lote.anadir(numLinea, dni, campos.get(2), campos.get(3), edad, departamento);
+                } catch (IllegalArgumentException e) {
+                    resultado.registrarError(numLinea, e.getMessage());
+                }
+            }
+            lote.vaciar();
+        } finally {
+            // Los lotes ya confirmados han cambiado empleados sin pasar por EmpleadoDAO.
+            EmpleadoDAO.getInstance().notificarInvalidacion();
+            RegistroCambios.anotarInvalidacion(RegistroCambios.EMPLEADO);
+        }
+        return resultado;
+    }
+
+    /**
+     * Importa departamentos desde un CSV con la cabecera {@link CsvExporter#CABECERA_DEPARTAMENTOS}.
+     * Los departamentos se identifican por nombre: los nuevos se crean y en los existentes se actualiza el jefe.
+     * La columna {@code codigo} se ignora.
+     *
+     * @param fichero El fichero a importar.
+     * @return El resumen de la importación.
+     * @throws IOException  Si ocurre un error al leer el fichero.
+     * @throws SQLException Si ocurre un error que impide seguir importando.
+     */
+    public ResultadoImportacion importarDepartamentos(Path fichero) throws IOException, SQLException {
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        cargarCacheDepartamentos();
+        try (BufferedReader reader = Files.newBufferedReader(fichero, StandardCharsets.UTF_8);
+             Connection connection = DBConnection.getConnection();
+             PreparedStatement insert = connection.prepareStatement(INSERT_DEPARTAMENTO);
+             PreparedStatement update = connection.prepareStatement(UPDATE_JEFE_DEPARTAMENTO)) {
+            connection.setAutoCommit(false);
+            Lote nuevos = new Lote(connection, insert, resultado, Types.VARCHAR, Types.VARCHAR);
+            Lote existentes = new Lote(connection, update, resultado, Types.VARCHAR, Types.INTEGER);
+            existentes.contarComoDuplicadas = true;
+            String linea = reader.readLine(); // cabecera
+            long numLinea = 1;
+            while ((linea = reader.readLine()) != null) {
+                numLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                resultado.sumarLeida();
+                try {
+                    List<String> campos = CsvFormato.leerCampos(linea);
+                    if (campos.size() != 3) {
+                        throw new IllegalArgumentException("Se esperaban 3 campos y hay " + campos.size());
+                    }
+                    String nombre = campos.get(1).trim();
+                    if (nombre.isEmpty()) {
+                        throw new IllegalArgumentException("El nombre no puede estar vacío");
+                    }
+                    String dniJefe = campos.get(2).trim().isEmpty() ? null : campos.get(2).trim();
+                    Integer codigo = codigosDepartamento.get(clave(nombre));
+                    if (codigo == null) {
+                        nuevos.anadir(numLinea, nombre, dniJefe);
+                    } else {
+                        existentes.anadir(numLinea, dniJefe, codigo);
+                    }
+                } catch (IllegalArgumentException e) {
+                    resultado.registrarError(numLinea, e.getMessage());
+                }
+            }
+            nuevos.vaciar();
+            existentes.vaciar();
+        } finally {
+            DepartamentoDAO.getInstance().invalidarCache();
+            RegistroCambios.anotarInvalidacion(RegistroCambios.DEPARTAMENTO);
+        }
+        return resultado;
+    }
+
+    /**
+     * Carga la caché de departamentos con una única consulta.
+     */
+    private void cargarCacheDepartamentos() throws SQLException {
+        if (cacheCargada) {
+            return;
+        }
+        for (Departamento departamento : DepartamentoDAO.getInstance().listAllDepartamentos()) {
+            codigosDepartamento.put(clave(departamento.getNombre()), departamento.getCodigo());
+        }
+        cacheCargada = true;
+    }
+
+    /**
+     * Traduce un nombre de departamento a su código, creando el departamento si no existe.
+     *
+     * @return El código, o {@code null} si el nombre está vacío.
+     */
+    private Integer codigoDepartamento(String nombre) {
+        if (nombre == null || nombre.isBlank() || nombre.equalsIgnoreCase("Sin Departamento")) {
+            return null;
+        }
+        return codigosDepartamento.computeIfAbsent(clave(nombre), k -> {
+            Departamento nuevo = new Departamento(0, nombre.trim(), null);
+            try {
+                DepartamentoDAO.getInstance().createDepartamento(nuevo);
+            } catch (SQLException e) {
+                throw new IllegalArgumentException("No se pudo crear el departamento " + nombre + ": " + e.getMessage());
+            }
+            return nuevo.getCodigo();
+        });
+    }
+
+    private static String clave(String nombre) {
+        return nombre == null ? "" : nombre.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Acumula filas para una sentencia preparada y las envía en lotes de {@link #TAMANO_LOTE},
+     * confirmando cada lote, con {@code addBatch} o con una sola sentencia de varias filas
+     * (ver {@link #sqlVariasFilas}). Si el driver rechaza un lote, se repite fila a fila para localizar
+     * las filas erróneas sin perder las correctas.
+     */
+    private static class Lote {
+        private final Connection connection;
+        private final PreparedStatement ps;
+        private final ResultadoImportacion resultado;
+        private final List<Object[]> filas = new ArrayList<>();
+        private final List<Long> lineas = new ArrayList<>();
+        /**
+         * Tipo SQL de cada parámetro, necesario para asignar valores {@code null}.
+         */
+        private final int[] tipos;
+        /**
+         * Si es {@code true}, las filas afectadas cuentan como duplicadas en lugar de como nuevas.
+         */
+        private boolean contarComoDuplicadas;
+        /**
+         * Si no es {@code null}, devuelve el SQL que inserta el número de filas indicado en una sola sentencia,
+         * y los lotes se envían así en lugar de con {@code addBatch}.
+         */
+        private IntFunction<String> sqlVariasFilas;
+        /**
+         * Con {@link #sqlVariasFilas}: {@code true} si los duplicados se actualizan ({@code ON DUPLICATE KEY UPDATE})
+         * y {@code false} si se omiten ({@code INSERT IGNORE}).
+         */
+        private boolean actualizaDuplicados;
+
+        Lote(Connection connection, PreparedStatement ps, ResultadoImportacion resultado, int... tipos) {
+            this.connection = connection;
+            this.ps = ps;
+            this.resultado = resultado;
+            this.tipos = tipos;
+        }
+
+        void anadir(long linea, Object... parametros) throws SQLException {
+            filas.add(parametros);
+            lineas.add(linea);
+            if (filas.size() >= TAMANO_LOTE) {
+                vaciar();
+            }
+        }
+
+        void vaciar() throws SQLException {
+            if (filas.isEmpty()) {
+                return;
+            }
+            try {
+                if (sqlVariasFilas != null) {
+                    enviarEnUnaSentencia();
+                } else {
+                    for (Object[] parametros : filas) {
+                        asignar(ps, 1, parametros);
+                        ps.addBatch();
+                    }
+                    contar(ps.executeBatch());
+                }
+                connection.commit();
+            } catch (BatchUpdateException e) {
+                ps.clearBatch();
+                connection.rollback();
+                filaAFila();
+            }
+            filas.clear();
+            lineas.clear();
+        }
+
+        private void filaAFila() throws SQLException {
+            for (int i = 0; i < filas.size(); i++) {
+                Savepoint punto = connection.setSavepoint();
+                try {
+                    asignar(ps, 1, filas.get(i));
+                    contar(new int[]{ps.executeUpdate()});
+                    connection.releaseSavepoint(punto);
+                } catch (SQLException e) {
+                    connection.rollback(punto);
+                    resultado.registrarError(lineas.get(i), e.getMessage());
+                }
+            }
+            connection.commit();
+        }
+
+        /**
+         * Envía todas las filas del lote en una sentencia y reparte el total de filas afectadas.
+         * Si la sentencia falla se lanza como {@link BatchUpdateException}, igual que un lote rechazado.
+         */
+        private void enviarEnUnaSentencia() throws SQLException {
+            int afectadas;
+            try (PreparedStatement varias = connection.prepareStatement(sqlVariasFilas.apply(filas.size()))) {
+                int indice = 1;
+                for (Object[] parametros : filas) {
+                    asignar(varias, indice, parametros);
+                    indice += parametros.length;
+                }
+                afectadas = varias.executeUpdate();
+            } catch (SQLException e) {
+                // Los errores de conexión (SQLState 08xxx) no se pueden resolver repitiendo fila a fila.
+                if (e.getSQLState() != null && e.getSQLState().startsWith("08")) {
+                    throw e;
+                }
+                throw new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(), new int[0], e);
+            }
+            contarTotal(afectadas, filas.size());
+        }
+
+        /**
+         * Reparte el total de filas afectadas por una sentencia de varias filas. Cada fila nueva cuenta 1,
+         * cada duplicado omitido 0 y cada duplicado actualizado 2 (convención de MySQL para
+         * {@code ON DUPLICATE KEY UPDATE}; la actualización siempre cambia la fila, porque incrementa su versión).
+         */
+        private void contarTotal(int afectadas, int enviadas) {
+            int duplicadas = actualizaDuplicados ? afectadas - enviadas : enviadas - afectadas;
+            resultado.sumarDuplicadas(duplicadas);
+            resultado.sumarNuevas(enviadas - duplicadas);
+        }
+
+        /**
+         * Interpreta los recuentos del driver: 1 fila nueva, 0 DNI omitido y 2 fila actualizada
+         * (convención de MySQL para {@code ON DUPLICATE KEY UPDATE}). {@link Statement#SUCCESS_NO_INFO}
+         * no dice si la fila era nueva o duplicada, así que solo se cuenta como nueva en los lotes que no
+         * pueden tener duplicados (los de empleados van en una sola sentencia, ver {@link #sqlVariasFilas}).
+         */
+        private void contar(int[] recuentos) {
+            for (int recuento : recuentos) {
+                if (contarComoDuplicadas || recuento == 0 || recuento == 2) {
+                    resultado.sumarDuplicadas(1);
+                } else if (recuento == 1 || recuento == Statement.SUCCESS_NO_INFO) {
+                    resultado.sumarNuevas(1);
+                }
+            }
+        }
+
+        // Asigna los parámetros de una fila a partir de la posición indicada
+        private void asignar(PreparedStatement sentencia, int primero, Object[] parametros) throws SQLException {
+            for (int i = 0; i < parametros.length; i++) {
+                Object valor = parametros[i];
+                if (valor == null) {
+                    sentencia.setNull(primero + i, tipos[i]);
+                } else {
+                    sentencia.setObject(primero + i, valor);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.iesochoa.ejemplodbjavafx.csv;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resumen de una importación CSV: filas leídas, filas nuevas, duplicadas (omitidas o actualizadas)
+ * y filas con errores. De los errores se guardan solo los primeros mensajes para no llenar la memoria
+ * con ficheros muy grandes y muy erróneos.
+ */
+public class ResultadoImportacion {
+    /**
+     * Número máximo de mensajes de error que se guardan.
+     */
+    public static final int MAX_MENSAJES = 100;
+
+    private long leidas;
+    private long nuevas;
+    private long duplicadas;
+    private long erroneas;
+    private final List<String> errores = new ArrayList<>();
+
+    void sumarLeida() { leidas++; }
+    void sumarNuevas(long n) { nuevas += n; }
+    void sumarDuplicadas(long n) { duplicadas += n; }
+
+    /**
+     * Crea un resultado vacío, sin filas ni errores.
+     */
+    public ResultadoImportacion() {
+    }
+
+    /**
+     * Registra una fila errónea.
+     *
+     * @param linea   El número de línea del fichero.
+     * @param mensaje El motivo del error.
+     */
+    void registrarError(long linea, String mensaje) {
+        erroneas++;
+        if (errores.size() < MAX_MENSAJES) {
+            errores.add("Línea " + linea + ": " + mensaje);
+        }
+    }
+
+    public long getLeidas() { return leidas; }
+    public long getNuevas() { return nuevas; }
+    public long getDuplicadas() { return duplicadas; }
+    public long getErroneas() { return erroneas; }
+    public List<String> getErrores() { return Collections.unmodifiableList(errores); }
+
+    @Override
+    public String toString() {
+        return "Leídas: " + leidas + ", nuevas: " + nuevas + ", duplicadas: " + duplicadas + ", erróneas: " + erroneas;
+    }
+}
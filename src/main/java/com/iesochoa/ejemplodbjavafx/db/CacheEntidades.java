@@ -0,0 +1,219 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Caché de entidades por clave (mapa de identidad) con tamaño máximo y tiempo de vida.
+ * <p>
+ * Cuando se supera el tamaño máximo se descarta la entrada usada hace más tiempo (LRU), y las entradas
+ * más antiguas que el tiempo de vida se consideran caducadas y se vuelven a leer de la base de datos.
+ * El tiempo de vida limita cuánto tiempo se pueden ver datos modificados por otros clientes; los cambios
+ * hechos desde esta aplicación se aplican o invalidan en el momento desde los DAO.
+ * <p>
+ * Para tablas pequeñas de consulta (como los departamentos) la caché puede guardar además la tabla completa
+ * con {@link #guardarTodos(List)}, de modo que los listados posteriores no van a la base de datos.
+ * Todos los métodos son seguros para usarse desde varios hilos.
+ *
+ * @param <K> El tipo de la clave (el {@code id} o {@code codigo} de la entidad).
+ * @param <V> El tipo de la entidad.
+ */
+public class CacheEntidades<K, V> {
+    private final int tamanoMaximo;
+    private final long tiempoVidaNanos;
+    private final Function<V, K> clave;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    /**
+     * Claves de la tabla completa en el orden en que se leyó, o {@code null} si no está completa.
+     */
+    private List<K> ordenCompleto;
+    private long completaDesde;
+
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private long expiraciones;
+
+    /**
+     * Crea una caché vacía.
+     *
+     * @param tamanoMaximo  Número máximo de entidades guardadas.
+     * @param tiempoVidaMs  Tiempo (ms) tras el que una entidad guardada caduca.
+     * @param clave         Función que obtiene la clave de una entidad.
+     */
+    public CacheEntidades(int tamanoMaximo, long tiempoVidaMs, Function<V, K> clave) {
+        this.tamanoMaximo = tamanoMaximo;
+        this.tiempoVidaNanos = tiempoVidaMs * 1_000_000;
+        this.clave = clave;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                if (size() > CacheEntidades.this.tamanoMaximo) {
+                    desalojos++;
+                    ordenCompleto = null;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve la entidad guardada con la clave indicada.
+     *
+     * @param k La clave.
+     * @return La entidad o {@code null} si no está o ha caducado.
+     */
+    public synchronized V get(K k) {
+        Entrada<V> entrada = entradas.get(k);
+        if (entrada != null && caducada(entrada.guardada)) {
+            entradas.remove(k);
+            expiraciones++;
+            ordenCompleto = null;
+            entrada = null;
+        }
+        if (entrada == null) {
+            fallos++;
+            return null;
+        }
+        aciertos++;
+        return entrada.valor;
+    }
+
+    /**
+     * Devuelve la instancia canónica de una entidad: la guardada si existe y {@code esIgual} la acepta,
+     * o la que devuelve {@code crear}, que pasa a guardarse. Sirve para que todas las filas que se refieren
+     * a la misma entidad compartan un único objeto.
+     *
+     * @param k       La clave.
+     * @param esIgual Indica si la entidad guardada sigue correspondiendo a los datos leídos.
+     * @param crear   Crea la entidad a partir de la clave cuando no se puede reutilizar la guardada.
+     * @return La instancia canónica.
+     */
+    public synchronized V canonica(K k, Predicate<V> esIgual, Function<K, V> crear) {
+        V guardada = get(k);
+        if (guardada != null && esIgual.test(guardada)) {
+            return guardada;
+        }
+        V nueva = crear.apply(k);
+        guardar(nueva);
+        return nueva;
+    }
+
+    /**
+     * Guarda (o sustituye) una entidad.
+     *
+     * @param valor La entidad a guardar.
+     */
+    public synchronized void guardar(V valor) {
+        K k = clave.apply(valor);
+        if (ordenCompleto != null && !entradas.containsKey(k)) {
+            // Una entidad nueva que no estaba en el listado completo lo deja desfasado.
+            ordenCompleto = null;
+        }
+        entradas.put(k, new Entrada<>(valor, System.nanoTime()));
+    }
+
+    /**
+     * Guarda todas las entidades de la tabla y recuerda que la caché la contiene completa.
+     * Si la tabla no cabe en la caché solo se guardan las entidades, sin marcarla como completa.
+     *
+     * @param valores Todas las entidades de la tabla, en el orden en que se deben listar.
+     */
+    public synchronized void guardarTodos(List<V> valores) {
+        List<K> orden = new ArrayList<>(valores.size());
+        for (V valor : valores) {
+            K k = clave.apply(valor);
+            entradas.put(k, new Entrada<>(valor, System.nanoTime()));
+            orden.add(k);
+        }
+        if (valores.size() <= tamanoMaximo) {
+            ordenCompleto = orden;
+            completaDesde = System.nanoTime();
+        }
+    }
+
+    /**
+     * Devuelve la tabla completa si la caché la contiene y no ha caducado.
+     *
+     * @return Una lista nueva con todas las entidades, o {@code null} si hay que leerlas de la base de datos.
+     */
+    public synchronized List<V> getTodos() {
+        if (ordenCompleto == null || caducada(completaDesde)) {
+            ordenCompleto = null;
+            fallos++;
+            return null;
+        }
+        List<V> valores = new ArrayList<>(ordenCompleto.size());
+        for (K k : ordenCompleto) {
+            Entrada<V> entrada = entradas.get(k);
+            if (entrada == null) {
+                ordenCompleto = null;
+                fallos++;
+                return null;
+            }
+            valores.add(entrada.valor);
+        }
+        aciertos++;
+        return valores;
+    }
+
+    /**
+     * Descarta la entidad con la clave indicada (por ejemplo, tras actualizarla o borrarla).
+     *
+     * @param k La clave.
+     */
+    public synchronized void invalidar(K k) {
+        if (entradas.remove(k) != null) {
+            ordenCompleto = null;
+        }
+    }
+
+    /**
+     * Descarta todas las entidades.
+     */
+    public synchronized void invalidarTodo() {
+        entradas.clear();
+        ordenCompleto = null;
+    }
+
+    /**
+     * Descarta las entidades caducadas. No es necesario llamarlo (se descartan al consultarlas),
+     * pero libera memoria antes.
+     */
+    public synchronized void purgarCaducadas() {
+        Iterator<Entrada<V>> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            if (caducada(it.next().guardada)) {
+                it.remove();
+                expiraciones++;
+                ordenCompleto = null;
+            }
+        }
+    }
+
+    /**
+     * Devuelve una instantánea de las estadísticas de la caché.
+     *
+     * @return Las estadísticas actuales.
+     */
+    public synchronized CacheStats getEstadisticas() {
+        return new CacheStats(aciertos, fallos, desalojos, expiraciones, entradas.size());
+    }
+
+    private boolean caducada(long guardada) {
+        return System.nanoTime() - guardada > tiempoVidaNanos;
+    }
+
+    /**
+     * Entidad guardada junto con el instante en que se guardó.
+     */
+    private record Entrada<V>(V valor, long guardada) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+/**
+ * Instantánea de las estadísticas de una {@link CacheEntidades}.
+ * Un porcentaje de aciertos bajo con muchos desalojos indica que la caché se queda pequeña;
+ * muchas expiraciones indican que el tiempo de vida es demasiado corto.
+ */
+public class CacheStats {
+    private final long aciertos;
+    private final long fallos;
+    private final long desalojos;
+    private final long expiraciones;
+    private final int tamano;
+
+    /**
+     * Crea una instantánea de estadísticas.
+     *
+     * @param aciertos     Consultas resueltas desde la caché.
+     * @param fallos       Consultas que no encontraron el valor (o lo encontraron caducado).
+     * @param desalojos    Entradas descartadas por superar el tamaño máximo.
+     * @param expiraciones Entradas descartadas por superar el tiempo de vida.
+     * @param tamano       Entradas guardadas en este momento.
+     */
+    public CacheStats(long aciertos, long fallos, long desalojos, long expiraciones, int tamano) {
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.desalojos = desalojos;
+        this.expiraciones = expiraciones;
+        this.tamano = tamano;
+    }
+
+    public long getAciertos() { return aciertos; }
+    public long getFallos() { return fallos; }
+    public long getDesalojos() { return desalojos; }
+    public long getExpiraciones() { return expiraciones; }
+    public int getTamano() { return tamano; }
+
+    /**
+     * Proporción de consultas resueltas desde la caché, entre 0 y 1.
+     *
+     * @return El porcentaje de aciertos (0 si aún no hay consultas).
+     */
+    public double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0 : (double) aciertos / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "aciertos=" + aciertos +
+                ", fallos=" + fallos +
+                ", desalojos=" + desalojos +
+                ", expiraciones=" + expiraciones +
+                ", tamano=" + tamano +
+                ", tasaAciertos=" + String.format("%.3f", getTasaAciertos()) +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+/**
+ * Una fila del registro de cambios (ver {@link RegistroCambios}): qué fila de qué tabla se ha escrito,
+ * de qué forma y desde qué instancia de la aplicación.
+ */
+public class Cambio {
+    /**
+     * Tipo de escritura registrada. Se guarda en la base de datos con su código de una letra.
+     */
+    public enum Tipo {
+        /** Fila creada. */
+        ALTA('A'),
+        /** Fila modificada. */
+        MODIFICACION('M'),
+        /** Fila eliminada. */
+        BORRADO('B'),
+        /** Muchas filas modificadas de golpe (por ejemplo, una importación): hay que volver a leer la tabla. */
+        INVALIDACION('I');
+
+        private final char codigo;
+
+        Tipo(char codigo) {
+            this.codigo = codigo;
+        }
+
+        public char getCodigo() { return codigo; }
+
+        /**
+         * Devuelve el tipo correspondiente a un código de una letra.
+         *
+         * @param codigo El código guardado en la base de datos.
+         * @return El tipo de cambio.
+         * @throws IllegalArgumentException Si el código no corresponde a ningún tipo.
+         */
+        public static Tipo deCodigo(char codigo) {
+            for (Tipo tipo : values()) {
+                if (tipo.codigo == codigo) {
+                    return tipo;
+                }
+            }
+            throw new IllegalArgumentException("Tipo de cambio desconocido: " + codigo);
+        }
+    }
+
+    private final long id;
+    private final String tabla;
+    private final int clave;
+    private final Tipo tipo;
+    private final String origen;
+
+    /**
+     * Crea un cambio leído del registro.
+     *
+     * @param id     Posición del cambio en el registro (creciente).
+     * @param tabla  La tabla modificada.
+     * @param clave  La clave primaria de la fila modificada (0 en una invalidación).
+     * @param tipo   El tipo de escritura.
+     * @param origen El identificador de la instancia que hizo la escritura.
+     */
+    public Cambio(long id, String tabla, int clave, Tipo tipo, String origen) {
+        this.id = id;
+        this.tabla = tabla;
+        this.clave = clave;
+        this.tipo = tipo;
+        this.origen = origen;
+    }
+
+    public long getId() { return id; }
+    public String getTabla() { return tabla; }
+    public int getClave() { return clave; }
+    public Tipo getTipo() { return tipo; }
+    public String getOrigen() { return origen; }
+
+    /**
+     * Indica si el cambio lo hizo esta misma instancia de la aplicación (ya aplicado en memoria).
+     *
+     * @return {@code true} si el origen es {@link RegistroCambios#ORIGEN}.
+     */
+    public boolean esPropio() {
+        return RegistroCambios.ORIGEN.equals(origen);
+    }
+
+    @Override
+    public String toString() {
+        return "Cambio{" +
+                "id=" + id +
+                ", tabla='" + tabla + '\'' +
+                ", clave=" + clave +
+                ", tipo=" + tipo +
+                ", origen='" + origen + '\'' +
+                '}';
+    }
+}
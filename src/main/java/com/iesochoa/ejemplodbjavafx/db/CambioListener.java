@@ -0,0 +1,41 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+/**
+ * Recibe los avisos de escritura de un DAO, para mantener al día estructuras en memoria
+ * (índices, cachés...) sin volver a consultar la base de datos.
+ * Los avisos llegan en el hilo que hizo la escritura, después de que esta se haya realizado.
+ *
+ * @param <T> El tipo de la entidad.
+ */
+public interface CambioListener<T> {
+    /**
+     * Se ha creado o actualizado una entidad.
+     *
+     * @param entidad La entidad con sus datos actuales.
+     */
+    void guardado(T entidad);
+
+    /**
+     * Se ha creado una entidad. Por defecto se trata igual que cualquier otro guardado; lo pueden
+     * distinguir quienes necesitan saber si la entidad es nueva (por ejemplo, para añadirla al final de una lista).
+     *
+     * @param entidad La entidad creada, ya con su identificador.
+     */
+    default void creado(T entidad) {
+        guardado(entidad);
+    }
+
+    /**
+     * Se ha eliminado una entidad.
+     *
+     * @param id El identificador de la entidad eliminada.
+     */
+    void borrado(int id);
+
+    /**
+     * Se han modificado muchas filas sin pasar por el DAO (por ejemplo, una importación masiva),
+     * por lo que cualquier dato en memoria debe descartarse.
+     */
+    default void invalidado() {
+    }
+}
@@ -0,0 +1,281 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Configuración de la base de datos por perfiles.
+ * <p>
+ * Los valores se leen de {@code database.properties} (incluido en la aplicación) y de un fichero externo
+ * opcional indicado con la propiedad del sistema {@code db.config}. Cualquier clave se puede sustituir con
+ * una variable de entorno (la clave en mayúsculas con {@code _} en lugar de {@code .}, por ejemplo
+ * {@code DB_REMOTO_PASSWORD}) o con una propiedad del sistema ({@code -Ddb.remoto.password=...}),
+ * que tiene prioridad sobre todo lo demás.
+ * <p>
+ * Cada perfil define sus claves con el prefijo {@code db.<perfil>.}:
+ * <ul>
+ *     <li>{@code url}, {@code usuario}, {@code password}: datos de acceso.</li>
+ *     <li>{@code migrar}: si es {@code true}, al arrancar se aplican las migraciones pendientes del esquema
+ *     (ver {@link MigracionesBD}), lo que necesita un usuario con permisos para modificar tablas. Sin ella
+ *     solo se comprueba que el esquema es compatible.</li>
+ *     <li>{@code inicializar}: si es {@code true} (junto con {@code migrar}), se crean los datos de ejemplo
+ *     cuando la base de datos estaba vacía.</li>
+ *     <li>{@code pool.*}: límites del pool ({@code tamanoMinimo}, {@code tamanoMaximo}, {@code timeoutPrestamoMs},
+ *     {@code timeoutInactividadMs}, {@code vidaMaximaMs}, {@code intervaloValidacionMs},
+ *     {@code timeoutValidacionSeg}, {@code tamanoCacheSentencias}).</li>
+ *     <li>{@code driver.*}: propiedades que se pasan al driver JDBC.</li>
+ *     <li>{@code replicas}: URLs de las réplicas de lectura separadas por comas (mismas credenciales y opciones);
+ *     {@code replicas.estrategia} ({@code TURNOS} o {@code MENOR_LATENCIA}),
+ *     {@code replicas.ventanaLecturaPropiaMs} e {@code replicas.intervaloComprobacionMs}
+ *     (ver {@link EnrutadorLecturas}).</li>
+ *     <li>{@code metricas.umbralLentaMs}: a partir de cuántos milisegundos se registra una consulta como lenta
+ *     (negativo para no registrar ninguna), y {@code metricas.intervaloVolcadoSeg}: cada cuántos segundos se
+ *     escriben las métricas de los DAO (0 para no escribirlas). Ver {@link MetricasDAO}.</li>
+ *     <li>{@code sincronizacion.intervaloMs}: cada cuántos milisegundos se leen los cambios hechos desde otros
+ *     equipos en el {@link RegistroCambios} (0 para no leerlos).</li>
+ * </ul>
+ * El perfil activo se elige con la clave {@code db.perfil}.
+ */
+public class ConfiguracionBD {
+    /**
+     * Recurso con la configuración incluida en la aplicación.
+     */
+    private static final String RECURSO = "/com/iesochoa/ejemplodbjavafx/database.properties";
+    /**
+     * Propiedad del sistema con la ruta de un fichero de configuración externo.
+     */
+    public static final String PROPIEDAD_FICHERO = "db.config";
+    /**
+     * Clave con el nombre del perfil activo.
+     */
+    public static final String CLAVE_PERFIL = "db.perfil";
+    /**
+     * Perfil de base de datos embebida en memoria.
+     */
+    public static final String PERFIL_EMBEBIDO = "embebido";
+
+    /**
+     * Intervalo por defecto entre lecturas del registro de cambios, en milisegundos.
+     */
+    public static final long INTERVALO_SINCRONIZACION_POR_DEFECTO_MS = 2_000;
+
+    private static final String[] OPCIONES_POOL = {
+            "tamanoMinimo", "tamanoMaximo", "timeoutPrestamoMs", "timeoutInactividadMs",
+            "vidaMaximaMs", "intervaloValidacionMs", "timeoutValidacionSeg", "tamanoCacheSentencias"
+    };
+
+    private final String perfil;
+    private final PoolConfig poolConfig;
+    private final boolean migrar;
+    private final boolean inicializar;
+    private final List<PoolConfig> replicas = new ArrayList<>();
+    private EnrutadorLecturas.Estrategia estrategiaReplicas = EnrutadorLecturas.Estrategia.TURNOS;
+    private long ventanaLecturaPropiaMs = 2_000;
+    private long intervaloComprobacionMs = 5_000;
+    private long umbralLentaMs = MetricasDAO.UMBRAL_LENTA_POR_DEFECTO_MS;
+    private long intervaloVolcadoSeg;
+    private long intervaloSincronizacionMs = INTERVALO_SINCRONIZACION_POR_DEFECTO_MS;
+
+    private ConfiguracionBD(String perfil, PoolConfig poolConfig, boolean migrar, boolean inicializar) {
+        this.perfil = perfil;
+        this.poolConfig = poolConfig;
+        this.migrar = migrar;
+        this.inicializar = inicializar;
+    }
+
+    /**
+     * Carga la configuración del perfil activo.
+     *
+     * @return La configuración cargada.
+     * @throws IllegalStateException Si no se puede leer la configuración o el perfil no tiene URL.
+     */
+    public static ConfiguracionBD cargar() {
+        Properties propiedades = leerPropiedades();
+        String perfil = valor(propiedades, CLAVE_PERFIL);
+        if (perfil == null || perfil.isBlank()) {
+            throw new IllegalStateException("No se ha indicado el perfil de base de datos (" + CLAVE_PERFIL + ")");
+        }
+        return cargar(propiedades, perfil.trim());
+    }
+
+    /**
+     * Carga la configuración del perfil indicado, sin tener en cuenta {@code db.perfil}.
+     *
+     * @param perfil El nombre del perfil.
+     * @return La configuración cargada.
+     * @throws IllegalStateException Si no se puede leer la configuración o el perfil no tiene URL.
+     */
+    public static ConfiguracionBD cargar(String perfil) {
+        return cargar(leerPropiedades(), perfil);
+    }
+
+    private static ConfiguracionBD cargar(Properties propiedades, String perfil) {
+        String prefijo = "db." + perfil + ".";
+        String url = valor(propiedades, prefijo + "url");
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("El perfil de base de datos '" + perfil + "' no tiene URL (" + prefijo + "url)");
+        }
+        PoolConfig config = new PoolConfig(url, valor(propiedades, prefijo + "usuario"), valor(propiedades, prefijo + "password"));
+        for (String opcion : OPCIONES_POOL) {
+            String texto = valor(propiedades, prefijo + "pool." + opcion);
+            if (texto != null && !texto.isBlank()) {
+                aplicarOpcionPool(config, opcion, Long.parseLong(texto.trim()));
+            }
+        }
+        String prefijoDriver = prefijo + "driver.";
+        for (String clave : propiedades.stringPropertyNames()) {
+            if (clave.startsWith(prefijoDriver)) {
+                config.setPropiedadDriver(clave.substring(prefijoDriver.length()), valor(propiedades, clave));
+            }
+        }
+        for (String clave : System.getProperties().stringPropertyNames()) {
+            if (clave.startsWith(prefijoDriver)) {
+                config.setPropiedadDriver(clave.substring(prefijoDriver.length()), System.getProperty(clave));
+            }
+        }
+        boolean migrar = Boolean.parseBoolean(valor(propiedades, prefijo + "migrar"));
+        boolean inicializar = Boolean.parseBoolean(valor(propiedades, prefijo + "inicializar"));
+        ConfiguracionBD configuracion = new ConfiguracionBD(perfil, config, migrar, inicializar);
+        String replicas = valor(propiedades, prefijo + "replicas");
+        if (replicas != null) {
+            for (String urlReplica : replicas.split(",")) {
+                if (!urlReplica.isBlank()) {
+                    configuracion.replicas.add(config.copiarConUrl(urlReplica.trim()));
+                }
+            }
+        }
+        String estrategia = valor(propiedades, prefijo + "replicas.estrategia");
+        if (estrategia != null && !estrategia.isBlank()) {
+            configuracion.estrategiaReplicas = EnrutadorLecturas.Estrategia.valueOf(estrategia.trim().toUpperCase(Locale.ROOT));
+        }
+        String ventana = valor(propiedades, prefijo + "replicas.ventanaLecturaPropiaMs");
+        if (ventana != null && !ventana.isBlank()) {
+            configuracion.ventanaLecturaPropiaMs = Long.parseLong(ventana.trim());
+        }
+        String intervalo = valor(propiedades, prefijo + "replicas.intervaloComprobacionMs");
+        if (intervalo != null && !intervalo.isBlank()) {
+            configuracion.intervaloComprobacionMs = Long.parseLong(intervalo.trim());
+        }
+        String umbral = valor(propiedades, prefijo + "metricas.umbralLentaMs");
+        if (umbral != null && !umbral.isBlank()) {
+            configuracion.umbralLentaMs = Long.parseLong(umbral.trim());
+        }
+        String volcado = valor(propiedades, prefijo + "metricas.intervaloVolcadoSeg");
+        if (volcado != null && !volcado.isBlank()) {
+            configuracion.intervaloVolcadoSeg = Long.parseLong(volcado.trim());
+        }
+        String sincronizacion = valor(propiedades, prefijo + "sincronizacion.intervaloMs");
+        if (sincronizacion != null && !sincronizacion.isBlank()) {
+            configuracion.intervaloSincronizacionMs = Long.parseLong(sincronizacion.trim());
+        }
+        return configuracion;
+    }
+
+    public String getPerfil() { return perfil; }
+
+    /**
+     * Devuelve la configuración del pool del perfil (datos de acceso, límites y propiedades del driver).
+     *
+     * @return La configuración del pool.
+     */
+    public PoolConfig getPoolConfig() { return poolConfig; }
+
+    /**
+     * Indica si al arrancar hay que aplicar las migraciones pendientes del esquema.
+     *
+     * @return {@code true} si este perfil migra la base de datos.
+     */
+    public boolean isMigrar() { return migrar; }
+
+    /**
+     * Indica si al arrancar hay que crear los datos de ejemplo si la base de datos estaba vacía
+     * (solo en los perfiles que migran).
+     *
+     * @return {@code true} si hay que inicializar la base de datos.
+     */
+    public boolean isInicializar() { return inicializar; }
+
+    /**
+     * Devuelve la configuración de cada réplica de lectura (vacía si el perfil no tiene réplicas).
+     *
+     * @return Las configuraciones de las réplicas.
+     */
+    public List<PoolConfig> getReplicas() { return replicas; }
+
+    public EnrutadorLecturas.Estrategia getEstrategiaReplicas() { return estrategiaReplicas; }
+    public long getVentanaLecturaPropiaMs() { return ventanaLecturaPropiaMs; }
+    public long getIntervaloComprobacionMs() { return intervaloComprobacionMs; }
+    public long getUmbralLentaMs() { return umbralLentaMs; }
+    public long getIntervaloVolcadoSeg() { return intervaloVolcadoSeg; }
+    public long getIntervaloSincronizacionMs() { return intervaloSincronizacionMs; }
+
+    /**
+     * Busca una clave: primero en las propiedades del sistema, después en las variables de entorno
+     * y por último en los ficheros de configuración.
+     */
+    private static String valor(Properties propiedades, String clave) {
+        String valor = System.getProperty(clave);
+        if (valor == null) {
+            valor = System.getenv(clave.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "_"));
+        }
+        if (valor == null) {
+            valor = propiedades.getProperty(clave);
+        }
+        return valor;
+    }
+
+    private static Properties leerPropiedades() {
+        Properties propiedades = new Properties();
+        try (InputStream in = ConfiguracionBD.class.getResourceAsStream(RECURSO)) {
+            if (in != null) {
+                try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                    propiedades.load(reader);
+                }
+            }
+            String fichero = System.getProperty(PROPIEDAD_FICHERO);
+            if (fichero != null) {
+                try (Reader reader = Files.newBufferedReader(Path.of(fichero), StandardCharsets.UTF_8)) {
+                    propiedades.load(reader);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer la configuración de la base de datos: " + e.getMessage(), e);
+        }
+        return propiedades;
+    }
+
+    private static void aplicarOpcionPool(PoolConfig config, String opcion, long valor) {
+        switch (opcion) {
+            case "tamanoMinimo" -> config.setTamanoMinimo((int) valor);
+            case "tamanoMaximo" -> config.setTamanoMaximo((int) valor);
+            case "timeoutPrestamoMs" -> config.setTimeoutPrestamoMs(valor);
+            case "timeoutInactividadMs" -> config.setTimeoutInactividadMs(valor);
+            case "vidaMaximaMs" -> config.setVidaMaximaMs(valor);
+            case "intervaloValidacionMs" -> config.setIntervaloValidacionMs(valor);
+            case "timeoutValidacionSeg" -> config.setTimeoutValidacionSeg((int) valor);
+            case "tamanoCacheSentencias" -> config.setTamanoCacheSentencias((int) valor);
+            default -> throw new IllegalArgumentException("Opción de pool desconocida: " + opcion);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ConfiguracionBD{" +
+                "perfil='" + perfil + '\'' +
+                ", url='" + poolConfig.getUrl() + '\'' +
+                ", usuario='" + poolConfig.getUsuario() + '\'' +
+                ", migrar=" + migrar +
+                ", inicializar=" + inicializar +
+                ", replicas=" + replicas.size() +
+                '}';
+    }
+}
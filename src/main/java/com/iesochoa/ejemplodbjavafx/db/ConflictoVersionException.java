@@ -0,0 +1,44 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.sql.SQLException;
+
+/**
+ * Se lanza al actualizar una fila que otro usuario ha modificado después de que se leyera
+ * (control de concurrencia optimista): la versión guardada ya no coincide con la de la entidad.
+ * La fila no se modifica; hay que volver a leerla y repetir los cambios sobre los datos actuales.
+ */
+public class ConflictoVersionException extends SQLException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Estado SQL estándar de los conflictos de serialización.
+     */
+    public static final String SQL_STATE = "40001";
+
+    private final String tabla;
+    private final int clave;
+    private final int versionEsperada;
+    private final int versionActual;
+
+    /**
+     * Crea la excepción de un conflicto de versión.
+     *
+     * @param tabla           La tabla de la fila ({@link RegistroCambios#EMPLEADO} o {@link RegistroCambios#DEPARTAMENTO}).
+     * @param clave           La clave primaria de la fila.
+     * @param versionEsperada La versión con la que se leyó la fila.
+     * @param versionActual   La versión que tiene ahora en la base de datos.
+     */
+    public ConflictoVersionException(String tabla, int clave, int versionEsperada, int versionActual) {
+        super("La fila " + clave + " de " + tabla + " la ha modificado otro usuario (versión "
+                + versionEsperada + ", actual " + versionActual + ")", SQL_STATE);
+        this.tabla = tabla;
+        this.clave = clave;
+        this.versionEsperada = versionEsperada;
+        this.versionActual = versionActual;
+    }
+
+    public String getTabla() { return tabla; }
+    public int getClave() { return clave; }
+    public int getVersionEsperada() { return versionEsperada; }
+    public int getVersionActual() { return versionActual; }
+}
@@ -0,0 +1,883 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool de conexiones JDBC acotado.
+ * Mantiene entre {@link PoolConfig#getTamanoMinimo()} y {@link PoolConfig#getTamanoMaximo()} conexiones
+ * físicas abiertas. Cada llamada a {@link #getConnection()} presta una conexión que se devuelve
+ * al pool al llamar a {@link Connection#close()}, por lo que los DAO deben usarla dentro de un
+ * try-with-resources.
+ * <p>
+ * Las conexiones que llevan un rato sin usarse se validan antes de prestarse, las que superan
+ * su vida máxima se renuevan y un hilo de limpieza cierra las inactivas sobrantes.
+ * <p>
+ * Cada conexión física guarda además abiertas sus últimas {@link PoolConfig#getTamanoCacheSentencias()}
+ * sentencias preparadas (LRU). Cuando un DAO llama a {@code prepareStatement} con un SQL ya usado en esa
+ * conexión recibe la sentencia guardada, sin volver a analizarla ni prepararla en el servidor, y al cerrarla
+ * vuelve a la caché en lugar de cerrarse.
+ * <p>
+ * Todas las sentencias se entregan envueltas (también las que no se guardan, las de columnas generadas
+ * y los {@link Statement} de {@code createStatement}) para medir cada ejecución, anotar las escrituras
+ * y los parámetros, de modo que {@link MetricasDAO} pueda registrar las consultas lentas.
+ * Cada préstamo y cada ejecución emiten además un evento de Java Flight Recorder
+ * ({@link EventoPrestamoConexion} y {@link EventoSentencia}).
+ */
+public class ConnectionPool implements AutoCloseable {
+    /**
+     * Configuración del pool.
+     */
+    private final PoolConfig config;
+    /**
+     * Cerrojo que protege el estado del pool.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Condición para avisar a los hilos que esperan una conexión libre.
+     */
+    private final Condition disponible = lock.newCondition();
+    /**
+     * Conexiones libres. Se usan en orden LIFO para que las menos usadas caduquen por inactividad.
+     */
+    private final Deque<ConexionFisica> inactivas = new ArrayDeque<>();
+    /**
+     * Conexiones físicas abiertas o abriéndose.
+     */
+    private int total;
+    /**
+     * Conexiones prestadas.
+     */
+    private int activas;
+    /**
+     * Hilos esperando una conexión.
+     */
+    private int esperando;
+    /**
+     * Indica si el pool se ha cerrado.
+     */
+    private boolean cerrado;
+
+    private final LongAdder prestamos = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder nanosPrestamo = new LongAdder();
+    private final AtomicLong maxNanosPrestamo = new AtomicLong();
+    private final LongAdder aciertosSentencias = new LongAdder();
+    /**
+     * Acción opcional que se ejecuta cada vez que se escribe en la base de datos (ver {@link #setAlEscribir(Runnable)}).
+     */
+    private volatile Runnable alEscribir;
+    private final LongAdder fallosSentencias = new LongAdder();
+    private final LongAdder ejecuciones = new LongAdder();
+
+    /**
+     * Texto que se registra como SQL de un {@code executeBatch} de un {@link Statement}, que no tiene un SQL propio.
+     */
+    private static final String SQL_STATEMENT = "(lote de un Statement)";
+
+    /**
+     * Hilo de mantenimiento que cierra conexiones inactivas o caducadas y rellena hasta el mínimo.
+     */
+    private final ScheduledExecutorService limpiador;
+
+    /**
+     * Crea un pool con la configuración indicada. Las conexiones mínimas se abren
+     * en segundo plano para no retrasar el arranque de la aplicación.
+     *
+     * @param config La configuración del pool.
+     */
+    public ConnectionPool(PoolConfig config) {
+        this.config = config;
+        this.limpiador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "pool-conexiones-limpiador");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long periodo = Math.max(1_000, Math.min(config.getTimeoutInactividadMs() / 2, 30_000));
+        limpiador.scheduleWithFixedDelay(this::mantenimiento, 0, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Presta una conexión del pool. Si no hay ninguna libre y se ha alcanzado el tamaño máximo,
+     * espera como mucho {@link PoolConfig#getTimeoutPrestamoMs()} milisegundos.
+     *
+     * @return Una conexión que se devuelve al pool al cerrarla.
+     * @throws SQLTimeoutException Si no queda libre ninguna conexión a tiempo.
+     * @throws SQLException        Si el pool está cerrado o no se puede abrir una conexión nueva.
+     */
+    public Connection getConnection() throws SQLException {
+        long inicio = System.nanoTime();
+        long limite = inicio + TimeUnit.MILLISECONDS.toNanos(config.getTimeoutPrestamoMs());
+        ConexionFisica fisica = null;
+        EventoPrestamoConexion evento = new EventoPrestamoConexion();
+        evento.begin();
+        boolean nueva = false;
+        try {
+            while (fisica == null) {
+                boolean crear = false;
+                lock.lock();
+                try {
+                    comprobarAbierto();
+                    while (inactivas.isEmpty() && total >= config.getTamanoMaximo()) {
+                        long restante = limite - System.nanoTime();
+                        if (restante <= 0) {
+                            timeouts.increment();
+                            throw new SQLTimeoutException("No hay conexiones libres tras esperar "
+                                    + config.getTimeoutPrestamoMs() + " ms (" + activas + " en uso)");
+                        }
+                        esperando++;
+                        try {
+                            disponible.awaitNanos(restante);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrumpido esperando una conexión", e);
+                        } finally {
+                            esperando--;
+                        }
+                        comprobarAbierto();
+                    }
+                    activas++;
+                    if (!inactivas.isEmpty()) {
+                        fisica = inactivas.pollFirst();
+                    } else {
+                        // Reservamos el hueco y abrimos la conexión fuera del cerrojo.
+                        total++;
+                        crear = true;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (crear) {
+                    try {
+                        fisica = abrir();
+                        nueva = true;
+                    } catch (SQLException e) {
+                        descartar(null, true);
+                        throw e;
+                    }
+                } else if (!esUtilizable(fisica)) {
+                    descartar(fisica, true);
+                    fisica = null;
+                }
+            }
+            registrarPrestamo(System.nanoTime() - inicio);
+            return fisica.prestar();
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.url = config.getUrl();
+                evento.nueva = nueva;
+                evento.conseguida = fisica != null;
+                evento.commit();
+            }
+        }
+    }
+
+    /**
+     * Devuelve las estadísticas actuales del pool.
+     *
+     * @return Una instantánea de {@link PoolStats}.
+     */
+    public PoolStats getEstadisticas() {
+        lock.lock();
+        try {
+            long numPrestamos = prestamos.sum();
+            double medioMs = numPrestamos == 0 ? 0 : nanosPrestamo.sum() / (double) numPrestamos / 1_000_000.0;
+            return new PoolStats(activas, inactivas.size(), total, esperando, numPrestamos, timeouts.sum(),
+                    medioMs, maxNanosPrestamo.get() / 1_000_000.0, aciertosSentencias.sum(), fallosSentencias.sum(),
+                    ejecuciones.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devuelve la configuración del pool.
+     *
+     * @return La configuración.
+     */
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Indica una acción que se ejecuta cada vez que se escribe con una conexión del pool: tras un
+     * {@code executeUpdate}, un {@code executeBatch} o un {@code execute} sin resultados de cualquier sentencia
+     * (preparada o no), y tras un {@code commit}. Las consultas no la ejecutan. La usa {@link EnrutadorLecturas}
+     * para saber cuándo se ha escrito en la base de datos primaria.
+     *
+     * @param alEscribir La acción, o {@code null} para quitarla.
+     */
+    public void setAlEscribir(Runnable alEscribir) {
+        this.alEscribir = alEscribir;
+    }
+
+    private void anotarEscritura() {
+        Runnable accion = alEscribir;
+        if (accion != null) {
+            accion.run();
+        }
+    }
+
+    /**
+     * Indica si el resultado de un {@code execute*} corresponde a una escritura: {@code executeUpdate},
+     * {@code executeBatch} (y sus variantes {@code Large}) o un {@code execute} que no devuelve filas.
+     */
+    private static boolean esEscritura(String metodo, Object resultado) {
+        return metodo.startsWith("executeUpdate") || metodo.startsWith("executeLargeUpdate")
+                || metodo.endsWith("Batch") || (metodo.equals("execute") && Boolean.FALSE.equals(resultado));
+    }
+
+    /**
+     * Cierra el pool y todas las conexiones libres. Las conexiones prestadas se cierran
+     * al devolverse.
+     */
+    @Override
+    public void close() {
+        List<ConexionFisica> aCerrar;
+        lock.lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            aCerrar = new ArrayList<>(inactivas);
+            total -= inactivas.size();
+            inactivas.clear();
+            disponible.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        limpiador.shutdownNow();
+        aCerrar.forEach(ConexionFisica::cerrarFisica);
+    }
+
+    private void comprobarAbierto() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+    }
+
+    private ConexionFisica abrir() throws SQLException {
+        Properties propiedades = config.getPropiedadesDriver();
+        if (config.getUsuario() != null) {
+            propiedades.setProperty("user", config.getUsuario());
+        }
+        if (config.getPassword() != null) {
+            propiedades.setProperty("password", config.getPassword());
+        }
+        Connection conexion = DriverManager.getConnection(config.getUrl(), propiedades);
+        return new ConexionFisica(conexion);
+    }
+
+    /**
+     * Comprueba si una conexión libre se puede prestar: que no haya superado su vida máxima
+     * y, si lleva tiempo sin usarse, que siga viva en el servidor.
+     */
+    private boolean esUtilizable(ConexionFisica fisica) {
+        long ahora = System.currentTimeMillis();
+        if (fisica.caducada(ahora)) {
+            return false;
+        }
+        if (ahora - fisica.ultimoUso < config.getIntervaloValidacionMs()) {
+            return true;
+        }
+        try {
+            return fisica.conexion.isValid(config.getTimeoutValidacionSeg());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Saca del recuento una conexión que no vuelve al pool y la cierra.
+     *
+     * @param fisica   La conexión física (puede ser {@code null} si no se llegó a abrir).
+     * @param prestada Si la conexión contaba como activa.
+     */
+    private void descartar(ConexionFisica fisica, boolean prestada) {
+        lock.lock();
+        try {
+            total--;
+            if (prestada) {
+                activas--;
+            }
+            disponible.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (fisica != null) {
+            fisica.cerrarFisica();
+        }
+    }
+
+    /**
+     * Recibe una conexión devuelta por un DAO. Si está rota o caducada se cierra;
+     * en otro caso se deja limpia (sin transacción pendiente) y vuelve a la cola de libres.
+     */
+    private void devolver(ConexionFisica fisica) {
+        boolean valida = !fisica.rota && !fisica.caducada(System.currentTimeMillis());
+        if (valida) {
+            try {
+                if (!fisica.conexion.getAutoCommit()) {
+                    fisica.conexion.rollback();
+                    fisica.conexion.setAutoCommit(true);
+                }
+                if (fisica.conexion.isReadOnly()) {
+                    fisica.conexion.setReadOnly(false);
+                }
+            } catch (SQLException e) {
+                valida = false;
+            }
+        }
+        lock.lock();
+        try {
+            activas--;
+            if (valida && !cerrado) {
+                fisica.ultimoUso = System.currentTimeMillis();
+                inactivas.offerFirst(fisica);
+                disponible.signal();
+                return;
+            }
+            total--;
+            disponible.signal();
+        } finally {
+            lock.unlock();
+        }
+        fisica.cerrarFisica();
+    }
+
+    private void registrarPrestamo(long nanos) {
+        prestamos.increment();
+        nanosPrestamo.add(nanos);
+        maxNanosPrestamo.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Tarea periódica: cierra las conexiones inactivas que sobran o han caducado
+     * y abre las necesarias para mantener el tamaño mínimo.
+     */
+    private void mantenimiento() {
+        List<ConexionFisica> aCerrar = new ArrayList<>();
+        int aCrear;
+        lock.lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            long ahora = System.currentTimeMillis();
+            // Recorremos desde la más antigua (final de la cola).
+            Iterator<ConexionFisica> it = inactivas.descendingIterator();
+            while (it.hasNext()) {
+                ConexionFisica fisica = it.next();
+                boolean inactiva = ahora - fisica.ultimoUso > config.getTimeoutInactividadMs()
+                        && total > config.getTamanoMinimo();
+                if (inactiva || fisica.caducada(ahora)) {
+                    it.remove();
+                    total--;
+                    aCerrar.add(fisica);
+                }
+            }
+            aCrear = Math.max(0, config.getTamanoMinimo() - total);
+            total += aCrear;
+        } finally {
+            lock.unlock();
+        }
+        aCerrar.forEach(ConexionFisica::cerrarFisica);
+        for (int i = 0; i < aCrear; i++) {
+            try {
+                ConexionFisica fisica = abrir();
+                lock.lock();
+                try {
+                    if (cerrado) {
+                        total--;
+                        fisica.cerrarFisica();
+                    } else {
+                        inactivas.offerLast(fisica);
+                        disponible.signal();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            } catch (SQLException e) {
+                // No hay servidor disponible: liberamos los huecos reservados y lo intentamos en la siguiente pasada.
+                lock.lock();
+                try {
+                    total -= aCrear - i;
+                } finally {
+                    lock.unlock();
+                }
+                System.err.println("No se pudo abrir una conexión del pool: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Conexión física gestionada por el pool junto con sus marcas de tiempo.
+     */
+    private class ConexionFisica {
+        final Connection conexion;
+        final long creada = System.currentTimeMillis();
+        volatile long ultimoUso = creada;
+        /**
+         * Se marca si el driver devuelve un error de conexión (SQLState 08xxx).
+         */
+        volatile boolean rota;
+        /**
+         * Sentencias preparadas guardadas, por SQL y opciones, en orden de uso (LRU).
+         * Solo la usa el hilo que tiene prestada la conexión.
+         */
+        final LinkedHashMap<String, SentenciaGuardada> sentencias;
+
+        ConexionFisica(Connection conexion) {
+            this.conexion = conexion;
+            this.sentencias = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SentenciaGuardada> eldest) {
+                    if (size() > config.getTamanoCacheSentencias() && !eldest.getValue().enUso) {
+                        eldest.getValue().cerrarFisica();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        /**
+         * Devuelve una sentencia preparada para el SQL indicado, reutilizando la guardada si está libre.
+         *
+         * @param prestada La conexión prestada a la que pertenecerá la sentencia.
+         * @param sql      El SQL de la sentencia.
+         * @param opciones Los argumentos enteros de {@code prepareStatement} que siguen al SQL: ninguno,
+         *                 las claves generadas ({@code Statement.RETURN_GENERATED_KEYS} o {@code NO_GENERATED_KEYS}),
+         *                 o el tipo y la concurrencia del {@link ResultSet}, y quizá su holdability.
+         *                 Forman parte de la clave de la caché.
+         */
+        PreparedStatement prepararSentencia(Connection prestada, String sql, int[] opciones) throws SQLException {
+            if (config.getTamanoCacheSentencias() <= 0) {
+                PreparedStatement ps = prepararFisica(sql, opciones);
+                return (PreparedStatement) new SentenciaGuardada(this, sql, ps, false).prestar(prestada);
+            }
+            String clave = opciones.length == 0 ? sql : Arrays.toString(opciones) + ":" + sql;
+            SentenciaGuardada guardada = sentencias.get(clave);
+            if (guardada != null && guardada.cerrada) {
+                sentencias.remove(clave);
+                guardada = null;
+            }
+            if (guardada != null && !guardada.enUso) {
+                aciertosSentencias.increment();
+            } else {
+                fallosSentencias.increment();
+                PreparedStatement ps = prepararFisica(sql, opciones);
+                if (guardada != null) {
+                    // El mismo SQL ya está abierto en esta conexión (sentencias anidadas): esta no se guarda.
+                    return (PreparedStatement) new SentenciaGuardada(this, sql, ps, false).prestar(prestada);
+                }
+                guardada = new SentenciaGuardada(this, sql, ps, true);
+                sentencias.put(clave, guardada);
+            }
+            return (PreparedStatement) guardada.prestar(prestada);
+        }
+
+        // Prepara la sentencia en la conexión física con la misma sobrecarga que pidió el DAO
+        private PreparedStatement prepararFisica(String sql, int[] opciones) throws SQLException {
+            return switch (opciones.length) {
+                case 0 -> conexion.prepareStatement(sql);
+                case 1 -> conexion.prepareStatement(sql, opciones[0]);
+                case 2 -> conexion.prepareStatement(sql, opciones[0], opciones[1]);
+                default -> conexion.prepareStatement(sql, opciones[0], opciones[1], opciones[2]);
+            };
+        }
+
+        /**
+         * Recupera las sentencias que el DAO no cerró antes de devolver la conexión.
+         */
+        void liberarSentencias() {
+            List<SentenciaGuardada> enUso = new ArrayList<>();
+            sentencias.values().forEach(guardada -> {
+                if (guardada.enUso) {
+                    enUso.add(guardada);
+                }
+            });
+            enUso.forEach(SentenciaGuardada::devolver);
+            sentencias.values().removeIf(guardada -> guardada.cerrada);
+        }
+
+        void cerrarFisica() {
+            sentencias.values().forEach(SentenciaGuardada::cerrarFisica);
+            sentencias.clear();
+            try {
+                conexion.close();
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+            }
+        }
+
+        /**
+         * Marca la conexión como rota si el error es de conexión (SQLState 08xxx).
+         *
+         * @return El mismo error, para relanzarlo.
+         */
+        Throwable comprobarError(Throwable error) {
+            if (error instanceof SQLException sqlException
+                    && sqlException.getSQLState() != null
+                    && sqlException.getSQLState().startsWith("08")) {
+                rota = true;
+            }
+            return error;
+        }
+
+        boolean caducada(long ahora) {
+            return ahora - creada > config.getVidaMaximaMs();
+        }
+
+        /**
+         * Crea la vista que se entrega al DAO. Cada préstamo tiene su propia vista, de modo que
+         * cerrar dos veces la misma o usarla después de devolverla no afecta al siguiente préstamo.
+         */
+        Connection prestar() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new ConexionPrestada(this));
+        }
+
+    }
+
+    /**
+     * Intercepta las llamadas a la conexión prestada: {@code close()} la devuelve al pool
+     * y el resto se delegan en la conexión física.
+     */
+    private class ConexionPrestada implements InvocationHandler {
+        private final ConexionFisica fisica;
+        private boolean devuelta;
+
+        ConexionPrestada(ConexionFisica fisica) {
+            this.fisica = fisica;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!devuelta) {
+                        devuelta = true;
+                        fisica.liberarSentencias();
+                        devolver(fisica);
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || fisica.conexion.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPrestada[" + fisica.conexion + "]";
+                default:
+                    break;
+            }
+            if (devuelta) {
+                throw new SQLException("La conexión ya se ha devuelto al pool");
+            }
+            if (method.getName().equals("prepareStatement")) {
+                // Todas las sobrecargas salvo las de columnas generadas (int[] o String[]) pasan por la caché;
+                // esas se envuelven más abajo sin guardarse.
+                Class<?>[] tipos = method.getParameterTypes();
+                if (tipos.length == 1 || tipos[1] == int.class) {
+                    int[] opciones = new int[tipos.length - 1];
+                    for (int i = 0; i < opciones.length; i++) {
+                        opciones[i] = (Integer) args[i + 1];
+                    }
+                    return fisica.prepararSentencia((Connection) proxy, (String) args[0], opciones);
+                }
+            }
+            Object resultado;
+            try {
+                resultado = method.invoke(fisica.conexion, args);
+            } catch (InvocationTargetException e) {
+                throw fisica.comprobarError(e.getCause());
+            }
+            switch (method.getName()) {
+                case "commit":
+                    anotarEscritura();
+                    break;
+                case "createStatement":
+                    // Se envuelven sin guardarlas, para medirlas y anotar sus escrituras como las demás.
+                    return new SentenciaGuardada(fisica, SQL_STATEMENT, (Statement) resultado, false).prestar((Connection) proxy);
+                case "prepareStatement":
+                    return new SentenciaGuardada(fisica, (String) args[0], (Statement) resultado, false).prestar((Connection) proxy);
+                default:
+                    break;
+            }
+            return resultado;
+        }
+    }
+
+    /**
+     * Sentencia preparada guardada en la caché de una conexión física.
+     * Se presta a un DAO envuelta en una vista cuyo {@code close()} la deja limpia y la devuelve a la caché.
+     * Las sentencias que no se guardan ({@code enCache} a {@code false}), entre ellas los {@link Statement}
+     * sin preparar, se cierran al devolverlas.
+     */
+    private class SentenciaGuardada {
+        final ConexionFisica fisica;
+        final String sql;
+        final Statement sentencia;
+        final boolean enCache;
+        /**
+         * Valores iniciales de las opciones que un DAO puede cambiar, para restaurarlas al devolverla.
+         */
+        final int fetchSizeInicial;
+        final int maxRowsInicial;
+        final int queryTimeoutInicial;
+        boolean enUso;
+        boolean cerrada;
+        /**
+         * Número de préstamos; cada vista guarda el suyo y deja de funcionar cuando la sentencia se devuelve.
+         */
+        int prestamo;
+        /**
+         * Valores asignados a los parámetros, por posición, para el registro de consultas lentas.
+         */
+        Object[] parametros = new Object[8];
+        /**
+         * El SQL en una sola línea, para los eventos de JFR; se calcula la primera vez que se necesita.
+         */
+        String sqlCompacto;
+
+        SentenciaGuardada(ConexionFisica fisica, String sql, Statement sentencia, boolean enCache) throws SQLException {
+            this.fisica = fisica;
+            this.sql = sql;
+            this.sentencia = sentencia;
+            this.enCache = enCache;
+            this.fetchSizeInicial = sentencia.getFetchSize();
+            this.maxRowsInicial = sentencia.getMaxRows();
+            this.queryTimeoutInicial = sentencia.getQueryTimeout();
+        }
+
+        Statement prestar(Connection prestada) {
+            enUso = true;
+            prestamo++;
+            Class<?> interfaz = sentencia instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return (Statement) Proxy.newProxyInstance(
+                    interfaz.getClassLoader(),
+                    new Class<?>[]{interfaz},
+                    new SentenciaPrestada(this, prestamo, prestada));
+        }
+
+        /**
+         * Deja la sentencia como recién preparada. Si algo falla se cierra y sale de la caché.
+         */
+        void devolver() {
+            prestamo++;
+            limpiarParametros();
+            if (!enCache) {
+                cerrarFisica();
+                return;
+            }
+            try {
+                ResultSet rs = sentencia.getResultSet();
+                if (rs != null) {
+                    rs.close();
+                }
+                ((PreparedStatement) sentencia).clearParameters();
+                sentencia.clearBatch();
+                sentencia.clearWarnings();
+                if (sentencia.getFetchSize() != fetchSizeInicial) {
+                    sentencia.setFetchSize(fetchSizeInicial);
+                }
+                if (sentencia.getMaxRows() != maxRowsInicial) {
+                    sentencia.setMaxRows(maxRowsInicial);
+                }
+                if (sentencia.getQueryTimeout() != queryTimeoutInicial) {
+                    sentencia.setQueryTimeout(queryTimeoutInicial);
+                }
+                enUso = false;
+            } catch (SQLException e) {
+                cerrarFisica();
+            }
+        }
+
+        void anotarParametro(int indice, Object valor) {
+            if (indice >= parametros.length) {
+                parametros = Arrays.copyOf(parametros, Math.max(indice + 1, parametros.length * 2));
+            }
+            parametros[indice] = valor;
+        }
+
+        String sqlCompacto() {
+            if (sqlCompacto == null) {
+                sqlCompacto = sql.replaceAll("\\s+", " ").trim();
+            }
+            return sqlCompacto;
+        }
+
+        void limpiarParametros() {
+            Arrays.fill(parametros, null);
+        }
+
+        /**
+         * Parámetros anotados hasta el último asignado.
+         */
+        Object[] parametrosAnotados() {
+            int ultimo = parametros.length - 1;
+            while (ultimo > 0 && parametros[ultimo] == null) {
+                ultimo--;
+            }
+            return Arrays.copyOf(parametros, ultimo + 1);
+        }
+
+        void cerrarFisica() {
+            cerrada = true;
+            enUso = false;
+            try {
+                sentencia.close();
+            } catch (SQLException e) {
+                System.err.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Filas modificadas según el resultado de un {@code execute*}: el número devuelto por
+     * {@code executeUpdate}, la suma de un {@code executeBatch} o -1 si no se conoce (consultas).
+     */
+    private static long filasModificadas(Object resultado) {
+        if (resultado instanceof Number filas) {
+            return filas.longValue();
+        }
+        long total = 0;
+        if (resultado instanceof int[] lote) {
+            for (int filas : lote) {
+                total += Math.max(filas, 0);
+            }
+            return total;
+        }
+        if (resultado instanceof long[] lote) {
+            for (long filas : lote) {
+                total += Math.max(filas, 0);
+            }
+            return total;
+        }
+        return -1;
+    }
+
+    /**
+     * Intercepta las llamadas a una sentencia guardada prestada: {@code close()} la devuelve a la caché,
+     * {@code getConnection()} devuelve la conexión prestada (no la física) y el resto se delegan,
+     * anotando los parámetros asignados y midiendo cada ejecución.
+     */
+    private class SentenciaPrestada implements InvocationHandler {
+        private final SentenciaGuardada guardada;
+        private final int prestamo;
+        private final Connection prestada;
+
+        SentenciaPrestada(SentenciaGuardada guardada, int prestamo, Connection prestada) {
+            this.guardada = guardada;
+            this.prestamo = prestamo;
+            this.prestada = prestada;
+        }
+
+        /**
+         * La vista está cerrada si se cerró ella o si la sentencia se devolvió con la conexión.
+         */
+        private boolean cerrada() {
+            return guardada.prestamo != prestamo || guardada.cerrada;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!cerrada()) {
+                        guardada.devolver();
+                    }
+                    return null;
+                case "isClosed":
+                    return cerrada() || guardada.sentencia.isClosed();
+                case "getConnection":
+                    return prestada;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "SentenciaPrestada[" + guardada.sentencia + "]";
+                default:
+                    break;
+            }
+            if (cerrada()) {
+                throw new SQLException("La sentencia ya está cerrada");
+            }
+            String nombre = method.getName();
+            if (nombre.startsWith("execute")) {
+                ejecuciones.increment();
+                EventoSentencia evento = new EventoSentencia();
+                evento.begin();
+                long inicio = System.nanoTime();
+                Object resultado = null;
+                try {
+                    resultado = method.invoke(guardada.sentencia, args);
+                    if (esEscritura(nombre, resultado)) {
+                        anotarEscritura();
+                    }
+                    return resultado;
+                } catch (InvocationTargetException e) {
+                    throw guardada.fisica.comprobarError(e.getCause());
+                } finally {
+                    long nanos = System.nanoTime() - inicio;
+                    evento.end();
+                    // execute(String) y similares son de Statement: ejecutan su propio SQL, sin parámetros.
+                    boolean propia = args == null || args.length == 0;
+                    if (MetricasDAO.esLenta(nanos)) {
+                        MetricasDAO.registrarConsultaLenta(propia ? guardada.sql : String.valueOf(args[0]),
+                                propia ? guardada.parametrosAnotados() : null, nanos);
+                    }
+                    if (evento.shouldCommit()) {
+                        evento.metodo = MetricasDAO.getMetodoActual();
+                        evento.sql = propia ? guardada.sqlCompacto() : String.valueOf(args[0]);
+                        evento.filas = filasModificadas(resultado);
+                        evento.commit();
+                    }
+                }
+            }
+            if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                guardada.anotarParametro(indice, nombre.equals("setNull") ? null : args[1]);
+            } else if (nombre.equals("clearParameters")) {
+                guardada.limpiarParametros();
+            }
+            try {
+                return method.invoke(guardada.sentencia, args);
+            } catch (InvocationTargetException e) {
+                throw guardada.fisica.comprobarError(e.getCause());
+            }
+        }
+    }
+}
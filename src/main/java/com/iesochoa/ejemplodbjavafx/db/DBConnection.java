@@ -3,105 +3,258 @@ package com.iesochoa.ejemplodbjavafx.db;
 
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DBConnection {
-    // URL de conexión a la base de datos MySQL
-    private static final String URL ="jdbc:mysql://database-1.c9knttsssyuj.us-east-1.rds.amazonaws.com:3306/empresa"; //"jdbc:mysql://localhost:3366/midb";
-    private static final String USERNAME = "admin";//"root";
-    private static final String PASSWORD = "root123456";
-    private static final String CREATE_DB= """
-              CREATE TABLE IF NOT EXISTS Departamento (
-               codigo INT AUTO_INCREMENT PRIMARY KEY,
-               nombre VARCHAR(100),
-               jefe INT UNIQUE
-           );
-
-           -- Crear tabla Empleado si no existe (sin clave foránea)
-           CREATE TABLE IF NOT EXISTS Empleado (
-               id INT AUTO_INCREMENT PRIMARY KEY,
-               dni VARCHAR(9) NOT NULL UNIQUE,
-               nombre VARCHAR(50),
-               apellido VARCHAR(50),
-               edad INT,
-               departamento INT
-           );
-
-           -- Añadir clave foránea a Empleado si no existe
-           ALTER TABLE Empleado
-           ADD CONSTRAINT  fk_empleado_departamento
-           FOREIGN KEY (departamento) REFERENCES Departamento(codigo)
-               ON DELETE SET NULL ON UPDATE CASCADE;
-          
-
-           -- Añadir clave foránea a Departamento si no existe
-           ALTER TABLE Departamento
-           ADD CONSTRAINT fk_departamento_empleado
-           FOREIGN KEY (jefe) REFERENCES Empleado(id)
-               ON DELETE SET NULL ON UPDATE CASCADE;                                                                                     ON DELETE SET NULL ON UPDATE CASCADE;
-            """;
-    private static Connection connection;
+    // Los datos de conexión se leen de database.properties según el perfil activo (ver ConfiguracionBD)
+    /**
+     * Número de filas que se piden en cada viaje al servidor al leer en streaming
+     * con drivers distintos de MySQL.
+     */
+    public static final int TAMANO_FETCH_STREAMING = 1000;
+    /**
+     * Pool de conexiones compartido por todos los DAO.
+     */
+    private static volatile ConnectionPool pool;
+    /**
+     * Enrutador de lecturas hacia las réplicas, o {@code null} si el perfil no tiene réplicas.
+     */
+    private static volatile EnrutadorLecturas enrutador;
+    /**
+     * Cada cuántos milisegundos se leen los cambios de otros equipos según el perfil (0 si no se leen).
+     */
+    private static volatile long intervaloSincronizacionMs;
 
     // Constructor privado para evitar instancias directas
     private DBConnection() {}
 
-    // Método estático para obtener la instancia única de la conexión
-    public static Connection getConnection() {
-        if (connection == null) {
+    // Método estático para obtener el pool, creándolo la primera vez con el perfil configurado
+    public static ConnectionPool getPool() {
+        if (pool == null) {
             // Bloqueo sincronizado para evitar concurrencia
             synchronized (DBConnection.class) {
-                if (connection == null) {
-                    try {
-                       // Establecer la conexión
-                        connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-                       // crearTabla(connection);
-                        //crearDatosEjemplo();
-                    } catch ( SQLException e) {
-                        e.printStackTrace();
-                    }
+                if (pool == null) {
+                    aplicar(ConfiguracionBD.cargar());
                 }
             }
         }
-        return connection;
-    }
-    // Método para cerrar la conexión
-    public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                connection = null;
-            } catch (SQLException e) {
-                e.printStackTrace();
+        return pool;
+    }
+
+    /**
+     * Presta una conexión del pool. Hay que cerrarla (try-with-resources) para devolverla.
+     * Dentro de una {@link Transaccion} devuelve la conexión de la transacción (cerrarla no hace nada).
+     *
+     * @return Una conexión prestada del pool.
+     * @throws SQLException Si no se puede obtener una conexión a tiempo.
+     */
+    public static Connection getConnection() throws SQLException {
+        Connection enTransaccion = Transaccion.conexionActual();
+        return enTransaccion != null ? enTransaccion : getPool().getConnection();
+    }
+
+    /**
+     * Presta una conexión para operaciones de solo lectura. Si el perfil tiene réplicas se toma de una réplica
+     * disponible (salvo justo después de una escritura, para leer los propios cambios); si no, de la primaria.
+     * No se debe escribir con ella. Dentro de una {@link Transaccion} devuelve la conexión de la transacción,
+     * para leer lo que se ha escrito en ella.
+     *
+     * @return Una conexión prestada para leer.
+     * @throws SQLException Si no se puede obtener una conexión a tiempo.
+     */
+    public static Connection getConnectionLectura() throws SQLException {
+        Connection enTransaccion = Transaccion.conexionActual();
+        if (enTransaccion != null) {
+            return enTransaccion;
+        }
+        ConnectionPool primaria = getPool();
+        EnrutadorLecturas lecturas = enrutador;
+        return lecturas != null ? lecturas.getConnection() : primaria.getConnection();
+    }
+
+    /**
+     * Devuelve el enrutador de lecturas (para consultar su estado), o {@code null} si no hay réplicas.
+     *
+     * @return El enrutador de lecturas.
+     */
+    public static EnrutadorLecturas getEnrutadorLecturas() {
+        return enrutador;
+    }
+
+    /**
+     * Devuelve cada cuántos milisegundos hay que leer el {@link RegistroCambios} para ver los cambios
+     * de otros equipos, según el perfil activo (ver {@link ConfiguracionBD}).
+     *
+     * @return El intervalo en milisegundos, o 0 si no hay que leerlos.
+     */
+    public static long getIntervaloSincronizacionMs() {
+        getPool();
+        return intervaloSincronizacionMs;
+    }
+
+    /**
+     * Sustituye la configuración del pool (por ejemplo, para apuntar a otra base de datos).
+     * El pool anterior se cierra.
+     *
+     * @param config La nueva configuración.
+     */
+    public static synchronized void configurar(PoolConfig config) {
+        cerrarEnrutador();
+        RegistroCambios.reiniciar();
+        ConnectionPool anterior = pool;
+        pool = new ConnectionPool(config);
+        if (anterior != null) {
+            anterior.close();
+        }
+    }
+
+    /**
+     * Sustituye el pool por uno con la configuración de un perfil de {@code database.properties}
+     * (por ejemplo {@link ConfiguracionBD#PERFIL_EMBEBIDO}), inicializando la base de datos si el perfil lo pide.
+     * El pool anterior se cierra.
+     *
+     * @param perfil El nombre del perfil.
+     */
+    public static synchronized void configurar(String perfil) {
+        ConnectionPool anterior = pool;
+        cerrarEnrutador();
+        aplicar(ConfiguracionBD.cargar(perfil));
+        if (anterior != null) {
+            anterior.close();
+        }
+    }
+
+    /**
+     * Crea el pool de la primaria y, si hay réplicas, sus pools y el enrutador de lecturas,
+     * y ajusta el registro de consultas lentas, el volcado de métricas y la sincronización del perfil.
+     */
+    private static void aplicar(ConfiguracionBD configuracion) {
+        MetricasDAO.setUmbralLentaMs(configuracion.getUmbralLentaMs());
+        MetricasDAO.iniciarVolcado(configuracion.getIntervaloVolcadoSeg());
+        RegistroCambios.reiniciar();
+        intervaloSincronizacionMs = configuracion.getIntervaloSincronizacionMs();
+        ConnectionPool primaria = crearPool(configuracion);
+        if (!configuracion.getReplicas().isEmpty()) {
+            List<ConnectionPool> replicas = new ArrayList<>();
+            configuracion.getReplicas().forEach(config -> replicas.add(new ConnectionPool(config)));
+            enrutador = new EnrutadorLecturas(primaria, replicas, configuracion.getEstrategiaReplicas(),
+                    configuracion.getVentanaLecturaPropiaMs(), configuracion.getIntervaloComprobacionMs());
+        }
+        pool = primaria;
+    }
+
+    private static void cerrarEnrutador() {
+        if (enrutador != null) {
+            enrutador.close();
+            enrutador = null;
+        }
+    }
+
+    /**
+     * Crea el pool de un perfil y, solo si el perfil lo pide con {@code migrar}, aplica las migraciones pendientes
+     * del esquema (y los datos de ejemplo si la base de datos estaba vacía) antes de publicarlo,
+     * para que ningún DAO vea la base de datos a medio crear. Después avisa de las consultas
+     * frecuentes que recorrerían la tabla entera (ver {@link PlanesConsulta}).
+     * <p>
+     * Los perfiles que no migran (como el servidor compartido, con usuarios sin permisos para modificar tablas)
+     * no ejecutan ninguna sentencia DDL: solo leen el esquema. En todos los perfiles, si le faltan columnas que
+     * usan los DAO, el pool se cierra y se lanza {@link EsquemaIncompatibleException}. Si no se puede conectar,
+     * el pool se crea igualmente y cada operación informará del error de conexión.
+     */
+    private static ConnectionPool crearPool(ConfiguracionBD configuracion) {
+        ConnectionPool nuevo = new ConnectionPool(configuracion.getPoolConfig());
+        try (Connection connection = nuevo.getConnection()) {
+            if (configuracion.isMigrar()) {
+                if (MigracionesBD.migrar(connection) && configuracion.isInicializar()) {
+                    crearDatosEjemplo(connection);
+                }
+                PlanesConsulta.comprobar(connection)
+                        .forEach(problema -> System.err.println("Plan de consulta: " + problema));
             }
+            MigracionesBD.comprobarEsquema(connection);
+            if (!configuracion.isMigrar()) {
+                avisarMigracionesPendientes(connection, configuracion.getPerfil());
+            }
+        } catch (EsquemaIncompatibleException e) {
+            nuevo.close();
+            throw new EsquemaIncompatibleException("La base de datos del perfil " + configuracion.getPerfil()
+                    + " no es compatible con esta versión de la aplicación: " + e.getMessage());
+        } catch (SQLException e) {
+            System.err.println("No se pudo inicializar la base de datos del perfil "
+                    + configuracion.getPerfil() + ": " + e.getMessage());
         }
+        return nuevo;
     }
-    //crea la tabla si no existe
-    private static void crearTabla(Connection conexion) throws SQLException {
-        try (Statement statement = conexion.createStatement()) {
-            /*statement.executeUpdate(
-                    CREATE_DB
-            );*/
-            //System.out.println("Tabla Alumno creada correctamente.");
+
+    /**
+     * Avisa en la salida de error si el esquema tiene migraciones pendientes que este perfil no aplica.
+     * Con las columnas que usan los DAO la aplicación funciona, aunque le falten, por ejemplo, índices.
+     */
+    private static void avisarMigracionesPendientes(Connection connection, String perfil) throws SQLException {
+        if (!MigracionesBD.existeTabla(connection, "EsquemaVersion")) {
+            return;
+        }
+        int actual = MigracionesBD.versionActual(connection);
+        if (actual < MigracionesBD.ultimaVersion()) {
+            System.err.println("El esquema del perfil " + perfil + " está en la versión " + actual
+                    + " y la aplicación espera la " + MigracionesBD.ultimaVersion()
+                    + ": un administrador debe arrancarla con db." + perfil + ".migrar=true");
         }
     }
-    //Crea unos datos de ejemplo
-    public static void crearDatosEjemplo() throws SQLException{
-        String INSERTS_EJEMPLO= """
+
+    /**
+     * Devuelve las estadísticas del pool (conexiones activas, libres, hilos esperando y latencia de préstamo).
+     *
+     * @return Las estadísticas actuales del pool.
+     */
+    public static PoolStats getEstadisticas() {
+        return getPool().getEstadisticas();
+    }
+
+    /**
+     * Configura una sentencia para leer resultados grandes sin cargarlos enteros en memoria.
+     * Con MySQL Connector/J hay que usar {@code Integer.MIN_VALUE} para que el driver lea fila a fila;
+     * con el resto de drivers basta con un tamaño de bloque moderado.
+     * La sentencia debe ser {@code TYPE_FORWARD_ONLY} y {@code CONCUR_READ_ONLY}.
+     * <p>
+     * Con MySQL, cerrar el resultado antes de recorrerlo entero no ahorra la lectura: el driver
+     * consume el resto de filas para dejar libre la conexión.
+     *
+     * @param statement La sentencia a configurar.
+     * @throws SQLException Si ocurre un error al consultar los metadatos de la conexión.
+     */
+    public static void prepararLecturaEnStreaming(Statement statement) throws SQLException {
+        String producto = statement.getConnection().getMetaData().getDatabaseProductName();
+        statement.setFetchSize("MySQL".equalsIgnoreCase(producto) ? Integer.MIN_VALUE : TAMANO_FETCH_STREAMING);
+    }
+
+    // Método para cerrar el pool y todas sus conexiones
+    public static synchronized void closeConnection() {
+        cerrarEnrutador();
+        MetricasDAO.detenerVolcado();
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+    //Datos de ejemplo: tres departamentos con su jefe y diez empleados
+    private static final String INSERTS_EJEMPLO= """
                 -- Insertar departamentos inicialmente sin jefe
                 INSERT INTO Departamento (codigo, nombre, jefe) VALUES
                 (1, 'Recursos Humanos', NULL),
                 (2, 'Tecnología', NULL),
                 (3, 'Marketing', NULL);
-                
+
                 -- Insertar Empleados (jefes y empleados)
                 INSERT INTO Empleado (dni, nombre, apellido, edad, departamento) VALUES
                 ('12345678A', 'Laura', 'Gómez', 40, 1),  -- jefe de RRHH
                 ('23456789B', 'Carlos', 'López', 35, 2), -- jefe de Tecnología
                 ('34567890C', 'Marta', 'Pérez', 42, 3),  -- jefe de Marketing
-                ('45678901D', 'Juan', 'Sánchez', 38, 1), 
-                ('56789012E', 'Ana', 'Martínez', 37, 2), 
+                ('45678901D', 'Juan', 'Sánchez', 38, 1),
+                ('56789012E', 'Ana', 'Martínez', 37, 2),
                 ('67890123F', 'Pedro', 'Ruiz', 28, 3),
                 ('78901234G', 'Lucía', 'Fernández', 30, 2),
                 ('89012345H', 'David', 'Torres', 32, 3),
@@ -110,16 +263,19 @@ public class DBConnection {
                  -- Asignar jefes a los departamentos
                  UPDATE Departamento SET jefe = 1 WHERE codigo = 1;
                  UPDATE Departamento SET jefe = 2 WHERE codigo = 2;
-                 UPDATE Departamento SET jefe = 3 WHERE codigo = 3;             
-                                
+                 UPDATE Departamento SET jefe = 3 WHERE codigo = 3;
+
                 """;
-        try (Statement statement = connection.createStatement()) {
-            statement.executeUpdate(
-                    INSERTS_EJEMPLO
-            );
-            //System.out.println("Tabla Alumno creada correctamente.");
+    //Crea unos datos de ejemplo
+    public static void crearDatosEjemplo() throws SQLException{
+        try (Connection connection = getConnection()) {
+            crearDatosEjemplo(connection);
         }
     }
 
+    private static void crearDatosEjemplo(Connection connection) throws SQLException {
+        MigracionesBD.ejecutarScript(connection, INSERTS_EJEMPLO);
+    }
+
 }
 
@@ -2,15 +2,25 @@ package com.iesochoa.ejemplodbjavafx.db;
 
 import com.iesochoa.ejemplodbjavafx.model.Departamento;
 import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import com.iesochoa.ejemplodbjavafx.model.EstadisticasDepartamento;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 /**
  * Clase de acceso a datos (DAO) para la entidad Departamento.
  * Proporciona métodos para realizar operaciones CRUD (Crear, Leer, Actualizar, Eliminar)
  * sobre la tabla Departamento en la base de datos.
  * Utiliza el patrón Singleton para asegurar una única instancia de la clase.
+ * Las consultas usan {@link DBConnection#getConnectionLectura()}, que puede dirigirlas a una réplica;
+ * las escrituras usan siempre la base de datos primaria.
  */
 public class DepartamentoDAO {
     /**
@@ -22,6 +32,10 @@ public class DepartamentoDAO {
      * Sentencia SQL predefinida para seleccionar todos los departamentos de la tabla Departamento.
      */
     private static final String SELECT_ALL_QUERY = "SELECT * FROM Departamento";
+    /**
+     * Sentencia SQL para seleccionar un departamento por su código.
+     */
+    private static final String SELECT_BY_CODIGO_QUERY = "SELECT * FROM Departamento WHERE codigo = ?";
     /**
      * Sentencia SQL predefinida (sin usar en el código proporcionado) para seleccionar una persona por su DNI.
      */
@@ -64,6 +78,107 @@ public class DepartamentoDAO {
             LEFT JOIN
                 Empleado ON Departamento.jefe = Empleado.id
     """;
+    /**
+     * Sentencia SQL para seleccionar todos los departamentos junto con todos los datos de su jefe
+     * (y el departamento del jefe) en una sola consulta, evitando una consulta adicional por cada jefe.
+     * Las columnas del jefe usan los mismos alias que las consultas de {@link EmpleadoDAO}
+     * para poder reutilizar su conversión de filas; las del departamento llevan el sufijo {@code _dpto}.
+     */
+    public static final String SELECT_ALL_DEPARTAMENTOS_CON_JEFE = """
+            SELECT
+                Departamento.codigo AS codigo_dpto,
+                Departamento.nombre AS nombre_dpto,
+                Departamento.version AS version_dpto,
+                Jefe.id,
+                Jefe.dni,
+                Jefe.nombre,
+                Jefe.apellido,
+                Jefe.edad,
+                Jefe.version,
+                Jefe.departamento AS codigo_departamento,
+                DepartamentoJefe.nombre AS nombre_departamento,
+                DepartamentoJefe.version AS version_departamento
+            FROM
+                Departamento
+            LEFT JOIN
+                Empleado Jefe ON Departamento.jefe = Jefe.id
+            LEFT JOIN
+                Departamento DepartamentoJefe ON Jefe.departamento = DepartamentoJefe.codigo
+    """;
+    /**
+     * Sentencia SQL para calcular en una sola consulta el número de empleados, la edad media, mínima y máxima
+     * y el jefe de cada departamento. Los empleados se agrupan primero (una sola pasada por la tabla Empleado)
+     * y el resultado, con una fila por departamento, se une después con los departamentos y sus jefes.
+     * La fila con código 0 resume los empleados sin departamento.
+     */
+    public static final String SELECT_ESTADISTICAS_DEPARTAMENTOS = """
+            SELECT
+                Departamento.codigo,
+                Departamento.nombre,
+                Jefe.nombre AS nombre_jefe,
+                Jefe.apellido AS apellido_jefe,
+                COALESCE(Totales.empleados, 0) AS empleados,
+                Totales.edad_media,
+                Totales.edad_minima,
+                Totales.edad_maxima
+            FROM
+                Departamento
+            LEFT JOIN (
+                SELECT
+                    departamento,
+                    COUNT(*) AS empleados,
+                    AVG(CAST(edad AS DECIMAL(10, 2))) AS edad_media,
+                    MIN(edad) AS edad_minima,
+                    MAX(edad) AS edad_maxima
+                FROM
+                    Empleado
+                WHERE
+                    departamento IS NOT NULL
+                GROUP BY
+                    departamento
+            ) Totales ON Totales.departamento = Departamento.codigo
+            LEFT JOIN
+                Empleado Jefe ON Departamento.jefe = Jefe.id
+            UNION ALL
+            SELECT
+                0, 'Sin Departamento', NULL, NULL,
+                COUNT(*), AVG(CAST(edad AS DECIMAL(10, 2))), MIN(edad), MAX(edad)
+            FROM
+                Empleado
+            WHERE
+                departamento IS NULL
+            ORDER BY
+                codigo
+    """;
+    /**
+     * Sentencia SQL para leer todos los departamentos con sus empleados en una sola consulta.
+     * Las filas llegan ordenadas por departamento, de modo que los empleados de cada uno son consecutivos
+     * y se agrupan en una sola pasada. Los departamentos sin empleados aparecen una vez con las columnas
+     * del empleado a null. Las columnas del empleado usan los alias de {@link EmpleadoDAO}.
+     */
+    public static final String SELECT_DEPARTAMENTOS_CON_EMPLEADOS = """
+            SELECT
+                Departamento.codigo AS codigo_departamento,
+                Departamento.nombre AS nombre_departamento,
+                Departamento.version AS version_departamento,
+                Departamento.jefe AS id_jefe,
+                Empleado.id,
+                Empleado.dni,
+                Empleado.nombre,
+                Empleado.apellido,
+                Empleado.edad,
+                Empleado.version
+            FROM
+                Departamento
+            LEFT JOIN
+                Empleado ON Empleado.departamento = Departamento.codigo
+            ORDER BY
+                Departamento.codigo, Empleado.id
+    """;
+    /**
+     * Sentencia SQL para leer la versión actual de un departamento tras una actualización rechazada.
+     */
+    private static final String SELECT_VERSION_DEPARTAMENTO = "SELECT version FROM Departamento WHERE codigo = ?";
     /**
      * Instancia única de la clase DepartamentoDAO (implementación del patrón Singleton).
      * El modificador {@code volatile} asegura que la instancia se lea correctamente
@@ -71,18 +186,67 @@ public class DepartamentoDAO {
      */
     private static volatile DepartamentoDAO instance;
     /**
-     * Objeto {@link Connection} para interactuar con la base de datos.
-     * Se obtiene a través de la clase {@link DBConnection}.
+     * Número máximo de departamentos guardados en la caché.
      */
-    private Connection connection;
+    public static final int TAMANO_CACHE = 1000;
+    /**
+     * Tiempo de vida (ms) de los departamentos guardados en la caché. Los departamentos cambian poco,
+     * así que se puede usar un tiempo largo; los cambios hechos desde la aplicación se aplican al momento.
+     */
+    public static final long TIEMPO_VIDA_CACHE_MS = 5 * 60_000;
+
+    /**
+     * Caché de departamentos completos (con su jefe) por código. El listado completo se sirve desde aquí
+     * mientras no caduque. Guarda y devuelve copias (ver {@link #copia(Departamento)}).
+     */
+    private final CacheEntidades<Integer, Departamento> cache =
+            new CacheEntidades<>(TAMANO_CACHE, TIEMPO_VIDA_CACHE_MS, Departamento::getCodigo);
+    /**
+     * Mapa de identidad de los departamentos leídos en las filas de empleados (sin jefe), separado de {@link #cache}
+     * para que no sustituyan a los departamentos completos que devuelve {@link #listAllDepartamentos()}.
+     */
+    private final CacheEntidades<Integer, Departamento> compartidos =
+            new CacheEntidades<>(TAMANO_CACHE, TIEMPO_VIDA_CACHE_MS, Departamento::getCodigo);
+    /**
+     * Tiempo de vida (ms) de las estadísticas de los departamentos. Recalcularlas recorre toda la tabla Empleado,
+     * así que no se descartan con cada empleado guardado: durante este tiempo pueden no reflejar los últimos cambios.
+     */
+    public static final long TIEMPO_VIDA_ESTADISTICAS_MS = 30_000;
+    /**
+     * Últimas estadísticas calculadas, o {@code null} si no se han calculado o se han descartado.
+     */
+    private List<EstadisticasDepartamento> estadisticas;
+    /**
+     * Instante ({@code System.nanoTime()}) en que se calcularon las últimas estadísticas.
+     */
+    private long estadisticasDesde;
 
     /**
      * Constructor privado para evitar la instanciación directa desde fuera de la clase.
-     * Inicializa la conexión a la base de datos al crear la instancia.
+     * No guarda ninguna conexión: cada operación pide una al pool de {@link DBConnection}
+     * y la devuelve al terminar, de modo que varias pantallas pueden consultar en paralelo.
+     * <p>
+     * Los departamentos guardados incluyen a su jefe, así que cualquier cambio en los empleados
+     * descarta la caché.
      */
     private DepartamentoDAO() {
-        // Opcionalmente, se pueden inicializar recursos aquí
-        this.connection = DBConnection.getConnection();
+        EmpleadoDAO.getInstance().addCambioListener(new CambioListener<>() {
+            @Override
+            public void guardado(Empleado empleado) {
+                cache.invalidarTodo();
+            }
+
+            @Override
+            public void borrado(int id) {
+                cache.invalidarTodo();
+            }
+
+            @Override
+            public void invalidado() {
+                cache.invalidarTodo();
+                invalidarEstadisticas();
+            }
+        });
     }
 
     /**
@@ -110,26 +274,35 @@ public class DepartamentoDAO {
      * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
     public boolean createDepartamento(Departamento dept) throws SQLException {
-        //String sql = "INSERT INTO Departamento (nombre, jefe) VALUES (?, ?)";
-        try (PreparedStatement ps = connection.prepareStatement(INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, dept.getNombre());
-            if (dept.getJefe() != null) {
-                ps.setInt(2, dept.getJefe().getId());
-            } else {
-                ps.setNull(2, Types.INTEGER);
-            }
-
-            int filasInsertadas = ps.executeUpdate();
-            if (filasInsertadas > 0) {
-                try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        dept.setCodigo(generatedKeys.getInt(1));
+        return MetricasDAO.medir("DepartamentoDAO.createDepartamento", () -> {
+            //String sql = "INSERT INTO Departamento (nombre, jefe) VALUES (?, ?)";
+            try (Connection connection = DBConnection.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setString(1, dept.getNombre());
+                if (dept.getJefe() != null) {
+                    ps.setInt(2, dept.getJefe().getId());
+                } else {
+                    ps.setNull(2, Types.INTEGER);
+                }
+
+                int filasInsertadas = ps.executeUpdate();
+                if (filasInsertadas > 0) {
+                    try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            dept.setCodigo(generatedKeys.getInt(1));
+                            Transaccion.alDeshacer(() -> dept.setCodigo(0));
+                        }
                     }
+                    RegistroCambios.anotar(connection, RegistroCambios.DEPARTAMENTO, dept.getCodigo(), Cambio.Tipo.ALTA);
+                    Transaccion.alConfirmar(() -> {
+                        cache.guardar(copia(dept));
+                        invalidarEstadisticas();
+                    });
+                    return true;
                 }
-                return true;
             }
-        }
-        return false;
+            return false;
+        });
     }
 
     /**
@@ -140,81 +313,382 @@ public class DepartamentoDAO {
      * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
     public Departamento getDepartamento(int codigo) throws SQLException {
-        //String sql = "SELECT * FROM Departamento WHERE codigo = ?";
-        Departamento dept = null;
-        try (PreparedStatement ps = connection.prepareStatement(SELECT_ALL_QUERY)) {
-            ps.setInt(1, codigo);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    int cod = rs.getInt("codigo");
-                    String nombre = rs.getString("nombre");
-                    int jefeId = rs.getInt("jefe");
-                    Empleado jefe = null;
-                    // En este ejemplo, sólo se recupera el id del jefe. Podrías obtener más datos en una consulta adicional.
-                    if (!rs.wasNull()) {
-                        jefe = new Empleado(jefeId, "", "", "", 0, null); // nombre vacío como placeholder
+        return MetricasDAO.medir("DepartamentoDAO.getDepartamento", () -> {
+            Departamento dept = null;
+            try (Connection connection = DBConnection.getConnectionLectura();
+                 PreparedStatement ps = connection.prepareStatement(SELECT_BY_CODIGO_QUERY)) {
+                ps.setInt(1, codigo);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        int cod = rs.getInt("codigo");
+                        String nombre = rs.getString("nombre");
+                        int jefeId = rs.getInt("jefe");
+                        Empleado jefe = null;
+                        // En este ejemplo, sólo se recupera el id del jefe. Podrías obtener más datos en una consulta adicional.
+                        if (!rs.wasNull()) {
+                            jefe = new Empleado(jefeId, "", "", "", 0, null); // nombre vacío como placeholder
+                        }
+                        dept = new Departamento(cod, nombre, jefe);
+                        dept.setVersion(rs.getInt("version"));
                     }
-                    dept = new Departamento(cod, nombre, jefe);
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return dept;
+            return dept;
+        });
     }
 
     /**
-     * LEER: Devuelve una lista con todos los Departamentos registrados.
+     * LEER: Devuelve una lista con todos los Departamentos registrados, con su jefe completo.
+     * Los jefes se obtienen en la misma consulta mediante un LEFT JOIN.
      *
      * @return Una lista de objetos {@link Departamento}. Si no hay departamentos, la lista estará vacía.
      * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
     public ArrayList<Departamento> listAllDepartamentos() throws SQLException {
-        ArrayList<Departamento> lista = new ArrayList<>();
-        try (
-                PreparedStatement ps = connection.prepareStatement(SELECT_ALL_DEPARTAMENTOS);
-                ResultSet rs = ps.executeQuery()
-        ) {
-            while (rs.next()) {
-                int cod = rs.getInt("codigo");
-                String nombre = rs.getString("nombre");
-                // Nos permite saber si el valor de la columna 'jefe' es null.
-                Integer jefeId = (Integer) rs.getObject("jefe");
-                Empleado jefe = null;
-                if (jefeId != null) {
-                    // Buscamos el empleado que es jefe del departamento.
-                    jefe = EmpleadoDAO.getInstance().selectEmpleadoPorId(jefeId);
+        return MetricasDAO.medir("DepartamentoDAO.listAllDepartamentos", () -> {
+            // Dentro de una transacción se lee su conexión, que puede tener cambios sin confirmar.
+            boolean usarCache = !Transaccion.activa();
+            List<Departamento> enCache = usarCache ? cache.getTodos() : null;
+            if (enCache != null) {
+                ArrayList<Departamento> copias = new ArrayList<>(enCache.size());
+                enCache.forEach(dept -> copias.add(copia(dept)));
+                return copias;
+            }
+            ArrayList<Departamento> lista = new ArrayList<>();
+            try (
+                    Connection connection = DBConnection.getConnectionLectura();
+                    PreparedStatement ps = connection.prepareStatement(SELECT_ALL_DEPARTAMENTOS_CON_JEFE);
+                    ResultSet rs = ps.executeQuery()
+            ) {
+                while (rs.next()) {
+                    int cod = rs.getInt("codigo_dpto");
+                    String nombre = rs.getString("nombre_dpto");
+                    Empleado jefe = null;
+                    // Si el departamento no tiene jefe, las columnas del LEFT JOIN vienen a null.
+                    if (rs.getObject("id") != null) {
+                        jefe = EmpleadoDAO.resultSetToEmpleado(rs);
+                    }
+                    Departamento dept = new Departamento(cod, nombre, jefe);
+                    dept.setVersion(rs.getInt("version_dpto"));
+                    lista.add(dept);
+                }
+            }
+            if (usarCache) {
+                cache.guardarTodos(lista.stream().map(DepartamentoDAO::copia).toList());
+            }
+            return lista;
+        });
+    }
+
+    /**
+     * LEER: Devuelve todos los departamentos con su jefe y la lista de sus empleados, ordenados por código.
+     * Se leen con una sola consulta ordenada ({@link #SELECT_DEPARTAMENTOS_CON_EMPLEADOS}) que se agrupa
+     * en una sola pasada, en lugar de una consulta por departamento: el tiempo es el de recorrer la tabla
+     * Empleado una vez, sin idas y vueltas a la base de datos por cada departamento.
+     * <p>
+     * Los departamentos devueltos son objetos nuevos, no los compartidos de la caché, porque se les asigna
+     * la lista de empleados; y sus empleados apuntan a ellos. Los empleados sin departamento no se incluyen.
+     *
+     * @return Una lista de objetos {@link Departamento} con sus empleados (lista vacía si no tiene ninguno).
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos.
+     */
+    public ArrayList<Departamento> listDepartamentosConEmpleados() throws SQLException {
+        return MetricasDAO.medir("DepartamentoDAO.listDepartamentosConEmpleados", () -> {
+            ArrayList<Departamento> lista = new ArrayList<>();
+            Map<Integer, Empleado> empleadosPorId = new HashMap<>();
+            Map<Departamento, Integer> jefes = new HashMap<>();
+            try (
+                    Connection connection = DBConnection.getConnectionLectura();
+                    PreparedStatement ps = connection.prepareStatement(SELECT_DEPARTAMENTOS_CON_EMPLEADOS,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)
+            ) {
+                DBConnection.prepararLecturaEnStreaming(ps);
+                try (ResultSet rs = ps.executeQuery()) {
+                    Departamento actual = null;
+                    while (rs.next()) {
+                        int cod = rs.getInt("codigo_departamento");
+                        // Las filas de un mismo departamento son consecutivas: al cambiar el código empieza otro.
+                        if (actual == null || actual.getCodigo() != cod) {
+                            actual = new Departamento(cod, rs.getString("nombre_departamento"), null, new ArrayList<>());
+                            actual.setVersion(rs.getInt("version_departamento"));
+                            int idJefe = rs.getInt("id_jefe");
+                            if (!rs.wasNull()) {
+                                jefes.put(actual, idJefe);
+                            }
+                            lista.add(actual);
+                        }
+                        // En un departamento sin empleados, las columnas del LEFT JOIN vienen a null.
+                        int id = rs.getInt("id");
+                        if (!rs.wasNull()) {
+                            Empleado empleado = new Empleado(id, rs.getString("dni"), rs.getString("nombre"),
+                                    rs.getString("apellido"), rs.getInt("edad"), actual);
+                            empleado.setVersion(rs.getInt("version"));
+                            actual.getEmpleados().add(empleado);
+                            empleadosPorId.put(id, empleado);
+                        }
+                    }
                 }
-                Departamento dept = new Departamento(cod, nombre, jefe);
-                lista.add(dept);
             }
+            // El jefe suele ser uno de los empleados leídos; los que no tienen departamento se buscan
+            // aparte, todos en una sola consulta.
+            Set<Integer> sinLeer = new HashSet<>(jefes.values());
+            sinLeer.removeAll(empleadosPorId.keySet());
+            for (Empleado empleado : EmpleadoDAO.getInstance().listEmpleadosPorIds(sinLeer)) {
+                empleadosPorId.put(empleado.getId(), empleado);
+            }
+            jefes.forEach((departamento, idJefe) -> departamento.setJefe(empleadosPorId.get(idJefe)));
+            return lista;
+        });
+    }
+
+    /**
+     * Devuelve la instancia compartida del departamento de una fila de empleado, de modo que
+     * los empleados del mismo departamento no crean un objeto {@link Departamento} cada uno.
+     * Si el departamento no está guardado (o su nombre o su versión han cambiado) se crea sin jefe y se guarda.
+     * Se guardan aparte de la caché de departamentos completos, que no se ve afectada.
+     *
+     * @param codigo  El código del departamento.
+     * @param nombre  El nombre del departamento leído en la fila.
+     * @param version La versión del departamento leída en la fila.
+     * @return El departamento compartido.
+     */
+    Departamento departamentoCompartido(int codigo, String nombre, int version) {
+        if (Transaccion.activa()) {
+            // Lo leído dentro de una transacción puede deshacerse: no se comparte.
+            Departamento dept = new Departamento(codigo, nombre, null);
+            dept.setVersion(version);
+            return dept;
+        }
+        return compartidos.canonica(codigo,
+                guardado -> guardado.getVersion() == version
+                        && guardado.getNombre() != null && guardado.getNombre().equals(nombre),
+                cod -> {
+                    Departamento dept = new Departamento(cod, nombre, null);
+                    dept.setVersion(version);
+                    return dept;
+                });
+    }
+
+    /**
+     * Copia un departamento para guardarlo en la caché o devolverlo desde ella, de modo que los cambios
+     * que haga quien lo recibe (por ejemplo, en un formulario que luego se cancela) no alteren la caché.
+     * La copia comparte el objeto del jefe.
+     */
+    private static Departamento copia(Departamento dept) {
+        Departamento copia = new Departamento(dept.getCodigo(), dept.getNombre(), dept.getJefe());
+        copia.setVersion(dept.getVersion());
+        return copia;
+    }
+
+    /**
+     * Descarta los departamentos guardados en la caché. Hay que llamarlo cuando se modifican
+     * departamentos sin pasar por este DAO (por ejemplo, tras una importación).
+     */
+    public void invalidarCache() {
+        cache.invalidarTodo();
+        compartidos.invalidarTodo();
+        invalidarEstadisticas();
+    }
+
+    /**
+     * LEER: Devuelve el número de empleados, la edad media, mínima y máxima y el jefe de cada departamento
+     * (más una fila con código 0 para los empleados sin departamento, si los hay), calculados en la base de datos
+     * con una sola consulta agrupada. El resultado se guarda {@link #TIEMPO_VIDA_ESTADISTICAS_MS} milisegundos.
+     *
+     * @return Las estadísticas, ordenadas por código de departamento.
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos.
+     */
+    public List<EstadisticasDepartamento> listEstadisticasDepartamentos() throws SQLException {
+        return MetricasDAO.medir("DepartamentoDAO.listEstadisticasDepartamentos", () -> {
+            boolean usarCache = !Transaccion.activa();
+            if (usarCache) {
+                synchronized (this) {
+                    if (estadisticas != null
+                            && System.nanoTime() - estadisticasDesde < TIEMPO_VIDA_ESTADISTICAS_MS * 1_000_000) {
+                        return estadisticas;
+                    }
+                }
+            }
+            List<EstadisticasDepartamento> lista = new ArrayList<>();
+            try (Connection connection = DBConnection.getConnectionLectura();
+                 PreparedStatement ps = connection.prepareStatement(SELECT_ESTADISTICAS_DEPARTAMENTOS);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long empleados = rs.getLong("empleados");
+                    int codigo = rs.getInt("codigo");
+                    if (codigo == 0 && empleados == 0) {
+                        continue; // No hay empleados sin departamento.
+                    }
+                    String nombreJefe = rs.getString("nombre_jefe");
+                    String jefe = nombreJefe != null ? nombreJefe + " " + rs.getString("apellido_jefe") : null;
+                    BigDecimal media = rs.getBigDecimal("edad_media");
+                    lista.add(new EstadisticasDepartamento(codigo, rs.getString("nombre"), jefe, empleados,
+                            media != null ? media.doubleValue() : null,
+                            rs.getObject("edad_minima") != null ? rs.getInt("edad_minima") : null,
+                            rs.getObject("edad_maxima") != null ? rs.getInt("edad_maxima") : null));
+                }
+            }
+            List<EstadisticasDepartamento> resultado = Collections.unmodifiableList(lista);
+            if (usarCache) {
+                synchronized (this) {
+                    estadisticas = resultado;
+                    estadisticasDesde = System.nanoTime();
+                }
+            }
+            return resultado;
+        });
+    }
+
+    /**
+     * Devuelve las últimas estadísticas calculadas aunque hayan caducado, sin consultar la base de datos,
+     * para poder mostrarlas al momento mientras se recalculan.
+     *
+     * @return Las últimas estadísticas, o {@code null} si no hay ninguna.
+     */
+    public synchronized List<EstadisticasDepartamento> getUltimasEstadisticas() {
+        return estadisticas;
+    }
+
+    /**
+     * Descarta las estadísticas guardadas, para que la siguiente consulta las vuelva a calcular.
+     */
+    public synchronized void invalidarEstadisticas() {
+        estadisticas = null;
+    }
+
+    /**
+     * Devuelve las estadísticas de la caché de departamentos.
+     *
+     * @return Aciertos, fallos, desalojos y expiraciones de la caché.
+     */
+    public CacheStats getEstadisticasCache() {
+        return cache.getEstadisticas();
+    }
+
+    /**
+     * CREAR: Crea un departamento con un jefe que aún no existe, en una sola {@link Transaccion}: crea el departamento,
+     * da de alta al jefe en él y lo asigna como jefe. Si falla cualquier paso no se guarda nada.
+     *
+     * @param dept El departamento a crear (su jefe se ignora).
+     * @param jefe El nuevo empleado que será su jefe.
+     * @return {@code true} si se ha creado todo.
+     * @throws SQLException Si falla algún paso (la transacción se deshace).
+     */
+    public boolean createDepartamentoConJefe(Departamento dept, Empleado jefe) throws SQLException {
+        return Transaccion.ejecutar(() -> {
+            dept.setJefe(null);
+            exigir(createDepartamento(dept), "No se pudo crear el departamento " + dept.getNombre());
+            jefe.setDepartamento(dept);
+            exigir(EmpleadoDAO.getInstance().createEmpleado(jefe), "No se pudo crear el empleado " + jefe.getDni());
+            dept.setJefe(jefe);
+            exigir(updateDepartamento(dept), "No se pudo asignar el jefe al departamento " + dept.getNombre());
+            return true;
+        });
+    }
+
+    /**
+     * ACTUALIZAR: Traslada varios empleados a un departamento y, si se indica, cambia su jefe, en una sola
+     * {@link Transaccion}. Si algún empleado no se puede actualizar (por ejemplo, porque otro usuario lo ha
+     * modificado) no se guarda nada y los empleados recuperan su departamento anterior.
+     *
+     * @param empleados Los empleados a trasladar.
+     * @param destino   El departamento al que pasan.
+     * @param nuevoJefe El nuevo jefe del departamento, o {@code null} para no cambiarlo.
+     * @return {@code true} si se ha guardado todo.
+     * @throws SQLException Si falla algún paso (la transacción se deshace).
+     */
+    public boolean trasladarEmpleados(Collection<Empleado> empleados, Departamento destino, Empleado nuevoJefe)
+            throws SQLException {
+        return Transaccion.ejecutar(() -> {
+            for (Empleado empleado : empleados) {
+                Departamento anterior = empleado.getDepartamento();
+                empleado.setDepartamento(destino);
+                Transaccion.alDeshacer(() -> empleado.setDepartamento(anterior));
+            }
+            ResultadoLote<Empleado> resultado = EmpleadoDAO.getInstance().updateEmpleados(empleados);
+            if (resultado.hayFallos()) {
+                throw new SQLException("No se pudieron trasladar los empleados: " + resultado.getFallos());
+            }
+            if (nuevoJefe != null) {
+                Empleado jefeAnterior = destino.getJefe();
+                destino.setJefe(nuevoJefe);
+                Transaccion.alDeshacer(() -> destino.setJefe(jefeAnterior));
+                exigir(updateDepartamento(destino), "No se pudo cambiar el jefe del departamento " + destino.getNombre());
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Interrumpe una transacción (que se deshará) si un paso no ha modificado nada.
+     */
+    private static void exigir(boolean hecho, String mensaje) throws SQLException {
+        if (!hecho) {
+            throw new SQLException(mensaje);
         }
-        return lista;
     }
 
     /**
-     * ACTUALIZAR: Actualiza un Departamento existente en la base de datos.
+     * ACTUALIZAR: Actualiza un Departamento existente en la base de datos, siempre que nadie lo haya
+     * modificado desde que se leyó (su versión no ha cambiado). Si se actualiza, la versión del departamento
+     * pasa a ser la nueva versión de la fila.
      *
      * @param dept El objeto {@link Departamento} con los datos actualizados. El código del departamento
-     * debe estar establecido para identificar el registro a actualizar.
+     * debe estar establecido para identificar el registro a actualizar, y su versión debe ser la leída.
      * @return {@code true} si la actualización fue exitosa, {@code false} en caso contrario.
+     * @throws ConflictoVersionException Si otro usuario ha modificado el departamento después de leerlo.
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos.
+     */
+    public boolean updateDepartamento(Departamento dept) throws SQLException {
+        String sql = "UPDATE Departamento SET nombre = ?, jefe = ?, version = version + 1 WHERE codigo = ? AND version = ?";
+        return MetricasDAO.medir("DepartamentoDAO.updateDepartamento", () -> {
+            try (Connection connection = DBConnection.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setString(1, dept.getNombre());
+                if (dept.getJefe() != null) {
+                    ps.setInt(2, dept.getJefe().getId());
+                } else {
+                    ps.setNull(2, Types.INTEGER);
+                }
+                ps.setInt(3, dept.getCodigo());
+                ps.setInt(4, dept.getVersion());
+                int filasAfectadas = ps.executeUpdate();
+                if (filasAfectadas == 0) {
+                    comprobarVersion(connection, dept);
+                } else {
+                    int anterior = dept.getVersion();
+                    dept.setVersion(anterior + 1);
+                    Transaccion.alDeshacer(() -> dept.setVersion(anterior));
+                    RegistroCambios.anotar(connection, RegistroCambios.DEPARTAMENTO, dept.getCodigo(), Cambio.Tipo.MODIFICACION);
+                    Transaccion.alConfirmar(() -> {
+                        cache.guardar(copia(dept));
+                        invalidarEstadisticas();
+                        // Los empleados guardados llevan el nombre antiguo del departamento.
+                        EmpleadoDAO.getInstance().invalidarCache();
+                    });
+                }
+                return filasAfectadas > 0;
+            }
+        });
+    }
+
+    /**
+     * Tras una actualización que no ha afectado a ninguna fila, comprueba si el departamento sigue existiendo
+     * con otra versión (lo ha modificado otro usuario). En ese caso se descarta de la caché.
+     *
+     * @throws ConflictoVersionException Si el departamento existe con otra versión.
      */
-    public boolean updateDepartamento(Departamento dept) {
-        String sql = "UPDATE Departamento SET nombre = ?, jefe = ? WHERE codigo = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setString(1, dept.getNombre());
-            if (dept.getJefe() != null) {
-                ps.setInt(2, dept.getJefe().getId());
-            } else {
-                ps.setNull(2, Types.INTEGER);
-            }
-            ps.setInt(3, dept.getCodigo());
-            int filasAfectadas = ps.executeUpdate();
-            return filasAfectadas > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
+    private void comprobarVersion(Connection connection, Departamento dept) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(SELECT_VERSION_DEPARTAMENTO)) {
+            ps.setInt(1, dept.getCodigo());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    cache.invalidar(dept.getCodigo());
+                    throw new ConflictoVersionException(RegistroCambios.DEPARTAMENTO, dept.getCodigo(),
+                            dept.getVersion(), rs.getInt(1));
+                }
+            }
         }
-        return false;
     }
 
     /**
@@ -222,16 +696,26 @@ public class DepartamentoDAO {
      *
      * @param codigo El código del departamento a eliminar.
      * @return {@code true} si la eliminación fue exitosa, {@code false} en caso contrario.
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
-    public boolean deleteDepartamento(int codigo) {
+    public boolean deleteDepartamento(int codigo) throws SQLException {
         String sql = "DELETE FROM Departamento WHERE codigo = ?";
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setInt(1, codigo);
-            int filasAfectadas = ps.executeUpdate();
-            return filasAfectadas > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return false;
+        return MetricasDAO.medir("DepartamentoDAO.deleteDepartamento", () -> {
+            try (Connection connection = DBConnection.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setInt(1, codigo);
+                int filasAfectadas = ps.executeUpdate();
+                if (filasAfectadas > 0) {
+                    RegistroCambios.anotar(connection, RegistroCambios.DEPARTAMENTO, codigo, Cambio.Tipo.BORRADO);
+                    Transaccion.alConfirmar(() -> {
+                        cache.invalidar(codigo);
+                        compartidos.invalidar(codigo);
+                        invalidarEstadisticas();
+                        EmpleadoDAO.getInstance().invalidarCache();
+                    });
+                }
+                return filasAfectadas > 0;
+            }
+        });
     }
 }
\ No newline at end of file
@@ -5,16 +5,25 @@ import com.iesochoa.ejemplodbjavafx.model.Empleado;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-
-import java.sql.*;
-import java.util.ArrayList;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Clase de acceso a datos (DAO) para la entidad Empleado.
  * Proporciona métodos para realizar operaciones CRUD (Crear, Leer, Actualizar, Eliminar)
  * sobre la tabla Empleado en la base de datos.
  * Utiliza el patrón Singleton para asegurar una única instancia de la clase.
+ * Las consultas usan {@link DBConnection#getConnectionLectura()}, que puede dirigirlas a una réplica;
+ * las escrituras usan siempre la base de datos primaria.
  */
 public class EmpleadoDAO {
 
@@ -36,8 +45,10 @@ public class EmpleadoDAO {
                 Empleado.nombre,
                 Empleado.apellido,
                 Empleado.edad,
+                Empleado.version,
                 Empleado.departamento AS codigo_departamento,
-                Departamento.nombre AS nombre_departamento
+                Departamento.nombre AS nombre_departamento,
+                Departamento.version AS version_departamento
             FROM
                 Empleado
             LEFT JOIN
@@ -56,8 +67,10 @@ public class EmpleadoDAO {
                 Empleado.nombre,
                 Empleado.apellido,
                 Empleado.edad,
+                Empleado.version,
                 Empleado.departamento AS codigo_departamento,
-                Departamento.nombre AS nombre_departamento
+                Departamento.nombre AS nombre_departamento,
+                Departamento.version AS version_departamento
             FROM
                 Empleado
             LEFT JOIN
@@ -65,11 +78,41 @@ public class EmpleadoDAO {
 
     """;
 
+    /**
+     * Parte común de las consultas de empleados por una lista de ID; se completa con tantos {@code ?} como ID
+     * (ver {@link #listEmpleadosPorIds(Collection)}).
+     */
+    private static final String SELECT_EMPLEADOS_POR_IDS = """
+            SELECT
+                Empleado.id,
+                Empleado.dni,
+                Empleado.nombre,
+                Empleado.apellido,
+                Empleado.edad,
+                Empleado.version,
+                Empleado.departamento AS codigo_departamento,
+                Departamento.nombre AS nombre_departamento,
+                Departamento.version AS version_departamento
+            FROM
+                Empleado
+            LEFT JOIN
+                Departamento ON Empleado.departamento = Departamento.codigo
+            WHERE Empleado.id IN (%s)
+            ORDER BY Empleado.id
+    """;
+
     /**
      * Sentencia SQL para actualizar los datos de un empleado existente en la tabla Empleado.
-     * La condición WHERE asegura que solo se actualice el empleado con el ID especificado.
+     * La condición WHERE asegura que solo se actualice el empleado con el ID especificado
+     * y solo si nadie lo ha modificado desde que se leyó (su versión no ha cambiado); la versión se incrementa.
      */
-    public static final String UPDATE_EMPLEADO = "UPDATE Empleado SET dni = ?, nombre = ?, apellido = ?, edad = ?, departamento = ? WHERE id = ?";
+    public static final String UPDATE_EMPLEADO = "UPDATE Empleado SET dni = ?, nombre = ?, apellido = ?, edad = ?, departamento = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    /**
+     * Sentencia SQL para leer la versión actual de un empleado, para distinguir un empleado borrado
+     * de uno modificado por otro usuario cuando una actualización no afecta a ninguna fila.
+     */
+    public static final String SELECT_VERSION_EMPLEADO = "SELECT version FROM Empleado WHERE id = ?";
 
     /**
      * Sentencia SQL para eliminar un empleado de la tabla Empleado por su ID.
@@ -87,8 +130,10 @@ public class EmpleadoDAO {
                 Empleado.nombre,
                 Empleado.apellido,
                 Empleado.edad,
+                Empleado.version,
                 Empleado.departamento AS codigo_departamento,
-                Departamento.nombre AS nombre_departamento
+                Departamento.nombre AS nombre_departamento,
+                Departamento.version AS version_departamento
             FROM
                 Empleado
             LEFT JOIN
@@ -98,8 +143,11 @@ public class EmpleadoDAO {
 """;
 
     /**
-     * Sentencia SQL para seleccionar empleados cuyo nombre o apellido coincida parcialmente
-     * con el valor proporcionado. Utiliza LIKE para la búsqueda con comodines.
+     * Sentencia SQL para seleccionar empleados cuyo nombre o apellido contenga el valor proporcionado
+     * (con LIKE y comodines). Un {@code LIKE '%...%'} no puede buscar en un índice, pero la subconsulta solo
+     * necesita el id, el nombre y el apellido: los lee del índice {@code idx_empleado_apellido_nombre}
+     * (ver {@link MigracionesBD}), mucho más pequeño que la tabla, y después lee por clave primaria solo las
+     * filas que coinciden.
      */
     public static final String SELECT_EMPLEADOS_POR_NOMBRE = """
     SELECT
@@ -108,14 +156,16 @@ public class EmpleadoDAO {
                 Empleado.nombre,
                 Empleado.apellido,
                 Empleado.edad,
+                Empleado.version,
                 Empleado.departamento AS codigo_departamento,
-                Departamento.nombre AS nombre_departamento
+                Departamento.nombre AS nombre_departamento,
+                Departamento.version AS version_departamento
             FROM
-                Empleado
+                (SELECT id FROM Empleado WHERE nombre LIKE ? OR apellido LIKE ?) Coincidencias
+            JOIN
+                Empleado ON Empleado.id = Coincidencias.id
             LEFT JOIN
-                Departamento ON Empleado.departamento = Departamento.codigo
-            WHERE
-                Empleado.nombre LIKE ? OR Empleado.apellido LIKE ?;
+                Departamento ON Empleado.departamento = Departamento.codigo;
 """;
 
     /**
@@ -129,8 +179,10 @@ public class EmpleadoDAO {
                 Empleado.nombre,
                 Empleado.apellido,
                 Empleado.edad,
+                Empleado.version,
                 Empleado.departamento AS codigo_departamento,
-                Departamento.nombre AS nombre_departamento
+                Departamento.nombre AS nombre_departamento,
+                Departamento.version AS version_departamento
             FROM
                 Empleado
             LEFT JOIN
@@ -149,8 +201,10 @@ public class EmpleadoDAO {
                 Empleado.nombre,
                 Empleado.apellido,
                 Empleado.edad,
+                Empleado.version,
                 Empleado.departamento AS codigo_departamento,
-                Departamento.nombre AS nombre_departamento
+                Departamento.nombre AS nombre_departamento,
+                Departamento.version AS version_departamento
             FROM
                 Empleado
             LEFT JOIN
@@ -159,6 +213,55 @@ public class EmpleadoDAO {
                 Empleado.dni = ?;
 """;
 
+    /**
+     * Sentencia SQL para la paginación por clave (keyset) de empleados: devuelve los siguientes
+     * empleados con ID mayor que el indicado, ordenados por ID. Usa el índice de la clave primaria,
+     * por lo que su coste no depende de la página en la que se esté.
+     */
+    public static final String SELECT_EMPLEADOS_DESDE_ID = """
+    SELECT
+                Empleado.id,
+                Empleado.dni,
+                Empleado.nombre,
+                Empleado.apellido,
+                Empleado.edad,
+                Empleado.version,
+                Empleado.departamento AS codigo_departamento,
+                Departamento.nombre AS nombre_departamento,
+                Departamento.version AS version_departamento
+            FROM
+                Empleado
+            LEFT JOIN
+                Departamento ON Empleado.departamento = Departamento.codigo
+            WHERE
+                Empleado.id > ?
+            ORDER BY
+                Empleado.id
+            LIMIT ?
+""";
+
+    /**
+     * Sentencia SQL para obtener el ID del empleado que ocupa una posición dada en el orden por ID.
+     * Se usa para saltar directamente a una página sin haber leído las anteriores.
+     */
+    public static final String SELECT_ID_EN_POSICION = "SELECT id FROM Empleado ORDER BY id LIMIT 1 OFFSET ?";
+
+    /**
+     * Sentencia SQL para contar el total de empleados.
+     */
+    public static final String COUNT_EMPLEADOS = "SELECT COUNT(*) FROM Empleado";
+
+    /**
+     * Motivo de fallo de una fila de un lote de actualización que no ha modificado nada: el empleado no existe
+     * o su versión ya no es la leída.
+     */
+    private static final String SIN_FILA_ACTUALIZADA = "No existe el empleado o lo ha modificado otro usuario";
+
+    /**
+     * Número de filas por defecto que se envían al servidor en cada lote de las operaciones masivas.
+     */
+    public static final int TAMANO_LOTE_POR_DEFECTO = 500;
+
     /**
      * Instancia única de la clase EmpleadoDAO (implementación del patrón Singleton).
      * El modificador {@code volatile} asegura que la instancia se lea correctamente
@@ -167,17 +270,31 @@ public class EmpleadoDAO {
     private static volatile EmpleadoDAO instance;
 
     /**
-     * Objeto {@link Connection} para interactuar con la base de datos.
-     * Se obtiene a través de la clase {@link DBConnection}.
+     * Objetos a los que se avisa de cada escritura realizada por este DAO.
      */
-    private Connection connection;
+    private final List<CambioListener<Empleado>> listeners = new CopyOnWriteArrayList<>();
+    /**
+     * Número máximo de empleados guardados en la caché.
+     */
+    public static final int TAMANO_CACHE = 10_000;
+    /**
+     * Tiempo de vida (ms) de los empleados guardados en la caché.
+     */
+    public static final long TIEMPO_VIDA_CACHE_MS = 60_000;
+    /**
+     * Caché de empleados por ID para las búsquedas individuales ({@link #selectEmpleadoPorId(int)}).
+     * Los listados no pasan por ella para no desalojar los empleados consultados con frecuencia.
+     */
+    private final CacheEntidades<Integer, Empleado> cache =
+            new CacheEntidades<>(TAMANO_CACHE, TIEMPO_VIDA_CACHE_MS, Empleado::getId);
+
 
     /**
      * Constructor privado para evitar la instanciación directa desde fuera de la clase.
-     * Inicializa la conexión a la base de datos al crear la instancia.
+     * No guarda ninguna conexión: cada operación pide una al pool de {@link DBConnection}
+     * y la devuelve al terminar, de modo que varias pantallas pueden consultar en paralelo.
      */
     private EmpleadoDAO() {
-        this.connection = DBConnection.getConnection();
     }
 
     /**
@@ -197,6 +314,95 @@ public class EmpleadoDAO {
         return instance;
     }
 
+    /**
+     * Registra un objeto que será avisado de cada empleado creado, actualizado o eliminado.
+     *
+     * @param listener El objeto a avisar.
+     */
+    public void addCambioListener(CambioListener<Empleado> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Deja de avisar al objeto indicado.
+     *
+     * @param listener El objeto registrado.
+     */
+    public void removeCambioListener(CambioListener<Empleado> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Avisa a los listeners de que se han modificado empleados sin pasar por este DAO
+     * (por ejemplo, tras una importación masiva), para que descarten sus datos en memoria.
+     */
+    public void notificarInvalidacion() {
+        cache.invalidarTodo();
+        listeners.forEach(CambioListener::invalidado);
+    }
+
+    // Dentro de una Transaccion los avisos esperan a la confirmación (y se descartan si se deshace).
+    private void notificarGuardado(Empleado empleado) {
+        Transaccion.alConfirmar(() -> {
+            cache.invalidar(empleado.getId());
+            listeners.forEach(listener -> listener.guardado(empleado));
+        });
+    }
+
+    private void notificarCreado(Empleado empleado) {
+        Transaccion.alConfirmar(() -> {
+            cache.invalidar(empleado.getId());
+            listeners.forEach(listener -> listener.creado(empleado));
+        });
+    }
+
+    private void notificarBorrado(int id) {
+        Transaccion.alConfirmar(() -> {
+            cache.invalidar(id);
+            listeners.forEach(listener -> listener.borrado(id));
+        });
+    }
+
+    /**
+     * Aplica en memoria un empleado creado o modificado desde otro equipo (leído del {@link RegistroCambios}):
+     * lo descarta de la caché y avisa a los listeners igual que si la escritura se hubiera hecho aquí.
+     *
+     * @param empleado El empleado con sus datos actuales.
+     * @param creado   {@code true} si el empleado es nuevo.
+     */
+    public void notificarGuardadoExterno(Empleado empleado, boolean creado) {
+        if (creado) {
+            notificarCreado(empleado);
+        } else {
+            notificarGuardado(empleado);
+        }
+    }
+
+    /**
+     * Aplica en memoria un empleado eliminado desde otro equipo (leído del {@link RegistroCambios}).
+     *
+     * @param id El ID del empleado eliminado.
+     */
+    public void notificarBorradoExterno(int id) {
+        notificarBorrado(id);
+    }
+
+    /**
+     * Descarta los empleados guardados en la caché (por ejemplo, cuando cambia el nombre de un departamento).
+     */
+    public void invalidarCache() {
+        cache.invalidarTodo();
+    }
+
+    /**
+     * Devuelve las estadísticas de la caché de empleados.
+     *
+     * @return Aciertos, fallos, desalojos y expiraciones de la caché.
+     */
+    public CacheStats getEstadisticasCache() {
+        return cache.getEstadisticas();
+    }
+
     /**
      * Inserta un nuevo empleado en la base de datos.
      *
@@ -205,49 +411,235 @@ public class EmpleadoDAO {
      * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
     public boolean createEmpleado(Empleado empleado) throws SQLException {
-        String sql = INSERT_EMPLEADO;
-        try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, empleado.getDni());
-            ps.setString(2, empleado.getNombre());
-            ps.setString(3, empleado.getApellidos());
-            ps.setInt(4, empleado.getEdad());
-            if (empleado.getDepartamento() != null) {
-                ps.setInt(5, empleado.getDepartamento().getCodigo());
-            } else {
-                ps.setNull(5, Types.INTEGER);
+        return MetricasDAO.medir("EmpleadoDAO.createEmpleado", () -> {
+            String sql = INSERT_EMPLEADO;
+            try (Connection connection = DBConnection.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                asignarParametros(ps, empleado, true);
+
+                int filasInsertadas = ps.executeUpdate();
+                if (filasInsertadas > 0) {
+                    try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            empleado.setId(generatedKeys.getInt(1));
+                            Transaccion.alDeshacer(() -> empleado.setId(0));
+                        }
+                    }
+                    RegistroCambios.anotar(connection, RegistroCambios.EMPLEADO, empleado.getId(), Cambio.Tipo.ALTA);
+                    notificarCreado(empleado);
+                    return true;
+                }
+                return false;
             }
+        });
+    }
 
-            int filasInsertadas = ps.executeUpdate();
-            if (filasInsertadas > 0) {
-                try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        empleado.setId(generatedKeys.getInt(1));
+    /**
+     * Inserta varios empleados usando lotes JDBC de {@link #TAMANO_LOTE_POR_DEFECTO} filas.
+     *
+     * @param empleados Los empleados a insertar.
+     * @return El resultado del lote con las filas que fallaron.
+     * @throws SQLException Si ocurre un error que impide completar la transacción.
+     * @see #createEmpleados(Collection, int)
+     */
+    public ResultadoLote<Empleado> createEmpleados(Collection<Empleado> empleados) throws SQLException {
+        return createEmpleados(empleados, TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * Inserta varios empleados en una sola transacción, enviándolos al servidor en lotes
+     * ({@code addBatch/executeBatch}) de {@code tamanoLote} filas. Los ID generados se asignan
+     * a cada {@link Empleado}. Si una fila falla (por ejemplo, un DNI repetido) el resto se guarda
+     * igualmente y el fallo se indica en el resultado.
+     *
+     * @param empleados  Los empleados a insertar.
+     * @param tamanoLote El número de filas por lote.
+     * @return El resultado del lote con las filas que fallaron.
+     * @throws SQLException Si ocurre un error que impide completar la transacción.
+     */
+    public ResultadoLote<Empleado> createEmpleados(Collection<Empleado> empleados, int tamanoLote) throws SQLException {
+        return MetricasDAO.medir("EmpleadoDAO.createEmpleados", () -> ejecutarLote(empleados, tamanoLote, INSERT_EMPLEADO, true));
+    }
+
+    /**
+     * Actualiza varios empleados usando lotes JDBC de {@link #TAMANO_LOTE_POR_DEFECTO} filas.
+     *
+     * @param empleados Los empleados a actualizar.
+     * @return El resultado del lote con las filas que fallaron.
+     * @throws SQLException Si ocurre un error que impide completar la transacción.
+     * @see #updateEmpleados(Collection, int)
+     */
+    public ResultadoLote<Empleado> updateEmpleados(Collection<Empleado> empleados) throws SQLException {
+        return updateEmpleados(empleados, TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * Actualiza varios empleados en una sola transacción, en lotes de {@code tamanoLote} filas.
+     * Los empleados cuyo ID no existe, o que otro usuario ha modificado después de leerlos (su versión
+     * no coincide), se indican como fallidos en el resultado. Los actualizados pasan a tener la nueva versión.
+     *
+     * @param empleados  Los empleados a actualizar.
+     * @param tamanoLote El número de filas por lote.
+     * @return El resultado del lote con las filas que fallaron.
+     * @throws SQLException Si ocurre un error que impide completar la transacción.
+     */
+    public ResultadoLote<Empleado> updateEmpleados(Collection<Empleado> empleados, int tamanoLote) throws SQLException {
+        return MetricasDAO.medir("EmpleadoDAO.updateEmpleados", () -> ejecutarLote(empleados, tamanoLote, UPDATE_EMPLEADO, false));
+    }
+
+    /**
+     * Ejecuta una sentencia de inserción o actualización por lotes dentro de una {@link Transaccion}
+     * (o de un punto de guardado, si ya hay una en curso).
+     * Cada lote se protege con un punto de guardado: si el driver rechaza el lote, se deshace
+     * solo ese lote y se repite fila a fila para saber exactamente qué filas fallan.
+     */
+    private ResultadoLote<Empleado> ejecutarLote(Collection<Empleado> empleados, int tamanoLote, String sql,
+                                                 boolean esInsercion) throws SQLException {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser positivo: " + tamanoLote);
+        }
+        List<Empleado> lista = new ArrayList<>(empleados);
+        ResultadoLote<Empleado> resultado = new ResultadoLote<>(lista.size());
+        return Transaccion.ejecutar(() -> {
+            try (Connection connection = DBConnection.getConnection();
+                 PreparedStatement ps = esInsercion
+                         ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                         : connection.prepareStatement(sql)) {
+                for (int inicio = 0; inicio < lista.size(); inicio += tamanoLote) {
+                    List<Empleado> trozo = lista.subList(inicio, Math.min(inicio + tamanoLote, lista.size()));
+                    Savepoint puntoLote = connection.setSavepoint();
+                    try {
+                        for (Empleado empleado : trozo) {
+                            asignarParametros(ps, empleado, esInsercion);
+                            ps.addBatch();
+                        }
+                        int[] filas = ps.executeBatch();
+                        if (esInsercion) {
+                            leerClavesGeneradas(ps, trozo);
+                        }
+                        for (int i = 0; i < filas.length; i++) {
+                            if (filas[i] == 0) {
+                                resultado.registrarFallo(inicio + i, trozo.get(i), SIN_FILA_ACTUALIZADA, null);
+                            }
+                        }
+                        connection.releaseSavepoint(puntoLote);
+                    } catch (BatchUpdateException e) {
+                        ps.clearBatch();
+                        connection.rollback(puntoLote);
+                        ejecutarFilaAFila(connection, ps, trozo, inicio, esInsercion, resultado);
+                    }
+                }
+                Set<Empleado> fallidos = Collections.newSetFromMap(new IdentityHashMap<>());
+                resultado.getFallos().forEach(fallo -> fallidos.add(fallo.getElemento()));
+                List<Empleado> confirmados = lista.stream().filter(empleado -> !fallidos.contains(empleado)).toList();
+                // Los cambios se anotan en la misma transacción que las filas.
+                RegistroCambios.anotar(connection, RegistroCambios.EMPLEADO,
+                        confirmados.stream().map(Empleado::getId).toList(),
+                        esInsercion ? Cambio.Tipo.ALTA : Cambio.Tipo.MODIFICACION);
+                // Se avisa solo de las filas confirmadas, cuando se confirma la transacción.
+                for (Empleado empleado : confirmados) {
+                    if (esInsercion) {
+                        notificarCreado(empleado);
+                    } else {
+                        incrementarVersion(empleado);
+                        notificarGuardado(empleado);
                     }
                 }
-                return true;
             }
-            return false;
+            return resultado;
+        });
+    }
+
+    /**
+     * Repite un lote rechazado fila a fila, cada una con su punto de guardado,
+     * registrando en el resultado las filas que fallan.
+     */
+    private static void ejecutarFilaAFila(Connection connection, PreparedStatement ps, List<Empleado> trozo, int inicio,
+                                          boolean esInsercion, ResultadoLote<Empleado> resultado) throws SQLException {
+        for (int i = 0; i < trozo.size(); i++) {
+            Empleado empleado = trozo.get(i);
+            Savepoint puntoFila = connection.setSavepoint();
+            try {
+                asignarParametros(ps, empleado, esInsercion);
+                if (ps.executeUpdate() == 0) {
+                    resultado.registrarFallo(inicio + i, empleado, SIN_FILA_ACTUALIZADA, null);
+                } else if (esInsercion) {
+                    leerClavesGeneradas(ps, List.of(empleado));
+                }
+                connection.releaseSavepoint(puntoFila);
+            } catch (SQLException e) {
+                connection.rollback(puntoFila);
+                resultado.registrarFallo(inicio + i, empleado, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Asigna los parámetros de {@link #INSERT_EMPLEADO} o {@link #UPDATE_EMPLEADO}. Lo usan todas las
+     * inserciones y actualizaciones, sueltas o por lotes, para que el departamento se guarde igual en todas:
+     * sin departamento, o con el de código 0 que muestra la interfaz ("Sin Departamento"), se guarda {@code NULL}.
+     */
+    private static void asignarParametros(PreparedStatement ps, Empleado empleado, boolean esInsercion) throws SQLException {
+        ps.setString(1, empleado.getDni());
+        ps.setString(2, empleado.getNombre());
+        ps.setString(3, empleado.getApellidos());
+        ps.setInt(4, empleado.getEdad());
+        if (empleado.getDepartamento() != null && empleado.getDepartamento().getCodigo() != 0) {
+            ps.setInt(5, empleado.getDepartamento().getCodigo());
+        } else {
+            ps.setNull(5, Types.INTEGER);
+        }
+        if (!esInsercion) {
+            ps.setInt(6, empleado.getId());
+            ps.setInt(7, empleado.getVersion());
+        }
+    }
+
+    /**
+     * Asigna a cada empleado el ID generado por la base de datos, en el mismo orden de inserción.
+     */
+    private static void leerClavesGeneradas(PreparedStatement ps, List<Empleado> insertados) throws SQLException {
+        try (ResultSet generatedKeys = ps.getGeneratedKeys()) {
+            int i = 0;
+            while (generatedKeys.next() && i < insertados.size()) {
+                Empleado empleado = insertados.get(i++);
+                empleado.setId(generatedKeys.getInt(1));
+                Transaccion.alDeshacer(() -> empleado.setId(0));
+            }
         }
     }
 
     /**
      * Recupera un empleado de la base de datos por su ID.
+     * Si el empleado está en la caché (y no ha caducado) se devuelve sin consultar la base de datos,
+     * salvo dentro de una {@link Transaccion}.
      *
      * @param id El ID del empleado que se va a buscar.
      * @return Un objeto {@link Empleado} si se encuentra, {@code null} en caso contrario.
      * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
     public Empleado selectEmpleadoPorId(int id) throws SQLException {
-        Empleado empleado = null;
-        try (PreparedStatement ps = connection.prepareStatement(SELECT_EMPLEADO_POR_COD)) {
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    empleado = resultSetToEmpleado(rs);
+        return MetricasDAO.medir("EmpleadoDAO.selectEmpleadoPorId", () -> {
+            // Dentro de una transacción se lee su conexión, que puede tener cambios sin confirmar.
+            boolean usarCache = !Transaccion.activa();
+            Empleado empleado = usarCache ? cache.get(id) : null;
+            if (empleado != null) {
+                return empleado;
+            }
+            try (Connection connection = DBConnection.getConnectionLectura();
+                 PreparedStatement ps = connection.prepareStatement(SELECT_EMPLEADO_POR_COD)) {
+                ps.setInt(1, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        empleado = resultSetToEmpleado(rs);
+                        if (usarCache) {
+                            cache.guardar(empleado);
+                        }
+                    }
                 }
             }
-        }
-        return empleado;
+            return empleado;
+        });
     }
 
     /**
@@ -257,64 +649,205 @@ public class EmpleadoDAO {
      * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
     public ArrayList<Empleado> listAllEmpleados() throws SQLException {
-        ArrayList<Empleado> lista = new ArrayList<>();
-        try (
-                PreparedStatement ps = connection.prepareStatement(SELECT_ALL_EMPLEADOS);
-                ResultSet rs = ps.executeQuery();
-        ) {
-            while (rs.next()) {
-                Empleado empleado = resultSetToEmpleado(rs);
-                lista.add(empleado);
+        return MetricasDAO.medir("EmpleadoDAO.listAllEmpleados", () -> {
+            ArrayList<Empleado> lista = new ArrayList<>();
+            try (
+                    Connection connection = DBConnection.getConnectionLectura();
+                    PreparedStatement ps = connection.prepareStatement(SELECT_ALL_EMPLEADOS);
+                    ResultSet rs = ps.executeQuery();
+            ) {
+                while (rs.next()) {
+                    Empleado empleado = resultSetToEmpleado(rs);
+                    lista.add(empleado);
+                }
             }
-        }
-        return lista;
+            return lista;
+        });
+    }
+
+    /**
+     * Recupera los empleados con los ID indicados, ordenados por ID, en una sola consulta.
+     * Se lee de la base de datos primaria y sin pasar por la caché, para obtener los datos recién cambiados
+     * (por ejemplo, los cambios de otros equipos que anuncia el {@link RegistroCambios}).
+     *
+     * @param ids Los ID de los empleados.
+     * @return Los empleados que existen (los ID borrados no aparecen).
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos.
+     */
+    public ArrayList<Empleado> listEmpleadosPorIds(Collection<Integer> ids) throws SQLException {
+        return MetricasDAO.medir("EmpleadoDAO.listEmpleadosPorIds", () -> {
+            ArrayList<Empleado> lista = new ArrayList<>(ids.size());
+            if (ids.isEmpty()) {
+                return lista;
+            }
+            String sql = String.format(SELECT_EMPLEADOS_POR_IDS, String.join(", ", Collections.nCopies(ids.size(), "?")));
+            try (Connection connection = DBConnection.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(sql)) {
+                int i = 1;
+                for (int id : ids) {
+                    ps.setInt(i++, id);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        lista.add(resultSetToEmpleado(rs));
+                    }
+                }
+            }
+            return lista;
+        });
+    }
+
+    /**
+     * Recupera una página de empleados usando paginación por clave (keyset):
+     * los {@code limite} primeros empleados con ID mayor que {@code ultimoId}, ordenados por ID.
+     *
+     * @param ultimoId El ID del último empleado de la página anterior (0 para la primera página).
+     * @param limite   El número máximo de empleados a devolver.
+     * @return Una lista con los empleados de la página, vacía si no hay más.
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos.
+     */
+    public ArrayList<Empleado> listEmpleadosAfter(int ultimoId, int limite) throws SQLException {
+        return MetricasDAO.medir("EmpleadoDAO.listEmpleadosAfter", () -> {
+            ArrayList<Empleado> lista = new ArrayList<>(limite);
+            try (Connection connection = DBConnection.getConnectionLectura();
+                 PreparedStatement ps = connection.prepareStatement(SELECT_EMPLEADOS_DESDE_ID)) {
+                ps.setInt(1, ultimoId);
+                ps.setInt(2, limite);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        lista.add(resultSetToEmpleado(rs));
+                    }
+                }
+            }
+            return lista;
+        });
+    }
+
+    /**
+     * Devuelve el ID del empleado que ocupa la posición indicada en el orden por ID.
+     *
+     * @param posicion La posición, empezando en 0.
+     * @return El ID del empleado, o 0 si la posición es negativa o no existe.
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos.
+     */
+    public int idEmpleadoEnPosicion(int posicion) throws SQLException {
+        return MetricasDAO.medir("EmpleadoDAO.idEmpleadoEnPosicion", () -> {
+            if (posicion < 0) {
+                return 0;
+            }
+            try (Connection connection = DBConnection.getConnectionLectura();
+                 PreparedStatement ps = connection.prepareStatement(SELECT_ID_EN_POSICION)) {
+                ps.setInt(1, posicion);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+        });
+    }
+
+    /**
+     * Cuenta el total de empleados.
+     *
+     * @return El número de empleados.
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos.
+     */
+    public int contarEmpleados() throws SQLException {
+        return MetricasDAO.medir("EmpleadoDAO.contarEmpleados", () -> {
+            try (Connection connection = DBConnection.getConnectionLectura();
+                 PreparedStatement ps = connection.prepareStatement(COUNT_EMPLEADOS);
+                 ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        });
     }
 
     /**
      * Convierte una fila de un {@link ResultSet} a un objeto {@link Empleado}.
+     * Es visible en el paquete para que {@link DepartamentoDAO} la reutilice con los datos del jefe.
+     * El departamento se obtiene de la caché de {@link DepartamentoDAO}, de modo que los empleados
+     * del mismo departamento comparten una única instancia.
      *
      * @param rs El {@link ResultSet} que contiene los datos del empleado y su departamento.
      * @return Un nuevo objeto {@link Empleado} con los datos extraídos del {@link ResultSet}.
      * @throws SQLException Si ocurre un error al acceder a los datos del {@link ResultSet}.
      */
-    private static Empleado resultSetToEmpleado(ResultSet rs) throws SQLException {
+    static Empleado resultSetToEmpleado(ResultSet rs) throws SQLException {
         int id = rs.getInt("id");
         String dni = rs.getString("dni");
         String nombre = rs.getString("nombre");
         String apellido = rs.getString("apellido");
         int edad = rs.getInt("edad");
+        int version = rs.getInt("version");
         int codigoDep = rs.getInt("codigo_departamento");
         Departamento dep = null;
         if (!rs.wasNull()) {
-            dep = new Departamento(codigoDep, rs.getString("nombre_departamento"), null);
+            dep = DepartamentoDAO.getInstance().departamentoCompartido(codigoDep, rs.getString("nombre_departamento"),
+                    rs.getInt("version_departamento"));
         } else {
             dep = new Departamento(0, "Sin Departamento", null);
         }
-        return new Empleado(id, dni, nombre, apellido, edad, dep);
+        Empleado empleado = new Empleado(id, dni, nombre, apellido, edad, dep);
+        empleado.setVersion(version);
+        return empleado;
     }
 
     /**
-     * Actualiza los datos de un empleado existente en la base de datos.
+     * Actualiza los datos de un empleado existente en la base de datos, siempre que nadie lo haya
+     * modificado desde que se leyó (control de concurrencia optimista: no se bloquea la fila).
+     * Si se actualiza, la versión del empleado pasa a ser la nueva versión de la fila.
      *
      * @param empleado El objeto {@link Empleado} con los datos actualizados. El ID del empleado
-     * debe estar establecido para identificar el registro a actualizar.
-     * @return {@code true} si la actualización fue exitosa, {@code false} en caso contrario.
+     * debe estar establecido para identificar el registro a actualizar, y su versión debe ser la leída.
+     * @return {@code true} si la actualización fue exitosa, {@code false} si el empleado ya no existe.
+     * @throws ConflictoVersionException Si otro usuario ha modificado el empleado después de leerlo.
      * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
     public boolean updateEmpleado(Empleado empleado) throws SQLException {
-        try (PreparedStatement ps = connection.prepareStatement(UPDATE_EMPLEADO)) {
-            ps.setString(1, empleado.getDni());
-            ps.setString(2, empleado.getNombre());
-            ps.setString(3, empleado.getApellidos());
-            ps.setInt(4, empleado.getEdad());
-            if (empleado.getDepartamento() != null) {
-                ps.setInt(5, empleado.getDepartamento().getCodigo());
-            } else {
-                ps.setNull(5, Types.INTEGER);
+        return MetricasDAO.medir("EmpleadoDAO.updateEmpleado", () -> {
+            try (Connection connection = DBConnection.getConnection()) {
+                int filasAfectadas;
+                try (PreparedStatement ps = connection.prepareStatement(UPDATE_EMPLEADO)) {
+                    asignarParametros(ps, empleado, false);
+                    filasAfectadas = ps.executeUpdate();
+                }
+                if (filasAfectadas == 0) {
+                    comprobarVersion(connection, empleado);
+                    return false;
+                }
+                incrementarVersion(empleado);
+                RegistroCambios.anotar(connection, RegistroCambios.EMPLEADO, empleado.getId(), Cambio.Tipo.MODIFICACION);
+                notificarGuardado(empleado);
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Pasa el empleado a la versión que tiene ahora su fila; si la {@link Transaccion} se deshace, recupera la anterior.
+     */
+    private static void incrementarVersion(Empleado empleado) {
+        int anterior = empleado.getVersion();
+        empleado.setVersion(anterior + 1);
+        Transaccion.alDeshacer(() -> empleado.setVersion(anterior));
+    }
+
+    /**
+     * Tras una actualización que no ha afectado a ninguna fila, comprueba si es porque el empleado
+     * ya no existe o porque otro usuario lo ha modificado. En este caso se descarta de la caché,
+     * para que la siguiente lectura traiga sus datos actuales.
+     *
+     * @throws ConflictoVersionException Si el empleado existe con otra versión.
+     */
+    private void comprobarVersion(Connection connection, Empleado empleado) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(SELECT_VERSION_EMPLEADO)) {
+            ps.setInt(1, empleado.getId());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    cache.invalidar(empleado.getId());
+                    throw new ConflictoVersionException(RegistroCambios.EMPLEADO, empleado.getId(),
+                            empleado.getVersion(), rs.getInt(1));
+                }
             }
-            ps.setInt(6, empleado.getId());
-            int filasAfectadas = ps.executeUpdate();
-            return filasAfectadas > 0;
         }
     }
 
@@ -326,11 +859,18 @@ public class EmpleadoDAO {
      * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
     public boolean deleteEmpleado(int id) throws SQLException {
-        try (PreparedStatement ps = connection.prepareStatement(DELETE_EMPLEADO)) {
-            ps.setInt(1, id);
-            int filasAfectadas = ps.executeUpdate();
-            return filasAfectadas > 0;
-        }
+        return MetricasDAO.medir("EmpleadoDAO.deleteEmpleado", () -> {
+            try (Connection connection = DBConnection.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(DELETE_EMPLEADO)) {
+                ps.setInt(1, id);
+                int filasAfectadas = ps.executeUpdate();
+                if (filasAfectadas > 0) {
+                    RegistroCambios.anotar(connection, RegistroCambios.EMPLEADO, id, Cambio.Tipo.BORRADO);
+                    notificarBorrado(id);
+                }
+                return filasAfectadas > 0;
+            }
+        });
     }
 
     /**
@@ -342,22 +882,146 @@ public class EmpleadoDAO {
      * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
     public ArrayList<Empleado> empleadosDepartamento(int codigoDepartamento) throws SQLException {
-        ArrayList<Empleado> empleados = new ArrayList<>();
-        try (PreparedStatement ps = connection.prepareStatement(SELECT_EMPLEADOS_DEPARTAMENTO)) {
-            ps.setInt(1, codigoDepartamento);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Empleado empleado = resultSetToEmpleado(rs);
-                    empleados.add(empleado);
+        return MetricasDAO.medir("EmpleadoDAO.empleadosDepartamento", () -> {
+            ArrayList<Empleado> empleados = new ArrayList<>();
+            try (Connection connection = DBConnection.getConnectionLectura();
+                 PreparedStatement ps = connection.prepareStatement(SELECT_EMPLEADOS_DEPARTAMENTO)) {
+                ps.setInt(1, codigoDepartamento);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Empleado empleado = resultSetToEmpleado(rs);
+                        empleados.add(empleado);
+                    }
                 }
             }
+            return empleados;
+        });
+    }
+
+    /**
+     * Recorre todos los empleados sin cargarlos en memoria: cada empleado se lee de la base de datos
+     * cuando el stream lo pide, con un cursor de solo avance ({@link DBConnection#prepararLecturaEnStreaming(Statement)}),
+     * así que la memoria usada no depende del tamaño de la tabla. Los empleados leídos no pasan por la caché.
+     * <p>
+     * El stream tiene prestada una conexión hasta que se cierra, por lo que hay que usarlo en un
+     * try-with-resources. La conexión también se devuelve en cuanto se lee el último empleado.
+     * Con MySQL no se puede lanzar otra consulta por la misma conexión mientras el stream esté abierto,
+     * así que dentro de una {@link Transaccion} hay que terminar de recorrerlo antes de usar otro DAO.
+     * Además, cerrar el stream antes del final no detiene la consulta en MySQL: el driver lee y descarta
+     * todas las filas que quedan antes de devolver la conexión, de modo que para quedarse con unas pocas
+     * filas es mejor una consulta con {@code LIMIT}.
+     * Los errores al leer una fila se lanzan como {@link LecturaStreamException}.
+     *
+     * @return Un stream con todos los empleados.
+     * @throws SQLException Si ocurre un error al lanzar la consulta.
+     */
+    public Stream<Empleado> streamAllEmpleados() throws SQLException {
+        return MetricasDAO.medir("EmpleadoDAO.streamAllEmpleados",
+                () -> abrirStream(SELECT_ALL_EMPLEADOS, ps -> {}));
+    }
+
+    /**
+     * Recorre los empleados de un departamento sin cargarlos en memoria, igual que {@link #streamAllEmpleados()}.
+     *
+     * @param codigoDepartamento El código del departamento para filtrar los empleados.
+     * @return Un stream con los empleados del departamento.
+     * @throws SQLException Si ocurre un error al lanzar la consulta.
+     */
+    public Stream<Empleado> streamEmpleadosDepartamento(int codigoDepartamento) throws SQLException {
+        return MetricasDAO.medir("EmpleadoDAO.streamEmpleadosDepartamento",
+                () -> abrirStream(SELECT_EMPLEADOS_DEPARTAMENTO, ps -> ps.setInt(1, codigoDepartamento)));
+    }
+
+    /**
+     * Asigna los parámetros de una sentencia preparada.
+     */
+    @FunctionalInterface
+    private interface Parametros {
+        void asignar(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * Lanza una consulta de empleados con un cursor de solo avance y devuelve un stream que lo recorre.
+     * Si algo falla antes de devolver el stream, se cierra todo lo abierto.
+     */
+    private Stream<Empleado> abrirStream(String sql, Parametros parametros) throws SQLException {
+        Connection connection = DBConnection.getConnectionLectura();
+        PreparedStatement ps;
+        try {
+            ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        CursorEmpleados cursor = new CursorEmpleados(connection, ps);
+        try {
+            DBConnection.prepararLecturaEnStreaming(ps);
+            parametros.asignar(ps);
+            cursor.rs = ps.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            cursor.cerrar();
+            throw e;
+        }
+        return StreamSupport.stream(cursor, false).onClose(cursor::cerrar);
+    }
+
+    /**
+     * Cursor sobre el {@link ResultSet} de una consulta de empleados. Convierte una fila cada vez
+     * que el stream pide el siguiente empleado y cierra el resultado, la sentencia y la conexión
+     * al llegar al final o al cerrar el stream, lo que ocurra antes.
+     */
+    private static final class CursorEmpleados extends Spliterators.AbstractSpliterator<Empleado> {
+        private final Connection connection;
+        private final PreparedStatement ps;
+        private ResultSet rs;
+        private boolean cerrado;
+
+        CursorEmpleados(Connection connection, PreparedStatement ps) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.connection = connection;
+            this.ps = ps;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Empleado> action) {
+            if (cerrado) {
+                return false;
+            }
+            try {
+                if (!rs.next()) {
+                    cerrar();
+                    return false;
+                }
+                action.accept(resultSetToEmpleado(rs));
+                return true;
+            } catch (SQLException e) {
+                cerrar();
+                throw new LecturaStreamException(e);
+            }
+        }
+
+        /**
+         * Cierra el resultado, la sentencia y la conexión. Se puede llamar varias veces.
+         */
+        @SuppressWarnings("try")
+        void cerrar() {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            try (Connection c = connection; PreparedStatement p = ps; ResultSet r = rs) {
+                // Solo se cierran, en orden inverso.
+            } catch (SQLException e) {
+                throw new LecturaStreamException(e);
+            }
         }
-        return empleados;
     }
 
     /**
      * Recupera todos los empleados cuyo nombre o apellido coincida parcialmente
-     * con la cadena de búsqueda proporcionada.
+     * con la cadena de búsqueda proporcionada, en cualquier posición y con cualquier base de datos
+     * (el mismo criterio que el filtro en memoria de la tabla de empleados).
+     * Recorre el índice de apellido y nombre, no la tabla (ver {@link #SELECT_EMPLEADOS_POR_NOMBRE}).
      *
      * @param nombre La cadena de búsqueda para el nombre o apellido del empleado.
      * @return Una lista de objetos {@link Empleado} que coinciden con la búsqueda.
@@ -365,17 +1029,23 @@ public class EmpleadoDAO {
      * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
     public ArrayList<Empleado> selectEmpleadosPorNombre(String nombre) throws SQLException {
+        return MetricasDAO.medir("EmpleadoDAO.selectEmpleadosPorNombre", () -> {
+            String nombreLike = "%" + nombre + "%";
+            String apellidoLike = "%" + nombre + "%";
+            try (Connection connection = DBConnection.getConnectionLectura();
+                 PreparedStatement ps = connection.prepareStatement(SELECT_EMPLEADOS_POR_NOMBRE)) {
+                ps.setString(1, nombreLike);
+                ps.setString(2, apellidoLike);
+                return leerEmpleados(ps);
+            }
+        });
+    }
+
+    private ArrayList<Empleado> leerEmpleados(PreparedStatement ps) throws SQLException {
         ArrayList<Empleado> lista = new ArrayList<>();
-        String nombreLike = "%" + nombre + "%";
-        String apellidoLike = "%" + nombre + "%";
-        try (PreparedStatement ps = connection.prepareStatement(SELECT_EMPLEADOS_POR_NOMBRE)) {
-            ps.setString(1, nombreLike);
-            ps.setString(2, apellidoLike);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Empleado empleado = resultSetToEmpleado(rs);
-                    lista.add(empleado);
-                }
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                lista.add(resultSetToEmpleado(rs));
             }
         }
         return lista;
@@ -391,37 +1061,44 @@ public class EmpleadoDAO {
      * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
     public ArrayList<Empleado> selectEmpleadosPorDNI(String dni) throws SQLException {
-        ArrayList<Empleado> lista = new ArrayList<>();
-        String dniLike = "%" + dni + "%";
-        try (PreparedStatement ps = connection.prepareStatement(SELECT_EMPLEADOS_POR_DNI)) {
-            ps.setString(1, dniLike);
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    Empleado empleado = resultSetToEmpleado(rs);
-                    lista.add(empleado);
+        return MetricasDAO.medir("EmpleadoDAO.selectEmpleadosPorDNI", () -> {
+            ArrayList<Empleado> lista = new ArrayList<>();
+            String dniLike = "%" + dni + "%";
+            try (Connection connection = DBConnection.getConnectionLectura();
+                 PreparedStatement ps = connection.prepareStatement(SELECT_EMPLEADOS_POR_DNI)) {
+                ps.setString(1, dniLike);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Empleado empleado = resultSetToEmpleado(rs);
+                        lista.add(empleado);
+                    }
                 }
             }
-        }
-        return lista;
+            return lista;
+        });
     }
 
     /**
      * Recupera un empleado por su DNI exacto.
+     * Se consulta siempre la base de datos primaria porque se usa para comprobar si un DNI existe antes de darlo de alta.
      *
      * @param dni El DNI del empleado que se va a buscar.
      * @return Un objeto {@link Empleado} si se encuentra, {@code null} en caso contrario.
      * @throws SQLException Si ocurre un error al interactuar con la base de datos.
      */
     public Empleado selectEmpleadoPorDNI(String dni) throws SQLException {
-        Empleado empleado = null;
-        try (PreparedStatement ps = connection.prepareStatement(SELECT_EMPLEADO_POR_DNI)) {
-            ps.setString(1, dni);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    empleado = resultSetToEmpleado(rs);
+        return MetricasDAO.medir("EmpleadoDAO.selectEmpleadoPorDNI", () -> {
+            Empleado empleado = null;
+            try (Connection connection = DBConnection.getConnection();
+                 PreparedStatement ps = connection.prepareStatement(SELECT_EMPLEADO_POR_DNI)) {
+                ps.setString(1, dni);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        empleado = resultSetToEmpleado(rs);
+                    }
                 }
             }
-        }
-        return empleado;
+            return empleado;
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,202 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reparte las lecturas entre las réplicas de la base de datos, dejando las escrituras en la primaria.
+ * <p>
+ * Las réplicas se eligen por turnos ({@link Estrategia#TURNOS}) o por la menor latencia medida
+ * ({@link Estrategia#MENOR_LATENCIA}). Un hilo comprueba periódicamente cada réplica; si una falla
+ * (o falla al prestar una conexión) deja de usarse hasta que vuelve a responder, y si no queda ninguna
+ * disponible las lecturas van a la primaria.
+ * <p>
+ * Las réplicas se actualizan con cierto retraso, así que después de cada escritura las lecturas se
+ * hacen en la primaria durante {@code ventanaLecturaPropiaMs} milisegundos: así la aplicación ve siempre
+ * sus propios cambios (por ejemplo, la tabla recargada tras guardar un empleado). La ventana es global
+ * porque la aplicación la usa un único usuario.
+ */
+public final class EnrutadorLecturas implements AutoCloseable {
+    /**
+     * Forma de elegir la réplica de cada lectura.
+     */
+    public enum Estrategia {
+        /**
+         * Una réplica distinta en cada lectura, por turnos.
+         */
+        TURNOS,
+        /**
+         * La réplica con menor latencia en las últimas comprobaciones.
+         */
+        MENOR_LATENCIA
+    }
+
+    private final ConnectionPool primaria;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Estrategia estrategia;
+    private final long ventanaLecturaPropiaNanos;
+    private final AtomicInteger turno = new AtomicInteger();
+    private final ScheduledExecutorService comprobador;
+    /**
+     * Instante ({@code System.nanoTime()}) de la última escritura; 0 si no ha habido ninguna.
+     */
+    private volatile long ultimaEscritura;
+
+    private final LongAdder lecturasReplica = new LongAdder();
+    private final LongAdder lecturasPrimaria = new LongAdder();
+
+    /**
+     * Crea el enrutador. Cada sentencia de escritura o {@code commit} en la primaria cuenta como escritura;
+     * las consultas que se hacen en ella no.
+     *
+     * @param primaria                 El pool de la base de datos primaria.
+     * @param replicas                 Los pools de las réplicas de lectura.
+     * @param estrategia               La forma de elegir réplica.
+     * @param ventanaLecturaPropiaMs   Tiempo (ms) tras una escritura durante el que se lee de la primaria.
+     * @param intervaloComprobacionMs  Cada cuánto (ms) se comprueba el estado de las réplicas.
+     */
+    public EnrutadorLecturas(ConnectionPool primaria, List<ConnectionPool> replicas, Estrategia estrategia,
+                             long ventanaLecturaPropiaMs, long intervaloComprobacionMs) {
+        this.primaria = primaria;
+        replicas.forEach(pool -> this.replicas.add(new Replica(pool)));
+        this.estrategia = estrategia;
+        this.ventanaLecturaPropiaNanos = TimeUnit.MILLISECONDS.toNanos(ventanaLecturaPropiaMs);
+        primaria.setAlEscribir(this::registrarEscritura);
+        this.comprobador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "replicas-comprobador");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        comprobador.scheduleWithFixedDelay(this::comprobarReplicas, 0, intervaloComprobacionMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Presta una conexión para leer: de una réplica disponible o, si no hay ninguna o se acaba de escribir,
+     * de la primaria. Si la réplica elegida falla se marca como caída y se prueba la siguiente.
+     *
+     * @return Una conexión que se devuelve a su pool al cerrarla.
+     * @throws SQLException Si tampoco se puede obtener una conexión de la primaria.
+     */
+    public Connection getConnection() throws SQLException {
+        if (System.nanoTime() - ultimaEscritura >= ventanaLecturaPropiaNanos) {
+            for (int intento = 0; intento < replicas.size(); intento++) {
+                Replica replica = elegir();
+                if (replica == null) {
+                    break;
+                }
+                try {
+                    Connection connection = replica.pool.getConnection();
+                    lecturasReplica.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    replica.marcarCaida(e);
+                }
+            }
+        }
+        lecturasPrimaria.increment();
+        return primaria.getConnection();
+    }
+
+    /**
+     * Indica que se acaba de escribir en la primaria, para leer de ella durante la ventana de lectura propia.
+     */
+    public void registrarEscritura() {
+        ultimaEscritura = System.nanoTime();
+    }
+
+    /**
+     * Número de réplicas que responden en este momento.
+     *
+     * @return Las réplicas disponibles.
+     */
+    public int getReplicasDisponibles() {
+        return (int) replicas.stream().filter(replica -> replica.disponible).count();
+    }
+
+    public long getLecturasReplica() { return lecturasReplica.sum(); }
+    public long getLecturasPrimaria() { return lecturasPrimaria.sum(); }
+
+    /**
+     * Cierra los pools de las réplicas y el hilo de comprobación. La primaria no se cierra.
+     */
+    @Override
+    public void close() {
+        comprobador.shutdownNow();
+        primaria.setAlEscribir(null);
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private Replica elegir() {
+        if (estrategia == Estrategia.MENOR_LATENCIA) {
+            Replica mejor = null;
+            for (Replica replica : replicas) {
+                if (replica.disponible && (mejor == null || replica.latenciaNanos < mejor.latenciaNanos)) {
+                    mejor = replica;
+                }
+            }
+            return mejor;
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(turno.getAndIncrement(), replicas.size()));
+            if (replica.disponible) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tarea periódica: valida una conexión de cada réplica y actualiza su estado y su latencia.
+     */
+    private void comprobarReplicas() {
+        for (Replica replica : replicas) {
+            long inicio = System.nanoTime();
+            try (Connection connection = replica.pool.getConnection()) {
+                if (!connection.isValid(replica.pool.getConfig().getTimeoutValidacionSeg())) {
+                    throw new SQLException("La réplica no responde");
+                }
+                replica.marcarDisponible(System.nanoTime() - inicio);
+            } catch (SQLException e) {
+                replica.marcarCaida(e);
+            }
+        }
+    }
+
+    /**
+     * Estado de una réplica.
+     */
+    private static class Replica {
+        final ConnectionPool pool;
+        volatile boolean disponible = true;
+        /**
+         * Latencia de validación, media móvil exponencial en nanosegundos.
+         */
+        volatile long latenciaNanos;
+
+        Replica(ConnectionPool pool) {
+            this.pool = pool;
+        }
+
+        void marcarDisponible(long latencia) {
+            latenciaNanos = latenciaNanos == 0 ? latencia : (latenciaNanos * 4 + latencia) / 5;
+            if (!disponible) {
+                System.err.println("La réplica " + pool.getConfig().getUrl() + " vuelve a estar disponible");
+            }
+            disponible = true;
+        }
+
+        void marcarCaida(SQLException e) {
+            if (disponible) {
+                System.err.println("La réplica " + pool.getConfig().getUrl() + " no está disponible: " + e.getMessage());
+            }
+            disponible = false;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+/**
+ * Se lanza al crear el pool cuando la base de datos no tiene el esquema que espera la aplicación
+ * (por ejemplo, le faltan las columnas {@code version} del control de concurrencia optimista).
+ * Los DAO fallarían en cada consulta, así que la aplicación no debe arrancar con ella.
+ */
+public class EsquemaIncompatibleException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Crea la excepción.
+     *
+     * @param mensaje Qué le falta al esquema y cómo actualizarlo.
+     */
+    public EsquemaIncompatibleException(String mensaje) {
+        super(mensaje);
+    }
+}
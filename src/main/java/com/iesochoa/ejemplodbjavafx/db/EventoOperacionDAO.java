@@ -0,0 +1,29 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder emitido por {@link MetricasDAO#medir(String, SqlCallable)} en cada llamada
+ * a un método de un DAO. Incluye el préstamo de la conexión, las sentencias y la conversión de las filas.
+ */
+@Name("com.iesochoa.ejemplodbjavafx.OperacionDAO")
+@Label("Operación DAO")
+@Category({"EjemploDBJavaFX", "Base de datos"})
+@Description("Llamada a un método de un DAO")
+@StackTrace(false)
+class EventoOperacionDAO extends Event {
+    @Label("Método del DAO")
+    String metodo;
+
+    @Label("Filas")
+    @Description("Filas devueltas o modificadas, o -1 si no se conocen (streams)")
+    long filas;
+
+    @Label("Error")
+    boolean error;
+}
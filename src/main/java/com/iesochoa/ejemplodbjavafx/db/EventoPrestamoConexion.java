@@ -0,0 +1,30 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder emitido por {@link ConnectionPool#getConnection()}. La duración es
+ * el tiempo hasta obtener la conexión: esperas a que otra se devuelva y apertura de conexiones nuevas.
+ */
+@Name("com.iesochoa.ejemplodbjavafx.PrestamoConexion")
+@Label("Préstamo de conexión")
+@Category({"EjemploDBJavaFX", "Base de datos"})
+@Description("Obtención de una conexión del pool")
+@StackTrace(false)
+class EventoPrestamoConexion extends Event {
+    @Label("URL")
+    String url;
+
+    @Label("Conexión nueva")
+    @Description("Se abrió una conexión física nueva")
+    boolean nueva;
+
+    @Label("Conseguida")
+    @Description("Falso si se agotó el tiempo de espera o falló la apertura")
+    boolean conseguida;
+}
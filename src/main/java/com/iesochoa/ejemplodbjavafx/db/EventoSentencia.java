@@ -0,0 +1,30 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Java Flight Recorder emitido por el pool en cada ejecución de una sentencia preparada.
+ * La duración del evento es el tiempo de ida y vuelta a la base de datos.
+ */
+@Name("com.iesochoa.ejemplodbjavafx.Sentencia")
+@Label("Sentencia SQL")
+@Category({"EjemploDBJavaFX", "Base de datos"})
+@Description("Ejecución de una sentencia preparada en la base de datos")
+@StackTrace(false)
+class EventoSentencia extends Event {
+    @Label("Método del DAO")
+    @Description("Método del DAO que lanzó la sentencia; identifica la consulta")
+    String metodo;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Filas modificadas")
+    @Description("Filas insertadas, actualizadas o borradas; -1 en las consultas")
+    long filas;
+}
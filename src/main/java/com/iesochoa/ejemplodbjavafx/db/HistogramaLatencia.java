@@ -0,0 +1,117 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias en microsegundos con cubetas logarítmicas (al estilo de HdrHistogram).
+ * Cada potencia de dos se divide en 16 cubetas iguales, de modo que cualquier percentil se obtiene
+ * con un error relativo menor del 7 % usando menos de mil contadores, sin guardar cada medida.
+ * Se puede registrar desde varios hilos a la vez sin bloqueos.
+ */
+public class HistogramaLatencia {
+    /**
+     * Bits de subcubeta por potencia de dos (16 subcubetas).
+     */
+    private static final int BITS_SUBCUBETA = 4;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+    private static final int NUM_CUBETAS = SUBCUBETAS + (64 - BITS_SUBCUBETA) * SUBCUBETAS;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(NUM_CUBETAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Crea un histograma vacío.
+     */
+    public HistogramaLatencia() {
+    }
+
+    /**
+     * Registra una medida.
+     *
+     * @param micros La latencia en microsegundos.
+     */
+    public void registrar(long micros) {
+        long valor = Math.max(0, micros);
+        cubetas.incrementAndGet(indice(valor));
+        total.increment();
+        suma.add(valor);
+        maximo.accumulate(valor);
+    }
+
+    /**
+     * Número de medidas registradas.
+     *
+     * @return El número de medidas.
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * Latencia media en microsegundos.
+     *
+     * @return La media, o 0 si no hay medidas.
+     */
+    public double getMedia() {
+        long n = total.sum();
+        return n == 0 ? 0 : (double) suma.sum() / n;
+    }
+
+    /**
+     * Latencia máxima registrada en microsegundos.
+     *
+     * @return El máximo.
+     */
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Devuelve el percentil indicado: el valor por debajo del cual queda esa proporción de medidas.
+     *
+     * @param percentil Un valor entre 0 y 100 (por ejemplo 99 para el p99).
+     * @return El límite superior de la cubeta del percentil en microsegundos, o 0 si no hay medidas.
+     */
+    public long getPercentil(double percentil) {
+        long n = total.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(percentil / 100.0 * n));
+        long acumulado = 0;
+        for (int i = 0; i < NUM_CUBETAS; i++) {
+            acumulado += cubetas.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    /**
+     * Cubeta de un valor: los valores pequeños tienen cubeta propia; el resto se agrupa por potencia de dos
+     * y, dentro de ella, por los 4 bits siguientes al más significativo.
+     */
+    private static int indice(long valor) {
+        if (valor < SUBCUBETAS) {
+            return (int) valor;
+        }
+        int exponente = 63 - Long.numberOfLeadingZeros(valor);
+        int desplazamiento = exponente - BITS_SUBCUBETA;
+        int subcubeta = (int) (valor >>> desplazamiento) & (SUBCUBETAS - 1);
+        return SUBCUBETAS + desplazamiento * SUBCUBETAS + subcubeta;
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBCUBETAS) {
+            return indice;
+        }
+        int desplazamiento = (indice - SUBCUBETAS) / SUBCUBETAS;
+        int subcubeta = (indice - SUBCUBETAS) % SUBCUBETAS;
+        return ((long) (SUBCUBETAS + subcubeta + 1) << desplazamiento) - 1;
+    }
+}
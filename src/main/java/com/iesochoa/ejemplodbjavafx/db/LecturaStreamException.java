@@ -0,0 +1,31 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.sql.SQLException;
+
+/**
+ * Error de la base de datos al leer la siguiente fila de un {@link java.util.stream.Stream} abierto por un DAO
+ * (por ejemplo, {@link EmpleadoDAO#streamAllEmpleados()}). Las operaciones de un stream no pueden lanzar
+ * excepciones comprobadas, así que la {@link SQLException} original viaja como causa.
+ */
+public class LecturaStreamException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Crea la excepción a partir del error original.
+     *
+     * @param causa El error de la base de datos.
+     */
+    public LecturaStreamException(SQLException causa) {
+        super(causa.getMessage(), causa);
+    }
+
+    /**
+     * Devuelve el error original de la base de datos.
+     *
+     * @return La {@link SQLException} que interrumpió la lectura.
+     */
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
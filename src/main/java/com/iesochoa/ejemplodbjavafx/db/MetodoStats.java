@@ -0,0 +1,77 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+/**
+ * Instantánea de las métricas de un método de un DAO (ver {@link MetricasDAO}).
+ * Las latencias están en microsegundos; los percentiles tienen un error relativo menor del 7 %.
+ */
+public class MetodoStats {
+    private final String metodo;
+    private final long llamadas;
+    private final long errores;
+    private final long filas;
+    private final double media;
+    private final long p50;
+    private final long p95;
+    private final long p99;
+    private final long maximo;
+
+    /**
+     * Crea una instantánea de métricas.
+     *
+     * @param metodo   El nombre del método ({@code Clase.metodo}).
+     * @param llamadas Llamadas terminadas, con o sin error.
+     * @param errores  Llamadas que terminaron con una excepción.
+     * @param filas    Filas devueltas o modificadas en total, o -1 si el método devuelve streams y no se conocen.
+     * @param media    Latencia media (µs).
+     * @param p50      Mediana de la latencia (µs).
+     * @param p95      Percentil 95 de la latencia (µs).
+     * @param p99      Percentil 99 de la latencia (µs).
+     * @param maximo   Latencia máxima (µs).
+     */
+    public MetodoStats(String metodo, long llamadas, long errores, long filas, double media,
+                       long p50, long p95, long p99, long maximo) {
+        this.metodo = metodo;
+        this.llamadas = llamadas;
+        this.errores = errores;
+        this.filas = filas;
+        this.media = media;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+        this.maximo = maximo;
+    }
+
+    public String getMetodo() { return metodo; }
+    public long getLlamadas() { return llamadas; }
+    public long getErrores() { return errores; }
+    public long getFilas() { return filas; }
+    public double getMedia() { return media; }
+    public long getP50() { return p50; }
+    public long getP95() { return p95; }
+    public long getP99() { return p99; }
+    public long getMaximo() { return maximo; }
+
+    /**
+     * Tiempo total aproximado pasado en el método, en microsegundos.
+     *
+     * @return La media por el número de llamadas.
+     */
+    public double getTiempoTotal() {
+        return media * llamadas;
+    }
+
+    @Override
+    public String toString() {
+        return "MetodoStats{" +
+                "metodo='" + metodo + '\'' +
+                ", llamadas=" + llamadas +
+                ", errores=" + errores +
+                ", filas=" + filas +
+                ", media=" + String.format("%.1f", media) +
+                ", p50=" + p50 +
+                ", p95=" + p95 +
+                ", p99=" + p99 +
+                ", maximo=" + maximo +
+                '}';
+    }
+}
@@ -0,0 +1,302 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.BaseStream;
+
+/**
+ * Métricas de los métodos de los DAO y registro de consultas lentas.
+ * <p>
+ * Cada método público de {@link EmpleadoDAO} y {@link DepartamentoDAO} se ejecuta dentro de
+ * {@link #medir(String, SqlCallable)}, que cuenta las llamadas, los errores y las filas devueltas
+ * o modificadas y guarda la latencia en un {@link HistogramaLatencia} (p50/p95/p99).
+ * <p>
+ * Además, el pool mide cada ejecución de sentencia; las que tardan al menos {@link #getUmbralLentaMs()}
+ * milisegundos se escriben en la salida de error con el método del DAO que la lanzó, el SQL y los
+ * valores de sus parámetros. El umbral y el volcado periódico de las métricas se configuran por perfil
+ * con {@code metricas.umbralLentaMs} y {@code metricas.intervaloVolcadoSeg} (ver {@link ConfiguracionBD}).
+ * <p>
+ * Cada llamada emite también un evento de Java Flight Recorder ({@link EventoOperacionDAO}).
+ */
+public class MetricasDAO {
+    /**
+     * Umbral de consulta lenta por defecto, en milisegundos.
+     */
+    public static final long UMBRAL_LENTA_POR_DEFECTO_MS = 500;
+    /**
+     * Longitud máxima con la que se escribe cada parámetro en el registro de consultas lentas.
+     */
+    private static final int LONGITUD_MAXIMA_PARAMETRO = 100;
+
+    private static final Map<String, Metrica> metricas = new ConcurrentHashMap<>();
+    /**
+     * Método del DAO que se está ejecutando en cada hilo, para saber quién lanzó una consulta lenta.
+     */
+    private static final ThreadLocal<String> metodoActual = new ThreadLocal<>();
+    private static volatile long umbralLentaNanos = TimeUnit.MILLISECONDS.toNanos(UMBRAL_LENTA_POR_DEFECTO_MS);
+    private static ScheduledExecutorService volcado;
+
+    // Constructor privado para evitar instancias directas
+    private MetricasDAO() {}
+
+    /**
+     * Ejecuta una operación de un DAO registrando su latencia, sus filas y si falla.
+     * Las filas se deducen del resultado: el tamaño de una colección, las filas correctas de un
+     * {@link ResultadoLote}, 1 o 0 para un booleano, 0 para {@code null} y 1 para cualquier otro valor.
+     * Un {@link BaseStream} todavía no ha leído sus filas al devolverse, así que no se cuentan
+     * (las métricas del método y el evento de JFR indican -1) y la latencia es solo la de abrir la consulta.
+     *
+     * @param metodo    El nombre del método, por ejemplo {@code "EmpleadoDAO.listAllEmpleados"}.
+     * @param operacion La operación a ejecutar.
+     * @param <T>       El tipo del resultado.
+     * @return El resultado de la operación.
+     * @throws SQLException Si la operación falla (el error se cuenta y se relanza).
+     */
+    public static <T> T medir(String metodo, SqlCallable<T> operacion) throws SQLException {
+        Metrica metrica = metricas.computeIfAbsent(metodo, Metrica::new);
+        String anterior = metodoActual.get();
+        metodoActual.set(metodo);
+        EventoOperacionDAO evento = new EventoOperacionDAO();
+        evento.begin();
+        long inicio = System.nanoTime();
+        boolean error = true;
+        long filas = 0;
+        try {
+            T resultado = operacion.call();
+            filas = contarFilas(resultado);
+            if (filas >= 0) {
+                metrica.filas.add(filas);
+            } else {
+                metrica.filasDesconocidas = true;
+            }
+            error = false;
+            return resultado;
+        } finally {
+            metrica.registrar(System.nanoTime() - inicio, error);
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.metodo = metodo;
+                evento.filas = filas;
+                evento.error = error;
+                evento.commit();
+            }
+            if (anterior == null) {
+                metodoActual.remove();
+            } else {
+                metodoActual.set(anterior);
+            }
+        }
+    }
+
+    /**
+     * Devuelve el método del DAO que se está ejecutando en este hilo.
+     *
+     * @return El nombre del método, o {@code null} si la sentencia no se lanzó desde un DAO.
+     */
+    static String getMetodoActual() {
+        return metodoActual.get();
+    }
+
+    /**
+     * Indica si una ejecución que ha tardado {@code nanos} nanosegundos supera el umbral de consulta lenta.
+     *
+     * @param nanos Lo que tardó la ejecución, en nanosegundos.
+     * @return {@code true} si hay que registrarla.
+     */
+    static boolean esLenta(long nanos) {
+        long umbral = umbralLentaNanos;
+        return umbral >= 0 && nanos >= umbral;
+    }
+
+    /**
+     * Escribe una sentencia lenta en el registro, junto al método del DAO que la lanzó.
+     * Lo llama el pool después de ejecutar una sentencia cuando {@link #esLenta(long)} lo indica.
+     *
+     * @param sql        El SQL ejecutado.
+     * @param parametros Los valores de los parámetros, por posición (el índice 0 no se usa); puede ser {@code null}.
+     * @param nanos      Lo que tardó la ejecución, en nanosegundos.
+     */
+    static void registrarConsultaLenta(String sql, Object[] parametros, long nanos) {
+        String metodo = metodoActual.get();
+        System.err.println("Consulta lenta (" + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms)"
+                + (metodo != null ? " en " + metodo : "") + ": "
+                + sql.replaceAll("\\s+", " ").trim()
+                + " | parámetros: " + formatearParametros(parametros));
+    }
+
+    /**
+     * Indica cuánto tiene que tardar una sentencia para escribirla en el registro de consultas lentas.
+     *
+     * @param umbralMs El umbral en milisegundos; 0 registra todas y un valor negativo ninguna.
+     */
+    public static void setUmbralLentaMs(long umbralMs) {
+        umbralLentaNanos = umbralMs < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(umbralMs);
+    }
+
+    public static long getUmbralLentaMs() {
+        long umbral = umbralLentaNanos;
+        return umbral < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(umbral);
+    }
+
+    /**
+     * Devuelve las métricas de todos los métodos llamados, del que más tiempo total ha consumido al que menos.
+     *
+     * @return Una instantánea de las métricas de cada método.
+     */
+    public static List<MetodoStats> getMetricas() {
+        List<MetodoStats> lista = new ArrayList<>();
+        metricas.values().forEach(metrica -> lista.add(metrica.instantanea()));
+        lista.sort(Comparator.comparingDouble(MetodoStats::getTiempoTotal).reversed());
+        return lista;
+    }
+
+    /**
+     * Devuelve las métricas de un método.
+     *
+     * @param metodo El nombre del método ({@code Clase.metodo}).
+     * @return Una instantánea de sus métricas, o {@code null} si aún no se ha llamado.
+     */
+    public static MetodoStats getMetricas(String metodo) {
+        Metrica metrica = metricas.get(metodo);
+        return metrica == null ? null : metrica.instantanea();
+    }
+
+    /**
+     * Descarta todas las métricas acumuladas.
+     */
+    public static void reiniciar() {
+        metricas.clear();
+    }
+
+    /**
+     * Devuelve las métricas como una tabla de texto, una línea por método.
+     *
+     * @return La tabla con las métricas.
+     */
+    public static String volcar() {
+        StringBuilder texto = new StringBuilder(String.format("%-45s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "Método", "Llamadas", "Errores", "Filas", "Media µs", "p50 µs", "p95 µs", "p99 µs", "Máx µs"));
+        for (MetodoStats stats : getMetricas()) {
+            texto.append(String.format("%-45s %9d %7d %10d %9.0f %9d %9d %9d %9d%n",
+                    stats.getMetodo(), stats.getLlamadas(), stats.getErrores(), stats.getFilas(), stats.getMedia(),
+                    stats.getP50(), stats.getP95(), stats.getP99(), stats.getMaximo()));
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Escribe las métricas en la salida estándar cada {@code intervaloSeg} segundos, en un hilo en segundo plano.
+     * Sustituye al volcado anterior, si lo había.
+     *
+     * @param intervaloSeg Segundos entre volcados; 0 o menos solo detiene el volcado actual.
+     */
+    public static synchronized void iniciarVolcado(long intervaloSeg) {
+        detenerVolcado();
+        if (intervaloSeg <= 0) {
+            return;
+        }
+        volcado = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "metricas-dao");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        volcado.scheduleAtFixedRate(() -> {
+            if (!metricas.isEmpty()) {
+                System.out.print("Métricas de los DAO:\n" + volcar());
+            }
+        }, intervaloSeg, intervaloSeg, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Detiene el volcado periódico de las métricas.
+     */
+    public static synchronized void detenerVolcado() {
+        if (volcado != null) {
+            volcado.shutdownNow();
+            volcado = null;
+        }
+    }
+
+    private static long contarFilas(Object resultado) {
+        if (resultado == null) {
+            return 0;
+        }
+        if (resultado instanceof Collection<?> coleccion) {
+            return coleccion.size();
+        }
+        if (resultado instanceof ResultadoLote<?> lote) {
+            return lote.getCorrectos();
+        }
+        if (resultado instanceof Boolean correcto) {
+            return correcto ? 1 : 0;
+        }
+        if (resultado instanceof BaseStream<?, ?>) {
+            // Las filas se leen después, al consumir el stream: no se conocen.
+            return -1;
+        }
+        return 1;
+    }
+
+    private static String formatearParametros(Object[] parametros) {
+        if (parametros == null) {
+            return "[]";
+        }
+        StringBuilder texto = new StringBuilder("[");
+        for (int i = 1; i < parametros.length; i++) {
+            if (i > 1) {
+                texto.append(", ");
+            }
+            Object valor = parametros[i];
+            if (valor instanceof CharSequence cadena) {
+                String recortada = cadena.length() > LONGITUD_MAXIMA_PARAMETRO
+                        ? cadena.subSequence(0, LONGITUD_MAXIMA_PARAMETRO) + "..."
+                        : cadena.toString();
+                texto.append('\'').append(recortada).append('\'');
+            } else {
+                texto.append(valor);
+            }
+        }
+        return texto.append(']').toString();
+    }
+
+    /**
+     * Contadores e histograma de un método.
+     */
+    private static class Metrica {
+        final String metodo;
+        final LongAdder errores = new LongAdder();
+        final LongAdder filas = new LongAdder();
+        /**
+         * Se marca si alguna llamada devolvió un resultado cuyas filas no se conocen (un stream).
+         */
+        volatile boolean filasDesconocidas;
+        final HistogramaLatencia latencias = new HistogramaLatencia();
+
+        Metrica(String metodo) {
+            this.metodo = metodo;
+        }
+
+        void registrar(long nanos, boolean error) {
+            if (error) {
+                errores.increment();
+            }
+            latencias.registrar(TimeUnit.NANOSECONDS.toMicros(nanos));
+        }
+
+        MetodoStats instantanea() {
+            return new MetodoStats(metodo, latencias.getTotal(), errores.sum(),
+                    filasDesconocidas ? -1 : filas.sum(), latencias.getMedia(),
+                    latencias.getPercentil(50), latencias.getPercentil(95), latencias.getPercentil(99),
+                    latencias.getMaximo());
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Migraciones versionadas del esquema de la base de datos. Cada migración tiene un número de versión
+ * y se aplica una sola vez: las aplicadas se anotan en la tabla {@code EsquemaVersion}, de modo que al arrancar
+ * solo se ejecutan las pendientes, en orden.
+ * <p>
+ * MySQL confirma cada sentencia DDL por separado, así que una migración no se puede deshacer a medias.
+ * Por eso cada paso comprueba antes lo que ya existe (tabla, clave foránea, columna o índice) y se puede repetir sin error
+ * si una migración se interrumpe antes de anotarse.
+ * <p>
+ * Las bases de datos creadas antes de existir las migraciones (con las tablas, pero sin {@code EsquemaVersion})
+ * pasan por la migración 1 sin cambios, porque ya tienen sus tablas y claves foráneas, y reciben el resto de migraciones.
+ */
+public class MigracionesBD {
+    /**
+     * Tabla con las versiones del esquema aplicadas.
+     */
+    static final String CREATE_TABLA_VERSIONES = """
+            CREATE TABLE IF NOT EXISTS EsquemaVersion (
+                version INT PRIMARY KEY,
+                descripcion VARCHAR(200) NOT NULL,
+                aplicada TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+    private static final String SELECT_VERSION_ACTUAL = "SELECT MAX(version) FROM EsquemaVersion";
+    private static final String INSERT_VERSION = "INSERT INTO EsquemaVersion (version, descripcion) VALUES (?, ?)";
+
+    /**
+     * Versión 1: las tablas, tal como las creaba la aplicación originalmente. Sus claves foráneas
+     * se añaden aparte, solo si no existen ya.
+     */
+    private static final String TABLAS_INICIALES = """
+            CREATE TABLE IF NOT EXISTS Departamento (
+                codigo INT AUTO_INCREMENT PRIMARY KEY,
+                nombre VARCHAR(100),
+                jefe INT UNIQUE
+            );
+
+            -- Crear tabla Empleado si no existe (sin clave foránea)
+            CREATE TABLE IF NOT EXISTS Empleado (
+                id INT AUTO_INCREMENT PRIMARY KEY,
+                dni VARCHAR(9) NOT NULL UNIQUE,
+                nombre VARCHAR(50),
+                apellido VARCHAR(50),
+                edad INT,
+                departamento INT
+            );
+            """;
+    private static final String FK_EMPLEADO_DEPARTAMENTO = """
+            ALTER TABLE Empleado
+            ADD CONSTRAINT fk_empleado_departamento
+            FOREIGN KEY (departamento) REFERENCES Departamento(codigo)
+                ON DELETE SET NULL ON UPDATE CASCADE
+            """;
+    private static final String FK_DEPARTAMENTO_EMPLEADO = """
+            ALTER TABLE Departamento
+            ADD CONSTRAINT fk_departamento_empleado
+            FOREIGN KEY (jefe) REFERENCES Empleado(id)
+                ON DELETE SET NULL ON UPDATE CASCADE
+            """;
+
+    /**
+     * Paso de una migración. Se ejecuta con una conexión en modo autocommit.
+     */
+    @FunctionalInterface
+    private interface Paso {
+        void aplicar(Connection conexion) throws SQLException;
+    }
+
+    private record Migracion(int version, String descripcion, Paso paso) {
+    }
+
+    /**
+     * Todas las migraciones, en orden de versión. Las nuevas se añaden al final con la versión siguiente;
+     * las ya publicadas no se modifican.
+     */
+    private static final List<Migracion> MIGRACIONES = List.of(
+            new Migracion(1, "Tablas Departamento y Empleado",
+                    conexion -> {
+                        ejecutarScript(conexion, TABLAS_INICIALES);
+                        crearClaveForanea(conexion, "Empleado", "fk_empleado_departamento", FK_EMPLEADO_DEPARTAMENTO);
+                        crearClaveForanea(conexion, "Departamento", "fk_departamento_empleado", FK_DEPARTAMENTO_EMPLEADO);
+                    }),
+            new Migracion(2, "Columna version para el control de concurrencia optimista",
+                    conexion -> {
+                        anadirColumna(conexion, "Empleado", "version", "INT NOT NULL DEFAULT 0");
+                        anadirColumna(conexion, "Departamento", "version", "INT NOT NULL DEFAULT 0");
+                    }),
+            new Migracion(3, "Tabla Cambio del registro de cambios",
+                    conexion -> {
+                        ejecutar(conexion, RegistroCambios.CREATE_TABLA_CAMBIOS);
+                        // La purga borra por fecha.
+                        crearIndice(conexion, "Cambio", "idx_cambio_fecha", "CREATE INDEX idx_cambio_fecha ON Cambio (fecha)");
+                    }),
+            new Migracion(4, "Tipos de columna de Empleado: DNI de longitud fija y edad SMALLINT",
+                    conexion -> {
+                        ejecutar(conexion, "ALTER TABLE Empleado MODIFY COLUMN dni CHAR(9) NOT NULL");
+                        ejecutar(conexion, "ALTER TABLE Empleado MODIFY COLUMN edad SMALLINT");
+                    }),
+            new Migracion(5, "Índices para las consultas por departamento y por nombre",
+                    conexion -> {
+                        // Sirve a empleadosDepartamento y a la clave foránea, y cubre las estadísticas
+                        // por departamento (que se calculan solo con el índice, sin leer las filas).
+                        crearIndice(conexion, "Empleado", "idx_empleado_departamento_edad",
+                                "CREATE INDEX idx_empleado_departamento_edad ON Empleado (departamento, edad)");
+                        // Búsquedas y ordenación por apellidos y nombre, y la búsqueda por subcadenas del nombre.
+                        // A propósito no se crea un índice FULLTEXT: solo encuentra prefijos de palabras
+                        // y la búsqueda devolvería filas distintas en MySQL y en H2.
+                        crearIndice(conexion, "Empleado", "idx_empleado_apellido_nombre",
+                                "CREATE INDEX idx_empleado_apellido_nombre ON Empleado (apellido, nombre)");
+                    })
+    );
+
+    // Constructor privado para evitar instancias directas
+    private MigracionesBD() {}
+
+    /**
+     * Aplica en orden las migraciones pendientes.
+     *
+     * @param conexion Una conexión en modo autocommit.
+     * @return {@code true} si la base de datos estaba vacía y se ha creado desde cero
+     * (para añadir los datos de ejemplo).
+     * @throws SQLException Si falla una migración; las anteriores quedan aplicadas y anotadas.
+     */
+    public static synchronized boolean migrar(Connection conexion) throws SQLException {
+        boolean existian = existeTabla(conexion, "Empleado");
+        ejecutar(conexion, CREATE_TABLA_VERSIONES);
+        // Una base de datos anterior a las migraciones ya tiene las tablas de la versión 1:
+        // la migración 1 lo comprueba y solo las anota.
+        int actual = versionActual(conexion);
+        for (Migracion migracion : MIGRACIONES) {
+            if (migracion.version() > actual) {
+                migracion.paso().aplicar(conexion);
+                anotar(conexion, migracion);
+            }
+        }
+        return !existian;
+    }
+
+    /**
+     * Devuelve la versión del esquema de la base de datos.
+     *
+     * @param conexion Una conexión.
+     * @return La última versión aplicada, o 0 si no se ha aplicado ninguna.
+     * @throws SQLException Si no existe la tabla de versiones u ocurre otro error.
+     */
+    public static int versionActual(Connection conexion) throws SQLException {
+        try (PreparedStatement ps = conexion.prepareStatement(SELECT_VERSION_ACTUAL);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Comprueba que la base de datos tiene las columnas que usan los DAO en todas sus consultas,
+     * aunque el perfil no aplique las migraciones.
+     *
+     * @param conexion Una conexión.
+     * @throws EsquemaIncompatibleException Si falta alguna tabla o columna.
+     * @throws SQLException Si ocurre un error al leer los metadatos.
+     */
+    public static void comprobarEsquema(Connection conexion) throws SQLException {
+        for (String tabla : new String[]{"Empleado", "Departamento"}) {
+            if (!existeTabla(conexion, tabla)) {
+                throw new EsquemaIncompatibleException("Falta la tabla " + tabla + " en la base de datos");
+            }
+            if (!existeColumna(conexion, tabla, "version")) {
+                throw new EsquemaIncompatibleException("Falta la columna version de la tabla " + tabla
+                        + ". Hay que aplicar la migración 2: ALTER TABLE " + tabla
+                        + " ADD COLUMN version INT NOT NULL DEFAULT 0");
+            }
+        }
+    }
+
+    /**
+     * Devuelve la versión del esquema que espera esta versión de la aplicación.
+     *
+     * @return La versión de la última migración.
+     */
+    public static int ultimaVersion() {
+        return MIGRACIONES.get(MIGRACIONES.size() - 1).version();
+    }
+
+    private static void anotar(Connection conexion, Migracion migracion) throws SQLException {
+        try (PreparedStatement ps = conexion.prepareStatement(INSERT_VERSION)) {
+            ps.setInt(1, migracion.version());
+            ps.setString(2, migracion.descripcion());
+            ps.executeUpdate();
+        }
+    }
+
+    private static void ejecutar(Connection conexion, String sql) throws SQLException {
+        try (Statement statement = conexion.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * Ejecuta un script con varias sentencias separadas por {@code ;}, una a una
+     * (MySQL no admite varias sentencias en una llamada salvo con {@code allowMultiQueries}).
+     * Se ignoran los fragmentos que solo contienen comentarios {@code --}.
+     */
+    static void ejecutarScript(Connection conexion, String script) throws SQLException {
+        try (Statement statement = conexion.createStatement()) {
+            for (String sentencia : script.split(";")) {
+                boolean vacia = sentencia.lines()
+                        .map(String::trim)
+                        .allMatch(linea -> linea.isEmpty() || linea.startsWith("--"));
+                if (!vacia) {
+                    statement.execute(sentencia);
+                }
+            }
+        }
+    }
+
+    // Añade una columna a una tabla si aún no la tiene
+    private static void anadirColumna(Connection conexion, String tabla, String columna, String definicion) throws SQLException {
+        if (!existeColumna(conexion, tabla, columna)) {
+            ejecutar(conexion, "ALTER TABLE " + tabla + " ADD COLUMN " + columna + " " + definicion);
+        }
+    }
+
+    // Comprueba si una tabla existente tiene una columna (sin distinguir mayúsculas)
+    private static boolean existeColumna(Connection conexion, String tabla, String columna) throws SQLException {
+        String[] nombre = nombreReal(conexion, tabla);
+        try (ResultSet rs = conexion.getMetaData().getColumns(conexion.getCatalog(), nombre[0], nombre[1], "%")) {
+            while (rs.next()) {
+                if (columna.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Añade una clave foránea si la tabla aún no tiene una con ese nombre
+    private static void crearClaveForanea(Connection conexion, String tabla, String claveForanea, String sql) throws SQLException {
+        String[] nombre = nombreReal(conexion, tabla);
+        try (ResultSet rs = conexion.getMetaData().getImportedKeys(conexion.getCatalog(), nombre[0], nombre[1])) {
+            while (rs.next()) {
+                if (claveForanea.equalsIgnoreCase(rs.getString("FK_NAME"))) {
+                    return;
+                }
+            }
+        }
+        ejecutar(conexion, sql);
+    }
+
+    // Crea un índice si la tabla aún no tiene uno con ese nombre
+    private static void crearIndice(Connection conexion, String tabla, String indice, String sql) throws SQLException {
+        String[] nombre = nombreReal(conexion, tabla);
+        try (ResultSet rs = conexion.getMetaData().getIndexInfo(conexion.getCatalog(), nombre[0], nombre[1], false, true)) {
+            while (rs.next()) {
+                if (indice.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return;
+                }
+            }
+        }
+        ejecutar(conexion, sql);
+    }
+
+    // Comprueba si existe una tabla (sin distinguir mayúsculas, que cada base de datos guarda a su manera)
+    static boolean existeTabla(Connection conexion, String tabla) throws SQLException {
+        return nombreReal(conexion, tabla) != null;
+    }
+
+    /**
+     * Busca una tabla sin distinguir mayúsculas y devuelve su esquema y su nombre tal como los guarda
+     * la base de datos, que es como hay que pasarlos a {@link DatabaseMetaData}.
+     *
+     * @return {esquema, nombre}, o {@code null} si la tabla no existe.
+     */
+    private static String[] nombreReal(Connection conexion, String tabla) throws SQLException {
+        try (ResultSet rs = conexion.getMetaData().getTables(conexion.getCatalog(), null, "%", new String[]{"TABLE"})) {
+            while (rs.next()) {
+                if (tabla.equalsIgnoreCase(rs.getString("TABLE_NAME"))) {
+                    return new String[]{rs.getString("TABLE_SCHEM"), rs.getString("TABLE_NAME")};
+                }
+            }
+        }
+        return null;
+    }
+
+    static boolean esMySQL(Connection conexion) throws SQLException {
+        return "MySQL".equalsIgnoreCase(conexion.getMetaData().getDatabaseProductName());
+    }
+}
@@ -0,0 +1,136 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Comprueba con {@code EXPLAIN} que las consultas más frecuentes de los DAO usan un índice
+ * y no recorren la tabla Empleado entera. Un índice borrado o una consulta reescrita de forma que
+ * el optimizador no pueda usarlo no da ningún error: solo se nota cuando la tabla crece.
+ * <p>
+ * La prueba {@code PlanesConsultaTest} lo comprueba sobre una base de datos H2 migrada, de modo que
+ * {@code mvn test} falla si alguna consulta recorre la tabla. Además se ejecuta al arrancar después
+ * de las migraciones (los problemas se avisan por la salida de error) y se puede lanzar contra la base
+ * de datos del perfil activo con {@link #main(String[])}, que termina con código 1 si alguna consulta recorre la tabla.
+ */
+public class PlanesConsulta {
+    /**
+     * Una consulta a comprobar con los parámetros de ejemplo con los que se explica.
+     * Los parámetros deben tener el tipo de la columna (por ejemplo, un DNI como texto),
+     * porque MySQL no usa el índice si tiene que convertir la columna.
+     */
+    private record ConsultaFrecuente(String nombre, String sql, Object... parametros) {
+    }
+
+    private static final List<ConsultaFrecuente> CONSULTAS = List.of(
+            new ConsultaFrecuente("EmpleadoDAO.selectEmpleadoPorId", EmpleadoDAO.SELECT_EMPLEADO_POR_COD, 1),
+            new ConsultaFrecuente("EmpleadoDAO.empleadosDepartamento", EmpleadoDAO.SELECT_EMPLEADOS_DEPARTAMENTO, 1),
+            new ConsultaFrecuente("EmpleadoDAO.selectEmpleadoPorDNI", EmpleadoDAO.SELECT_EMPLEADO_POR_DNI, "00000000T"),
+            new ConsultaFrecuente("EmpleadoDAO.selectEmpleadosDesdeId", EmpleadoDAO.SELECT_EMPLEADOS_DESDE_ID, 0, 10),
+            new ConsultaFrecuente("EmpleadoDAO.comprobarVersion", EmpleadoDAO.SELECT_VERSION_EMPLEADO, 1),
+            new ConsultaFrecuente("EmpleadoDAO.selectEmpleadosPorNombre", EmpleadoDAO.SELECT_EMPLEADOS_POR_NOMBRE,
+                    "%rtín%", "%rtín%")
+    );
+
+    /**
+     * En H2 el plan es el propio SQL con un comentario por tabla que indica cómo se recorre.
+     */
+    private static final Pattern RECORRIDO_H2 = Pattern.compile("(?i)\\bempleado\\.tablescan\\b");
+
+    // Constructor privado para evitar instancias directas
+    private PlanesConsulta() {}
+
+    /**
+     * Explica las consultas frecuentes y devuelve las que recorren la tabla Empleado entera.
+     * Solo entiende los planes de MySQL y H2; con otras bases de datos no informa de nada.
+     *
+     * @param conexion Una conexión con el esquema ya migrado.
+     * @return Una descripción de cada consulta que recorre la tabla; vacía si todas usan un índice.
+     * @throws SQLException Si no se puede explicar alguna consulta.
+     */
+    public static List<String> comprobar(Connection conexion) throws SQLException {
+        List<String> problemas = new ArrayList<>();
+        boolean mysql = MigracionesBD.esMySQL(conexion);
+        for (ConsultaFrecuente consulta : CONSULTAS) {
+            String plan = explicar(conexion, consulta, mysql);
+            if (plan != null) {
+                problemas.add(consulta.nombre() + " recorre la tabla Empleado entera: " + plan);
+            }
+        }
+        return problemas;
+    }
+
+    /**
+     * Devuelve el plan de la consulta si recorre la tabla Empleado entera, o {@code null} si usa un índice.
+     */
+    private static String explicar(Connection conexion, ConsultaFrecuente consulta, boolean mysql) throws SQLException {
+        try (PreparedStatement ps = conexion.prepareStatement("EXPLAIN " + sinPuntoYComa(consulta.sql()))) {
+            for (int i = 0; i < consulta.parametros().length; i++) {
+                ps.setObject(i + 1, consulta.parametros()[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                boolean recorreTabla = false;
+                while (rs.next()) {
+                    if (mysql) {
+                        // Una fila por tabla; type = ALL es el recorrido completo.
+                        if ("Empleado".equalsIgnoreCase(rs.getString("table")) && "ALL".equalsIgnoreCase(rs.getString("type"))) {
+                            recorreTabla = true;
+                        }
+                        plan.append(filaComoTexto(rs)).append(' ');
+                    } else {
+                        String texto = rs.getString(1);
+                        recorreTabla |= RECORRIDO_H2.matcher(texto).find();
+                        plan.append(texto.replaceAll("\\s+", " "));
+                    }
+                }
+                return recorreTabla ? plan.toString().trim() : null;
+            }
+        }
+    }
+
+    private static String sinPuntoYComa(String sql) {
+        String limpia = sql.strip();
+        return limpia.endsWith(";") ? limpia.substring(0, limpia.length() - 1) : limpia;
+    }
+
+    private static String filaComoTexto(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        StringBuilder fila = new StringBuilder("{");
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            fila.append(i > 1 ? ", " : "").append(metaData.getColumnLabel(i)).append('=').append(rs.getString(i));
+        }
+        return fila.append('}').toString();
+    }
+
+    /**
+     * Comprueba los planes en la base de datos del perfil activo (ver {@link ConfiguracionBD}).
+     * Termina con código 1 si alguna consulta frecuente recorre la tabla Empleado entera.
+     *
+     * @param args No se usan.
+     */
+    public static void main(String[] args) {
+        int codigo = 0;
+        try (Connection connection = DBConnection.getConnection()) {
+            List<String> problemas = comprobar(connection);
+            problemas.forEach(System.err::println);
+            if (problemas.isEmpty()) {
+                System.out.println("Todas las consultas frecuentes usan un índice.");
+            } else {
+                codigo = 1;
+            }
+        } catch (SQLException e) {
+            System.err.println("No se pudieron comprobar los planes: " + e.getMessage());
+            codigo = 1;
+        } finally {
+            DBConnection.closeConnection();
+        }
+        System.exit(codigo);
+    }
+}
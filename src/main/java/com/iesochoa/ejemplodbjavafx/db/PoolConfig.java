@@ -0,0 +1,157 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.util.Properties;
+
+/**
+ * Parámetros de configuración del {@link ConnectionPool}.
+ * Contiene los datos de acceso a la base de datos y los límites del pool:
+ * tamaño mínimo y máximo, tiempo máximo de espera para obtener una conexión,
+ * tiempo de inactividad antes de cerrar una conexión y vida máxima de cada conexión.
+ * También indica cuántas sentencias preparadas se reutilizan por conexión y las propiedades
+ * que se pasan al driver JDBC al abrir cada conexión.
+ */
+public class PoolConfig {
+    /**
+     * URL JDBC de la base de datos.
+     */
+    private String url;
+    /**
+     * Usuario de la base de datos.
+     */
+    private String usuario;
+    /**
+     * Contraseña del usuario de la base de datos.
+     */
+    private String password;
+    /**
+     * Número mínimo de conexiones que el pool intenta mantener abiertas.
+     */
+    private int tamanoMinimo = 2;
+    /**
+     * Número máximo de conexiones físicas abiertas a la vez.
+     */
+    private int tamanoMaximo = 10;
+    /**
+     * Tiempo máximo (ms) que un hilo espera a que quede libre una conexión.
+     */
+    private long timeoutPrestamoMs = 30_000;
+    /**
+     * Tiempo (ms) que una conexión puede estar inactiva antes de cerrarse
+     * (siempre que se mantenga el tamaño mínimo).
+     */
+    private long timeoutInactividadMs = 10 * 60_000;
+    /**
+     * Tiempo máximo de vida (ms) de una conexión física. Pasado este tiempo se renueva.
+     */
+    private long vidaMaximaMs = 30 * 60_000;
+    /**
+     * Si una conexión lleva inactiva más de este tiempo (ms) se valida antes de prestarla.
+     * Evita hacer un viaje de ida y vuelta al servidor en cada préstamo.
+     */
+    private long intervaloValidacionMs = 1_000;
+    /**
+     * Tiempo máximo (segundos) para la validación de una conexión.
+     */
+    private int timeoutValidacionSeg = 2;
+    /**
+     * Número máximo de sentencias preparadas que se guardan abiertas en cada conexión para reutilizarlas.
+     * Con 0 no se guardan y cada {@code prepareStatement} crea una sentencia nueva.
+     */
+    private int tamanoCacheSentencias = 64;
+    /**
+     * Propiedades adicionales del driver JDBC (por ejemplo {@code rewriteBatchedStatements} en MySQL).
+     */
+    private final Properties propiedadesDriver = new Properties();
+
+    /**
+     * Crea una configuración con los datos de acceso indicados y los límites por defecto.
+     *
+     * @param url      La URL JDBC de la base de datos.
+     * @param usuario  El usuario de la base de datos.
+     * @param password La contraseña del usuario.
+     */
+    public PoolConfig(String url, String usuario, String password) {
+        this.url = url;
+        this.usuario = usuario;
+        this.password = password;
+    }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public String getUsuario() { return usuario; }
+    public void setUsuario(String usuario) { this.usuario = usuario; }
+
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+
+    public int getTamanoMinimo() { return tamanoMinimo; }
+    public void setTamanoMinimo(int tamanoMinimo) { this.tamanoMinimo = tamanoMinimo; }
+
+    public int getTamanoMaximo() { return tamanoMaximo; }
+    public void setTamanoMaximo(int tamanoMaximo) { this.tamanoMaximo = tamanoMaximo; }
+
+    public long getTimeoutPrestamoMs() { return timeoutPrestamoMs; }
+    public void setTimeoutPrestamoMs(long timeoutPrestamoMs) { this.timeoutPrestamoMs = timeoutPrestamoMs; }
+
+    public long getTimeoutInactividadMs() { return timeoutInactividadMs; }
+    public void setTimeoutInactividadMs(long timeoutInactividadMs) { this.timeoutInactividadMs = timeoutInactividadMs; }
+
+    public long getVidaMaximaMs() { return vidaMaximaMs; }
+    public void setVidaMaximaMs(long vidaMaximaMs) { this.vidaMaximaMs = vidaMaximaMs; }
+
+    public long getIntervaloValidacionMs() { return intervaloValidacionMs; }
+    public void setIntervaloValidacionMs(long intervaloValidacionMs) { this.intervaloValidacionMs = intervaloValidacionMs; }
+
+    public int getTimeoutValidacionSeg() { return timeoutValidacionSeg; }
+    public void setTimeoutValidacionSeg(int timeoutValidacionSeg) { this.timeoutValidacionSeg = timeoutValidacionSeg; }
+
+    /**
+     * Crea una copia de esta configuración (credenciales, límites y propiedades del driver) con otra URL.
+     * Se usa para las réplicas de lectura, que comparten todo salvo la dirección.
+     *
+     * @param otraUrl La URL JDBC de la copia.
+     * @return La nueva configuración.
+     */
+    public PoolConfig copiarConUrl(String otraUrl) {
+        PoolConfig copia = new PoolConfig(otraUrl, usuario, password);
+        copia.tamanoMinimo = tamanoMinimo;
+        copia.tamanoMaximo = tamanoMaximo;
+        copia.timeoutPrestamoMs = timeoutPrestamoMs;
+        copia.timeoutInactividadMs = timeoutInactividadMs;
+        copia.vidaMaximaMs = vidaMaximaMs;
+        copia.intervaloValidacionMs = intervaloValidacionMs;
+        copia.timeoutValidacionSeg = timeoutValidacionSeg;
+        copia.tamanoCacheSentencias = tamanoCacheSentencias;
+        copia.propiedadesDriver.putAll(propiedadesDriver);
+        return copia;
+    }
+
+    public int getTamanoCacheSentencias() { return tamanoCacheSentencias; }
+    public void setTamanoCacheSentencias(int tamanoCacheSentencias) { this.tamanoCacheSentencias = tamanoCacheSentencias; }
+
+    /**
+     * Devuelve una copia de las propiedades adicionales del driver.
+     *
+     * @return Las propiedades del driver.
+     */
+    public Properties getPropiedadesDriver() {
+        Properties copia = new Properties();
+        copia.putAll(propiedadesDriver);
+        return copia;
+    }
+
+    /**
+     * Añade (o sustituye) una propiedad del driver JDBC. Un valor {@code null} la elimina.
+     *
+     * @param nombre El nombre de la propiedad.
+     * @param valor  El valor de la propiedad.
+     */
+    public void setPropiedadDriver(String nombre, String valor) {
+        if (valor == null) {
+            propiedadesDriver.remove(nombre);
+        } else {
+            propiedadesDriver.setProperty(nombre, valor);
+        }
+    }
+}
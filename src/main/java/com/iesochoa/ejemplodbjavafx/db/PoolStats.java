@@ -0,0 +1,80 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+/**
+ * Instantánea de las estadísticas de un {@link ConnectionPool}.
+ * Sirve para dimensionar el pool bajo carga: si hay hilos esperando con frecuencia
+ * o el tiempo de préstamo crece, el tamaño máximo se queda corto.
+ */
+public class PoolStats {
+    private final int activas;
+    private final int inactivas;
+    private final int total;
+    private final int esperando;
+    private final long prestamos;
+    private final long timeouts;
+    private final double tiempoMedioPrestamoMs;
+    private final double tiempoMaximoPrestamoMs;
+    private final long aciertosCacheSentencias;
+    private final long fallosCacheSentencias;
+    private final long sentenciasEjecutadas;
+
+    /**
+     * Crea una instantánea de estadísticas.
+     *
+     * @param activas                Conexiones prestadas en este momento.
+     * @param inactivas              Conexiones libres en el pool.
+     * @param total                  Conexiones físicas abiertas (o abriéndose).
+     * @param esperando              Hilos esperando una conexión.
+     * @param prestamos              Número total de préstamos realizados.
+     * @param timeouts               Número de préstamos que agotaron el tiempo de espera.
+     * @param tiempoMedioPrestamoMs  Tiempo medio en obtener una conexión, en milisegundos.
+     * @param tiempoMaximoPrestamoMs Tiempo máximo en obtener una conexión, en milisegundos.
+     * @param aciertosCacheSentencias Sentencias preparadas reutilizadas de la caché de su conexión.
+     * @param fallosCacheSentencias   Sentencias preparadas que hubo que crear.
+     * @param sentenciasEjecutadas    Ejecuciones ({@code execute*}) de sentencias preparadas prestadas por el pool.
+     */
+    public PoolStats(int activas, int inactivas, int total, int esperando, long prestamos, long timeouts,
+                     double tiempoMedioPrestamoMs, double tiempoMaximoPrestamoMs,
+                     long aciertosCacheSentencias, long fallosCacheSentencias, long sentenciasEjecutadas) {
+        this.activas = activas;
+        this.inactivas = inactivas;
+        this.total = total;
+        this.esperando = esperando;
+        this.prestamos = prestamos;
+        this.timeouts = timeouts;
+        this.tiempoMedioPrestamoMs = tiempoMedioPrestamoMs;
+        this.tiempoMaximoPrestamoMs = tiempoMaximoPrestamoMs;
+        this.aciertosCacheSentencias = aciertosCacheSentencias;
+        this.fallosCacheSentencias = fallosCacheSentencias;
+        this.sentenciasEjecutadas = sentenciasEjecutadas;
+    }
+
+    public int getActivas() { return activas; }
+    public int getInactivas() { return inactivas; }
+    public int getTotal() { return total; }
+    public int getEsperando() { return esperando; }
+    public long getPrestamos() { return prestamos; }
+    public long getTimeouts() { return timeouts; }
+    public double getTiempoMedioPrestamoMs() { return tiempoMedioPrestamoMs; }
+    public double getTiempoMaximoPrestamoMs() { return tiempoMaximoPrestamoMs; }
+    public long getAciertosCacheSentencias() { return aciertosCacheSentencias; }
+    public long getFallosCacheSentencias() { return fallosCacheSentencias; }
+    public long getSentenciasEjecutadas() { return sentenciasEjecutadas; }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "activas=" + activas +
+                ", inactivas=" + inactivas +
+                ", total=" + total +
+                ", esperando=" + esperando +
+                ", prestamos=" + prestamos +
+                ", timeouts=" + timeouts +
+                ", tiempoMedioPrestamoMs=" + String.format("%.3f", tiempoMedioPrestamoMs) +
+                ", tiempoMaximoPrestamoMs=" + String.format("%.3f", tiempoMaximoPrestamoMs) +
+                ", aciertosCacheSentencias=" + aciertosCacheSentencias +
+                ", fallosCacheSentencias=" + fallosCacheSentencias +
+                ", sentenciasEjecutadas=" + sentenciasEjecutadas +
+                '}';
+    }
+}
@@ -0,0 +1,222 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Registro de cambios: una tabla {@code Cambio} donde los DAO anotan cada fila que crean, modifican o eliminan,
+ * para que el resto de equipos con la aplicación abierta lean solo lo que ha cambiado desde su última lectura
+ * (ver {@code SincronizadorCambios}) en lugar de recargar las tablas enteras.
+ * <p>
+ * Cada anotación se hace con la misma conexión que la escritura (y, en las operaciones por lotes, dentro de
+ * la misma transacción). La tabla la crea la migración 3 de {@link MigracionesBD}; si no existe (una base
+ * de datos sin migrar), el registro queda desactivado y las escrituras siguen funcionando sin anotarse.
+ */
+public class RegistroCambios {
+    /**
+     * Nombre con el que se anotan los cambios de empleados.
+     */
+    public static final String EMPLEADO = "Empleado";
+    /**
+     * Nombre con el que se anotan los cambios de departamentos.
+     */
+    public static final String DEPARTAMENTO = "Departamento";
+    /**
+     * Identificador de esta instancia de la aplicación, para reconocer los cambios propios.
+     */
+    public static final String ORIGEN = UUID.randomUUID().toString();
+
+    static final String CREATE_TABLA_CAMBIOS = """
+            CREATE TABLE IF NOT EXISTS Cambio (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                tabla VARCHAR(30) NOT NULL,
+                clave INT NOT NULL,
+                tipo CHAR(1) NOT NULL,
+                origen VARCHAR(36) NOT NULL,
+                fecha TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+    private static final String INSERT_CAMBIO = "INSERT INTO Cambio (tabla, clave, tipo, origen) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_CAMBIOS_DESDE =
+            "SELECT id, tabla, clave, tipo, origen FROM Cambio WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_ULTIMO_CAMBIO = "SELECT MAX(id) FROM Cambio";
+    private static final String COMPROBAR_TABLA_CAMBIOS = "SELECT id FROM Cambio WHERE 1 = 0";
+    private static final String DELETE_CAMBIOS_ANTERIORES = "DELETE FROM Cambio WHERE fecha < ?";
+
+    /**
+     * Si la tabla de cambios está disponible; {@code null} mientras no se ha comprobado con el pool actual.
+     */
+    private static volatile Boolean disponible;
+
+    // Constructor privado para evitar instancias directas
+    private RegistroCambios() {}
+
+    /**
+     * Anota el cambio de una fila usando la conexión de la escritura. Los errores se escriben en la salida
+     * de error sin interrumpir la escritura.
+     *
+     * @param connection La conexión con la que se ha hecho la escritura.
+     * @param tabla      La tabla modificada ({@link #EMPLEADO} o {@link #DEPARTAMENTO}).
+     * @param clave      La clave primaria de la fila.
+     * @param tipo       El tipo de escritura.
+     */
+    static void anotar(Connection connection, String tabla, int clave, Cambio.Tipo tipo) {
+        anotar(connection, tabla, List.of(clave), tipo);
+    }
+
+    /**
+     * Anota en un solo lote el cambio de varias filas de una tabla, usando la conexión de la escritura.
+     *
+     * @param connection La conexión con la que se ha hecho la escritura.
+     * @param tabla      La tabla modificada.
+     * @param claves     Las claves primarias de las filas.
+     * @param tipo       El tipo de escritura.
+     */
+    static void anotar(Connection connection, String tabla, Collection<Integer> claves, Cambio.Tipo tipo) {
+        if (claves.isEmpty() || !comprobar(connection)) {
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_CAMBIO)) {
+            for (int clave : claves) {
+                ps.setString(1, tabla);
+                ps.setInt(2, clave);
+                ps.setString(3, String.valueOf(tipo.getCodigo()));
+                ps.setString(4, ORIGEN);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        } catch (SQLException e) {
+            System.err.println("No se pudo anotar el cambio en " + tabla + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Anota que se han modificado muchas filas de una tabla sin pasar por su DAO (por ejemplo, tras una
+     * importación), para que el resto de equipos vuelvan a leerla entera. Pide una conexión al pool.
+     *
+     * @param tabla La tabla modificada.
+     */
+    public static void anotarInvalidacion(String tabla) {
+        try (Connection connection = DBConnection.getConnection()) {
+            anotar(connection, tabla, 0, Cambio.Tipo.INVALIDACION);
+        } catch (SQLException e) {
+            System.err.println("No se pudo anotar la invalidación de " + tabla + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lee los cambios posteriores a una marca, en orden. Se lee con {@link DBConnection#getConnectionLectura()},
+     * así que la consulta periódica puede ir a una réplica y no ocupa la primaria. Una réplica puede no tener aún
+     * los últimos cambios, pero la marca solo avanza hasta el último cambio leído: los que faltan se leen
+     * en la siguiente consulta.
+     *
+     * @param marca  El identificador del último cambio ya leído (0 para leer desde el principio).
+     * @param limite El número máximo de cambios a devolver.
+     * @return Los cambios con identificador mayor que la marca (vacía si el registro no está disponible).
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     */
+    public static List<Cambio> leerDesde(long marca, int limite) throws SQLException {
+        return MetricasDAO.medir("RegistroCambios.leerDesde", () -> {
+            List<Cambio> cambios = new ArrayList<>();
+            try (Connection connection = DBConnection.getConnectionLectura()) {
+                if (!comprobar(connection)) {
+                    return cambios;
+                }
+                try (PreparedStatement ps = connection.prepareStatement(SELECT_CAMBIOS_DESDE)) {
+                    ps.setLong(1, marca);
+                    ps.setInt(2, limite);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            cambios.add(new Cambio(rs.getLong("id"), rs.getString("tabla"), rs.getInt("clave"),
+                                    Cambio.Tipo.deCodigo(rs.getString("tipo").charAt(0)), rs.getString("origen")));
+                        }
+                    }
+                }
+            }
+            return cambios;
+        });
+    }
+
+    /**
+     * Devuelve el identificador del último cambio anotado, para empezar a leer a partir de él.
+     * Se lee como {@link #leerDesde(long, int)}; en una réplica retrasada la marca puede ser algo anterior
+     * y se vuelven a leer unos pocos cambios ya aplicados.
+     *
+     * @return El último identificador, o 0 si el registro está vacío o no está disponible.
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     */
+    public static long ultimaMarca() throws SQLException {
+        try (Connection connection = DBConnection.getConnectionLectura()) {
+            if (!comprobar(connection)) {
+                return 0;
+            }
+            try (PreparedStatement ps = connection.prepareStatement(SELECT_ULTIMO_CAMBIO);
+                 ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    /**
+     * Borra los cambios anotados hace más de {@code retencionMs} milisegundos, que ya habrán leído
+     * todos los equipos conectados. Es una escritura, así que se hace en la base de datos primaria
+     * (y abre la ventana de lectura propia de {@link EnrutadorLecturas}); el sincronizador solo purga una vez por hora.
+     *
+     * @param retencionMs Antigüedad a partir de la cual se borran los cambios.
+     * @return El número de cambios borrados.
+     * @throws SQLException Si ocurre un error al borrar.
+     */
+    public static int purgar(long retencionMs) throws SQLException {
+        try (Connection connection = DBConnection.getConnection()) {
+            if (!comprobar(connection)) {
+                return 0;
+            }
+            try (PreparedStatement ps = connection.prepareStatement(DELETE_CAMBIOS_ANTERIORES)) {
+                ps.setTimestamp(1, new Timestamp(System.currentTimeMillis() - retencionMs));
+                return ps.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Olvida si la tabla de cambios está disponible, para volver a comprobarlo con la siguiente conexión.
+     * Lo llama {@link DBConnection} al cambiar de pool.
+     */
+    static void reiniciar() {
+        disponible = null;
+    }
+
+    /**
+     * Comprueba una sola vez por pool que existe la tabla de cambios.
+     */
+    private static boolean comprobar(Connection connection) {
+        Boolean actual = disponible;
+        if (actual != null) {
+            return actual;
+        }
+        synchronized (RegistroCambios.class) {
+            if (disponible == null) {
+                disponible = existeTabla(connection);
+            }
+            return disponible;
+        }
+    }
+
+    private static boolean existeTabla(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeQuery(COMPROBAR_TABLA_CAMBIOS).close();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Registro de cambios desactivado: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de una operación por lotes (inserción o actualización masiva).
+ * Indica cuántos elementos se procesaron y, para cada fila que falló, su posición,
+ * el elemento y el motivo. Las filas que no aparecen como fallidas se guardaron.
+ *
+ * @param <T> El tipo de los elementos procesados.
+ */
+public class ResultadoLote<T> {
+    /**
+     * Número de elementos procesados.
+     */
+    private final int total;
+    /**
+     * Filas que no se pudieron guardar.
+     */
+    private final List<Fallo<T>> fallos = new ArrayList<>();
+
+    /**
+     * Crea un resultado vacío para un lote del tamaño indicado.
+     *
+     * @param total El número de elementos del lote.
+     */
+    public ResultadoLote(int total) {
+        this.total = total;
+    }
+
+    /**
+     * Registra el fallo de una fila.
+     *
+     * @param indice   La posición del elemento en la colección recibida.
+     * @param elemento El elemento que no se pudo guardar.
+     * @param motivo   Descripción del fallo.
+     * @param error    La excepción del driver, o {@code null} si no la hubo.
+     */
+    void registrarFallo(int indice, T elemento, String motivo, SQLException error) {
+        fallos.add(new Fallo<>(indice, elemento, motivo, error));
+    }
+
+    public int getTotal() { return total; }
+
+    /**
+     * @return El número de filas guardadas correctamente.
+     */
+    public int getCorrectos() { return total - fallos.size(); }
+
+    /**
+     * @return Las filas que fallaron, en el orden en que se detectaron.
+     */
+    public List<Fallo<T>> getFallos() { return Collections.unmodifiableList(fallos); }
+
+    /**
+     * @return {@code true} si alguna fila no se pudo guardar.
+     */
+    public boolean hayFallos() { return !fallos.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return "ResultadoLote{total=" + total + ", correctos=" + getCorrectos() + ", fallos=" + fallos.size() + '}';
+    }
+
+    /**
+     * Fallo de una fila concreta del lote.
+     *
+     * @param <T> El tipo del elemento.
+     */
+    public static class Fallo<T> {
+        private final int indice;
+        private final T elemento;
+        private final String motivo;
+        private final SQLException error;
+
+        Fallo(int indice, T elemento, String motivo, SQLException error) {
+            this.indice = indice;
+            this.elemento = elemento;
+            this.motivo = motivo;
+            this.error = error;
+        }
+
+        public int getIndice() { return indice; }
+        public T getElemento() { return elemento; }
+        public String getMotivo() { return motivo; }
+        public SQLException getError() { return error; }
+
+        @Override
+        public String toString() {
+            return "Fallo{indice=" + indice + ", elemento=" + elemento + ", motivo='" + motivo + "'}";
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.sql.SQLException;
+
+/**
+ * Operación de acceso a datos que devuelve un resultado y puede lanzar {@link SQLException}.
+ * Permite pasar llamadas a los DAO como lambdas, por ejemplo
+ * {@code () -> EmpleadoDAO.getInstance().listAllEmpleados()}.
+ *
+ * @param <T> El tipo del resultado.
+ */
+@FunctionalInterface
+public interface SqlCallable<T> {
+    /**
+     * Ejecuta la operación.
+     *
+     * @return El resultado de la operación.
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos.
+     */
+    T call() throws SQLException;
+}
@@ -0,0 +1,220 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unidad de trabajo: ejecuta varias operaciones de {@link EmpleadoDAO} y {@link DepartamentoDAO}
+ * con una sola conexión y una sola confirmación, en lugar de una confirmación por sentencia. Por ejemplo:
+ * <pre>{@code
+ * Transaccion.ejecutar(() -> {
+ *     empleadoDAO.updateEmpleado(empleado);
+ *     return departamentoDAO.updateDepartamento(departamento);
+ * });
+ * }</pre>
+ * Mientras se ejecuta la operación, {@link DBConnection#getConnection()} y {@link DBConnection#getConnectionLectura()}
+ * devuelven en ese hilo la conexión de la transacción, así que los DAO no necesitan recibirla. Si la operación
+ * lanza una excepción se deshace todo y se relanza; si no, se confirma.
+ * <p>
+ * Una llamada a {@link #ejecutar(SqlCallable)} dentro de otra crea un punto de guardado: si falla, solo se deshace
+ * lo que hizo ella, y la operación exterior puede capturar la excepción y continuar.
+ * <p>
+ * Los avisos de los DAO (cachés, listeners) se aplazan hasta la confirmación, de modo que nadie ve datos que
+ * luego se deshacen. Dentro de la transacción no se puede confirmar, deshacer entera ni cambiar el autocommit
+ * de la conexión (por eso no se puede importar un CSV dentro de una transacción).
+ */
+public class Transaccion {
+    /**
+     * Transacción en curso en cada hilo.
+     */
+    private static final ThreadLocal<Transaccion> ACTUAL = new ThreadLocal<>();
+
+    /**
+     * La conexión prestada por el pool.
+     */
+    private final Connection conexion;
+    /**
+     * La vista de la conexión que se entrega a los DAO: no se cierra ni controla la transacción.
+     */
+    private final Connection vista;
+    /**
+     * Acciones que se ejecutan tras confirmar, en orden.
+     */
+    private final List<Runnable> alConfirmar = new ArrayList<>();
+    /**
+     * Acciones que se ejecutan al deshacer (en orden inverso), para devolver los objetos a su estado anterior.
+     */
+    private final List<Runnable> alDeshacer = new ArrayList<>();
+
+    private Transaccion(Connection conexion) {
+        this.conexion = conexion;
+        this.vista = (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConexionTransaccion());
+    }
+
+    /**
+     * Ejecuta una operación dentro de una transacción. Si ya hay una en curso en este hilo, la operación
+     * se ejecuta en ella protegida por un punto de guardado.
+     *
+     * @param operacion La operación, que usa los DAO normalmente.
+     * @param <T>       El tipo del resultado.
+     * @return El resultado de la operación.
+     * @throws SQLException Si la operación falla (después de deshacer sus cambios) o no se puede confirmar.
+     */
+    public static <T> T ejecutar(SqlCallable<T> operacion) throws SQLException {
+        Transaccion actual = ACTUAL.get();
+        if (actual != null) {
+            return actual.ejecutarAnidada(operacion);
+        }
+        Transaccion transaccion;
+        T resultado;
+        try (Connection connection = DBConnection.getConnection()) {
+            connection.setAutoCommit(false);
+            transaccion = new Transaccion(connection);
+            ACTUAL.set(transaccion);
+            try {
+                resultado = operacion.call();
+                connection.commit();
+            } catch (SQLException | RuntimeException | Error e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException errorRollback) {
+                    e.addSuppressed(errorRollback);
+                }
+                transaccion.deshacerHasta(0, 0);
+                throw e;
+            } finally {
+                // No se restaura el autocommit: lo hace el pool al recibir la conexión, y un fallo aquí
+                // taparía la excepción de la operación.
+                ACTUAL.remove();
+            }
+        }
+        transaccion.alConfirmar.forEach(Runnable::run);
+        return resultado;
+    }
+
+    /**
+     * Indica si hay una transacción en curso en este hilo.
+     *
+     * @return {@code true} si el hilo está dentro de {@link #ejecutar(SqlCallable)}.
+     */
+    public static boolean activa() {
+        return ACTUAL.get() != null;
+    }
+
+    /**
+     * Devuelve la conexión de la transacción en curso en este hilo, para que {@link DBConnection} la entregue
+     * a los DAO en lugar de pedir otra al pool.
+     *
+     * @return La vista de la conexión, o {@code null} si no hay transacción.
+     */
+    static Connection conexionActual() {
+        Transaccion actual = ACTUAL.get();
+        return actual != null ? actual.vista : null;
+    }
+
+    /**
+     * Ejecuta una acción cuando se confirme la transacción en curso, o en el momento si no hay ninguna.
+     * Si la transacción (o el punto de guardado en el que se registró) se deshace, la acción se descarta.
+     *
+     * @param accion La acción, normalmente un aviso a cachés o listeners.
+     */
+    static void alConfirmar(Runnable accion) {
+        Transaccion actual = ACTUAL.get();
+        if (actual != null) {
+            actual.alConfirmar.add(accion);
+        } else {
+            accion.run();
+        }
+    }
+
+    /**
+     * Registra una acción para devolver un objeto a su estado anterior si se deshace la transacción en curso
+     * (por ejemplo, la versión o el ID asignados a una entidad). Sin transacción no hace nada.
+     *
+     * @param accion La acción.
+     */
+    static void alDeshacer(Runnable accion) {
+        Transaccion actual = ACTUAL.get();
+        if (actual != null) {
+            actual.alDeshacer.add(accion);
+        }
+    }
+
+    private <T> T ejecutarAnidada(SqlCallable<T> operacion) throws SQLException {
+        int confirmar = alConfirmar.size();
+        int deshacer = alDeshacer.size();
+        Savepoint punto = conexion.setSavepoint();
+        try {
+            T resultado = operacion.call();
+            conexion.releaseSavepoint(punto);
+            return resultado;
+        } catch (SQLException | RuntimeException | Error e) {
+            try {
+                conexion.rollback(punto);
+            } catch (SQLException errorRollback) {
+                e.addSuppressed(errorRollback);
+            }
+            deshacerHasta(confirmar, deshacer);
+            throw e;
+        }
+    }
+
+    /**
+     * Descarta las acciones registradas después de las posiciones indicadas, ejecutando las de deshacer
+     * de la más reciente a la más antigua.
+     */
+    private void deshacerHasta(int confirmar, int deshacer) {
+        alConfirmar.subList(confirmar, alConfirmar.size()).clear();
+        List<Runnable> pendientes = alDeshacer.subList(deshacer, alDeshacer.size());
+        for (int i = pendientes.size() - 1; i >= 0; i--) {
+            pendientes.get(i).run();
+        }
+        pendientes.clear();
+    }
+
+    /**
+     * Intercepta las llamadas de los DAO a la conexión de la transacción: {@code close()} no la devuelve
+     * (lo hace {@link #ejecutar(SqlCallable)} al terminar) y se rechazan las que confirmarían o
+     * deshacerían la transacción entera. Los puntos de guardado sí se permiten.
+     */
+    private class ConexionTransaccion implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Transaccion[" + conexion + "]";
+                case "commit":
+                case "setAutoCommit":
+                    throw new SQLException("No se puede " + method.getName() + " dentro de una Transaccion");
+                case "rollback":
+                    if (args == null) {
+                        throw new SQLException("No se puede deshacer una Transaccion desde dentro: lanza una excepción");
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(conexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
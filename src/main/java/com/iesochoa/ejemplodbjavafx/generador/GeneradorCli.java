@@ -0,0 +1,63 @@
+package com.iesochoa.ejemplodbjavafx.generador;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+
+/**
+ * Punto de entrada de línea de comandos (sin interfaz gráfica) para llenar la base de datos del perfil activo
+ * con datos sintéticos (ver {@link GeneradorDatos}).
+ * <pre>
+ * GeneradorCli departamentos empleados [--semilla=N] [--hilos=N] [--lote=N] [--sesgo=X] [--vaciar]
+ * </pre>
+ * Con {@code --vaciar} se borran antes todos los empleados y departamentos.
+ */
+public class GeneradorCli {
+
+    // Constructor privado para evitar instancias directas
+    private GeneradorCli() {}
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            uso();
+            System.exit(2);
+        }
+        try {
+            GeneradorDatos generador = new GeneradorDatos(opcion(args, "--semilla=", 42),
+                    Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+            generador.setHilos((int) opcion(args, "--hilos=", generador.getHilos()));
+            generador.setTamanoLote((int) opcion(args, "--lote=", generador.getTamanoLote()));
+            for (int i = 2; i < args.length; i++) {
+                if (args[i].startsWith("--sesgo=")) {
+                    generador.setSesgo(Double.parseDouble(args[i].substring("--sesgo=".length())));
+                } else if (args[i].equals("--vaciar")) {
+                    generador.setVaciar(true);
+                }
+            }
+            long inicio = System.nanoTime();
+            long filas = generador.generar();
+            long ms = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+            System.out.printf("Generados %d empleados en %s departamentos%n", filas, args[0]);
+            System.out.printf("Tiempo: %d ms (%d filas/s)%n", ms, filas * 1000 / ms);
+        } catch (NumberFormatException e) {
+            uso();
+            System.exit(2);
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DBConnection.closeConnection();
+        }
+    }
+
+    private static long opcion(String[] args, String prefijo, long porDefecto) {
+        for (String arg : args) {
+            if (arg.startsWith(prefijo)) {
+                return Long.parseLong(arg.substring(prefijo.length()));
+            }
+        }
+        return porDefecto;
+    }
+
+    private static void uso() {
+        System.err.println("Uso: GeneradorCli departamentos empleados [--semilla=N] [--hilos=N] [--lote=N] [--sesgo=X] [--vaciar]");
+    }
+}
@@ -0,0 +1,426 @@
+package com.iesochoa.ejemplodbjavafx.generador;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.DepartamentoDAO;
+import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+import com.iesochoa.ejemplodbjavafx.db.RegistroCambios;
+import com.iesochoa.ejemplodbjavafx.db.SqlCallable;
+import com.iesochoa.ejemplodbjavafx.service.DataServiceVirtual;
+
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Genera departamentos y empleados sintéticos para pruebas de carga.
+ * <p>
+ * Los datos dependen solo de la semilla: cada empleado se calcula a partir de la semilla y de su posición,
+ * así que dos ejecuciones con la misma semilla generan exactamente los mismos empleados aunque se inserten
+ * con distinto número de hilos o de filas por lote. Los empleados tienen:
+ * <ul>
+ *     <li>un DNI válido (8 dígitos y su letra de control) y distinto para cada uno;</li>
+ *     <li>nombre y apellido elegidos según su frecuencia aproximada en España;</li>
+ *     <li>una edad entre 18 y 66 años, más frecuente en torno a los 42;</li>
+ *     <li>un departamento elegido con una distribución de Zipf: unos pocos departamentos tienen la mayoría
+ *     de los empleados y muchos tienen pocos, como en una empresa real. Un 2% no tiene departamento.</li>
+ * </ul>
+ * Los empleados se insertan en lotes JDBC repartidos en tareas de varios lotes que ejecutan varios hilos virtuales
+ * de {@link DataServiceVirtual}, cada uno con su conexión del pool; cada tarea se confirma en una sola transacción. Sus ID son consecutivos a partir del mayor ID existente, por lo que no conviene
+ * dar de alta empleados mientras se generan. Antes de insertar nada se comprueba que ninguno de los DNI que se van a
+ * generar existe ya (por ejemplo, al repetir una generación sin vaciar), porque el fallo llegaría con parte de las tareas
+ * confirmadas. Al terminar se asigna como jefe de cada departamento su empleado de menor ID.
+ * Las filas se insertan sin pasar por los DAO, así que al terminar se avisa a sus cachés y al registro de cambios.
+ */
+public class GeneradorDatos {
+    /**
+     * Filas por lote por defecto.
+     */
+    public static final int TAMANO_LOTE_POR_DEFECTO = 1000;
+    /**
+     * Exponente por defecto de la distribución de Zipf de los tamaños de departamento.
+     */
+    public static final double SESGO_POR_DEFECTO = 1.0;
+    /**
+     * Los números de DNI generados están entre 0 y este valor (excluido); los superiores quedan libres
+     * para los empleados que se den de alta en las pruebas. Es también el máximo de empleados.
+     */
+    public static final int RANGO_DNI = 50_000_000;
+    /**
+     * Porcentaje de empleados sin departamento.
+     */
+    private static final int PORCENTAJE_SIN_DEPARTAMENTO = 2;
+    /**
+     * Lotes que inserta cada tarea, en una sola transacción, antes de que su hilo pase a la siguiente.
+     */
+    private static final int LOTES_POR_TAREA = 10;
+    /**
+     * Multiplicador de la permutación de los números de DNI. Es primo con {@link #RANGO_DNI}
+     * (impar y no múltiplo de 5), así que empleados distintos reciben números distintos.
+     */
+    private static final long MULTIPLICADOR_DNI = 27_644_437L;
+    /**
+     * Inverso de {@link #MULTIPLICADOR_DNI} módulo {@link #RANGO_DNI}, para saber qué posición recibe un número de DNI.
+     */
+    private static final long INVERSO_DNI = BigInteger.valueOf(MULTIPLICADOR_DNI)
+            .modInverse(BigInteger.valueOf(RANGO_DNI)).longValue();
+    private static final String LETRAS_DNI = "TRWAGMYFPDXBNJZSQVHLCKE";
+
+    private static final String INSERT_DEPARTAMENTO = "INSERT INTO Departamento (nombre) VALUES (?)";
+    /**
+     * Los empleados se insertan con su ID calculado: así cada hilo no compite por el contador
+     * y el ID de cada empleado no depende del orden en que terminen los hilos.
+     */
+    private static final String INSERT_EMPLEADO = "INSERT INTO Empleado (id, dni, nombre, apellido, edad, departamento) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_ULTIMO_ID = "SELECT MAX(id) FROM Empleado";
+    private static final String SELECT_DNIS = "SELECT dni FROM Empleado";
+    private static final String UPDATE_JEFE = """
+            UPDATE Departamento SET jefe =
+                (SELECT MIN(id) FROM Empleado WHERE Empleado.departamento = Departamento.codigo)
+            WHERE codigo = ?""";
+    private static final String[] VACIAR = {
+            "UPDATE Departamento SET jefe = NULL",
+            "DELETE FROM Empleado",
+            "DELETE FROM Departamento"
+    };
+
+    private static final String[] AREAS = {
+            "Tecnología", "Ventas", "Marketing", "Recursos Humanos", "Finanzas", "Logística", "Compras",
+            "Atención al Cliente", "Calidad", "Producción", "Legal", "Investigación", "Administración", "Comunicación"
+    };
+    private static final Frecuencias NOMBRES = new Frecuencias(
+            "Antonio", 6, "Manuel", 5, "José", 5, "María Carmen", 5, "María", 5, "Francisco", 4, "David", 4,
+            "Juan", 4, "Ana María", 3, "Laura", 3, "Javier", 3, "Carmen", 3, "Daniel", 3, "Isabel", 3, "Carlos", 3,
+            "Josefa", 2, "Jesús", 2, "Lucía", 2, "Alejandro", 2, "Marta", 2, "Miguel", 2, "Cristina", 2, "Pablo", 2,
+            "Elena", 2, "Sofía", 1, "Pedro", 1, "Jorge", 1, "Sara", 1, "Sergio", 1, "Paula", 1);
+    private static final Frecuencias APELLIDOS = new Frecuencias(
+            "García", 15, "Rodríguez", 9, "González", 9, "Fernández", 9, "López", 9, "Martínez", 8, "Sánchez", 8,
+            "Pérez", 8, "Gómez", 5, "Martín", 5, "Jiménez", 4, "Ruiz", 4, "Hernández", 4, "Díaz", 4, "Moreno", 4,
+            "Muñoz", 3, "Álvarez", 3, "Romero", 3, "Alonso", 2, "Gutiérrez", 2, "Navarro", 2, "Torres", 2,
+            "Domínguez", 2, "Vázquez", 2, "Ramos", 2, "Gil", 2, "Ramírez", 2, "Serrano", 2, "Blanco", 2, "Molina", 2);
+
+    private final long semilla;
+    private final int departamentos;
+    private final int empleados;
+    /**
+     * Desplazamiento de la permutación de los números de DNI, que depende de la semilla.
+     */
+    private final long desplazamientoDni;
+    private int tamanoLote = TAMANO_LOTE_POR_DEFECTO;
+    private int hilos = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private double sesgo = SESGO_POR_DEFECTO;
+    private boolean vaciar;
+
+    /**
+     * Crea un generador.
+     *
+     * @param semilla       La semilla de la que dependen todos los datos.
+     * @param departamentos El número de departamentos a crear (al menos 1).
+     * @param empleados     El número de empleados a crear (como máximo {@link #RANGO_DNI}).
+     */
+    public GeneradorDatos(long semilla, int departamentos, int empleados) {
+        if (departamentos < 1 || empleados < 0 || empleados > RANGO_DNI) {
+            throw new IllegalArgumentException("Se necesita al menos un departamento y entre 0 y " + RANGO_DNI + " empleados");
+        }
+        this.semilla = semilla;
+        this.departamentos = departamentos;
+        this.empleados = empleados;
+        this.desplazamientoDni = Math.floorMod(new SplittableRandom(semilla).nextLong(), (long) RANGO_DNI);
+    }
+
+    public int getTamanoLote() { return tamanoLote; }
+    public void setTamanoLote(int tamanoLote) { this.tamanoLote = Math.max(1, tamanoLote); }
+    public int getHilos() { return hilos; }
+    public void setHilos(int hilos) { this.hilos = Math.max(1, hilos); }
+    public double getSesgo() { return sesgo; }
+    /**
+     * @param sesgo El exponente de la distribución de Zipf: 0 reparte los empleados por igual;
+     *              cuanto mayor, más se concentran en los primeros departamentos.
+     */
+    public void setSesgo(double sesgo) { this.sesgo = Math.max(0, sesgo); }
+    public boolean isVaciar() { return vaciar; }
+    /**
+     * @param vaciar {@code true} para borrar todos los empleados y departamentos antes de generar.
+     */
+    public void setVaciar(boolean vaciar) { this.vaciar = vaciar; }
+
+    /**
+     * Crea los departamentos y los empleados en la base de datos de {@link DBConnection}. Se usan como mucho
+     * tantos hilos como conexiones admite el pool, porque cada hilo inserta con su propia conexión.
+     *
+     * @return El número de empleados insertados.
+     * @throws SQLException Si ya existe alguno de los DNI que se van a generar (sin haber insertado nada)
+     * o si falla alguna inserción; en ese caso las tareas ya confirmadas se quedan en la base de datos.
+     */
+    public long generar() throws SQLException {
+        try {
+            if (vaciar) {
+                try (Connection connection = DBConnection.getConnection();
+                     Statement statement = connection.createStatement()) {
+                    for (String sql : VACIAR) {
+                        statement.executeUpdate(sql);
+                    }
+                }
+            }
+            comprobarDnisLibres();
+            int[] codigos = insertarDepartamentos();
+            long insertados = insertarEmpleados(ultimoId() + 1, codigos);
+            asignarJefes(codigos);
+            return insertados;
+        } finally {
+            EmpleadoDAO.getInstance().notificarInvalidacion();
+            DepartamentoDAO.getInstance().invalidarCache();
+            RegistroCambios.anotarInvalidacion(RegistroCambios.EMPLEADO);
+            RegistroCambios.anotarInvalidacion(RegistroCambios.DEPARTAMENTO);
+        }
+    }
+
+    /**
+     * Devuelve el DNI del empleado que ocupa una posición, el mismo que recibe al generar los datos.
+     *
+     * @param indice La posición del empleado, entre 0 y el número de empleados (excluido).
+     * @return El DNI.
+     */
+    public String dni(long indice) {
+        return dniDeNumero((int) Math.floorMod(desplazamientoDni + indice * MULTIPLICADOR_DNI, (long) RANGO_DNI));
+    }
+
+    /**
+     * Devuelve la posición del empleado que recibe un DNI al generar los datos.
+     *
+     * @param dni Un DNI.
+     * @return La posición, o -1 si ningún empleado generado recibe ese DNI.
+     */
+    public long indiceDeDni(String dni) {
+        if (dni == null || dni.length() != 9) {
+            return -1;
+        }
+        int numero = 0;
+        for (int i = 0; i < 8; i++) {
+            char digito = dni.charAt(i);
+            if (digito < '0' || digito > '9') {
+                return -1;
+            }
+            numero = numero * 10 + digito - '0';
+        }
+        if (numero >= RANGO_DNI) {
+            return -1;
+        }
+        // Deshace la permutación de dni(long): numero = desplazamiento + indice * multiplicador (módulo RANGO_DNI).
+        long indice = Math.floorMod(Math.floorMod(numero - desplazamientoDni, (long) RANGO_DNI) * INVERSO_DNI,
+                (long) RANGO_DNI);
+        return indice < empleados && dni(indice).equals(dni) ? indice : -1;
+    }
+
+    /**
+     * Devuelve un DNI válido (8 dígitos y letra de control) a partir de un número.
+     *
+     * @param numero Un número entre 0 y 99.999.999.
+     * @return El DNI.
+     */
+    public static String dniDeNumero(int numero) {
+        // Sin String.format: se llama una vez por cada empleado generado.
+        char[] dni = new char[9];
+        dni[8] = LETRAS_DNI.charAt(numero % 23);
+        for (int i = 7; i >= 0; i--, numero /= 10) {
+            dni[i] = (char) ('0' + numero % 10);
+        }
+        return new String(dni);
+    }
+
+    /**
+     * Recorre los DNI existentes y falla si alguno coincide con uno de los que se van a generar.
+     */
+    private void comprobarDnisLibres() throws SQLException {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement(SELECT_DNIS)) {
+            DBConnection.prepararLecturaEnStreaming(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String dni = rs.getString(1);
+                    if (indiceDeDni(dni) >= 0) {
+                        throw new SQLException("Ya existe un empleado con el DNI " + dni + ", que se generaría con la semilla "
+                                + semilla + ": usa otra semilla o vacía antes las tablas");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserta los departamentos en un solo lote y devuelve sus códigos en orden.
+     */
+    private int[] insertarDepartamentos() throws SQLException {
+        int[] codigos = new int[departamentos];
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_DEPARTAMENTO, Statement.RETURN_GENERATED_KEYS)) {
+            connection.setAutoCommit(false);
+            for (int i = 0; i < departamentos; i++) {
+                int repeticion = i / AREAS.length;
+                ps.setString(1, AREAS[i % AREAS.length] + (repeticion > 0 ? " " + (repeticion + 1) : ""));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet claves = ps.getGeneratedKeys()) {
+                for (int i = 0; i < departamentos && claves.next(); i++) {
+                    codigos[i] = claves.getInt(1);
+                }
+            }
+            connection.commit();
+        }
+        return codigos;
+    }
+
+    /**
+     * Reparte los empleados en tareas de {@link #LOTES_POR_TAREA} lotes y las ejecuta en paralelo: cada hilo
+     * toma la siguiente tarea libre al terminar la suya. Si una tarea falla, {@link DataServiceVirtual}
+     * interrumpe las demás.
+     */
+    private long insertarEmpleados(int primerId, int[] codigos) throws SQLException {
+        double[] acumulada = zipfAcumulada();
+        long filasPorTarea = (long) tamanoLote * LOTES_POR_TAREA;
+        long numTareas = (empleados + filasPorTarea - 1) / filasPorTarea;
+        // Con más hilos que conexiones, los que sobran solo esperarían a que se libere una.
+        int hilosUsados = (int) Math.min(Math.min(hilos, DBConnection.getPool().getConfig().getTamanoMaximo()), numTareas);
+        AtomicLong siguiente = new AtomicLong();
+        List<SqlCallable<Long>> trabajos = new ArrayList<>(hilosUsados);
+        for (int i = 0; i < hilosUsados; i++) {
+            trabajos.add(() -> {
+                long insertados = 0;
+                for (long tarea = siguiente.getAndIncrement(); tarea < numTareas; tarea = siguiente.getAndIncrement()) {
+                    long desde = tarea * filasPorTarea;
+                    insertados += insertarEmpleados(primerId, desde, Math.min(empleados, desde + filasPorTarea),
+                            codigos, acumulada);
+                }
+                return insertados;
+            });
+        }
+        long insertados = 0;
+        for (long parcial : DataServiceVirtual.getInstance().ejecutarTodas(trabajos)) {
+            insertados += parcial;
+        }
+        return insertados;
+    }
+
+    /**
+     * Inserta los empleados de las posiciones {@code [desde, hasta)} con una conexión del pool.
+     */
+    private long insertarEmpleados(int primerId, long desde, long hasta, int[] codigos, double[] acumulada) throws SQLException {
+        long insertados = 0;
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement(INSERT_EMPLEADO)) {
+            connection.setAutoCommit(false);
+            int enLote = 0;
+            for (long indice = desde; indice < hasta; indice++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new SQLException("Generación cancelada");
+                }
+                SplittableRandom aleatorio = new SplittableRandom(semilla + indice * 0x9E3779B97F4A7C15L);
+                ps.setInt(1, primerId + (int) indice);
+                ps.setString(2, dni(indice));
+                ps.setString(3, NOMBRES.elegir(aleatorio));
+                ps.setString(4, APELLIDOS.elegir(aleatorio));
+                // Suma de tres uniformes: de 18 a 66 años, con forma de campana.
+                ps.setInt(5, 18 + aleatorio.nextInt(17) + aleatorio.nextInt(17) + aleatorio.nextInt(17));
+                if (aleatorio.nextInt(100) < PORCENTAJE_SIN_DEPARTAMENTO) {
+                    ps.setNull(6, Types.INTEGER);
+                } else {
+                    ps.setInt(6, codigos[elegirDepartamento(acumulada, aleatorio)]);
+                }
+                ps.addBatch();
+                if (++enLote == tamanoLote) {
+                    ps.executeBatch();
+                    insertados += enLote;
+                    enLote = 0;
+                }
+            }
+            if (enLote > 0) {
+                ps.executeBatch();
+                insertados += enLote;
+            }
+            connection.commit();
+        }
+        return insertados;
+    }
+
+    private static int ultimoId() throws SQLException {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement(SELECT_ULTIMO_ID);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Asigna como jefe de cada departamento generado su empleado de menor ID, en un solo lote.
+     * Solo se tocan los departamentos de esta generación, aunque haya otros con códigos intermedios.
+     */
+    private void asignarJefes(int[] codigos) throws SQLException {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement(UPDATE_JEFE)) {
+            connection.setAutoCommit(false);
+            for (int codigo : codigos) {
+                ps.setInt(1, codigo);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            connection.commit();
+        }
+    }
+
+    /**
+     * Probabilidad acumulada de cada departamento: el de la posición {@code i} tiene un peso {@code 1 / (i + 1)^sesgo}.
+     */
+    private double[] zipfAcumulada() {
+        double[] acumulada = new double[departamentos];
+        double total = 0;
+        for (int i = 0; i < departamentos; i++) {
+            total += 1 / Math.pow(i + 1, sesgo);
+            acumulada[i] = total;
+        }
+        for (int i = 0; i < departamentos; i++) {
+            acumulada[i] /= total;
+        }
+        return acumulada;
+    }
+
+    private static int elegirDepartamento(double[] acumulada, SplittableRandom aleatorio) {
+        int posicion = Arrays.binarySearch(acumulada, aleatorio.nextDouble());
+        return Math.min(posicion >= 0 ? posicion : -posicion - 1, acumulada.length - 1);
+    }
+
+    /**
+     * Lista de valores con su frecuencia relativa, para elegir uno al azar según ella.
+     */
+    private static final class Frecuencias {
+        private final String[] valores;
+        private final int[] acumuladas;
+
+        /**
+         * @param valoresYPesos Pares valor, peso.
+         */
+        Frecuencias(Object... valoresYPesos) {
+            valores = new String[valoresYPesos.length / 2];
+            acumuladas = new int[valores.length];
+            int total = 0;
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] = (String) valoresYPesos[2 * i];
+                total += (Integer) valoresYPesos[2 * i + 1];
+                acumuladas[i] = total;
+            }
+        }
+
+        String elegir(SplittableRandom aleatorio) {
+            int posicion = Arrays.binarySearch(acumuladas, aleatorio.nextInt(acumuladas[acumuladas.length - 1]) + 1);
+            return valores[posicion >= 0 ? posicion : -posicion - 1];
+        }
+    }
+}
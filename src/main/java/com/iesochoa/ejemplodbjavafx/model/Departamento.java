@@ -28,6 +28,11 @@ public class Departamento {
      * múltiples instancias de la clase {@code Empleado} asociadas.
      */
     private List<Empleado> empleados; // Relación 1 a N (un departamento tiene muchos empleados)
+    /**
+     * Versión de la fila en la base de datos cuando se leyó. Cada actualización la incrementa,
+     * de modo que si otro usuario ha modificado el departamento entretanto la actualización se rechaza.
+     */
+    private int version;
 
     /**
      * Constructor para crear una nueva instancia de la clase {@code Departamento}.
@@ -132,6 +137,24 @@ public class Departamento {
         this.empleados = empleados;
     }
 
+    /**
+     * Obtiene la versión de la fila con la que se leyó el departamento.
+     *
+     * @return La versión del departamento.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Establece la versión de la fila del departamento.
+     *
+     * @param version La nueva versión.
+     */
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     /**
      * Devuelve una representación en cadena del objeto {@code Departamento}.
      * Actualmente, devuelve una cadena con el formato "codigo- nombre".
@@ -10,6 +10,7 @@ public class Empleado {
     private String apellidos;
     private int edad;
     private Departamento departamento; // Relación N a 1
+    private int version; // Versión de la fila leída, para detectar modificaciones de otros usuarios
 
     // Constructor
     public Empleado(int id, String dni, String nombre, String apellido, int edad, Departamento departamento) {
@@ -40,6 +41,9 @@ public class Empleado {
     public Departamento getDepartamento() { return departamento; }
     public void setDepartamento(Departamento departamento) { this.departamento = departamento; }
 
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
     @Override
     public String toString() {
         return "Empleado{" +
@@ -48,6 +52,7 @@ public class Empleado {
                 ", nombre='" + nombre + '\'' +
                 ", apellido='" + apellidos + '\'' +
                 ", edad=" + edad +
+                ", version=" + version +
                 ", departamento=" + (departamento != null ? departamento.getNombre() : "Sin asignar") +
                 '}';
     }
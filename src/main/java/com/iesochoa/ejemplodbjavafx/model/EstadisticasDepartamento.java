@@ -0,0 +1,80 @@
+package com.iesochoa.ejemplodbjavafx.model;
+
+/**
+ * La clase {@code EstadisticasDepartamento} resume los empleados de un departamento: cuántos tiene,
+ * su edad media, mínima y máxima, y quién es su jefe. Se calcula en la base de datos con una sola consulta
+ * agrupada (ver {@code DepartamentoDAO.listEstadisticasDepartamentos()}), sin leer los empleados uno a uno.
+ */
+public class EstadisticasDepartamento {
+    /**
+     * Código del departamento (0 para los empleados sin departamento).
+     */
+    private final int codigo;
+    /**
+     * Nombre del departamento.
+     */
+    private final String nombre;
+    /**
+     * Nombre completo del jefe, o {@code null} si el departamento no tiene jefe.
+     */
+    private final String jefe;
+    /**
+     * Número de empleados del departamento.
+     */
+    private final long numEmpleados;
+    /**
+     * Edad media de los empleados, o {@code null} si no tiene empleados.
+     */
+    private final Double edadMedia;
+    /**
+     * Edad del empleado más joven, o {@code null} si no tiene empleados.
+     */
+    private final Integer edadMinima;
+    /**
+     * Edad del empleado de más edad, o {@code null} si no tiene empleados.
+     */
+    private final Integer edadMaxima;
+
+    /**
+     * Crea las estadísticas de un departamento.
+     *
+     * @param codigo       El código del departamento.
+     * @param nombre       El nombre del departamento.
+     * @param jefe         El nombre completo del jefe (puede ser {@code null}).
+     * @param numEmpleados El número de empleados.
+     * @param edadMedia    La edad media (puede ser {@code null}).
+     * @param edadMinima   La edad mínima (puede ser {@code null}).
+     * @param edadMaxima   La edad máxima (puede ser {@code null}).
+     */
+    public EstadisticasDepartamento(int codigo, String nombre, String jefe, long numEmpleados,
+                                    Double edadMedia, Integer edadMinima, Integer edadMaxima) {
+        this.codigo = codigo;
+        this.nombre = nombre;
+        this.jefe = jefe;
+        this.numEmpleados = numEmpleados;
+        this.edadMedia = edadMedia;
+        this.edadMinima = edadMinima;
+        this.edadMaxima = edadMaxima;
+    }
+
+    public int getCodigo() { return codigo; }
+    public String getNombre() { return nombre; }
+    public String getJefe() { return jefe; }
+    public long getNumEmpleados() { return numEmpleados; }
+    public Double getEdadMedia() { return edadMedia; }
+    public Integer getEdadMinima() { return edadMinima; }
+    public Integer getEdadMaxima() { return edadMaxima; }
+
+    @Override
+    public String toString() {
+        return "EstadisticasDepartamento{" +
+                "codigo=" + codigo +
+                ", nombre='" + nombre + '\'' +
+                ", jefe='" + jefe + '\'' +
+                ", numEmpleados=" + numEmpleados +
+                ", edadMedia=" + edadMedia +
+                ", edadMinima=" + edadMinima +
+                ", edadMaxima=" + edadMaxima +
+                '}';
+    }
+}
@@ -0,0 +1,118 @@
+package com.iesochoa.ejemplodbjavafx.service;
+
+import com.iesochoa.ejemplodbjavafx.db.SqlCallable;
+import javafx.concurrent.Task;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Gestiona las cargas en segundo plano de una {@link TableView}.
+ * Mientras se espera a la base de datos la tabla muestra un texto de "Cargando...".
+ * Si se pide una carga nueva antes de que termine la anterior (por ejemplo, al cambiar
+ * rápidamente de departamento), la anterior se cancela y su resultado se descarta.
+ * <p>
+ * Cada vez que se muestran datos nuevos se emite un evento de Java Flight Recorder ({@link EventoRecargaTabla})
+ * con el número de elementos, la espera de la carga y el tiempo ocupado en el hilo de JavaFX.
+ *
+ * @param <T> El tipo de los elementos de la tabla.
+ */
+public class CargaTabla<T> {
+    /**
+     * Tabla cuyos datos se cargan.
+     */
+    private final TableView<T> tabla;
+    /**
+     * Placeholder original de la tabla, que se restaura al terminar la carga.
+     */
+    private final Node placeholderOriginal;
+    /**
+     * Última carga lanzada. Solo se aplica el resultado de esta.
+     */
+    private Task<? extends List<T>> tareaActual;
+
+    /**
+     * Crea el gestor de cargas para una tabla.
+     *
+     * @param tabla La tabla cuyos datos se cargan.
+     */
+    public CargaTabla(TableView<T> tabla) {
+        this.tabla = tabla;
+        this.placeholderOriginal = tabla.getPlaceholder();
+    }
+
+    /**
+     * Lanza una carga en segundo plano, cancelando la anterior si aún no ha terminado.
+     * Debe llamarse desde el hilo de JavaFX.
+     *
+     * @param consulta La consulta a la base de datos.
+     * @param aplicar  Acción que muestra el resultado en la tabla (se ejecuta en el hilo de JavaFX).
+     */
+    public void cargar(SqlCallable<? extends List<T>> consulta, Consumer<List<T>> aplicar) {
+        cancelar();
+        tabla.setPlaceholder(new Label("Cargando..."));
+        long inicio = System.nanoTime();
+        Task<? extends List<T>> tarea = DataService.getInstance().crearTarea(consulta);
+        tareaActual = tarea;
+        tarea.setOnSucceeded(event -> {
+            // Un resultado que llega tarde de una carga ya sustituida se descarta.
+            if (tarea != tareaActual) {
+                return;
+            }
+            tareaActual = null;
+            tabla.setPlaceholder(placeholderOriginal);
+            aplicarYRegistrar(tarea.getValue(), aplicar, System.nanoTime() - inicio);
+        });
+        tarea.setOnFailed(event -> {
+            if (tarea != tareaActual) {
+                return;
+            }
+            tareaActual = null;
+            tabla.setPlaceholder(new Label("No se pudieron cargar los datos"));
+            System.err.println(tarea.getException().getMessage());
+        });
+        DataService.getInstance().ejecutar(tarea);
+    }
+
+    /**
+     * Muestra en la tabla datos que ya están en memoria (por ejemplo, el resultado de una búsqueda en un índice),
+     * cancelando la carga en curso. Debe llamarse desde el hilo de JavaFX.
+     *
+     * @param elementos Los elementos a mostrar.
+     * @param aplicar   Acción que muestra los elementos en la tabla.
+     */
+    public void mostrar(List<T> elementos, Consumer<List<T>> aplicar) {
+        cancelar();
+        aplicarYRegistrar(elementos, aplicar, 0);
+    }
+
+    /**
+     * Cancela la carga en curso, si la hay.
+     */
+    public void cancelar() {
+        if (tareaActual != null) {
+            tareaActual.cancel(true);
+            tareaActual = null;
+            tabla.setPlaceholder(placeholderOriginal);
+        }
+    }
+
+    /**
+     * Aplica el resultado de una carga y emite el evento de recarga con el tiempo que ha llevado.
+     */
+    private void aplicarYRegistrar(List<T> elementos, Consumer<List<T>> aplicar, long espera) {
+        EventoRecargaTabla evento = new EventoRecargaTabla();
+        evento.begin();
+        aplicar.accept(elementos);
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.tabla = tabla.getId() != null ? tabla.getId() : tabla.toString();
+            evento.elementos = elementos.size();
+            evento.espera = espera;
+            evento.commit();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.iesochoa.ejemplodbjavafx.service;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.SqlCallable;
+import javafx.concurrent.Task;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Servicio que ejecuta las llamadas a los DAO fuera del hilo de JavaFX.
+ * Las operaciones se lanzan en un ejecutor propio y sus resultados vuelven al hilo de la
+ * interfaz a través de los manejadores de {@link Task} (que JavaFX invoca con {@code Platform.runLater}),
+ * de modo que la interfaz no se congela mientras se espera a la base de datos.
+ * Utiliza el patrón Singleton, igual que los DAO.
+ */
+public class DataService {
+    /**
+     * Instancia única del servicio.
+     */
+    private static volatile DataService instance;
+    /**
+     * Ejecutor donde se realizan las operaciones de base de datos.
+     * Tiene tantos hilos como conexiones puede prestar el pool.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Constructor privado. Crea el ejecutor con hilos demonio para no impedir el cierre de la aplicación.
+     */
+    private DataService() {
+        int hilos = DBConnection.getPool().getConfig().getTamanoMaximo();
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "data-service-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Devuelve la instancia única del servicio.
+     *
+     * @return La instancia de DataService.
+     */
+    public static DataService getInstance() {
+        if (instance == null) {
+            synchronized (DataService.class) {
+                if (instance == null) {
+                    instance = new DataService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Crea (sin lanzarla) una tarea JavaFX que ejecuta la operación indicada.
+     * Sirve para configurar los manejadores antes de lanzarla con {@link #ejecutar(Task)}.
+     *
+     * @param operacion La operación de base de datos.
+     * @param <T>       El tipo del resultado.
+     * @return La tarea creada.
+     */
+    public <T> Task<T> crearTarea(SqlCallable<T> operacion) {
+        return new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return operacion.call();
+            }
+        };
+    }
+
+    /**
+     * Lanza una tarea en el ejecutor del servicio.
+     *
+     * @param tarea La tarea a ejecutar.
+     * @param <T>   El tipo del resultado.
+     * @return La misma tarea, para poder cancelarla.
+     */
+    public <T> Task<T> ejecutar(Task<T> tarea) {
+        executor.execute(tarea);
+        return tarea;
+    }
+
+    /**
+     * Ejecuta una operación en segundo plano y entrega el resultado o el error en el hilo de JavaFX.
+     *
+     * @param operacion  La operación de base de datos.
+     * @param alTerminar Acción a realizar con el resultado (en el hilo de JavaFX).
+     * @param alFallar   Acción a realizar si la operación falla (en el hilo de JavaFX).
+     * @param <T>        El tipo del resultado.
+     * @return La tarea lanzada, para poder cancelarla.
+     */
+    public <T> Task<T> ejecutar(SqlCallable<T> operacion, Consumer<T> alTerminar, Consumer<Throwable> alFallar) {
+        Task<T> tarea = crearTarea(operacion);
+        tarea.setOnSucceeded(event -> alTerminar.accept(tarea.getValue()));
+        tarea.setOnFailed(event -> alFallar.accept(tarea.getException()));
+        return ejecutar(tarea);
+    }
+
+    /**
+     * Ejecuta una operación en segundo plano y devuelve un {@link CompletableFuture} con su resultado.
+     * Pensado para código que no es de interfaz; las {@link SQLException} llegan envueltas en
+     * {@link CompletionException}.
+     *
+     * @param operacion La operación de base de datos.
+     * @param <T>       El tipo del resultado.
+     * @return El futuro con el resultado.
+     */
+    public <T> CompletableFuture<T> ejecutarAsync(SqlCallable<T> operacion) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return operacion.call();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+}
@@ -0,0 +1,162 @@
+package com.iesochoa.ejemplodbjavafx.service;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.SqlCallable;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Servicio que ejecuta llamadas a los DAO en hilos virtuales, uno por llamada, para los procesos
+ * que lanzan muchas consultas a la vez (por ejemplo, las inserciones en paralelo de {@code GeneradorDatos}).
+ * A diferencia de {@link DataService}, no está pensado para la interfaz: no entrega los resultados
+ * en el hilo de JavaFX.
+ * <p>
+ * Un hilo virtual bloqueado en JDBC apenas ocupa memoria, así que se pueden lanzar cientos de llamadas
+ * sin crear cientos de hilos del sistema. Como el pool no puede prestar más conexiones que su máximo,
+ * un semáforo con ese mismo número de permisos deja esperando al resto de llamadas antes de pedir la conexión:
+ * así no agotan el tiempo de espera del préstamo ni compiten todas a la vez por el cerrojo del pool.
+ * <p>
+ * En Java 21, un hilo virtual que se bloquea dentro de un bloque {@code synchronized} queda anclado a su
+ * hilo portador y lo ocupa mientras espera. Connector/J 8.0 ejecuta cada consulta dentro de
+ * {@code synchronized (getConnectionMutex())}, así que con él cada llamada bloqueada ocupaba un portador.
+ * Por eso el proyecto usa Connector/J 9, que protege la conexión con un {@code ReentrantLock}. H2 2.2
+ * también bloquea sus sesiones con un {@code ReentrantLock}. Con otro driver u otra versión, hay que
+ * comprobarlo con {@code -Djdk.tracePinnedThreads=short}, que avisa de cada hilo anclado.
+ * Utiliza el patrón Singleton, igual que los DAO.
+ */
+public class DataServiceVirtual {
+    /**
+     * Instancia única del servicio.
+     */
+    private static volatile DataServiceVirtual instance;
+    /**
+     * Ejecutor que crea un hilo virtual por llamada.
+     */
+    private final ExecutorService executor;
+    /**
+     * Permisos para usar la base de datos: tantos como conexiones puede prestar el pool.
+     */
+    private final Semaphore permisos;
+
+    /**
+     * Constructor privado. Los hilos virtuales no impiden el cierre de la aplicación.
+     */
+    private DataServiceVirtual() {
+        this.permisos = new Semaphore(DBConnection.getPool().getConfig().getTamanoMaximo(), true);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("data-service-virtual-", 1).factory());
+    }
+
+    /**
+     * Devuelve la instancia única del servicio.
+     *
+     * @return La instancia de DataServiceVirtual.
+     */
+    public static DataServiceVirtual getInstance() {
+        if (instance == null) {
+            synchronized (DataServiceVirtual.class) {
+                if (instance == null) {
+                    instance = new DataServiceVirtual();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Ejecuta una operación en un hilo virtual y devuelve un {@link CompletableFuture} con su resultado.
+     * Las {@link SQLException} llegan envueltas en {@link CompletionException}.
+     *
+     * @param operacion La operación de base de datos.
+     * @param <T>       El tipo del resultado.
+     * @return El futuro con el resultado.
+     */
+    public <T> CompletableFuture<T> ejecutarAsync(SqlCallable<T> operacion) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return conPermiso(operacion);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Ejecuta todas las operaciones a la vez, cada una en su hilo virtual, y espera a que terminen.
+     * En cuanto una falla se cancelan (interrumpiéndolas) las que aún no han terminado, sin esperar
+     * a las que se lanzaron antes que ella.
+     *
+     * @param operaciones Las operaciones de base de datos.
+     * @param <T>         El tipo de los resultados.
+     * @return Los resultados, en el orden de las operaciones.
+     * @throws SQLException El error de la primera operación que falla.
+     */
+    public <T> List<T> ejecutarTodas(Collection<? extends SqlCallable<? extends T>> operaciones) throws SQLException {
+        List<Future<T>> futuros = new ArrayList<>(operaciones.size());
+        // Entrega los futuros según terminan, para enterarse de un fallo aunque otras sigan en curso.
+        CompletionService<T> terminadas = new ExecutorCompletionService<>(executor);
+        try {
+            for (SqlCallable<? extends T> operacion : operaciones) {
+                futuros.add(terminadas.submit(() -> conPermiso(operacion)));
+            }
+            for (int i = 0; i < futuros.size(); i++) {
+                terminadas.take().get();
+            }
+            List<T> resultados = new ArrayList<>(futuros.size());
+            for (Future<T> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        } catch (ExecutionException e) {
+            futuros.forEach(futuro -> futuro.cancel(true));
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new SQLException(e.getCause());
+        } catch (InterruptedException e) {
+            futuros.forEach(futuro -> futuro.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new SQLException("Operaciones interrumpidas", e);
+        }
+    }
+
+    /**
+     * Devuelve cuántas llamadas esperan a que quede libre una conexión.
+     *
+     * @return Una estimación del número de llamadas en espera.
+     */
+    public int getEsperando() {
+        return permisos.getQueueLength();
+    }
+
+    /**
+     * Ejecuta la operación cuando hay un permiso libre y lo devuelve al terminar.
+     */
+    private <T> T conPermiso(SqlCallable<T> operacion) throws SQLException {
+        try {
+            permisos.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Operación interrumpida mientras esperaba una conexión", e);
+        }
+        try {
+            return operacion.call();
+        } finally {
+            permisos.release();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.iesochoa.ejemplodbjavafx.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento de Java Flight Recorder emitido por {@link CargaTabla} cada vez que muestra datos nuevos en una tabla.
+ * La duración es el tiempo ocupado en el hilo de JavaFX; la espera, lo que tardó la carga en segundo plano.
+ */
+@Name("com.iesochoa.ejemplodbjavafx.RecargaTabla")
+@Label("Recarga de tabla")
+@Category({"EjemploDBJavaFX", "Interfaz"})
+@Description("Datos nuevos mostrados en una TableView")
+@StackTrace(false)
+class EventoRecargaTabla extends Event {
+    @Label("Tabla")
+    String tabla;
+
+    @Label("Elementos")
+    long elementos;
+
+    @Label("Espera")
+    @Description("Tiempo desde que se pidió la carga hasta que llegó el resultado (0 si no hubo carga en segundo plano)")
+    @Timespan(Timespan.NANOSECONDS)
+    long espera;
+}
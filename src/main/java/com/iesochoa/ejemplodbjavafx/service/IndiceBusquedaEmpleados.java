@@ -0,0 +1,386 @@
+package com.iesochoa.ejemplodbjavafx.service;
+
+import com.iesochoa.ejemplodbjavafx.db.CambioListener;
+import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+import com.iesochoa.ejemplodbjavafx.model.Empleado;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Índice en memoria para buscar empleados por DNI o por nombre/apellidos mientras se escribe.
+ * <p>
+ * Cada texto se descompone en trigramas (grupos de tres caracteres consecutivos) y para cada trigrama
+ * se guarda la lista ordenada de empleados que lo contienen. Una búsqueda de tres o más caracteres
+ * interseca las listas de sus trigramas y comprueba los candidatos, sin recorrer todos los empleados.
+ * Las búsquedas de uno o dos caracteres recorren los textos ya normalizados.
+ * Las comparaciones no distinguen mayúsculas ni tildes, igual que la búsqueda {@code LIKE} de MySQL.
+ * <p>
+ * El índice se construye una vez con todos los empleados y se mantiene al día con los avisos de
+ * escritura de {@link EmpleadoDAO}. Mientras no está construido (frío), {@link #estaListo()} devuelve
+ * {@code false} y hay que buscar en la base de datos.
+ */
+public class IndiceBusquedaEmpleados implements CambioListener<Empleado> {
+    /**
+     * Número de cambios acumulados a partir del cual se reconstruye el índice en memoria.
+     */
+    private static final int MAX_CAMBIOS_PENDIENTES = 1000;
+    private static final int CAMPO_DNI = 0;
+    private static final int CAMPO_NOMBRE = 1;
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+
+    private static volatile IndiceBusquedaEmpleados instance;
+
+    /**
+     * Estado actual del índice; {@code null} mientras está frío. Es inmutable: cada cambio publica uno nuevo.
+     */
+    private volatile Estado estado;
+
+    /**
+     * Constructor privado. Registra el índice como listener de {@link EmpleadoDAO}.
+     */
+    private IndiceBusquedaEmpleados() {
+        EmpleadoDAO.getInstance().addCambioListener(this);
+    }
+
+    /**
+     * Devuelve la instancia única del índice.
+     *
+     * @return La instancia del índice.
+     */
+    public static IndiceBusquedaEmpleados getInstance() {
+        if (instance == null) {
+            synchronized (IndiceBusquedaEmpleados.class) {
+                if (instance == null) {
+                    instance = new IndiceBusquedaEmpleados();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Indica si el índice está construido y se puede buscar en él.
+     *
+     * @return {@code true} si el índice está listo.
+     */
+    public boolean estaListo() {
+        return estado != null;
+    }
+
+    /**
+     * Construye el índice con los empleados indicados, sustituyendo el anterior.
+     *
+     * @param empleados Todos los empleados.
+     */
+    public synchronized void construir(Collection<Empleado> empleados) {
+        estado = Estado.construir(empleados);
+    }
+
+    /**
+     * Busca los empleados cuyo nombre o apellidos contienen el texto indicado.
+     *
+     * @param texto El texto a buscar.
+     * @return Los empleados encontrados ordenados por ID, o {@code null} si el índice está frío.
+     */
+    public List<Empleado> buscarPorNombre(String texto) {
+        Estado actual = estado;
+        return actual == null ? null : actual.buscar(CAMPO_NOMBRE, normalizar(texto));
+    }
+
+    /**
+     * Busca los empleados cuyo DNI contiene el texto indicado.
+     *
+     * @param texto El texto a buscar.
+     * @return Los empleados encontrados ordenados por ID, o {@code null} si el índice está frío.
+     */
+    public List<Empleado> buscarPorDni(String texto) {
+        Estado actual = estado;
+        return actual == null ? null : actual.buscar(CAMPO_DNI, normalizar(texto));
+    }
+
+    /**
+     * Indica si el nombre o los apellidos de un empleado contienen el texto, con el mismo criterio
+     * que {@link #buscarPorNombre(String)}. Sirve para decidir si un empleado recién guardado
+     * debe aparecer en el resultado de una búsqueda.
+     *
+     * @param empleado El empleado.
+     * @param texto    El texto buscado.
+     * @return {@code true} si el empleado coincide con la búsqueda.
+     */
+    public static boolean coincideNombre(Empleado empleado, String texto) {
+        String buscado = normalizar(texto);
+        return normalizar(empleado.getNombre()).contains(buscado) || normalizar(empleado.getApellidos()).contains(buscado);
+    }
+
+    /**
+     * Indica si el DNI de un empleado contiene el texto, con el mismo criterio que {@link #buscarPorDni(String)}.
+     *
+     * @param empleado El empleado.
+     * @param texto    El texto buscado.
+     * @return {@code true} si el empleado coincide con la búsqueda.
+     */
+    public static boolean coincideDni(Empleado empleado, String texto) {
+        return normalizar(empleado.getDni()).contains(normalizar(texto));
+    }
+
+    @Override
+    public synchronized void guardado(Empleado empleado) {
+        if (estado != null) {
+            estado = estado.conCambio(empleado.getId(), empleado);
+            reconstruirSiHaceFalta();
+        }
+    }
+
+    @Override
+    public synchronized void borrado(int id) {
+        if (estado != null) {
+            estado = estado.conCambio(id, null);
+            reconstruirSiHaceFalta();
+        }
+    }
+
+    @Override
+    public synchronized void invalidado() {
+        estado = null;
+    }
+
+    /**
+     * Cuando hay muchos cambios pendientes, rehace el índice a partir de los datos en memoria
+     * (no hace falta consultar la base de datos).
+     */
+    private void reconstruirSiHaceFalta() {
+        if (estado.cambios.size() + estado.obsoletos.size() > MAX_CAMBIOS_PENDIENTES) {
+            estado = Estado.construir(estado.todos());
+        }
+    }
+
+    /**
+     * Pasa el texto a minúsculas y le quita las tildes.
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Clave de un trigrama de un campo: el campo en los bits altos y los tres caracteres debajo.
+     */
+    private static long clave(int campo, String texto, int posicion) {
+        return ((long) campo << 48)
+                | ((long) texto.charAt(posicion) << 32)
+                | ((long) texto.charAt(posicion + 1) << 16)
+                | texto.charAt(posicion + 2);
+    }
+
+    /**
+     * Estado inmutable del índice: la parte construida (arrays y listas de trigramas) más
+     * los cambios posteriores, que se comprueban uno a uno porque son pocos.
+     */
+    private static class Estado {
+        /**
+         * Empleados de la parte construida, ordenados por ID.
+         */
+        final Empleado[] empleados;
+        /**
+         * Textos normalizados por campo y posición.
+         */
+        final String[][] textos;
+        /**
+         * Posiciones (ordenadas) de los empleados que contienen cada trigrama.
+         */
+        final Map<Long, int[]> trigramas;
+        /**
+         * Posición de cada ID en la parte construida.
+         */
+        final Map<Integer, Integer> posiciones;
+        /**
+         * Empleados creados o modificados después de construir (ID a empleado).
+         */
+        final Map<Integer, Empleado> cambios;
+        /**
+         * IDs de la parte construida que ya no son válidos (modificados o borrados).
+         */
+        final Set<Integer> obsoletos;
+        /**
+         * Textos normalizados de los empleados cambiados.
+         */
+        final Map<Integer, String[]> textosCambios;
+
+        private Estado(Empleado[] empleados, String[][] textos, Map<Long, int[]> trigramas, Map<Integer, Integer> posiciones,
+                       Map<Integer, Empleado> cambios, Set<Integer> obsoletos, Map<Integer, String[]> textosCambios) {
+            this.empleados = empleados;
+            this.textos = textos;
+            this.trigramas = trigramas;
+            this.posiciones = posiciones;
+            this.cambios = cambios;
+            this.obsoletos = obsoletos;
+            this.textosCambios = textosCambios;
+        }
+
+        static Estado construir(Collection<Empleado> origen) {
+            Empleado[] empleados = origen.toArray(new Empleado[0]);
+            Arrays.sort(empleados, Comparator.comparingInt(Empleado::getId));
+            String[][] textos = new String[2][empleados.length];
+            Map<Integer, Integer> posiciones = new HashMap<>(empleados.length * 2);
+            Map<Long, ListaEnteros> listas = new HashMap<>();
+            for (int i = 0; i < empleados.length; i++) {
+                String[] campos = textosDe(empleados[i]);
+                posiciones.put(empleados[i].getId(), i);
+                for (int campo = 0; campo < campos.length; campo++) {
+                    String texto = campos[campo];
+                    textos[campo][i] = texto;
+                    for (int p = 0; p + 3 <= texto.length(); p++) {
+                        // Las posiciones se recorren en orden, así que cada lista queda ordenada.
+                        listas.computeIfAbsent(clave(campo, texto, p), k -> new ListaEnteros()).anadirSinRepetir(i);
+                    }
+                }
+            }
+            Map<Long, int[]> trigramas = new HashMap<>(listas.size() * 2);
+            listas.forEach((k, lista) -> trigramas.put(k, lista.toArray()));
+            return new Estado(empleados, textos, trigramas, posiciones, Map.of(), Set.of(), Map.of());
+        }
+
+        /**
+         * Devuelve un nuevo estado con un empleado creado, modificado ({@code empleado != null})
+         * o borrado ({@code empleado == null}).
+         */
+        Estado conCambio(int id, Empleado empleado) {
+            Map<Integer, Empleado> nuevosCambios = new HashMap<>(cambios);
+            Map<Integer, String[]> nuevosTextos = new HashMap<>(textosCambios);
+            Set<Integer> nuevosObsoletos = obsoletos;
+            if (posiciones.containsKey(id) && !obsoletos.contains(id)) {
+                nuevosObsoletos = new HashSet<>(obsoletos);
+                nuevosObsoletos.add(id);
+            }
+            if (empleado != null) {
+                nuevosCambios.put(id, empleado);
+                nuevosTextos.put(id, textosDe(empleado));
+            } else {
+                nuevosCambios.remove(id);
+                nuevosTextos.remove(id);
+            }
+            return new Estado(empleados, textos, trigramas, posiciones, nuevosCambios, nuevosObsoletos, nuevosTextos);
+        }
+
+        /**
+         * Todos los empleados vigentes: la parte construida menos los obsoletos, más los cambios.
+         */
+        List<Empleado> todos() {
+            List<Empleado> lista = new ArrayList<>(empleados.length + cambios.size());
+            for (Empleado empleado : empleados) {
+                if (!obsoletos.contains(empleado.getId())) {
+                    lista.add(empleado);
+                }
+            }
+            lista.addAll(cambios.values());
+            return lista;
+        }
+
+        List<Empleado> buscar(int campo, String texto) {
+            List<Empleado> resultado = new ArrayList<>();
+            String[] columna = textos[campo];
+            if (texto.length() >= 3) {
+                for (int posicion : candidatos(campo, texto)) {
+                    if (columna[posicion].contains(texto) && !obsoletos.contains(empleados[posicion].getId())) {
+                        resultado.add(empleados[posicion]);
+                    }
+                }
+            } else {
+                for (int posicion = 0; posicion < empleados.length; posicion++) {
+                    if (columna[posicion].contains(texto) && !obsoletos.contains(empleados[posicion].getId())) {
+                        resultado.add(empleados[posicion]);
+                    }
+                }
+            }
+            if (!cambios.isEmpty()) {
+                textosCambios.forEach((id, campos) -> {
+                    if (campos[campo].contains(texto)) {
+                        resultado.add(cambios.get(id));
+                    }
+                });
+                resultado.sort(Comparator.comparingInt(Empleado::getId));
+            }
+            return resultado;
+        }
+
+        /**
+         * Interseca las listas de los trigramas del texto, empezando por la más corta.
+         */
+        private int[] candidatos(int campo, String texto) {
+            List<int[]> listas = new ArrayList<>();
+            for (int p = 0; p + 3 <= texto.length(); p++) {
+                int[] lista = trigramas.get(clave(campo, texto, p));
+                if (lista == null) {
+                    return new int[0];
+                }
+                listas.add(lista);
+            }
+            listas.sort(Comparator.comparingInt(lista -> lista.length));
+            int[] actual = listas.get(0);
+            for (int i = 1; i < listas.size() && actual.length > 0; i++) {
+                actual = interseccion(actual, listas.get(i));
+            }
+            return actual;
+        }
+
+        private static int[] interseccion(int[] a, int[] b) {
+            int[] resultado = new int[Math.min(a.length, b.length)];
+            int i = 0, j = 0, n = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    i++;
+                } else if (a[i] > b[j]) {
+                    j++;
+                } else {
+                    resultado[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(resultado, n);
+        }
+
+        private static String[] textosDe(Empleado empleado) {
+            return new String[]{
+                    normalizar(empleado.getDni()),
+                    normalizar(empleado.getNombre()) + " " + normalizar(empleado.getApellidos())
+            };
+        }
+    }
+
+    /**
+     * Lista de enteros que crece sin crear objetos {@code Integer}.
+     */
+    private static class ListaEnteros {
+        private int[] valores = new int[4];
+        private int tamano;
+
+        void anadirSinRepetir(int valor) {
+            if (tamano > 0 && valores[tamano - 1] == valor) {
+                return;
+            }
+            if (tamano == valores.length) {
+                valores = Arrays.copyOf(valores, tamano * 2);
+            }
+            valores[tamano++] = valor;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(valores, tamano);
+        }
+    }
+}
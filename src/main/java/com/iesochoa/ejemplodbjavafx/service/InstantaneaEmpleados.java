@@ -0,0 +1,173 @@
+package com.iesochoa.ejemplodbjavafx.service;
+
+import com.iesochoa.ejemplodbjavafx.db.CambioListener;
+import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+import com.iesochoa.ejemplodbjavafx.model.Empleado;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copia en memoria de todos los empleados, para que la ventana de empleados filtre y ordene
+ * sin consultar la base de datos (cambiar de departamento o buscar por nombre o DNI es inmediato).
+ * <p>
+ * La copia se carga una vez con {@link EmpleadoDAO#listAllEmpleados()} y se mantiene al día con los
+ * avisos de escritura del DAO. Se considera caducada cuando han pasado {@link #VIDA_MAXIMA_MS} milisegundos
+ * desde la carga (para recoger los cambios hechos desde otros equipos) o cuando el DAO avisa de que
+ * se han modificado empleados sin pasar por él; solo entonces se vuelve a consultar la base de datos.
+ * Al cargarla se construye también el {@link IndiceBusquedaEmpleados} si aún no estaba listo,
+ * para no leer dos veces todos los empleados.
+ */
+public class InstantaneaEmpleados implements CambioListener<Empleado> {
+    /**
+     * Tiempo máximo, en milisegundos, durante el que se usa la copia sin volver a cargarla.
+     */
+    public static final long VIDA_MAXIMA_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private static volatile InstantaneaEmpleados instance;
+
+    /**
+     * Empleados por ID (ordenados); {@code null} mientras no se ha cargado o tras una invalidación.
+     */
+    private volatile ConcurrentSkipListMap<Integer, Empleado> empleados;
+    /**
+     * Momento de la última carga, según {@link System#nanoTime()}.
+     */
+    private volatile long cargadaEn;
+    /**
+     * Carga en curso, o {@code null} si no se está cargando.
+     */
+    private CompletableFuture<List<Empleado>> cargaEnCurso;
+    /**
+     * Cambios recibidos mientras se carga, que se aplican al terminar (un valor {@code null} es un borrado).
+     */
+    private final Map<Integer, Empleado> cambiosDuranteCarga = new LinkedHashMap<>();
+    /**
+     * Indica si el DAO ha avisado de una invalidación mientras se cargaba: lo cargado puede ser anterior.
+     */
+    private boolean invalidadaDuranteCarga;
+
+    /**
+     * Constructor privado. Registra la copia como listener de {@link EmpleadoDAO}.
+     */
+    private InstantaneaEmpleados() {
+        EmpleadoDAO.getInstance().addCambioListener(this);
+    }
+
+    /**
+     * Devuelve la instancia única de la copia de empleados.
+     *
+     * @return La instancia.
+     */
+    public static InstantaneaEmpleados getInstance() {
+        if (instance == null) {
+            synchronized (InstantaneaEmpleados.class) {
+                if (instance == null) {
+                    instance = new InstantaneaEmpleados();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Indica si la copia está cargada y no ha caducado.
+     *
+     * @return {@code true} si se puede usar sin consultar la base de datos.
+     */
+    public boolean estaVigente() {
+        return empleados != null && System.nanoTime() - cargadaEn < TimeUnit.MILLISECONDS.toNanos(VIDA_MAXIMA_MS);
+    }
+
+    /**
+     * Devuelve todos los empleados de la copia, ordenados por ID, aunque haya caducado.
+     *
+     * @return Una lista nueva con los empleados, o {@code null} si la copia no está cargada.
+     */
+    public List<Empleado> getEmpleados() {
+        ConcurrentSkipListMap<Integer, Empleado> actual = empleados;
+        return actual == null ? null : new ArrayList<>(actual.values());
+    }
+
+    /**
+     * Carga la copia en segundo plano si no está vigente. Si ya se está cargando, devuelve esa misma carga.
+     *
+     * @return El futuro con todos los empleados ordenados por ID (ya completado si la copia está vigente).
+     */
+    public synchronized CompletableFuture<List<Empleado>> cargar() {
+        if (estaVigente()) {
+            return CompletableFuture.completedFuture(getEmpleados());
+        }
+        if (cargaEnCurso == null) {
+            cambiosDuranteCarga.clear();
+            invalidadaDuranteCarga = false;
+            cargaEnCurso = DataService.getInstance()
+                    .ejecutarAsync(() -> EmpleadoDAO.getInstance().listAllEmpleados())
+                    .thenApply(this::publicar)
+                    .whenComplete((lista, error) -> {
+                        synchronized (this) {
+                            cargaEnCurso = null;
+                        }
+                    });
+        }
+        return cargaEnCurso;
+    }
+
+    /**
+     * Publica el resultado de una carga, aplicándole los cambios que llegaron mientras se consultaba.
+     */
+    private synchronized List<Empleado> publicar(List<Empleado> cargados) {
+        ConcurrentSkipListMap<Integer, Empleado> nuevos = new ConcurrentSkipListMap<>();
+        cargados.forEach(empleado -> nuevos.put(empleado.getId(), empleado));
+        cambiosDuranteCarga.forEach((id, empleado) -> {
+            if (empleado == null) {
+                nuevos.remove(id);
+            } else {
+                nuevos.put(id, empleado);
+            }
+        });
+        cambiosDuranteCarga.clear();
+        empleados = nuevos;
+        // Si hubo una invalidación durante la carga, la copia se publica ya caducada para que se vuelva a pedir.
+        cargadaEn = System.nanoTime() - (invalidadaDuranteCarga ? TimeUnit.MILLISECONDS.toNanos(VIDA_MAXIMA_MS) : 0);
+        List<Empleado> lista = new ArrayList<>(nuevos.values());
+        IndiceBusquedaEmpleados indice = IndiceBusquedaEmpleados.getInstance();
+        if (!indice.estaListo()) {
+            indice.construir(lista);
+        }
+        return lista;
+    }
+
+    @Override
+    public synchronized void guardado(Empleado empleado) {
+        if (cargaEnCurso != null) {
+            cambiosDuranteCarga.put(empleado.getId(), empleado);
+        }
+        if (empleados != null) {
+            empleados.put(empleado.getId(), empleado);
+        }
+    }
+
+    @Override
+    public synchronized void borrado(int id) {
+        if (cargaEnCurso != null) {
+            cambiosDuranteCarga.put(id, null);
+        }
+        if (empleados != null) {
+            empleados.remove(id);
+        }
+    }
+
+    @Override
+    public synchronized void invalidado() {
+        empleados = null;
+        if (cargaEnCurso != null) {
+            invalidadaDuranteCarga = true;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.iesochoa.ejemplodbjavafx.service;
+
+import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import javafx.collections.ObservableListBase;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lista observable de todos los empleados que se carga por páginas bajo demanda.
+ * Está pensada como origen de datos de una {@link javafx.scene.control.TableView}: la tabla solo
+ * pide las filas visibles, y cuando una fila pertenece a una página que aún no está en memoria
+ * se devuelve {@code null} (fila vacía) y la página se pide en segundo plano con paginación por clave
+ * ({@link EmpleadoDAO#listEmpleadosAfter(int, int)}). Al llegar, la lista avisa a la tabla para que
+ * repinte esas filas.
+ * <p>
+ * Las páginas ya vistas se guardan en una caché LRU acotada, de modo que la memoria usada no depende
+ * del número de empleados. Todos los métodos deben llamarse desde el hilo de JavaFX.
+ * <p>
+ * Los cambios hechos desde la aplicación se aplican sobre la lista sin recargarla
+ * ({@link #reemplazar(Empleado)}, {@link #anadir(Empleado)} y {@link #eliminar(int)}), de modo que la tabla
+ * conserva la posición de desplazamiento y la selección.
+ */
+public class ListaEmpleadosPaginada extends ObservableListBase<Empleado> {
+    /**
+     * Número de empleados por página.
+     */
+    public static final int TAMANO_PAGINA = 100;
+    /**
+     * Número máximo de páginas que se mantienen en memoria.
+     */
+    public static final int MAX_PAGINAS = 50;
+
+    /**
+     * Número total de empleados (tamaño de la lista).
+     */
+    private int total;
+    /**
+     * Páginas en memoria, en orden de acceso (LRU).
+     */
+    private final LinkedHashMap<Integer, List<Empleado>> paginas;
+    /**
+     * ID del último empleado anterior a cada página conocida. Permite pedir la página por clave.
+     */
+    private final Map<Integer, Integer> ultimoIdAntesDePagina = new HashMap<>();
+    /**
+     * Páginas que se están cargando, para no pedirlas dos veces.
+     */
+    private final Set<Integer> pendientes = new HashSet<>();
+    /**
+     * Se incrementa al eliminar un empleado: las páginas pedidas antes pueden venir desplazadas y se vuelven a pedir.
+     */
+    private int generacion;
+
+    /**
+     * Crea la lista con el total de empleados y la primera página ya cargada.
+     *
+     * @param total         El número total de empleados.
+     * @param primeraPagina Los empleados de la primera página.
+     */
+    private ListaEmpleadosPaginada(int total, List<Empleado> primeraPagina) {
+        this.total = total;
+        this.paginas = new LinkedHashMap<>(MAX_PAGINAS, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Empleado>> eldest) {
+                return size() > MAX_PAGINAS;
+            }
+        };
+        ultimoIdAntesDePagina.put(0, 0);
+        guardarPagina(0, primeraPagina);
+    }
+
+    /**
+     * Cuenta los empleados y carga la primera página. Se llama fuera del hilo de JavaFX
+     * (por ejemplo, desde {@link CargaTabla#cargar}).
+     *
+     * @return La lista paginada lista para asignarse a la tabla.
+     * @throws SQLException Si ocurre un error al interactuar con la base de datos.
+     */
+    public static ListaEmpleadosPaginada abrir() throws SQLException {
+        EmpleadoDAO dao = EmpleadoDAO.getInstance();
+        int total = dao.contarEmpleados();
+        List<Empleado> primeraPagina = dao.listEmpleadosAfter(0, TAMANO_PAGINA);
+        return new ListaEmpleadosPaginada(Math.max(total, primeraPagina.size()), primeraPagina);
+    }
+
+    /**
+     * Devuelve el empleado de la posición indicada o {@code null} si su página aún no se ha cargado
+     * (en ese caso se pide en segundo plano).
+     *
+     * @param index La posición del empleado.
+     * @return El empleado o {@code null} mientras se carga.
+     */
+    @Override
+    public Empleado get(int index) {
+        if (index < 0 || index >= total) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int pagina = index / TAMANO_PAGINA;
+        List<Empleado> empleados = paginas.get(pagina);
+        if (empleados == null) {
+            solicitarPagina(pagina);
+            return null;
+        }
+        int posicion = index % TAMANO_PAGINA;
+        // La página puede venir incompleta si se han borrado empleados desde que se contaron.
+        return posicion < empleados.size() ? empleados.get(posicion) : null;
+    }
+
+    @Override
+    public int size() {
+        return total;
+    }
+
+    /**
+     * Pide una página en segundo plano. Si se conoce el ID anterior a la página se usa directamente;
+     * si no (salto con la barra de desplazamiento), primero se busca ese ID por posición.
+     */
+    private void solicitarPagina(int pagina) {
+        if (!pendientes.add(pagina)) {
+            return;
+        }
+        Integer ultimoId = ultimoIdAntesDePagina.get(pagina);
+        int generacionPedida = generacion;
+        DataService.getInstance().ejecutar(() -> {
+            EmpleadoDAO dao = EmpleadoDAO.getInstance();
+            int desde = ultimoId != null ? ultimoId : dao.idEmpleadoEnPosicion(pagina * TAMANO_PAGINA - 1);
+            return dao.listEmpleadosAfter(desde, TAMANO_PAGINA);
+        }, empleados -> {
+            pendientes.remove(pagina);
+            if (generacionPedida != generacion) {
+                if (pagina * TAMANO_PAGINA < total) {
+                    solicitarPagina(pagina);
+                }
+                return;
+            }
+            guardarPagina(pagina, empleados);
+            avisarPaginaCargada(pagina);
+        }, error -> {
+            pendientes.remove(pagina);
+            System.err.println(error.getMessage());
+        });
+    }
+
+    /**
+     * Sustituye un empleado modificado por su nueva versión, si su página está en memoria
+     * (si no, ya se leerá actualizado cuando se muestre).
+     *
+     * @param empleado El empleado modificado.
+     */
+    public void reemplazar(Empleado empleado) {
+        int indice = indiceCargado(empleado.getId());
+        if (indice < 0) {
+            return;
+        }
+        Empleado anterior = paginas.get(indice / TAMANO_PAGINA).set(indice % TAMANO_PAGINA, empleado);
+        beginChange();
+        nextSet(indice, anterior);
+        endChange();
+    }
+
+    /**
+     * Añade al final un empleado recién creado (tiene el ID más alto, así que es el último en el orden por ID).
+     *
+     * @param empleado El empleado creado.
+     */
+    public void anadir(Empleado empleado) {
+        int indice = total;
+        List<Empleado> ultimaPagina = paginas.get(indice / TAMANO_PAGINA);
+        if (ultimaPagina != null && ultimaPagina.size() == indice % TAMANO_PAGINA) {
+            ultimaPagina.add(empleado);
+        }
+        total++;
+        beginChange();
+        nextAdd(indice, indice + 1);
+        endChange();
+    }
+
+    /**
+     * Quita un empleado borrado. Los empleados siguientes se desplazan una posición, así que se descartan
+     * las páginas posteriores y la página del empleado se vuelve a pedir para completarla.
+     *
+     * @param id El ID del empleado borrado.
+     * @return {@code true} si se ha quitado; {@code false} si su página no está en memoria y no se sabe
+     * en qué posición está (en ese caso hay que recargar la lista).
+     */
+    public boolean eliminar(int id) {
+        int indice = indiceCargado(id);
+        if (indice < 0) {
+            return false;
+        }
+        int pagina = indice / TAMANO_PAGINA;
+        Empleado borrado = paginas.get(pagina).remove(indice % TAMANO_PAGINA);
+        total--;
+        generacion++;
+        paginas.keySet().removeIf(otra -> otra > pagina);
+        ultimoIdAntesDePagina.keySet().removeIf(otra -> otra > pagina);
+        beginChange();
+        nextRemove(indice, borrado);
+        endChange();
+        solicitarPagina(pagina);
+        return true;
+    }
+
+    /**
+     * Posición de un empleado en las páginas en memoria, o -1 si no está.
+     */
+    private int indiceCargado(int id) {
+        for (Map.Entry<Integer, List<Empleado>> entrada : paginas.entrySet()) {
+            List<Empleado> empleados = entrada.getValue();
+            for (int i = 0; i < empleados.size(); i++) {
+                if (empleados.get(i).getId() == id) {
+                    return entrada.getKey() * TAMANO_PAGINA + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void guardarPagina(int pagina, List<Empleado> empleados) {
+        paginas.put(pagina, empleados);
+        if (!empleados.isEmpty()) {
+            ultimoIdAntesDePagina.put(pagina + 1, empleados.get(empleados.size() - 1).getId());
+        }
+    }
+
+    /**
+     * Notifica que las filas de la página han pasado de vacías a tener datos.
+     */
+    private void avisarPaginaCargada(int pagina) {
+        int desde = pagina * TAMANO_PAGINA;
+        int hasta = Math.min(desde + TAMANO_PAGINA, total);
+        beginChange();
+        for (int i = desde; i < hasta; i++) {
+            nextSet(i, null);
+        }
+        endChange();
+    }
+}
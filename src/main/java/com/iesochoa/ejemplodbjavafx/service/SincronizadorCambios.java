@@ -0,0 +1,319 @@
+package com.iesochoa.ejemplodbjavafx.service;
+
+import com.iesochoa.ejemplodbjavafx.db.Cambio;
+import com.iesochoa.ejemplodbjavafx.db.CambioListener;
+import com.iesochoa.ejemplodbjavafx.db.DepartamentoDAO;
+import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+import com.iesochoa.ejemplodbjavafx.db.RegistroCambios;
+import com.iesochoa.ejemplodbjavafx.model.Departamento;
+import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import javafx.application.Platform;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Lee periódicamente en segundo plano el {@link RegistroCambios} y aplica los cambios hechos desde otros equipos,
+ * para que las tablas abiertas estén al día sin recargarlas.
+ * <p>
+ * En cada lectura solo se piden los cambios posteriores al último leído (la marca) y solo se consultan
+ * las filas que han cambiado. Cada cambio se aplica primero a los datos en memoria (cachés de los DAO,
+ * índice de búsqueda y copia de empleados, a través de sus avisos de escritura) y después se entrega a las
+ * pantallas registradas con {@link #addEmpleadosListener(CambioListener)} y
+ * {@link #addDepartamentosListener(CambioListener)}, en el hilo de JavaFX. Los cambios hechos por esta misma
+ * instancia se saltan, porque ya se aplicaron al escribir.
+ * <p>
+ * Un identificador del registro que falta (una transacción aún sin confirmar, o deshecha) detiene el avance
+ * de la marca durante {@link #ESPERA_HUECO_MS} milisegundos, para no perder cambios que se confirmen tarde.
+ * Utiliza el patrón Singleton, igual que los DAO.
+ */
+public class SincronizadorCambios {
+    /**
+     * Número máximo de cambios que se piden en cada lectura.
+     */
+    public static final int MAX_CAMBIOS_POR_LECTURA = 1000;
+    /**
+     * Tiempo que se espera a que aparezca un identificador que falta antes de darlo por perdido.
+     */
+    public static final long ESPERA_HUECO_MS = 10_000;
+    /**
+     * Antigüedad a partir de la cual se borran los cambios del registro.
+     */
+    public static final long RETENCION_MS = TimeUnit.DAYS.toMillis(1);
+    /**
+     * Cada cuánto se borran los cambios antiguos del registro.
+     */
+    private static final long INTERVALO_PURGA_MS = TimeUnit.HOURS.toMillis(1);
+
+    private static volatile SincronizadorCambios instance;
+
+    /**
+     * Pantallas avisadas de los cambios de empleados. Se guardan con referencias débiles: una pantalla
+     * cerrada deja de recibir avisos cuando se libera, sin tener que darse de baja.
+     */
+    private final Set<CambioListener<Empleado>> listenersEmpleados = Collections.newSetFromMap(new WeakHashMap<>());
+    /**
+     * Pantallas avisadas de los cambios de departamentos (también con referencias débiles).
+     */
+    private final Set<CambioListener<Departamento>> listenersDepartamentos = Collections.newSetFromMap(new WeakHashMap<>());
+    private ScheduledExecutorService ejecutor;
+
+    /**
+     * Todos los cambios con identificador menor o igual que la marca están leídos; -1 antes de la primera lectura.
+     */
+    private long marca = -1;
+    /**
+     * Identificadores mayores que la marca ya leídos (los que hay después de un hueco).
+     */
+    private final TreeSet<Long> leidos = new TreeSet<>();
+    /**
+     * Momento ({@link System#nanoTime()}) en que se detectó el hueco actual, o 0 si no hay hueco.
+     */
+    private long huecoDesde;
+    private long ultimaPurga = System.nanoTime();
+
+    // Constructor privado para evitar instancias directas
+    private SincronizadorCambios() {}
+
+    /**
+     * Devuelve la instancia única del sincronizador.
+     *
+     * @return La instancia.
+     */
+    public static SincronizadorCambios getInstance() {
+        if (instance == null) {
+            synchronized (SincronizadorCambios.class) {
+                if (instance == null) {
+                    instance = new SincronizadorCambios();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Empieza a leer los cambios cada {@code intervaloMs} milisegundos en un hilo en segundo plano.
+     * Sustituye a la lectura anterior, si la había. Los cambios anteriores a la primera lectura no se aplican.
+     *
+     * @param intervaloMs Milisegundos entre lecturas; 0 o menos solo detiene la lectura actual.
+     */
+    public synchronized void iniciar(long intervaloMs) {
+        detener();
+        if (intervaloMs <= 0) {
+            return;
+        }
+        ejecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "sincronizador-cambios");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        ejecutor.scheduleWithFixedDelay(() -> {
+            try {
+                sincronizar();
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("No se pudieron leer los cambios: " + e.getMessage());
+            }
+        }, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene la lectura periódica de cambios.
+     */
+    public synchronized void detener() {
+        if (ejecutor != null) {
+            ejecutor.shutdownNow();
+            ejecutor = null;
+        }
+    }
+
+    /**
+     * Registra una pantalla que será avisada, en el hilo de JavaFX, de los empleados creados, modificados
+     * o eliminados desde otros equipos. Hay que guardar el listener en un campo de la pantalla
+     * (solo se mantiene mientras la pantalla exista).
+     *
+     * @param listener El objeto a avisar.
+     */
+    public void addEmpleadosListener(CambioListener<Empleado> listener) {
+        synchronized (listenersEmpleados) {
+            listenersEmpleados.add(listener);
+        }
+    }
+
+    /**
+     * Registra una pantalla que será avisada, en el hilo de JavaFX, de los departamentos creados, modificados
+     * o eliminados desde otros equipos (con las mismas condiciones que {@link #addEmpleadosListener(CambioListener)}).
+     *
+     * @param listener El objeto a avisar.
+     */
+    public void addDepartamentosListener(CambioListener<Departamento> listener) {
+        synchronized (listenersDepartamentos) {
+            listenersDepartamentos.add(listener);
+        }
+    }
+
+    /**
+     * Lee y aplica ahora los cambios pendientes. La primera llamada solo toma la marca actual del registro.
+     * La llama el hilo de lectura periódica.
+     *
+     * @throws SQLException Si ocurre un error al consultar la base de datos.
+     */
+    public synchronized void sincronizar() throws SQLException {
+        if (marca < 0) {
+            marca = RegistroCambios.ultimaMarca();
+            return;
+        }
+        List<Cambio> ajenos = new ArrayList<>();
+        for (Cambio cambio : RegistroCambios.leerDesde(marca, MAX_CAMBIOS_POR_LECTURA)) {
+            // Después de un hueco se vuelven a leer cambios ya aplicados: se saltan.
+            if (leidos.add(cambio.getId()) && !cambio.esPropio()) {
+                ajenos.add(cambio);
+            }
+        }
+        avanzarMarca();
+        if (!ajenos.isEmpty()) {
+            aplicarEmpleados(ajenos);
+            aplicarDepartamentos(ajenos);
+        }
+        if (System.nanoTime() - ultimaPurga > TimeUnit.MILLISECONDS.toNanos(INTERVALO_PURGA_MS)) {
+            ultimaPurga = System.nanoTime();
+            RegistroCambios.purgar(RETENCION_MS);
+        }
+    }
+
+    /**
+     * Avanza la marca mientras los identificadores leídos sean consecutivos. Si hay un hueco que dura
+     * más de {@link #ESPERA_HUECO_MS}, se da por perdido (una transacción deshecha) y se salta.
+     */
+    private void avanzarMarca() {
+        while (!leidos.isEmpty() && leidos.first() == marca + 1) {
+            marca = leidos.pollFirst();
+        }
+        if (leidos.isEmpty()) {
+            huecoDesde = 0;
+            return;
+        }
+        long ahora = System.nanoTime();
+        if (huecoDesde == 0) {
+            huecoDesde = ahora;
+        } else if (ahora - huecoDesde > TimeUnit.MILLISECONDS.toNanos(ESPERA_HUECO_MS)) {
+            marca = leidos.first() - 1;
+            huecoDesde = 0;
+            avanzarMarca();
+        }
+    }
+
+    /**
+     * Aplica los cambios de empleados: relee en una sola consulta los creados o modificados
+     * y avisa a los DAO y a las pantallas.
+     */
+    private void aplicarEmpleados(List<Cambio> cambios) throws SQLException {
+        Map<Integer, Cambio.Tipo> tipos = agrupar(cambios, RegistroCambios.EMPLEADO);
+        if (tipos.isEmpty()) {
+            return;
+        }
+        EmpleadoDAO dao = EmpleadoDAO.getInstance();
+        if (tipos.containsValue(Cambio.Tipo.INVALIDACION)) {
+            dao.notificarInvalidacion();
+            avisar(listenersEmpleados, CambioListener::invalidado);
+            return;
+        }
+        List<Integer> releer = new ArrayList<>();
+        tipos.forEach((id, tipo) -> {
+            if (tipo != Cambio.Tipo.BORRADO) {
+                releer.add(id);
+            }
+        });
+        Map<Integer, Empleado> actuales = new HashMap<>();
+        dao.listEmpleadosPorIds(releer).forEach(empleado -> actuales.put(empleado.getId(), empleado));
+        tipos.forEach((id, tipo) -> {
+            Empleado empleado = actuales.get(id);
+            // Un empleado que ya no existe se ha borrado después del cambio leído.
+            if (empleado == null) {
+                dao.notificarBorradoExterno(id);
+                avisar(listenersEmpleados, listener -> listener.borrado(id));
+            } else {
+                boolean creado = tipo == Cambio.Tipo.ALTA;
+                dao.notificarGuardadoExterno(empleado, creado);
+                avisar(listenersEmpleados, listener -> {
+                    if (creado) {
+                        listener.creado(empleado);
+                    } else {
+                        listener.guardado(empleado);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Aplica los cambios de departamentos: descarta las cachés (los empleados llevan el nombre de su departamento),
+     * relee los departamentos y avisa a las pantallas.
+     */
+    private void aplicarDepartamentos(List<Cambio> cambios) throws SQLException {
+        Map<Integer, Cambio.Tipo> tipos = agrupar(cambios, RegistroCambios.DEPARTAMENTO);
+        if (tipos.isEmpty()) {
+            return;
+        }
+        DepartamentoDAO.getInstance().invalidarCache();
+        EmpleadoDAO.getInstance().invalidarCache();
+        if (tipos.containsValue(Cambio.Tipo.INVALIDACION)) {
+            avisar(listenersDepartamentos, CambioListener::invalidado);
+            return;
+        }
+        Map<Integer, Departamento> actuales = new HashMap<>();
+        if (tipos.containsValue(Cambio.Tipo.ALTA) || tipos.containsValue(Cambio.Tipo.MODIFICACION)) {
+            DepartamentoDAO.getInstance().listAllDepartamentos().forEach(dep -> actuales.put(dep.getCodigo(), dep));
+        }
+        tipos.forEach((codigo, tipo) -> {
+            Departamento departamento = actuales.get(codigo);
+            if (departamento == null) {
+                avisar(listenersDepartamentos, listener -> listener.borrado(codigo));
+            } else if (tipo == Cambio.Tipo.ALTA) {
+                avisar(listenersDepartamentos, listener -> listener.creado(departamento));
+            } else {
+                avisar(listenersDepartamentos, listener -> listener.guardado(departamento));
+            }
+        });
+    }
+
+    /**
+     * Reduce los cambios de una tabla a uno por fila: el último, salvo que la fila se haya creado
+     * en este mismo grupo (sigue siendo nueva para quien la recibe). Una invalidación se guarda con la clave 0.
+     */
+    private static Map<Integer, Cambio.Tipo> agrupar(List<Cambio> cambios, String tabla) {
+        Map<Integer, Cambio.Tipo> tipos = new LinkedHashMap<>();
+        for (Cambio cambio : cambios) {
+            if (!tabla.equals(cambio.getTabla())) {
+                continue;
+            }
+            tipos.merge(cambio.getClave(), cambio.getTipo(), (anterior, nuevo) ->
+                    anterior == Cambio.Tipo.ALTA && nuevo == Cambio.Tipo.MODIFICACION ? anterior : nuevo);
+        }
+        return tipos;
+    }
+
+    /**
+     * Entrega un aviso a las pantallas registradas, en el hilo de JavaFX.
+     */
+    private static <T> void avisar(Set<CambioListener<T>> listeners, Consumer<CambioListener<T>> aviso) {
+        List<CambioListener<T>> copia;
+        synchronized (listeners) {
+            copia = new ArrayList<>(listeners);
+        }
+        if (!copia.isEmpty()) {
+            Platform.runLater(() -> copia.forEach(aviso));
+        }
+    }
+}
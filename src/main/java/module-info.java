@@ -1,7 +1,8 @@
 module com.iesochoa.ejemplodbjavafx {
-    requires javafx.controls;
-    requires javafx.fxml;
-    requires java.sql;
+    requires transitive javafx.controls;
+    requires transitive javafx.fxml;
+    requires transitive java.sql;
+    requires jdk.jfr;
 
 
     opens com.iesochoa.ejemplodbjavafx to javafx.fxml;
@@ -12,4 +13,7 @@ module com.iesochoa.ejemplodbjavafx {
     opens com.iesochoa.ejemplodbjavafx.db to javafx.fxml;
     exports com.iesochoa.ejemplodbjavafx.model;
     opens com.iesochoa.ejemplodbjavafx.model to javafx.fxml;
+    exports com.iesochoa.ejemplodbjavafx.service;
+    exports com.iesochoa.ejemplodbjavafx.csv;
+    exports com.iesochoa.ejemplodbjavafx.generador;
 }
\ No newline at end of file
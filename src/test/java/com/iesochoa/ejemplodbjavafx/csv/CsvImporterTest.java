@@ -0,0 +1,126 @@
+package com.iesochoa.ejemplodbjavafx.csv;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.EmpleadoDAO;
+import com.iesochoa.ejemplodbjavafx.db.MigracionesBD;
+import com.iesochoa.ejemplodbjavafx.db.PoolConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas de {@link CsvImporter} sobre una base de datos H2 en memoria en modo MySQL.
+ */
+class CsvImporterTest {
+    /**
+     * Un lote con dos DNI nuevos entre dos que ya existen.
+     */
+    private static final String EMPLEADOS_MEZCLADOS = CsvExporter.CABECERA_EMPLEADOS + """
+
+            ,12345678A,Laura,Gómez Ruiz,41,Recursos Humanos
+            ,45678901D,Ana,Ruiz,30,Tecnología
+            ,23456789B,Carlos,López Gil,36,Tecnología
+            ,56789012E,Luis,Martín,28,
+            """;
+
+    @TempDir
+    Path directorio;
+
+    @BeforeAll
+    static void crearBaseDatos() throws SQLException {
+        DBConnection.configurar(new PoolConfig(
+                "jdbc:h2:mem:csvImporterTest;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=FALSE", "sa", ""));
+        try (Connection connection = DBConnection.getConnection()) {
+            MigracionesBD.migrar(connection);
+        }
+        ejecutar("INSERT INTO Departamento (codigo, nombre) VALUES (1, 'Recursos Humanos'), (2, 'Tecnología')");
+    }
+
+    @AfterAll
+    static void cerrarBaseDatos() {
+        DBConnection.closeConnection();
+    }
+
+    @BeforeEach
+    void restaurarEmpleados() throws SQLException {
+        ejecutar("DELETE FROM Empleado");
+        ejecutar("""
+                INSERT INTO Empleado (id, dni, nombre, apellido, edad, departamento) VALUES
+                    (1, '12345678A', 'Laura', 'Gómez', 40, 1),
+                    (2, '23456789B', 'Carlos', 'López', 35, 2)
+                """);
+        EmpleadoDAO.getInstance().invalidarCache();
+    }
+
+    @Test
+    void cuentaNuevasYOmitidasEnUnLoteMezclado() throws IOException, SQLException {
+        ResultadoImportacion resultado = new CsvImporter().importarEmpleados(fichero(EMPLEADOS_MEZCLADOS), false);
+
+        assertEquals(4, resultado.getLeidas());
+        assertEquals(2, resultado.getNuevas());
+        assertEquals(2, resultado.getDuplicadas());
+        assertEquals(0, resultado.getErroneas());
+        assertEquals("Gómez", apellido("12345678A"));
+        assertEquals("Ruiz", apellido("45678901D"));
+    }
+
+    @Test
+    void cuentaNuevasYActualizadasEnUnLoteMezclado() throws IOException, SQLException {
+        ResultadoImportacion resultado = new CsvImporter().importarEmpleados(fichero(EMPLEADOS_MEZCLADOS), true);
+
+        assertEquals(2, resultado.getNuevas());
+        assertEquals(2, resultado.getDuplicadas());
+        assertEquals("Gómez Ruiz", apellido("12345678A"));
+        assertEquals("López Gil", apellido("23456789B"));
+        assertEquals("Martín", apellido("56789012E"));
+    }
+
+    @Test
+    void repiteFilaAFilaUnLoteConUnaFilaErronea() throws IOException, SQLException {
+        String nombreLargo = "N".repeat(60);
+        String csv = EMPLEADOS_MEZCLADOS + ",67890123F," + nombreLargo + ",Sanz,50,Tecnología\n";
+
+        ResultadoImportacion resultado = new CsvImporter().importarEmpleados(fichero(csv), false);
+
+        assertEquals(2, resultado.getNuevas());
+        assertEquals(2, resultado.getDuplicadas());
+        assertEquals(1, resultado.getErroneas());
+        assertEquals("Ruiz", apellido("45678901D"));
+    }
+
+    private Path fichero(String contenido) throws IOException {
+        Path fichero = directorio.resolve("empleados.csv");
+        Files.writeString(fichero, contenido, StandardCharsets.UTF_8);
+        return fichero;
+    }
+
+    private static void ejecutar(String sql) throws SQLException {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.executeUpdate();
+        }
+    }
+
+    private static String apellido(String dni) throws SQLException {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT apellido FROM Empleado WHERE dni = ?")) {
+            ps.setString(1, dni);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+}
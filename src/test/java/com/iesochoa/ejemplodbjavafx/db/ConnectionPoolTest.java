@@ -0,0 +1,138 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de los límites de {@link ConnectionPool} (espera máxima, validación, inactividad y vida máxima)
+ * con una base de datos H2 en memoria. Cada conexión física se reconoce por su sesión de H2.
+ */
+class ConnectionPoolTest {
+    private static final String URL = "jdbc:h2:mem:connectionPoolTest;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+
+    @AfterEach
+    void cerrar() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void esperaComoMuchoElTimeoutDePrestamo() throws SQLException {
+        PoolConfig config = configuracion();
+        config.setTamanoMaximo(1);
+        config.setTimeoutPrestamoMs(200);
+        pool = new ConnectionPool(config);
+
+        try (Connection ocupada = pool.getConnection()) {
+            long inicio = System.nanoTime();
+            assertThrows(SQLTimeoutException.class, () -> pool.getConnection());
+            long esperaMs = (System.nanoTime() - inicio) / 1_000_000;
+
+            assertTrue(esperaMs >= 200, "Esperó solo " + esperaMs + " ms");
+            assertEquals(1, pool.getEstadisticas().getTimeouts());
+        }
+        // Al devolver la conexión ocupada se puede volver a pedir.
+        pool.getConnection().close();
+    }
+
+    @Test
+    void validaAntesDePrestarUnaConexionCerradaEnElServidor() throws SQLException {
+        PoolConfig config = configuracion();
+        config.setIntervaloValidacionMs(0);
+        pool = new ConnectionPool(config);
+        int sesion;
+        try (Connection connection = pool.getConnection()) {
+            sesion = sesion(connection);
+        }
+        try (Connection admin = DriverManager.getConnection(URL, "sa", "");
+             PreparedStatement ps = admin.prepareStatement("CALL ABORT_SESSION(?)")) {
+            ps.setInt(1, sesion);
+            ps.execute();
+        }
+
+        try (Connection connection = pool.getConnection()) {
+            assertNotEquals(sesion, sesion(connection));
+        }
+        assertEquals(1, pool.getEstadisticas().getTotal());
+    }
+
+    @Test
+    void cierraLasConexionesInactivasPorEncimaDelMinimo() throws Exception {
+        PoolConfig config = configuracion();
+        config.setTamanoMinimo(1);
+        config.setTimeoutInactividadMs(100);
+        pool = new ConnectionPool(config);
+        // Esperamos a que el hilo de mantenimiento abra la conexión mínima, para no abrir una de más.
+        esperar(() -> pool.getEstadisticas().getInactivas() == 1);
+        Connection primera = pool.getConnection();
+        Connection segunda = pool.getConnection();
+        Connection tercera = pool.getConnection();
+        primera.close();
+        segunda.close();
+        tercera.close();
+        assertEquals(3, pool.getEstadisticas().getTotal());
+
+        // El hilo de limpieza pasa cada segundo con este timeout de inactividad.
+        esperar(() -> pool.getEstadisticas().getTotal() == 1);
+
+        assertEquals(1, pool.getEstadisticas().getTotal());
+        assertEquals(1, pool.getEstadisticas().getInactivas());
+    }
+
+    @Test
+    void renuevaLasConexionesQueSuperanSuVidaMaxima() throws Exception {
+        PoolConfig config = configuracion();
+        config.setVidaMaximaMs(100);
+        pool = new ConnectionPool(config);
+        int sesion;
+        try (Connection connection = pool.getConnection()) {
+            sesion = sesion(connection);
+        }
+
+        Thread.sleep(150);
+
+        try (Connection connection = pool.getConnection()) {
+            assertNotEquals(sesion, sesion(connection));
+        }
+    }
+
+    // Espera como mucho cinco segundos a que se cumpla la condición
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!condicion.getAsBoolean() && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+        }
+    }
+
+    // Configuración sin conexiones mínimas, para que solo existan las que abre cada prueba
+    private static PoolConfig configuracion() {
+        PoolConfig config = new PoolConfig(URL, "sa", "");
+        config.setTamanoMinimo(0);
+        config.setIntervaloValidacionMs(60_000);
+        return config;
+    }
+
+    private static int sesion(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT SESSION_ID()");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import com.iesochoa.ejemplodbjavafx.model.Departamento;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link DepartamentoDAO} sobre una base de datos H2 en memoria.
+ */
+class DepartamentoDAOTest {
+
+    @BeforeAll
+    static void crearBaseDatos() throws SQLException {
+        DBConnection.configurar(new PoolConfig(
+                "jdbc:h2:mem:departamentoDAOTest;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=FALSE", "sa", ""));
+        try (Connection connection = DBConnection.getConnection()) {
+            MigracionesBD.migrar(connection);
+            MigracionesBD.ejecutarScript(connection, """
+                    INSERT INTO Departamento (codigo, nombre) VALUES (1, 'Recursos Humanos'), (2, 'Tecnología'), (3, 'Marketing');
+                    INSERT INTO Empleado (id, dni, nombre, apellido, edad, departamento) VALUES
+                        (1, '12345678A', 'Laura', 'Gómez', 40, 1),
+                        (2, '23456789B', 'Carlos', 'López', 35, 2),
+                        (3, '34567890C', 'Marta', 'Pérez', 42, 2);
+                    UPDATE Departamento SET jefe = 1 WHERE codigo = 1;
+                    UPDATE Departamento SET jefe = 3 WHERE codigo = 2;
+                    """);
+        }
+    }
+
+    @AfterAll
+    static void cerrarBaseDatos() {
+        DBConnection.closeConnection();
+    }
+
+    @BeforeEach
+    void vaciarCaches() {
+        DepartamentoDAO.getInstance().invalidarCache();
+        EmpleadoDAO.getInstance().invalidarCache();
+    }
+
+    @Test
+    void listAllDepartamentosLeeLosJefesEnUnaSolaConsulta() throws SQLException {
+        long antes = DBConnection.getEstadisticas().getSentenciasEjecutadas();
+
+        List<Departamento> departamentos = DepartamentoDAO.getInstance().listAllDepartamentos();
+
+        assertEquals(1, DBConnection.getEstadisticas().getSentenciasEjecutadas() - antes);
+        assertEquals(3, departamentos.size());
+        Departamento rrhh = buscar(departamentos, 1);
+        assertNotNull(rrhh.getJefe());
+        assertEquals("Laura", rrhh.getJefe().getNombre());
+        assertEquals("Marta", buscar(departamentos, 2).getJefe().getNombre());
+        assertNull(buscar(departamentos, 3).getJefe());
+    }
+
+    @Test
+    void listDepartamentosConEmpleadosLeeTodoEnUnaSolaConsultaDelPool() throws SQLException {
+        long antes = DBConnection.getEstadisticas().getSentenciasEjecutadas();
+
+        List<Departamento> departamentos = DepartamentoDAO.getInstance().listDepartamentosConEmpleados();
+
+        // Los dos jefes trabajan en su departamento, así que no hace falta buscarlos aparte.
+        assertEquals(1, DBConnection.getEstadisticas().getSentenciasEjecutadas() - antes);
+        assertEquals(List.of(1, 2, 0), departamentos.stream().map(d -> d.getEmpleados().size()).toList());
+        Departamento tecnologia = buscar(departamentos, 2);
+        assertSame(tecnologia.getEmpleados().get(1), tecnologia.getJefe());
+    }
+
+    @Test
+    void listDepartamentosConEmpleadosLeeLosJefesSinDepartamentoEnUnaSolaConsulta() throws SQLException {
+        try (Connection connection = DBConnection.getConnection()) {
+            MigracionesBD.ejecutarScript(connection, """
+                    INSERT INTO Empleado (id, dni, nombre, apellido, edad, departamento) VALUES
+                        (4, '45678901D', 'Juan', 'Sánchez', 38, NULL),
+                        (5, '56789012E', 'Ana', 'Martínez', 37, NULL);
+                    UPDATE Departamento SET jefe = 4 WHERE codigo = 1;
+                    UPDATE Departamento SET jefe = 5 WHERE codigo = 3;
+                    """);
+        }
+        try {
+            long antes = DBConnection.getEstadisticas().getSentenciasEjecutadas();
+
+            List<Departamento> departamentos = DepartamentoDAO.getInstance().listDepartamentosConEmpleados();
+
+            assertEquals(2, DBConnection.getEstadisticas().getSentenciasEjecutadas() - antes);
+            assertEquals("Juan", buscar(departamentos, 1).getJefe().getNombre());
+            assertEquals("Marta", buscar(departamentos, 2).getJefe().getNombre());
+            assertEquals("Ana", buscar(departamentos, 3).getJefe().getNombre());
+        } finally {
+            try (Connection connection = DBConnection.getConnection()) {
+                MigracionesBD.ejecutarScript(connection, """
+                        UPDATE Departamento SET jefe = 1 WHERE codigo = 1;
+                        UPDATE Departamento SET jefe = NULL WHERE codigo = 3;
+                        DELETE FROM Empleado WHERE id > 3;
+                        """);
+            }
+        }
+    }
+
+    @Test
+    void leerEmpleadosNoQuitaElJefeALosDepartamentosGuardados() throws SQLException {
+        DepartamentoDAO.getInstance().listAllDepartamentos();
+        // Otro cliente cambia el nombre: la fila del empleado trae un nombre y una versión distintos de los guardados.
+        try (Connection connection = DBConnection.getConnection()) {
+            MigracionesBD.ejecutarScript(connection,
+                    "UPDATE Departamento SET nombre = 'Personas', version = version + 1 WHERE codigo = 1");
+        }
+        try {
+            assertEquals("Personas", EmpleadoDAO.getInstance().selectEmpleadoPorId(1).getDepartamento().getNombre());
+
+            Departamento rrhh = buscar(DepartamentoDAO.getInstance().listAllDepartamentos(), 1);
+            assertNotNull(rrhh.getJefe());
+        } finally {
+            try (Connection connection = DBConnection.getConnection()) {
+                MigracionesBD.ejecutarScript(connection,
+                        "UPDATE Departamento SET nombre = 'Recursos Humanos' WHERE codigo = 1");
+            }
+        }
+    }
+
+    @Test
+    void losCambiosEnLosDepartamentosDevueltosNoAlteranLaCache() throws SQLException {
+        DepartamentoDAO dao = DepartamentoDAO.getInstance();
+        buscar(dao.listAllDepartamentos(), 3).setNombre("Cambiado sin guardar");
+        assertEquals("Marketing", buscar(dao.listAllDepartamentos(), 3).getNombre());
+
+        Departamento marketing = buscar(dao.listAllDepartamentos(), 3);
+        marketing.setNombre("Publicidad");
+        try {
+            assertTrue(dao.updateDepartamento(marketing));
+            // Quien lo ha guardado sigue usando su objeto (por ejemplo, un formulario que se edita de nuevo).
+            marketing.setNombre("Cambiado tras guardar");
+
+            assertEquals("Publicidad", buscar(dao.listAllDepartamentos(), 3).getNombre());
+        } finally {
+            try (Connection connection = DBConnection.getConnection()) {
+                MigracionesBD.ejecutarScript(connection, "UPDATE Departamento SET nombre = 'Marketing' WHERE codigo = 3");
+            }
+        }
+    }
+
+    @Test
+    void getDepartamentoBuscaPorCodigo() throws SQLException {
+        Departamento tecnologia = DepartamentoDAO.getInstance().getDepartamento(2);
+
+        assertEquals("Tecnología", tecnologia.getNombre());
+        assertEquals(3, tecnologia.getJefe().getId());
+        assertNull(DepartamentoDAO.getInstance().getDepartamento(99));
+    }
+
+    private static Departamento buscar(List<Departamento> departamentos, int codigo) {
+        return departamentos.stream().filter(d -> d.getCodigo() == codigo).findFirst().orElseThrow();
+    }
+}
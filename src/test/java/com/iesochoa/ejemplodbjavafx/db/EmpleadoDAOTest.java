@@ -0,0 +1,137 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import com.iesochoa.ejemplodbjavafx.model.Departamento;
+import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Pruebas de {@link EmpleadoDAO} sobre una base de datos H2 en memoria.
+ */
+class EmpleadoDAOTest {
+
+    @BeforeAll
+    static void crearBaseDatos() throws SQLException {
+        DBConnection.configurar(new PoolConfig(
+                "jdbc:h2:mem:empleadoDAOTest;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=FALSE", "sa", ""));
+        try (Connection connection = DBConnection.getConnection()) {
+            MigracionesBD.migrar(connection);
+            MigracionesBD.ejecutarScript(connection, """
+                    INSERT INTO Departamento (codigo, nombre) VALUES (1, 'Recursos Humanos'), (2, 'Tecnología');
+                    INSERT INTO Empleado (id, dni, nombre, apellido, edad, departamento) VALUES
+                        (1, '12345678A', 'Laura', 'Gómez', 40, 1),
+                        (2, '23456789B', 'Carlos', 'López', 35, 2),
+                        (3, '34567890C', 'Marta', 'Pérez', 42, 2);
+                    """);
+        }
+    }
+
+    @AfterAll
+    static void cerrarBaseDatos() {
+        DBConnection.closeConnection();
+    }
+
+    // Deja solo los tres empleados iniciales, que esperan el resto de pruebas
+    @AfterEach
+    void borrarInsertados() throws SQLException {
+        try (Connection connection = DBConnection.getConnection()) {
+            MigracionesBD.ejecutarScript(connection, "DELETE FROM Empleado WHERE id > 3");
+        }
+        EmpleadoDAO.getInstance().invalidarCache();
+    }
+
+    @Test
+    void streamAllEmpleadosPasaPorLaCacheDeSentenciasDelPool() throws SQLException {
+        PoolStats antes = DBConnection.getEstadisticas();
+
+        for (int i = 0; i < 2; i++) {
+            try (Stream<Empleado> empleados = EmpleadoDAO.getInstance().streamAllEmpleados()) {
+                assertEquals(List.of("Laura", "Carlos", "Marta"), empleados.map(Empleado::getNombre).toList());
+            }
+        }
+
+        PoolStats despues = DBConnection.getEstadisticas();
+        assertEquals(2, despues.getSentenciasEjecutadas() - antes.getSentenciasEjecutadas());
+        // La segunda lectura reutiliza la sentencia preparada con el mismo tipo de cursor.
+        assertEquals(1, despues.getAciertosCacheSentencias() - antes.getAciertosCacheSentencias());
+    }
+
+    @Test
+    void createEmpleadosAsignaLosIdGeneradosACadaEmpleado() throws SQLException {
+        List<Empleado> nuevos = List.of(
+                nuevo("45678901D", "Ana"), nuevo("56789012E", "Luis"), nuevo("67890123F", "Eva"));
+
+        ResultadoLote<Empleado> resultado = EmpleadoDAO.getInstance().createEmpleados(nuevos, 2);
+
+        assertEquals(3, resultado.getCorrectos());
+        for (Empleado empleado : nuevos) {
+            assertNotEquals(0, empleado.getId());
+            assertEquals(empleado.getDni(), dniGuardado(empleado.getId()));
+        }
+    }
+
+    @Test
+    void createEmpleadosInformaDeLaFilaQueFallaYGuardaElResto() throws SQLException {
+        Empleado repetido = nuevo("12345678A", "Repetido");
+        List<Empleado> nuevos = List.of(
+                nuevo("45678901D", "Ana"), nuevo("56789012E", "Luis"), repetido, nuevo("67890123F", "Eva"));
+
+        ResultadoLote<Empleado> resultado = EmpleadoDAO.getInstance().createEmpleados(nuevos);
+
+        assertEquals(3, resultado.getCorrectos());
+        assertEquals(1, resultado.getFallos().size());
+        ResultadoLote.Fallo<Empleado> fallo = resultado.getFallos().get(0);
+        assertEquals(2, fallo.getIndice());
+        assertSame(repetido, fallo.getElemento());
+        assertNotNull(fallo.getError());
+        assertEquals(0, repetido.getId());
+        for (Empleado empleado : List.of(nuevos.get(0), nuevos.get(1), nuevos.get(3))) {
+            assertEquals(empleado.getDni(), dniGuardado(empleado.getId()));
+        }
+    }
+
+    @Test
+    void createEmpleadoGuardaSinDepartamentoComoNulo() throws SQLException {
+        Empleado empleado = new Empleado(0, "45678901D", "Ana", "Ruiz", 30, new Departamento(0, "Sin Departamento", null));
+
+        EmpleadoDAO.getInstance().createEmpleado(empleado);
+
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT departamento FROM Empleado WHERE id = ?")) {
+            ps.setInt(1, empleado.getId());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                assertNull(rs.getObject(1));
+            }
+        }
+    }
+
+    private static Empleado nuevo(String dni, String nombre) {
+        return new Empleado(0, dni, nombre, "Ruiz", 30, null);
+    }
+
+    private static String dniGuardado(int id) throws SQLException {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT dni FROM Empleado WHERE id = ?")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+}
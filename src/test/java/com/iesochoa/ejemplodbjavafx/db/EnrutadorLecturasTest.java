@@ -0,0 +1,95 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Pruebas de la ventana de lectura propia de {@link EnrutadorLecturas}, con una primaria y una réplica H2 en memoria.
+ */
+class EnrutadorLecturasTest {
+    private ConnectionPool primaria;
+    private ConnectionPool replica;
+    private EnrutadorLecturas enrutador;
+
+    @BeforeEach
+    void crear() throws SQLException {
+        primaria = new ConnectionPool(new PoolConfig("jdbc:h2:mem:enrutadorPrimaria;DB_CLOSE_DELAY=-1", "sa", ""));
+        replica = new ConnectionPool(new PoolConfig("jdbc:h2:mem:enrutadorReplica;DB_CLOSE_DELAY=-1", "sa", ""));
+        try (Connection connection = primaria.getConnection()) {
+            MigracionesBD.ejecutarScript(connection, "CREATE TABLE IF NOT EXISTS Prueba (id INT)");
+        }
+        enrutador = new EnrutadorLecturas(primaria, List.of(replica), EnrutadorLecturas.Estrategia.TURNOS, 60_000, 60_000);
+    }
+
+    @AfterEach
+    void cerrar() {
+        enrutador.close();
+        replica.close();
+        primaria.close();
+    }
+
+    @Test
+    void lasConsultasEnLaPrimariaNoAbrenLaVentanaDeLecturaPropia() throws SQLException {
+        try (Connection connection = primaria.getConnection();
+             PreparedStatement ps = connection.prepareStatement("SELECT COUNT(*) FROM Prueba");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+        }
+
+        enrutador.getConnection().close();
+
+        assertEquals(1, enrutador.getLecturasReplica());
+        assertEquals(0, enrutador.getLecturasPrimaria());
+    }
+
+    @Test
+    void trasUnaEscrituraSeLeeDeLaPrimaria() throws SQLException {
+        try (Connection connection = primaria.getConnection();
+             PreparedStatement ps = connection.prepareStatement("INSERT INTO Prueba (id) VALUES (1)")) {
+            ps.executeUpdate();
+        }
+
+        enrutador.getConnection().close();
+
+        assertEquals(0, enrutador.getLecturasReplica());
+        assertEquals(1, enrutador.getLecturasPrimaria());
+    }
+
+    @Test
+    void lasEscriturasConCreateStatementTambienAbrenLaVentana() throws SQLException {
+        long antes = primaria.getEstadisticas().getSentenciasEjecutadas();
+        try (Connection connection = primaria.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM Prueba");
+        }
+
+        enrutador.getConnection().close();
+
+        assertEquals(1, primaria.getEstadisticas().getSentenciasEjecutadas() - antes);
+        assertEquals(1, enrutador.getLecturasPrimaria());
+    }
+
+    @Test
+    void lasEscriturasConColumnasGeneradasTambienAbrenLaVentana() throws SQLException {
+        try (Connection connection = primaria.getConnection();
+             PreparedStatement ps = connection.prepareStatement("INSERT INTO Prueba (id) VALUES (2)", new String[]{"id"})) {
+            ps.executeUpdate();
+            assertSame(connection, ps.getConnection());
+        }
+
+        enrutador.getConnection().close();
+
+        assertEquals(1, enrutador.getLecturasPrimaria());
+    }
+}
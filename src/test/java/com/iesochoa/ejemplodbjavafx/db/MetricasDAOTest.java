@@ -0,0 +1,32 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pruebas del recuento de filas de {@link MetricasDAO}.
+ */
+class MetricasDAOTest {
+
+    @Test
+    void cuentaLasFilasDeUnaColeccion() throws SQLException {
+        MetricasDAO.medir("MetricasDAOTest.lista", () -> List.of(1, 2, 3));
+        MetricasDAO.medir("MetricasDAOTest.lista", () -> List.of(4));
+
+        assertEquals(4, MetricasDAO.getMetricas("MetricasDAOTest.lista").getFilas());
+    }
+
+    @Test
+    void lasFilasDeUnStreamNoSeConocen() throws SQLException {
+        try (Stream<Integer> stream = MetricasDAO.medir("MetricasDAOTest.stream", () -> Stream.of(1, 2, 3))) {
+            assertEquals(3, stream.count());
+        }
+
+        assertEquals(-1, MetricasDAO.getMetricas("MetricasDAOTest.stream").getFilas());
+    }
+}
@@ -0,0 +1,103 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas de las migraciones y de la comprobación del esquema al crear el pool, con bases de datos H2 en memoria
+ * configuradas como un perfil más mediante propiedades del sistema.
+ */
+class MigracionesBDTest {
+    private static final String PERFIL = "pruebaEsquema";
+    /**
+     * Las tablas tal como las creaba la aplicación antes de existir las migraciones.
+     */
+    private static final String ESQUEMA_SIN_VERSION = """
+            CREATE TABLE Departamento (codigo INT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(100), jefe INT UNIQUE);
+            CREATE TABLE Empleado (id INT AUTO_INCREMENT PRIMARY KEY, dni VARCHAR(9) NOT NULL UNIQUE,
+                nombre VARCHAR(50), apellido VARCHAR(50), edad INT, departamento INT);
+            """;
+
+    @AfterEach
+    void cerrar() {
+        DBConnection.closeConnection();
+        System.clearProperty("db." + PERFIL + ".url");
+        System.clearProperty("db." + PERFIL + ".usuario");
+        System.clearProperty("db." + PERFIL + ".password");
+        System.clearProperty("db." + PERFIL + ".migrar");
+    }
+
+    @Test
+    void migraUnEsquemaQueYaTieneLasClavesForaneas() throws SQLException {
+        String url = "jdbc:h2:mem:esquemaConClaves;MODE=MySQL;DATABASE_TO_LOWER=FALSE";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            MigracionesBD.ejecutarScript(connection, ESQUEMA_SIN_VERSION + """
+                    ALTER TABLE Empleado ADD CONSTRAINT fk_empleado_departamento
+                        FOREIGN KEY (departamento) REFERENCES Departamento(codigo);
+                    ALTER TABLE Departamento ADD CONSTRAINT fk_departamento_empleado
+                        FOREIGN KEY (jefe) REFERENCES Empleado(id);
+                    """);
+
+            MigracionesBD.migrar(connection);
+
+            assertEquals(MigracionesBD.ultimaVersion(), MigracionesBD.versionActual(connection));
+        }
+    }
+
+    @Test
+    void noArrancaSiElEsquemaNoTieneLasColumnasVersion() throws SQLException {
+        // Sin DB_CLOSE_DELAY, que solo puede indicar un administrador: la base de datos vive mientras esté abierta esta conexión.
+        String url = "jdbc:h2:mem:esquemaSinVersion;MODE=MySQL;DATABASE_TO_LOWER=FALSE";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            MigracionesBD.ejecutarScript(connection, ESQUEMA_SIN_VERSION + """
+                    CREATE USER lector PASSWORD 'lector';
+                    GRANT SELECT ON Departamento, Empleado TO lector;
+                    """);
+            usarPerfil(url, "lector", "lector");
+
+            assertThrows(EsquemaIncompatibleException.class, () -> DBConnection.configurar(PERFIL));
+        }
+    }
+
+    @Test
+    void unPerfilSinMigrarNoModificaElEsquema() throws SQLException {
+        String url = "jdbc:h2:mem:esquemaSinMigrar;MODE=MySQL;DATABASE_TO_LOWER=FALSE";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            MigracionesBD.ejecutarScript(connection, ESQUEMA_SIN_VERSION);
+            // Con un usuario que sí puede modificar tablas.
+            usarPerfil(url, "sa", "");
+
+            assertThrows(EsquemaIncompatibleException.class, () -> DBConnection.configurar(PERFIL));
+
+            assertFalse(MigracionesBD.existeTabla(connection, "EsquemaVersion"));
+        }
+    }
+
+    @Test
+    void unPerfilConMigrarActualizaElEsquemaAlArrancar() throws SQLException {
+        String url = "jdbc:h2:mem:esquemaMigrado;MODE=MySQL;DATABASE_TO_LOWER=FALSE";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            MigracionesBD.ejecutarScript(connection, ESQUEMA_SIN_VERSION);
+            usarPerfil(url, "sa", "");
+            System.setProperty("db." + PERFIL + ".migrar", "true");
+
+            DBConnection.configurar(PERFIL);
+
+            assertEquals(MigracionesBD.ultimaVersion(), MigracionesBD.versionActual(connection));
+        }
+    }
+
+    private static void usarPerfil(String url, String usuario, String password) {
+        System.setProperty("db." + PERFIL + ".url", url);
+        System.setProperty("db." + PERFIL + ".usuario", usuario);
+        System.setProperty("db." + PERFIL + ".password", password);
+    }
+}
@@ -0,0 +1,29 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Comprueba que ninguna consulta frecuente de los DAO recorre la tabla Empleado entera
+ * con el esquema que crean las migraciones (ver {@link PlanesConsulta}).
+ */
+class PlanesConsultaTest {
+
+    @Test
+    void lasConsultasFrecuentesUsanUnIndice() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                "jdbc:h2:mem:planesConsultaTest;MODE=MySQL;DATABASE_TO_LOWER=FALSE", "sa", "")) {
+            MigracionesBD.migrar(connection);
+
+            List<String> problemas = PlanesConsulta.comprobar(connection);
+
+            assertEquals(List.of(), problemas);
+        }
+    }
+}
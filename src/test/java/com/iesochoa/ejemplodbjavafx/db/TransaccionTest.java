@@ -0,0 +1,167 @@
+package com.iesochoa.ejemplodbjavafx.db;
+
+import com.iesochoa.ejemplodbjavafx.model.Departamento;
+import com.iesochoa.ejemplodbjavafx.model.Empleado;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link Transaccion} con los DAO sobre una base de datos H2 en memoria.
+ */
+class TransaccionTest {
+    private static final String URL = "jdbc:h2:mem:transaccionTest;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=FALSE";
+
+    @BeforeAll
+    static void crearBaseDatos() throws SQLException {
+        DBConnection.configurar(new PoolConfig(URL, "sa", ""));
+        try (Connection connection = DBConnection.getConnection()) {
+            MigracionesBD.migrar(connection);
+            MigracionesBD.ejecutarScript(connection, """
+                    INSERT INTO Departamento (codigo, nombre) VALUES (1, 'Recursos Humanos');
+                    INSERT INTO Empleado (id, dni, nombre, apellido, edad, departamento) VALUES
+                        (1, '12345678A', 'Laura', 'Gómez', 40, 1);
+                    """);
+        }
+    }
+
+    @AfterAll
+    static void cerrarBaseDatos() {
+        DBConnection.closeConnection();
+    }
+
+    // Deja solo el empleado inicial y el departamento con su nombre original
+    @AfterEach
+    void restaurar() throws SQLException {
+        try (Connection connection = DBConnection.getConnection()) {
+            MigracionesBD.ejecutarScript(connection, """
+                    DELETE FROM Empleado WHERE id > 1;
+                    UPDATE Departamento SET nombre = 'Recursos Humanos' WHERE codigo = 1;
+                    """);
+        }
+        EmpleadoDAO.getInstance().invalidarCache();
+        DepartamentoDAO.getInstance().invalidarCache();
+    }
+
+    @Test
+    void confirmaTodasLasOperacionesJuntas() throws SQLException {
+        Departamento departamento = DepartamentoDAO.getInstance().getDepartamento(1);
+        int version = departamento.getVersion();
+        Empleado nuevo = nuevoEmpleado("45678901D");
+
+        Transaccion.ejecutar(() -> {
+            EmpleadoDAO.getInstance().createEmpleado(nuevo);
+            departamento.setNombre("Personas");
+            return DepartamentoDAO.getInstance().updateDepartamento(departamento);
+        });
+
+        assertFalse(Transaccion.activa());
+        assertNotEquals(0, nuevo.getId());
+        assertEquals(version + 1, departamento.getVersion());
+        assertNotNull(EmpleadoDAO.getInstance().selectEmpleadoPorDNI("45678901D"));
+        assertEquals("Personas", DepartamentoDAO.getInstance().getDepartamento(1).getNombre());
+    }
+
+    @Test
+    void deshaceTodoYRestauraIdsYVersionesSiLaOperacionFalla() throws SQLException {
+        Departamento departamento = DepartamentoDAO.getInstance().getDepartamento(1);
+        int version = departamento.getVersion();
+        Empleado nuevo = nuevoEmpleado("45678901D");
+
+        SQLException error = assertThrows(SQLException.class, () -> Transaccion.ejecutar(() -> {
+            EmpleadoDAO.getInstance().createEmpleado(nuevo);
+            departamento.setNombre("Personas");
+            DepartamentoDAO.getInstance().updateDepartamento(departamento);
+            throw new SQLException("Fallo a propósito");
+        }));
+
+        assertEquals("Fallo a propósito", error.getMessage());
+        assertEquals(0, nuevo.getId());
+        assertEquals(version, departamento.getVersion());
+        assertNull(EmpleadoDAO.getInstance().selectEmpleadoPorDNI("45678901D"));
+        assertEquals("Recursos Humanos", DepartamentoDAO.getInstance().getDepartamento(1).getNombre());
+    }
+
+    @Test
+    void unaTransaccionAnidadaSoloDeshaceSuPuntoDeGuardado() throws SQLException {
+        Empleado exterior = nuevoEmpleado("45678901D");
+        Empleado anidado = nuevoEmpleado("56789012E");
+        List<String> avisos = new ArrayList<>();
+
+        Transaccion.ejecutar(() -> {
+            EmpleadoDAO.getInstance().createEmpleado(exterior);
+            Transaccion.alConfirmar(() -> avisos.add("exterior"));
+            assertThrows(SQLException.class, () -> Transaccion.ejecutar(() -> {
+                EmpleadoDAO.getInstance().createEmpleado(anidado);
+                Transaccion.alConfirmar(() -> avisos.add("anidado"));
+                throw new SQLException("Fallo a propósito");
+            }));
+            // Los avisos esperan a la confirmación de la transacción exterior.
+            assertTrue(avisos.isEmpty());
+            return true;
+        });
+
+        assertEquals(List.of("exterior"), avisos);
+        assertNotEquals(0, exterior.getId());
+        assertEquals(0, anidado.getId());
+        assertNotNull(EmpleadoDAO.getInstance().selectEmpleadoPorDNI("45678901D"));
+        assertNull(EmpleadoDAO.getInstance().selectEmpleadoPorDNI("56789012E"));
+    }
+
+    @Test
+    void relanzaLaExcepcionDeLaOperacionAunqueSeHayaPerdidoLaConexion() throws SQLException {
+        SQLException error = assertThrows(SQLException.class, () -> Transaccion.ejecutar(() -> {
+            Connection connection = DBConnection.getConnection();
+            int sesion;
+            try (PreparedStatement ps = connection.prepareStatement("SELECT SESSION_ID()");
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                sesion = rs.getInt(1);
+            }
+            try (Connection admin = DriverManager.getConnection(URL, "sa", "");
+                 PreparedStatement ps = admin.prepareStatement("CALL ABORT_SESSION(?)")) {
+                ps.setInt(1, sesion);
+                ps.execute();
+            }
+            throw new SQLException("Fallo a propósito");
+        }));
+
+        assertEquals("Fallo a propósito", error.getMessage());
+        assertFalse(Transaccion.activa());
+        // La conexión rota no vuelve al pool.
+        try (Connection connection = DBConnection.getConnection()) {
+            assertTrue(connection.isValid(1));
+        }
+    }
+
+    @Test
+    void sinTransaccionLosAvisosSeEjecutanEnElMomento() {
+        Object[] aviso = {null};
+        Transaccion.alConfirmar(() -> aviso[0] = "hecho");
+        Transaccion.alDeshacer(() -> aviso[0] = "deshecho");
+
+        assertSame("hecho", aviso[0]);
+    }
+
+    private static Empleado nuevoEmpleado(String dni) {
+        return new Empleado(0, dni, "Ana", "Ruiz", 30, new Departamento(1, "Recursos Humanos", null));
+    }
+}
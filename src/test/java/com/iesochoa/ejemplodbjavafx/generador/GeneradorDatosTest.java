@@ -0,0 +1,124 @@
+package com.iesochoa.ejemplodbjavafx.generador;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.MigracionesBD;
+import com.iesochoa.ejemplodbjavafx.db.PoolConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas de {@link GeneradorDatos} sobre una base de datos H2 en memoria en modo MySQL.
+ */
+class GeneradorDatosTest {
+    /**
+     * Cada empleado con su departamento por nombre: los códigos cambian al vaciar y volver a generar.
+     */
+    private static final String SELECT_EMPLEADOS = """
+            SELECT e.id, e.dni, e.nombre, e.apellido, e.edad, d.nombre
+            FROM Empleado e LEFT JOIN Departamento d ON e.departamento = d.codigo
+            ORDER BY e.id""";
+
+    @BeforeAll
+    static void crearBaseDatos() throws SQLException {
+        DBConnection.configurar(new PoolConfig(
+                "jdbc:h2:mem:generadorDatosTest;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=FALSE", "sa", ""));
+        try (Connection connection = DBConnection.getConnection()) {
+            MigracionesBD.migrar(connection);
+        }
+    }
+
+    @AfterAll
+    static void cerrarBaseDatos() {
+        DBConnection.closeConnection();
+    }
+
+    @Test
+    void dniDeNumeroCalculaLaLetraDeControl() {
+        assertEquals("00000000T", GeneradorDatos.dniDeNumero(0));
+        assertEquals("12345678Z", GeneradorDatos.dniDeNumero(12_345_678));
+        assertEquals("99999999R", GeneradorDatos.dniDeNumero(99_999_999));
+    }
+
+    @Test
+    void indiceDeDniDevuelveLaPosicionDeCadaDniGenerado() {
+        GeneradorDatos generador = new GeneradorDatos(7, 1, 1_000);
+
+        for (long indice = 0; indice < 1_000; indice++) {
+            assertEquals(indice, generador.indiceDeDni(generador.dni(indice)));
+        }
+        assertEquals(-1, generador.indiceDeDni(generador.dni(1_000)));
+        assertEquals(-1, generador.indiceDeDni("12345678A"));
+    }
+
+    @Test
+    void laMismaSemillaGeneraLosMismosEmpleadosConOtrosHilosYLotes() throws SQLException {
+        GeneradorDatos primero = new GeneradorDatos(42, 5, 250);
+        primero.setVaciar(true);
+        primero.setHilos(1);
+        primero.setTamanoLote(7);
+        assertEquals(250, primero.generar());
+        List<String> empleados = empleados();
+
+        GeneradorDatos segundo = new GeneradorDatos(42, 5, 250);
+        segundo.setVaciar(true);
+        segundo.setHilos(4);
+        segundo.setTamanoLote(3);
+        assertEquals(250, segundo.generar());
+
+        assertEquals(empleados, empleados());
+        assertEquals(250, new HashSet<>(empleados.stream().map(e -> e.split(",")[1]).toList()).size());
+    }
+
+    @Test
+    void noInsertaNadaSiYaExisteAlgunoDeLosDni() throws SQLException {
+        GeneradorDatos generador = new GeneradorDatos(3, 2, 40);
+        generador.setVaciar(true);
+        generador.generar();
+        long departamentos = contar("SELECT COUNT(*) FROM Departamento");
+
+        generador.setVaciar(false);
+        assertThrows(SQLException.class, generador::generar);
+
+        assertEquals(40, contar("SELECT COUNT(*) FROM Empleado"));
+        assertEquals(departamentos, contar("SELECT COUNT(*) FROM Departamento"));
+    }
+
+    // Los empleados como "id,dni,nombre,apellido,edad,departamento", con el id relativo al primero
+    private static List<String> empleados() throws SQLException {
+        List<String> empleados = new ArrayList<>();
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement(SELECT_EMPLEADOS);
+             ResultSet rs = ps.executeQuery()) {
+            int primerId = -1;
+            while (rs.next()) {
+                if (primerId < 0) {
+                    primerId = rs.getInt(1);
+                }
+                empleados.add((rs.getInt(1) - primerId) + "," + rs.getString(2) + "," + rs.getString(3) + ","
+                        + rs.getString(4) + "," + rs.getInt(5) + "," + rs.getString(6));
+            }
+        }
+        return empleados;
+    }
+
+    private static long contar(String sql) throws SQLException {
+        try (Connection connection = DBConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
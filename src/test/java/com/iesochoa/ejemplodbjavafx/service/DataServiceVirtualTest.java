@@ -0,0 +1,138 @@
+package com.iesochoa.ejemplodbjavafx.service;
+
+import com.iesochoa.ejemplodbjavafx.db.DBConnection;
+import com.iesochoa.ejemplodbjavafx.db.PoolConfig;
+import com.iesochoa.ejemplodbjavafx.db.SqlCallable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de {@link DataServiceVirtual}. Las operaciones no consultan la base de datos, pero el servicio
+ * toma del pool el número de operaciones que deja ejecutar a la vez.
+ */
+class DataServiceVirtualTest {
+
+    @BeforeAll
+    static void crearPool() {
+        DBConnection.configurar(new PoolConfig(
+                "jdbc:h2:mem:dataServiceVirtualTest;DB_CLOSE_DELAY=-1;MODE=MySQL;DATABASE_TO_LOWER=FALSE", "sa", ""));
+    }
+
+    @AfterAll
+    static void cerrarPool() {
+        DBConnection.closeConnection();
+    }
+
+    @Test
+    void ejecutaLasOperacionesAlaVezEnHilosVirtuales() throws SQLException {
+        int operaciones = maximoALaVez();
+        // Cada operación espera a que hayan empezado todas: solo terminan si se ejecutan a la vez.
+        CountDownLatch empezadas = new CountDownLatch(operaciones);
+        List<SqlCallable<Boolean>> lista = new ArrayList<>();
+        for (int i = 0; i < operaciones; i++) {
+            lista.add(() -> {
+                empezadas.countDown();
+                return esperar(empezadas) && Thread.currentThread().isVirtual();
+            });
+        }
+
+        List<Boolean> resultados = DataServiceVirtual.getInstance().ejecutarTodas(lista);
+
+        assertEquals(operaciones, resultados.size());
+        assertTrue(resultados.stream().allMatch(Boolean::booleanValue));
+    }
+
+    @Test
+    void noEjecutaAlaVezMasOperacionesQueConexionesTieneElPool() throws SQLException {
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        List<SqlCallable<Integer>> lista = new ArrayList<>();
+        for (int i = 0; i < 3 * maximoALaVez(); i++) {
+            lista.add(() -> {
+                maximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                dormir(20);
+                return enCurso.decrementAndGet();
+            });
+        }
+
+        DataServiceVirtual.getInstance().ejecutarTodas(lista);
+
+        assertTrue(maximo.get() > 1, "Las operaciones no se han ejecutado a la vez");
+        assertTrue(maximo.get() <= maximoALaVez(), "A la vez: " + maximo.get());
+    }
+
+    @Test
+    void devuelveLosResultadosEnElOrdenDeLasOperaciones() throws SQLException {
+        List<SqlCallable<Integer>> lista = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int numero = i;
+            // Las últimas terminan antes.
+            lista.add(() -> {
+                dormir((5 - numero) * 20L);
+                return numero;
+            });
+        }
+
+        assertEquals(List.of(0, 1, 2, 3, 4), DataServiceVirtual.getInstance().ejecutarTodas(lista));
+    }
+
+    @Test
+    void siUnaOperacionFallaInterrumpeLasQueSiguenEnCurso() throws InterruptedException {
+        CountDownLatch interrumpidas = new CountDownLatch(2);
+        SqlCallable<Integer> lenta = () -> {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                return 0;
+            } catch (InterruptedException e) {
+                interrumpidas.countDown();
+                throw new SQLException("Cancelada", e);
+            }
+        };
+        SqlCallable<Integer> fallida = () -> {
+            dormir(50);
+            throw new SQLException("Fallo a propósito");
+        };
+
+        long inicio = System.nanoTime();
+        SQLException error = assertThrows(SQLException.class,
+                () -> DataServiceVirtual.getInstance().ejecutarTodas(List.of(lenta, fallida, lenta)));
+
+        assertEquals("Fallo a propósito", error.getMessage());
+        assertTrue(interrumpidas.await(5, TimeUnit.SECONDS), "No se han interrumpido las operaciones en curso");
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(10));
+    }
+
+    private static int maximoALaVez() {
+        return DBConnection.getPool().getConfig().getTamanoMaximo();
+    }
+
+    private static boolean esperar(CountDownLatch latch) throws SQLException {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpida", e);
+        }
+    }
+
+    private static void dormir(long ms) throws SQLException {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpida", e);
+        }
+    }
+}